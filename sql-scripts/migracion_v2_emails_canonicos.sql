@@ -0,0 +1,23 @@
+-- ================================================
+-- PROYECTO CRUD CON TDD - ROBERTO RIVAS LOPEZ
+-- Migración v2: emails en forma canónica
+-- ================================================
+
+-- NOTA: Ejecutar UNA sola vez sobre bases creadas antes de la v2, después de
+-- desplegar la versión que guarda los emails sin espacios y en minúsculas.
+-- Las búsquedas por email comparan por igualdad exacta con la forma canónica
+-- (email = ?) para usar el índice UNIQUE; las filas antiguas se normalizan aquí.
+-- Si dos filas quedan con el mismo email, el UPDATE falla por la clave UNIQUE
+-- y no modifica nada: resolver esos duplicados a mano y volver a ejecutar.
+USE crud_estudiantes_tdd;
+
+-- Comparación binaria: con utf8mb4_unicode_ci, email <> LOWER(email) no
+-- distingue mayúsculas ni los espacios finales
+UPDATE estudiantes
+SET email = LOWER(TRIM(email))
+WHERE email COLLATE utf8mb4_bin <> LOWER(TRIM(email));
+
+-- Verificación: debe devolver 0
+SELECT COUNT(*) AS emails_no_canonicos
+FROM estudiantes
+WHERE email COLLATE utf8mb4_bin <> LOWER(TRIM(email));
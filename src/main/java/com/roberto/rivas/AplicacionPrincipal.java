@@ -90,8 +90,9 @@ public class AplicacionPrincipal {
     private static void inicializarBaseDatos() {
         System.out.println("\n🔧 INICIALIZANDO BASE DE DATOS...");
         
+        // Repositorio solo para crear las tablas: su pool se cierra al terminar
+        EstudianteRepositorioBD repositorioBD = new EstudianteRepositorioBD();
         try {
-            EstudianteRepositorioBD repositorioBD = new EstudianteRepositorioBD();
             repositorioBD.inicializarBaseDatos();
             System.out.println("✅ Base de datos inicializada correctamente");
             
@@ -102,6 +103,8 @@ public class AplicacionPrincipal {
             
             // Fallback a memoria si falla la BD
             System.out.println("⚠️ Continuando con repositorio en memoria");
+        } finally {
+            repositorioBD.cerrar();
         }
     }
     
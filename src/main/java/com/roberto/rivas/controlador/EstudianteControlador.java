@@ -1,13 +1,18 @@
 package com.roberto.rivas.controlador;
 
+import com.roberto.rivas.repositorio.ConfiguracionRepositorioMemoria;
 import com.roberto.rivas.repositorio.IEstudianteRepositorio;
 import com.roberto.rivas.repositorio.EstudianteRepositorioMemoria;
 import com.roberto.rivas.repositorio.EstudianteRepositorioBD;
+import com.roberto.rivas.repositorio.RepositorioException;
+import com.roberto.rivas.repositorio.persistencia.ConfiguracionPoolConexiones;
 import com.roberto.rivas.servicio.IEstudianteServicio;
 import com.roberto.rivas.servicio.EstudianteServicioImpl;
 import com.roberto.rivas.servicio.dto.EstudianteDTO;
 import com.roberto.rivas.servicio.excepcion.ServicioException;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -22,6 +27,9 @@ import java.util.Scanner;
  */
 public class EstudianteControlador {
 
+    private static final String ARCHIVO_CONFIGURACION = "application.properties";
+
+    private final IEstudianteRepositorio repositorio;
     private final IEstudianteServicio estudianteServicio;
     private final Scanner scanner;
     private boolean sistemaActivo;
@@ -32,9 +40,9 @@ public class EstudianteControlador {
      */
     public EstudianteControlador(boolean usarBaseDatos) {
         // Patrón Factory para crear repositorio según configuración
-        IEstudianteRepositorio repositorio = usarBaseDatos ? 
-            new EstudianteRepositorioBD() : 
-            new EstudianteRepositorioMemoria();
+        this.repositorio = usarBaseDatos ? 
+            crearRepositorioBD() : 
+            crearRepositorioMemoria();
             
         this.estudianteServicio = new EstudianteServicioImpl(repositorio);
         this.scanner = new Scanner(System.in);
@@ -45,6 +53,44 @@ public class EstudianteControlador {
         System.out.println("👨‍💻 Desarrollado por: Roberto Rivas López");
     }
 
+    /**
+     * Repositorio en memoria según application.properties (capacidad inicial,
+     * modo acotado y modo duradero); ante una configuración inválida se usan los
+     * valores por defecto
+     */
+    private static IEstudianteRepositorio crearRepositorioMemoria() {
+        try {
+            return EstudianteRepositorioMemoria.conConfiguracion(
+                ConfiguracionRepositorioMemoria.cargar(Paths.get(ARCHIVO_CONFIGURACION)));
+        } catch (IOException | RepositorioException | IllegalArgumentException e) {
+            System.out.println("⚠️ Configuración de memoria no válida, se usan valores por defecto: " + e.getMessage());
+            return new EstudianteRepositorioMemoria();
+        }
+    }
+
+    /**
+     * Repositorio de base de datos con el pool configurado en database.pool.*;
+     * ante una configuración inválida se usan los valores por defecto del pool.
+     * El pool se precalienta al arrancar; si la base de datos no responde se
+     * avisa y las conexiones se abren bajo demanda
+     */
+    private static IEstudianteRepositorio crearRepositorioBD() {
+        EstudianteRepositorioBD repositorioBD;
+        try {
+            repositorioBD = new EstudianteRepositorioBD(
+                ConfiguracionPoolConexiones.cargar(Paths.get(ARCHIVO_CONFIGURACION)));
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("⚠️ Configuración del pool no válida, se usan valores por defecto: " + e.getMessage());
+            repositorioBD = new EstudianteRepositorioBD();
+        }
+        try {
+            repositorioBD.precalentarPool();
+        } catch (RepositorioException e) {
+            System.out.println("⚠️ " + e.getMessage());
+        }
+        return repositorioBD;
+    }
+
     /**
      * Método principal que ejecuta el menú interactivo
      */
@@ -459,6 +505,20 @@ public class EstudianteControlador {
         System.out.println("👨‍💻 Desarrollado por: Roberto Rivas López");
         System.out.println("=".repeat(50));
         
+        cerrarRepositorio();
         scanner.close();
     }
+
+    // Libera el registro de escritura y el desborde en memoria, o el pool de conexiones en BD
+    private void cerrarRepositorio() {
+        if (repositorio instanceof EstudianteRepositorioMemoria memoria) {
+            try {
+                memoria.cerrar();
+            } catch (RepositorioException e) {
+                System.out.println("⚠️ No se pudo cerrar el repositorio: " + e.getMessage());
+            }
+        } else if (repositorio instanceof EstudianteRepositorioBD baseDatos) {
+            baseDatos.cerrar();
+        }
+    }
 }
\ No newline at end of file
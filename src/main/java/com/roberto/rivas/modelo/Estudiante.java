@@ -40,6 +40,18 @@ public class Estudiante {
         this(null, nombre, apellido, email, carrera);
     }
 
+    // Constructor con todos los campos (copias y subclases, sin validaciones ni fecha actual)
+    protected Estudiante(Long id, String nombre, String apellido, String email, String carrera,
+                         LocalDate fechaIngreso, boolean activo) {
+        this.id = id;
+        this.nombre = nombre;
+        this.apellido = apellido;
+        this.email = email;
+        this.carrera = carrera;
+        this.fechaIngreso = fechaIngreso;
+        this.activo = activo;
+    }
+
     // Getters y Setters con validaciones (Principio de Encapsulación)
     public Long getId() {
         return id;
@@ -128,6 +140,11 @@ public class Estudiante {
         this.activo = false;
     }
 
+    // Copia modificable e independiente (útil sobre instantáneas inmutables)
+    public Estudiante copiar() {
+        return new Estudiante(id, nombre, apellido, email, carrera, fechaIngreso, activo);
+    }
+
     // Validación privada (Principio de Encapsulación)
     private boolean esEmailValido(String email) {
         if (email == null || email.trim().isEmpty()) {
@@ -179,7 +196,7 @@ public class Estudiante {
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
-        if (obj == null || getClass() != obj.getClass()) return false;
+        if (!(obj instanceof Estudiante)) return false;
         Estudiante that = (Estudiante) obj;
         return Objects.equals(id, that.id) && 
                Objects.equals(email, that.email);
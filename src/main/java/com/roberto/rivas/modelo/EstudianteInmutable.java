@@ -0,0 +1,90 @@
+package com.roberto.rivas.modelo;
+
+import java.time.LocalDate;
+
+/**
+ * Instantánea inmutable de un Estudiante
+ * Puede compartirse entre lectores sin copias defensivas
+ * Los cambios se expresan creando una nueva instantánea
+ * 
+ * @author Roberto Rivas Lopez
+ */
+public final class EstudianteInmutable extends Estudiante {
+
+    private static final String MENSAJE_INMUTABLE = 
+            "La instantánea del estudiante es inmutable; use copiar() para modificarla";
+
+    public EstudianteInmutable(Long id, String nombre, String apellido, String email, String carrera,
+                               LocalDate fechaIngreso, boolean activo) {
+        super(id, nombre, apellido, email, carrera, fechaIngreso, activo);
+    }
+
+    // Crear instantánea desde cualquier estudiante (reutiliza si ya es inmutable)
+    public static EstudianteInmutable de(Estudiante original) {
+        if (original instanceof EstudianteInmutable inmutable) {
+            return inmutable;
+        }
+        return conId(original, original.getId());
+    }
+
+    // Crear instantánea con un ID distinto (asignación en la creación)
+    public static EstudianteInmutable conId(Estudiante original, Long id) {
+        return new EstudianteInmutable(id, original.getNombre(), original.getApellido(),
+                                       original.getEmail(), original.getCarrera(),
+                                       original.getFechaIngreso(), original.isActivo());
+    }
+
+    // Nueva instantánea con otro estado de actividad
+    public EstudianteInmutable conActivo(boolean activo) {
+        if (activo == isActivo()) {
+            return this;
+        }
+        return new EstudianteInmutable(getId(), getNombre(), getApellido(), getEmail(),
+                                       getCarrera(), getFechaIngreso(), activo);
+    }
+
+    @Override
+    public void setId(Long id) {
+        throw new UnsupportedOperationException(MENSAJE_INMUTABLE);
+    }
+
+    @Override
+    public void setNombre(String nombre) {
+        throw new UnsupportedOperationException(MENSAJE_INMUTABLE);
+    }
+
+    @Override
+    public void setApellido(String apellido) {
+        throw new UnsupportedOperationException(MENSAJE_INMUTABLE);
+    }
+
+    @Override
+    public void setEmail(String email) {
+        throw new UnsupportedOperationException(MENSAJE_INMUTABLE);
+    }
+
+    @Override
+    public void setCarrera(String carrera) {
+        throw new UnsupportedOperationException(MENSAJE_INMUTABLE);
+    }
+
+    @Override
+    public void setFechaIngreso(LocalDate fechaIngreso) {
+        throw new UnsupportedOperationException(MENSAJE_INMUTABLE);
+    }
+
+    @Override
+    public void setActivo(boolean activo) {
+        throw new UnsupportedOperationException(MENSAJE_INMUTABLE);
+    }
+
+    @Override
+    public void activar() {
+        throw new UnsupportedOperationException(MENSAJE_INMUTABLE);
+    }
+
+    @Override
+    public void desactivar() {
+        throw new UnsupportedOperationException(MENSAJE_INMUTABLE);
+    }
+}
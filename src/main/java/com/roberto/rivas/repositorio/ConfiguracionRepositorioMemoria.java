@@ -0,0 +1,216 @@
+package com.roberto.rivas.repositorio;
+
+import com.roberto.rivas.repositorio.persistencia.PoliticaSincronizacion;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Configuración del repositorio en memoria leída de application.properties
+ *
+ * Con presupuesto de memoria (modo acotado) las filas menos usadas salen del
+ * heap a un archivo de desborde local; sin presupuesto el repositorio crece
+ * sin límite, como siempre
+ *
+ * Con archivo de registro (modo duradero) cada escritura se agrega al registro
+ * de escritura anticipada y el repositorio se reconstruye de él al arrancar
+ *
+ * Con nivel frío, una tarea periódica archiva comprimidos a los inactivos sin
+ * cambios durante la antigüedad mínima
+ *
+ * @author Roberto Rivas Lopez
+ */
+public final class ConfiguracionRepositorioMemoria {
+
+    public static final String PROPIEDAD_CAPACIDAD_INICIAL = "repository.memory.initial.capacity";
+    public static final String PROPIEDAD_ACOTADO = "repository.memory.bounded.enabled";
+    public static final String PROPIEDAD_PRESUPUESTO_MB = "repository.memory.bounded.budget.mb";
+    public static final String PROPIEDAD_ARCHIVO_DESBORDE = "repository.memory.bounded.spill.file";
+    public static final String PROPIEDAD_DURADERO = "repository.memory.wal.enabled";
+    public static final String PROPIEDAD_ARCHIVO_REGISTRO = "repository.memory.wal.file";
+    public static final String PROPIEDAD_POLITICA_SINCRONIZACION = "repository.memory.wal.fsync.policy";
+    public static final String PROPIEDAD_ESPERA_SINCRONIZACION_MS = "repository.memory.wal.fsync.wait.ms";
+    public static final String PROPIEDAD_NIVEL_FRIO = "repository.memory.cold.enabled";
+    public static final String PROPIEDAD_DIAS_INACTIVO_FRIO = "repository.memory.cold.min.inactive.days";
+    public static final String PROPIEDAD_INTERVALO_ARCHIVO_MIN = "repository.memory.cold.archive.interval.minutes";
+
+    private static final int CAPACIDAD_POR_DEFECTO = 16;
+    private static final long BYTES_POR_MB = 1024L * 1024L;
+    private static final String ARCHIVO_REGISTRO_POR_DEFECTO = "data/estudiantes.wal";
+    private static final long ESPERA_SINCRONIZACION_POR_DEFECTO_MS = 1L;
+    private static final long DIAS_INACTIVO_FRIO_POR_DEFECTO = 30L;
+    private static final long INTERVALO_ARCHIVO_POR_DEFECTO_MIN = 60L;
+
+    private final int capacidadInicial;
+    private final long presupuestoBytes;
+    private final Path archivoDesborde;
+    private final Path archivoRegistro;
+    private final PoliticaSincronizacion politicaSincronizacion;
+    private final Duration esperaSincronizacion;
+    private final Duration edadMinimaFrio;
+    private final Duration intervaloArchivo;
+
+    /**
+     * @param capacidadInicial Capacidad inicial del almacén y del índice de email
+     * @param presupuestoBytes Bytes de estudiantes residentes en el heap (0: sin límite)
+     * @param archivoDesborde Archivo de desborde (null: archivo temporal)
+     */
+    public ConfiguracionRepositorioMemoria(int capacidadInicial, long presupuestoBytes, Path archivoDesborde) {
+        this(capacidadInicial, presupuestoBytes, archivoDesborde, null, PoliticaSincronizacion.POR_LOTES,
+             Duration.ofMillis(ESPERA_SINCRONIZACION_POR_DEFECTO_MS), null,
+             Duration.ofMinutes(INTERVALO_ARCHIVO_POR_DEFECTO_MIN));
+    }
+
+    private ConfiguracionRepositorioMemoria(int capacidadInicial, long presupuestoBytes, Path archivoDesborde,
+                                            Path archivoRegistro, PoliticaSincronizacion politicaSincronizacion,
+                                            Duration esperaSincronizacion, Duration edadMinimaFrio,
+                                            Duration intervaloArchivo) {
+        if (capacidadInicial < 1) {
+            throw new IllegalArgumentException("La capacidad inicial debe ser positiva");
+        }
+        if (presupuestoBytes < 0) {
+            throw new IllegalArgumentException("El presupuesto de memoria no puede ser negativo");
+        }
+        if (politicaSincronizacion == null || esperaSincronizacion == null || esperaSincronizacion.isNegative()) {
+            throw new IllegalArgumentException("La política y la espera de sincronización son obligatorias");
+        }
+        if (edadMinimaFrio != null && edadMinimaFrio.isNegative()) {
+            throw new IllegalArgumentException("La antigüedad mínima del nivel frío no puede ser negativa");
+        }
+        if (intervaloArchivo == null || intervaloArchivo.isNegative() || intervaloArchivo.isZero()) {
+            throw new IllegalArgumentException("El intervalo de archivo debe ser positivo");
+        }
+        this.capacidadInicial = capacidadInicial;
+        this.presupuestoBytes = presupuestoBytes;
+        this.archivoDesborde = archivoDesborde;
+        this.archivoRegistro = archivoRegistro;
+        this.politicaSincronizacion = politicaSincronizacion;
+        this.esperaSincronizacion = esperaSincronizacion;
+        this.edadMinimaFrio = edadMinimaFrio;
+        this.intervaloArchivo = intervaloArchivo;
+    }
+
+    public static ConfiguracionRepositorioMemoria porDefecto() {
+        return new ConfiguracionRepositorioMemoria(CAPACIDAD_POR_DEFECTO, 0L, null);
+    }
+
+    /**
+     * Construye la configuración a partir de propiedades; las ausentes toman su valor por defecto
+     * @throws IllegalArgumentException si algún valor no es un número válido
+     */
+    public static ConfiguracionRepositorioMemoria desdePropiedades(Properties propiedades) {
+        int capacidad = Integer.parseInt(propiedades.getProperty(
+            PROPIEDAD_CAPACIDAD_INICIAL, String.valueOf(CAPACIDAD_POR_DEFECTO)).trim());
+        long presupuesto = 0L;
+        if (Boolean.parseBoolean(propiedades.getProperty(PROPIEDAD_ACOTADO, "false").trim())) {
+            presupuesto = Long.parseLong(propiedades.getProperty(PROPIEDAD_PRESUPUESTO_MB, "0").trim()) * BYTES_POR_MB;
+        }
+        String archivo = propiedades.getProperty(PROPIEDAD_ARCHIVO_DESBORDE);
+        Path desborde = archivo != null && !archivo.isBlank() ? Paths.get(archivo.trim()) : null;
+        ConfiguracionRepositorioMemoria configuracion = new ConfiguracionRepositorioMemoria(capacidad, presupuesto, desborde);
+
+        if (Boolean.parseBoolean(propiedades.getProperty(PROPIEDAD_DURADERO, "false").trim())) {
+            String registro = propiedades.getProperty(PROPIEDAD_ARCHIVO_REGISTRO, ARCHIVO_REGISTRO_POR_DEFECTO);
+            configuracion = configuracion.conRegistroEscritura(
+                Paths.get(registro.isBlank() ? ARCHIVO_REGISTRO_POR_DEFECTO : registro.trim()),
+                PoliticaSincronizacion.valueOf(propiedades.getProperty(PROPIEDAD_POLITICA_SINCRONIZACION,
+                    PoliticaSincronizacion.POR_LOTES.name()).trim().toUpperCase(Locale.ROOT)),
+                Duration.ofMillis(Long.parseLong(propiedades.getProperty(PROPIEDAD_ESPERA_SINCRONIZACION_MS,
+                    String.valueOf(ESPERA_SINCRONIZACION_POR_DEFECTO_MS)).trim())));
+        }
+        if (Boolean.parseBoolean(propiedades.getProperty(PROPIEDAD_NIVEL_FRIO, "false").trim())) {
+            configuracion = configuracion.conNivelFrio(
+                Duration.ofDays(Long.parseLong(propiedades.getProperty(PROPIEDAD_DIAS_INACTIVO_FRIO,
+                    String.valueOf(DIAS_INACTIVO_FRIO_POR_DEFECTO)).trim())),
+                Duration.ofMinutes(Long.parseLong(propiedades.getProperty(PROPIEDAD_INTERVALO_ARCHIVO_MIN,
+                    String.valueOf(INTERVALO_ARCHIVO_POR_DEFECTO_MIN)).trim())));
+        }
+        return configuracion;
+    }
+
+    /**
+     * @param archivo Archivo del registro de escritura anticipada (null: sin modo duradero)
+     * @param politica Política de fsync del registro
+     * @param espera Ventana de agrupación (POR_LOTES) o intervalo de fsync (INTERVALO)
+     * @return Copia de esta configuración con el modo duradero indicado
+     */
+    public ConfiguracionRepositorioMemoria conRegistroEscritura(Path archivo, PoliticaSincronizacion politica,
+                                                                Duration espera) {
+        return new ConfiguracionRepositorioMemoria(capacidadInicial, presupuestoBytes, archivoDesborde,
+                                                   archivo, politica, espera, edadMinimaFrio, intervaloArchivo);
+    }
+
+    /**
+     * @param edadMinima Antigüedad mínima como inactivo para archivar (null: sin nivel frío)
+     * @param intervalo Cada cuánto se ejecuta el archivo de inactivos
+     * @return Copia de esta configuración con el nivel frío indicado
+     */
+    public ConfiguracionRepositorioMemoria conNivelFrio(Duration edadMinima, Duration intervalo) {
+        return new ConfiguracionRepositorioMemoria(capacidadInicial, presupuestoBytes, archivoDesborde,
+                                                   archivoRegistro, politicaSincronizacion, esperaSincronizacion,
+                                                   edadMinima, intervalo);
+    }
+
+    /**
+     * Lee el archivo de propiedades indicado; si no existe se usa la configuración por defecto
+     */
+    public static ConfiguracionRepositorioMemoria cargar(Path archivo) throws IOException {
+        if (archivo == null || !Files.exists(archivo)) {
+            return porDefecto();
+        }
+        Properties propiedades = new Properties();
+        try (InputStream entrada = Files.newInputStream(archivo)) {
+            propiedades.load(entrada);
+        }
+        return desdePropiedades(propiedades);
+    }
+
+    public int getCapacidadInicial() {
+        return capacidadInicial;
+    }
+
+    public long getPresupuestoBytes() {
+        return presupuestoBytes;
+    }
+
+    public Path getArchivoDesborde() {
+        return archivoDesborde;
+    }
+
+    public boolean isAcotado() {
+        return presupuestoBytes > 0;
+    }
+
+    public Path getArchivoRegistro() {
+        return archivoRegistro;
+    }
+
+    public PoliticaSincronizacion getPoliticaSincronizacion() {
+        return politicaSincronizacion;
+    }
+
+    public Duration getEsperaSincronizacion() {
+        return esperaSincronizacion;
+    }
+
+    public boolean isDuradero() {
+        return archivoRegistro != null;
+    }
+
+    public Duration getEdadMinimaFrio() {
+        return edadMinimaFrio;
+    }
+
+    public Duration getIntervaloArchivo() {
+        return intervaloArchivo;
+    }
+
+    public boolean isNivelFrio() {
+        return edadMinimaFrio != null;
+    }
+}
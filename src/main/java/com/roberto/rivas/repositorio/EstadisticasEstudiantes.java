@@ -0,0 +1,51 @@
+package com.roberto.rivas.repositorio;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Vista tipada e inmutable de las estadísticas de Estudiantes
+ * Permite construir estadísticas sin materializar estudiantes
+ * 
+ * @author Roberto Rivas Lopez
+ */
+public final class EstadisticasEstudiantes {
+
+    private final long totalEstudiantes;
+    private final long estudiantesActivos;
+    private final long estudiantesInactivos;
+    private final Map<String, Long> activosPorCarrera;
+
+    public EstadisticasEstudiantes(long totalEstudiantes, long estudiantesActivos,
+                                   long estudiantesInactivos, Map<String, Long> activosPorCarrera) {
+        this.totalEstudiantes = totalEstudiantes;
+        this.estudiantesActivos = estudiantesActivos;
+        this.estudiantesInactivos = estudiantesInactivos;
+        this.activosPorCarrera = activosPorCarrera != null
+                ? Collections.unmodifiableMap(new HashMap<>(activosPorCarrera))
+                : Collections.emptyMap();
+    }
+
+    public long getTotalEstudiantes() {
+        return totalEstudiantes;
+    }
+
+    public long getEstudiantesActivos() {
+        return estudiantesActivos;
+    }
+
+    public long getEstudiantesInactivos() {
+        return estudiantesInactivos;
+    }
+
+    public Map<String, Long> getActivosPorCarrera() {
+        return activosPorCarrera;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EstadisticasEstudiantes{total=%d, activos=%d, inactivos=%d, carreras=%d}",
+                totalEstudiantes, estudiantesActivos, estudiantesInactivos, activosPorCarrera.size());
+    }
+}
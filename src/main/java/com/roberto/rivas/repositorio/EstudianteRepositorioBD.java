@@ -1,63 +1,153 @@
 package com.roberto.rivas.repositorio;
 
 import com.roberto.rivas.modelo.Estudiante;
+import com.roberto.rivas.repositorio.persistencia.ConfiguracionPoolConexiones;
+import com.roberto.rivas.repositorio.persistencia.EstadisticasPoolConexiones;
+import com.roberto.rivas.repositorio.persistencia.PoolConexiones;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Implementación con base de datos del repositorio de Estudiantes
  * Aplica principios SOLID y manejo de recursos
  * Compatible con SQLonline y MySQL
  * 
+ * Las conexiones salen de un pool propio (PoolConexiones): cada operación
+ * toma una conexión ya autenticada y al cerrarla la devuelve, en lugar de
+ * abrir una conexión nueva contra el servidor en cada llamada
+ * 
+ * Las operaciones de varios pasos (crear, actualizar) y las unidades de trabajo
+ * del servicio corren en una sola conexión y transacción: la conexión en curso
+ * se guarda por hilo y las llamadas anidadas la reutilizan
+ * 
+ * crearLote agrupa las verificaciones de email en consultas por bloques y las
+ * inserciones en lotes JDBC, en lugar de tres viajes por estudiante
+ * 
+ * Los listados en flujo leen el ResultSet a medida que se consumen, pidiendo
+ * al servidor bloques de database.query.fetch.size filas; la conexión queda
+ * prestada al flujo hasta que se agota o se cierra. Connector/J solo respeta
+ * el fetch size con useCursorFetch=true, que se agrega a las URL de MySQL
+ * que no lo indican
+ * 
+ * El email se guarda en forma canónica (sin espacios y en minúsculas) y se
+ * busca por igualdad exacta, de modo que la consulta usa el índice UNIQUE en
+ * lugar de recorrer la tabla con LOWER(email). Las filas escritas antes de
+ * este cambio se normalizan una vez con sql-scripts/migracion_v2_emails_canonicos.sql
+ * (o con migrarEmailsCanonicos desde una tarea de administración)
+ * 
  * @author Roberto Rivas Lopez
  */
-public class EstudianteRepositorioBD implements IEstudianteRepositorio {
-
-    private final String url;
-    private final String usuario;
-    private final String contrasena;
+public class EstudianteRepositorioBD implements IEstudianteRepositorio, IEstadisticasRepositorio, IUnidadDeTrabajo {
+
+    // Código SQLSTATE de clase 23: violación de restricción de integridad (UNIQUE en email)
+    private static final String CLASE_VIOLACION_INTEGRIDAD = "23";
+    // Filas por consulta de emails existentes y por executeBatch en crearLote
+    private static final int TAMANO_BLOQUE_LOTE = 500;
+    private static final String SQL_ACTIVOS = "SELECT * FROM estudiantes WHERE activo = true ORDER BY apellido, nombre";
+    private static final String SQL_ACTIVOS_POR_CARRERA = 
+        "SELECT * FROM estudiantes WHERE LOWER(carrera) = LOWER(?) AND activo = true ORDER BY apellido, nombre";
+    // Paginación por clave: la condición de "después de (apellido, nombre, id)" va
+    // desplegada y precedida de apellido >= ?, redundante pero indexable, para que
+    // el planificador la resuelva como rango sobre idx_nombre_apellido
+    // (InnoDB guarda el id al final de cada entrada del índice secundario)
+    private static final String SQL_PAGINA = "SELECT * FROM estudiantes WHERE activo = true";
+    private static final String SQL_FILTRO_CARRERA = " AND LOWER(carrera) = LOWER(?)";
+    private static final String SQL_DESPUES_DE_CLAVE = 
+        " AND apellido >= ? AND (apellido > ? OR (apellido = ? AND (nombre > ? OR (nombre = ? AND id > ?))))";
+    private static final String SQL_ORDEN_PAGINA = " ORDER BY apellido, nombre, id LIMIT ?";
+    private static final String SQL_INSERTAR = """
+        INSERT INTO estudiantes (nombre, apellido, email, carrera, fecha_ingreso, activo)
+        VALUES (?, ?, ?, ?, ?, ?)
+        """;
+    // IN de tamaño fijo (se rellena repitiendo un email) para que el texto sea siempre
+    // el mismo y la sentencia preparada se reutilice desde la caché del pool
+    private static final String SQL_EMAILS_EXISTENTES = "SELECT email FROM estudiantes WHERE email IN ("
+        + String.join(", ", Collections.nCopies(TAMANO_BLOQUE_LOTE, "?")) + ")";
+    // Comparación en binario: con collation _ci, email <> LOWER(email) no vería las
+    // diferencias de mayúsculas. BINARY(1020) alcanza para 255 caracteres utf8mb4
+    private static final String SQL_CANONIZAR_EMAILS = "UPDATE estudiantes SET email = LOWER(TRIM(email)) "
+        + "WHERE CAST(email AS BINARY(1020)) <> CAST(LOWER(TRIM(email)) AS BINARY(1020))";
+
+    private final PoolConexiones pool;
+    // Conexión de la unidad de trabajo en curso en cada hilo (envuelta para que close() no la devuelva)
+    private final ThreadLocal<Connection> conexionEnCurso = new ThreadLocal<>();
 
     // Constructor para SQLonline (Principio de Inyección de Dependencias)
     public EstudianteRepositorioBD(String url, String usuario, String contrasena) {
-        this.url = url;
-        this.usuario = usuario;
-        this.contrasena = contrasena;
+        this(url, usuario, contrasena, ConfiguracionPoolConexiones.porDefecto());
+    }
+
+    // Constructor con la configuración del pool (database.pool.* de application.properties)
+    public EstudianteRepositorioBD(String url, String usuario, String contrasena,
+                                   ConfiguracionPoolConexiones configuracionPool) {
+        this(new PoolConexiones(conLecturaPorBloques(url), usuario, contrasena, configuracionPool));
+    }
+
+    // Sin useCursorFetch=true, Connector/J ignora setFetchSize y carga el ResultSet completo en memoria
+    static String conLecturaPorBloques(String url) {
+        if (url == null || !url.startsWith("jdbc:mysql:") || url.contains("useCursorFetch=")) {
+            return url;
+        }
+        return url + (url.indexOf('?') >= 0 ? "&" : "?") + "useCursorFetch=true";
+    }
+
+    // Constructor con un pool ya creado, que puede compartirse entre repositorios
+    public EstudianteRepositorioBD(PoolConexiones pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("El pool de conexiones es requerido");
+        }
+        this.pool = pool;
     }
 
     // Constructor por defecto para SQLonline gratuito
     public EstudianteRepositorioBD() {
+        this(ConfiguracionPoolConexiones.porDefecto());
+    }
+
+    // SQLonline gratuito con la configuración del pool indicada
+    public EstudianteRepositorioBD(ConfiguracionPoolConexiones configuracionPool) {
         // Configuración para SQLonline - estos valores deben ser reemplazados
-        this.url = "jdbc:mysql://sql.freedb.tech:3306/freedb_db_estudiantes_tdd";
-        this.usuario = "freedb_roberto_rivas";
-        this.contrasena = "tu_password_aqui";
+        this("jdbc:mysql://sql.freedb.tech:3306/freedb_db_estudiantes_tdd?useCursorFetch=true",
+             "freedb_roberto_rivas",
+             "tu_password_aqui",
+             configuracionPool);
     }
 
     @Override
     public Estudiante crear(Estudiante estudiante) throws RepositorioException {
         validarEstudianteParaCreacion(estudiante);
-        
-        String sql = """
-            INSERT INTO estudiantes (nombre, apellido, email, carrera, fecha_ingreso, activo) 
-            VALUES (?, ?, ?, ?, ?, ?)
-            """;
 
+        // Verificación de email e INSERT en la misma conexión y transacción
+        return enUnidadDeTrabajo(() -> insertar(estudiante));
+    }
+
+    private Estudiante insertar(Estudiante estudiante) throws RepositorioException {
         try (Connection conexion = obtenerConexion();
-             PreparedStatement stmt = conexion.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = conexion.prepareStatement(SQL_INSERTAR, Statement.RETURN_GENERATED_KEYS)) {
 
             // Validar email único antes de insertar
             if (existePorEmail(estudiante.getEmail())) {
                 throw new RepositorioException("Ya existe un estudiante con este email", "EMAIL_DUPLICADO");
             }
 
-            stmt.setString(1, estudiante.getNombre());
-            stmt.setString(2, estudiante.getApellido());
-            stmt.setString(3, estudiante.getEmail());
-            stmt.setString(4, estudiante.getCarrera());
-            stmt.setDate(5, java.sql.Date.valueOf(estudiante.getFechaIngreso()));
-            stmt.setBoolean(6, estudiante.isActivo());
+            asignarParametrosInsercion(stmt, estudiante);
 
             int filasAfectadas = stmt.executeUpdate();
             if (filasAfectadas == 0) {
@@ -75,11 +165,159 @@ public class EstudianteRepositorioBD implements IEstudianteRepositorio {
             }
 
         } catch (SQLException e) {
+            // Otro escritor insertó el mismo email entre la verificación y el INSERT
+            if (esViolacionUnicidad(e)) {
+                throw new RepositorioException("Ya existe un estudiante con este email", "EMAIL_DUPLICADO", e);
+            }
             throw new RepositorioException("Error al crear estudiante en base de datos: " + e.getMessage(), 
                                          "SQL_ERROR", e);
         }
     }
 
+    /**
+     * Valida las filas y descarta los emails repetidos dentro del lote; luego, en
+     * una sola unidad de trabajo y por bloques, una consulta trae los emails que
+     * ya existen y las filas restantes se insertan con un executeBatch que
+     * devuelve los IDs generados. Un error SQL ajeno a las filas deshace el lote
+     * Los estudiantes recibidos no se modifican: los IDs van en las copias del resultado
+     */
+    @Override
+    public ResultadoLote<Estudiante> crearLote(List<Estudiante> estudiantes) throws RepositorioException {
+        if (estudiantes == null) {
+            throw new RepositorioException("El lote de estudiantes no puede ser nulo", "LOTE_NULO");
+        }
+
+        // Una posición por fila del lote; cada bloque completa las suyas
+        List<ResultadoLote.Fila<Estudiante>> filas = new ArrayList<>(Collections.nCopies(estudiantes.size(), null));
+        // Email canónico -> índice de su primera aparición en el lote
+        Map<String, Integer> pendientes = new LinkedHashMap<>();
+        for (int i = 0; i < estudiantes.size(); i++) {
+            Estudiante estudiante = estudiantes.get(i);
+            try {
+                validarEstudianteParaCreacion(estudiante);
+            } catch (RepositorioException e) {
+                filas.set(i, ResultadoLote.fallo(i, e));
+                continue;
+            }
+            if (pendientes.putIfAbsent(normalizarEmail(estudiante.getEmail()), i) != null) {
+                filas.set(i, ResultadoLote.fallo(i, "EMAIL_DUPLICADO", "El email se repite dentro del lote"));
+            }
+        }
+
+        if (!pendientes.isEmpty()) {
+            enUnidadDeTrabajo(() -> {
+                List<Map.Entry<String, Integer>> bloque = new ArrayList<>(TAMANO_BLOQUE_LOTE);
+                for (Map.Entry<String, Integer> pendiente : pendientes.entrySet()) {
+                    bloque.add(pendiente);
+                    if (bloque.size() == TAMANO_BLOQUE_LOTE) {
+                        insertarBloque(bloque, estudiantes, filas);
+                        bloque.clear();
+                    }
+                }
+                if (!bloque.isEmpty()) {
+                    insertarBloque(bloque, estudiantes, filas);
+                }
+                return null;
+            });
+        }
+        return new ResultadoLote<>(filas);
+    }
+
+    private void insertarBloque(List<Map.Entry<String, Integer>> bloque, List<Estudiante> estudiantes,
+                                List<ResultadoLote.Fila<Estudiante>> filas) throws RepositorioException {
+        try (Connection conexion = obtenerConexion()) {
+            Set<String> existentes = emailsExistentes(conexion, bloque);
+            List<Integer> aInsertar = new ArrayList<>(bloque.size());
+            for (Map.Entry<String, Integer> pendiente : bloque) {
+                int indice = pendiente.getValue();
+                if (existentes.contains(pendiente.getKey())) {
+                    filas.set(indice, ResultadoLote.fallo(indice, "EMAIL_DUPLICADO", "Ya existe un estudiante con este email"));
+                } else {
+                    aInsertar.add(indice);
+                }
+            }
+            if (aInsertar.isEmpty()) {
+                return;
+            }
+
+            Savepoint antesDelBloque = conexion.setSavepoint();
+            try (PreparedStatement stmt = conexion.prepareStatement(SQL_INSERTAR, Statement.RETURN_GENERATED_KEYS)) {
+                for (int indice : aInsertar) {
+                    asignarParametrosInsercion(stmt, estudiantes.get(indice));
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    for (int indice : aInsertar) {
+                        if (!generatedKeys.next()) {
+                            throw new RepositorioException("No se pudo obtener el ID generado", "ID_NO_GENERADO");
+                        }
+                        // El ID va solo en la copia: si la unidad de trabajo se deshace,
+                        // los estudiantes del llamador no quedan con IDs inexistentes
+                        Estudiante creado = clonarEstudiante(estudiantes.get(indice));
+                        creado.setId(generatedKeys.getLong(1));
+                        filas.set(indice, ResultadoLote.exito(indice, creado));
+                    }
+                }
+            } catch (BatchUpdateException e) {
+                if (!esViolacionUnicidad(e)) {
+                    throw e;
+                }
+                // Otro escritor tomó alguno de estos emails después de la consulta: se
+                // deshace el bloque y se inserta fila por fila para aislar las rechazadas
+                conexion.rollback(antesDelBloque);
+                for (int indice : aInsertar) {
+                    filas.set(indice, insertarFila(conexion, indice, estudiantes.get(indice)));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new RepositorioException("Error al crear el lote de estudiantes: " + e.getMessage(), 
+                                         "SQL_ERROR", e);
+        }
+    }
+
+    private Set<String> emailsExistentes(Connection conexion, List<Map.Entry<String, Integer>> bloque) 
+            throws SQLException {
+        try (PreparedStatement stmt = conexion.prepareStatement(SQL_EMAILS_EXISTENTES)) {
+            for (int i = 0; i < TAMANO_BLOQUE_LOTE; i++) {
+                stmt.setString(i + 1, bloque.get(Math.min(i, bloque.size() - 1)).getKey());
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                Set<String> existentes = new HashSet<>();
+                while (rs.next()) {
+                    existentes.add(rs.getString(1));
+                }
+                return existentes;
+            }
+        }
+    }
+
+    // Inserta una fila del lote con su propio punto de guardado, sin abortar el resto
+    private ResultadoLote.Fila<Estudiante> insertarFila(Connection conexion, int indice, Estudiante estudiante) 
+            throws SQLException {
+        Savepoint antesDeLaFila = conexion.setSavepoint();
+        try (PreparedStatement stmt = conexion.prepareStatement(SQL_INSERTAR, Statement.RETURN_GENERATED_KEYS)) {
+            asignarParametrosInsercion(stmt, estudiante);
+            stmt.executeUpdate();
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (!generatedKeys.next()) {
+                    return ResultadoLote.fallo(indice, "ID_NO_GENERADO", "No se pudo obtener el ID generado");
+                }
+                Estudiante creado = clonarEstudiante(estudiante);
+                creado.setId(generatedKeys.getLong(1));
+                return ResultadoLote.exito(indice, creado);
+            }
+        } catch (SQLException e) {
+            if (!esViolacionUnicidad(e)) {
+                throw e;
+            }
+            conexion.rollback(antesDeLaFila);
+            return ResultadoLote.fallo(indice, "EMAIL_DUPLICADO", "Ya existe un estudiante con este email");
+        }
+    }
+
     @Override
     public Optional<Estudiante> buscarPorId(Long id) throws RepositorioException {
         validarIdNoNulo(id);
@@ -108,12 +346,12 @@ public class EstudianteRepositorioBD implements IEstudianteRepositorio {
     public Optional<Estudiante> buscarPorEmail(String email) throws RepositorioException {
         validarEmailNoNulo(email);
         
-        String sql = "SELECT * FROM estudiantes WHERE LOWER(email) = LOWER(?)";
+        String sql = "SELECT * FROM estudiantes WHERE email = ?";
 
         try (Connection conexion = obtenerConexion();
              PreparedStatement stmt = conexion.prepareStatement(sql)) {
 
-            stmt.setString(1, email);
+            stmt.setString(1, normalizarEmail(email));
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -130,10 +368,8 @@ public class EstudianteRepositorioBD implements IEstudianteRepositorio {
 
     @Override
     public List<Estudiante> obtenerTodos() throws RepositorioException {
-        String sql = "SELECT * FROM estudiantes WHERE activo = true ORDER BY apellido, nombre";
-
         try (Connection conexion = obtenerConexion();
-             PreparedStatement stmt = conexion.prepareStatement(sql);
+             PreparedStatement stmt = conexion.prepareStatement(SQL_ACTIVOS);
              ResultSet rs = stmt.executeQuery()) {
 
             List<Estudiante> estudiantes = new ArrayList<>();
@@ -152,10 +388,8 @@ public class EstudianteRepositorioBD implements IEstudianteRepositorio {
     public List<Estudiante> obtenerPorCarrera(String carrera) throws RepositorioException {
         validarCarreraNoNula(carrera);
         
-        String sql = "SELECT * FROM estudiantes WHERE LOWER(carrera) = LOWER(?) AND activo = true ORDER BY apellido, nombre";
-
         try (Connection conexion = obtenerConexion();
-             PreparedStatement stmt = conexion.prepareStatement(sql)) {
+             PreparedStatement stmt = conexion.prepareStatement(SQL_ACTIVOS_POR_CARRERA)) {
 
             stmt.setString(1, carrera);
 
@@ -173,10 +407,128 @@ public class EstudianteRepositorioBD implements IEstudianteRepositorio {
         }
     }
 
+    @Override
+    public Pagina<Estudiante> obtenerPagina(String token, int tamano) throws RepositorioException {
+        return consultarPagina(null, token, tamano);
+    }
+
+    @Override
+    public Pagina<Estudiante> obtenerPaginaPorCarrera(String carrera, String token, int tamano) 
+            throws RepositorioException {
+        validarCarreraNoNula(carrera);
+
+        return consultarPagina(carrera, token, tamano);
+    }
+
+    // Lee hasta tamano + 1 filas a partir de la clave del token: la de más indica si hay otra página
+    private Pagina<Estudiante> consultarPagina(String carrera, String token, int tamano) throws RepositorioException {
+        TokenPagina.validarTamano(tamano);
+        TokenPagina desde = TokenPagina.decodificar(token);
+
+        StringBuilder sql = new StringBuilder(SQL_PAGINA);
+        if (carrera != null) {
+            sql.append(SQL_FILTRO_CARRERA);
+        }
+        if (desde != null) {
+            sql.append(SQL_DESPUES_DE_CLAVE);
+        }
+        sql.append(SQL_ORDEN_PAGINA);
+
+        try (Connection conexion = obtenerConexion();
+             PreparedStatement stmt = conexion.prepareStatement(sql.toString())) {
+
+            int indice = 1;
+            if (carrera != null) {
+                stmt.setString(indice++, carrera);
+            }
+            if (desde != null) {
+                stmt.setString(indice++, desde.getApellido());
+                stmt.setString(indice++, desde.getApellido());
+                stmt.setString(indice++, desde.getApellido());
+                stmt.setString(indice++, desde.getNombre());
+                stmt.setString(indice++, desde.getNombre());
+                stmt.setLong(indice++, desde.getId());
+            }
+            stmt.setInt(indice, tamano + 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                List<Estudiante> estudiantes = new ArrayList<>(tamano + 1);
+                while (rs.next()) {
+                    estudiantes.add(mapearResultSetAEstudiante(rs));
+                }
+                return TokenPagina.armar(estudiantes, tamano);
+            }
+
+        } catch (SQLException e) {
+            throw new RepositorioException("Error al obtener la página de estudiantes: " + e.getMessage(), 
+                                         "SQL_ERROR", e);
+        }
+    }
+
+    @Override
+    public Stream<Estudiante> obtenerTodosEnFlujo() throws RepositorioException {
+        return consultarEnFlujo(SQL_ACTIVOS, null, "Error al recorrer los estudiantes: ");
+    }
+
+    @Override
+    public Stream<Estudiante> obtenerPorCarreraEnFlujo(String carrera) throws RepositorioException {
+        validarCarreraNoNula(carrera);
+
+        return consultarEnFlujo(SQL_ACTIVOS_POR_CARRERA, carrera, "Error al recorrer estudiantes por carrera: ");
+    }
+
+    @Override
+    public List<Estudiante> obtenerPorFechaIngreso(LocalDate desde, LocalDate hasta, String carrera, Boolean activo) 
+            throws RepositorioException {
+        validarRangoFechas(desde, hasta);
+        
+        // BETWEEN sobre fecha_ingreso usa idx_fecha_ingreso; el orden por (fecha_ingreso, id)
+        // coincide con el del índice secundario y evita ordenar el resultado
+        StringBuilder sql = new StringBuilder("SELECT * FROM estudiantes WHERE fecha_ingreso BETWEEN ? AND ?");
+        if (carrera != null) {
+            sql.append(" AND LOWER(carrera) = LOWER(?)");
+        }
+        if (activo != null) {
+            sql.append(" AND activo = ?");
+        }
+        sql.append(" ORDER BY fecha_ingreso, id");
+
+        try (Connection conexion = obtenerConexion();
+             PreparedStatement stmt = conexion.prepareStatement(sql.toString())) {
+
+            int indice = 1;
+            stmt.setDate(indice++, java.sql.Date.valueOf(desde));
+            stmt.setDate(indice++, java.sql.Date.valueOf(hasta));
+            if (carrera != null) {
+                stmt.setString(indice++, carrera);
+            }
+            if (activo != null) {
+                stmt.setBoolean(indice, activo);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                List<Estudiante> estudiantes = new ArrayList<>();
+                while (rs.next()) {
+                    estudiantes.add(mapearResultSetAEstudiante(rs));
+                }
+                return estudiantes;
+            }
+
+        } catch (SQLException e) {
+            throw new RepositorioException("Error al obtener estudiantes por fecha de ingreso: " + e.getMessage(), 
+                                         "SQL_ERROR", e);
+        }
+    }
+
     @Override
     public Estudiante actualizar(Estudiante estudiante) throws RepositorioException {
         validarEstudianteParaActualizacion(estudiante);
-        
+
+        // Existencia, email único y UPDATE en la misma conexión y transacción
+        return enUnidadDeTrabajo(() -> modificar(estudiante));
+    }
+
+    private Estudiante modificar(Estudiante estudiante) throws RepositorioException {
         String sql = """
             UPDATE estudiantes 
             SET nombre = ?, apellido = ?, email = ?, carrera = ?, fecha_ingreso = ?, activo = ?
@@ -196,7 +548,7 @@ public class EstudianteRepositorioBD implements IEstudianteRepositorio {
 
             stmt.setString(1, estudiante.getNombre());
             stmt.setString(2, estudiante.getApellido());
-            stmt.setString(3, estudiante.getEmail());
+            stmt.setString(3, normalizarEmail(estudiante.getEmail()));
             stmt.setString(4, estudiante.getCarrera());
             stmt.setDate(5, java.sql.Date.valueOf(estudiante.getFechaIngreso()));
             stmt.setBoolean(6, estudiante.isActivo());
@@ -210,6 +562,9 @@ public class EstudianteRepositorioBD implements IEstudianteRepositorio {
             return clonarEstudiante(estudiante);
 
         } catch (SQLException e) {
+            if (esViolacionUnicidad(e)) {
+                throw new RepositorioException("Ya existe otro estudiante con este email", "EMAIL_DUPLICADO", e);
+            }
             throw new RepositorioException("Error al actualizar estudiante: " + e.getMessage(), 
                                          "SQL_ERROR", e);
         }
@@ -220,19 +575,19 @@ public class EstudianteRepositorioBD implements IEstudianteRepositorio {
         validarIdNoNulo(id);
         
         // Eliminación lógica - cambiar activo a false
+        // Una sola sentencia: sin filas coincidentes el estudiante no existe
         String sql = "UPDATE estudiantes SET activo = false WHERE id = ?";
 
         try (Connection conexion = obtenerConexion();
              PreparedStatement stmt = conexion.prepareStatement(sql)) {
 
-            if (!existe(id)) {
+            stmt.setLong(1, id);
+            int filasAfectadas = stmt.executeUpdate();
+            if (filasAfectadas == 0) {
                 throw new RepositorioException("El estudiante no existe", "ESTUDIANTE_NO_ENCONTRADO");
             }
 
-            stmt.setLong(1, id);
-            int filasAfectadas = stmt.executeUpdate();
-            
-            return filasAfectadas > 0;
+            return true;
 
         } catch (SQLException e) {
             throw new RepositorioException("Error al eliminar estudiante: " + e.getMessage(), 
@@ -265,12 +620,12 @@ public class EstudianteRepositorioBD implements IEstudianteRepositorio {
     public boolean existePorEmail(String email) throws RepositorioException {
         validarEmailNoNulo(email);
         
-        String sql = "SELECT COUNT(*) FROM estudiantes WHERE LOWER(email) = LOWER(?)";
+        String sql = "SELECT COUNT(*) FROM estudiantes WHERE email = ?";
 
         try (Connection conexion = obtenerConexion();
              PreparedStatement stmt = conexion.prepareStatement(sql)) {
 
-            stmt.setString(1, email);
+            stmt.setString(1, normalizarEmail(email));
 
             try (ResultSet rs = stmt.executeQuery()) {
                 return rs.next() && rs.getInt(1) > 0;
@@ -298,16 +653,230 @@ public class EstudianteRepositorioBD implements IEstudianteRepositorio {
         }
     }
 
+    @Override
+    public EstadisticasEstudiantes obtenerEstadisticasEstudiantes() throws RepositorioException {
+        // Una sola consulta agregada en lugar de traer todas las filas
+        String sql = "SELECT carrera, activo, COUNT(*) FROM estudiantes GROUP BY carrera, activo";
+
+        try (Connection conexion = obtenerConexion();
+             PreparedStatement stmt = conexion.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            long activos = 0;
+            long inactivos = 0;
+            Map<String, Long> activosPorCarrera = new HashMap<>();
+            while (rs.next()) {
+                long cantidad = rs.getLong(3);
+                if (rs.getBoolean(2)) {
+                    activos += cantidad;
+                    activosPorCarrera.merge(rs.getString(1), cantidad, Long::sum);
+                } else {
+                    inactivos += cantidad;
+                }
+            }
+            return new EstadisticasEstudiantes(activos + inactivos, activos, inactivos, activosPorCarrera);
+
+        } catch (SQLException e) {
+            throw new RepositorioException("Error al obtener estadísticas: " + e.getMessage(), 
+                                         "SQL_ERROR", e);
+        }
+    }
+
+    @Override
+    public <T, E extends Exception> T enUnidadDeTrabajo(Trabajo<T, E> trabajo) throws E, RepositorioException {
+        if (conexionEnCurso.get() != null) {
+            return trabajo.ejecutar(); // Se une a la unidad exterior, que confirma o deshace
+        }
+
+        Connection conexion;
+        try {
+            conexion = pool.obtenerConexion();
+        } catch (SQLException e) {
+            throw new RepositorioException("Error al iniciar la unidad de trabajo: " + e.getMessage(), "SQL_ERROR", e);
+        }
+        boolean confirmada = false;
+        try {
+            conexion.setAutoCommit(false);
+            conexionEnCurso.set(sinCierre(conexion));
+            T resultado = trabajo.ejecutar();
+            conexion.commit();
+            confirmada = true;
+            return resultado;
+        } catch (SQLException e) {
+            throw new RepositorioException("Error en la transacción de la unidad de trabajo: " + e.getMessage(),
+                                         "SQL_ERROR", e);
+        } finally {
+            conexionEnCurso.remove();
+            if (!confirmada) {
+                try {
+                    conexion.rollback();
+                } catch (SQLException e) {
+                    // El pool descarta la conexión si tampoco puede deshacer al devolverla
+                }
+            }
+            try {
+                conexion.close(); // La devuelve al pool, que restaura el autocommit
+            } catch (SQLException e) {
+                // Nada más que liberar
+            }
+        }
+    }
+
+    /**
+     * Ejecuta la consulta y entrega un flujo que avanza el ResultSet fila a fila
+     * Dentro de una unidad de trabajo usa su conexión (cerrar el flujo no la devuelve)
+     */
+    private Stream<Estudiante> consultarEnFlujo(String sql, String parametro, String mensajeError) 
+            throws RepositorioException {
+        Connection conexion = null;
+        PreparedStatement stmt = null;
+        try {
+            conexion = obtenerConexion();
+            stmt = conexion.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(pool.obtenerConfiguracion().getTamanoBloqueLectura());
+            if (parametro != null) {
+                stmt.setString(1, parametro);
+            }
+            CursorEstudiantes cursor = new CursorEstudiantes(conexion, stmt, stmt.executeQuery(), mensajeError);
+            return StreamSupport.stream(cursor, false).onClose(cursor::cerrar);
+        } catch (SQLException e) {
+            cerrarSinErrores(stmt);
+            cerrarSinErrores(conexion);
+            throw new RepositorioException(mensajeError + e.getMessage(), "SQL_ERROR", e);
+        }
+    }
+
+    private static void cerrarSinErrores(AutoCloseable recurso) {
+        if (recurso == null) {
+            return;
+        }
+        try {
+            recurso.close();
+        } catch (Exception e) {
+            // Nada más que liberar
+        }
+    }
+
+    /**
+     * Recorre un ResultSet abierto; al agotarse, fallar o cerrarse el flujo
+     * libera ResultSet, sentencia y conexión (una sola vez)
+     */
+    private final class CursorEstudiantes extends Spliterators.AbstractSpliterator<Estudiante> {
+        private final Connection conexion;
+        private final PreparedStatement stmt;
+        private final ResultSet rs;
+        private final String mensajeError;
+        private boolean cerrado;
+
+        private CursorEstudiantes(Connection conexion, PreparedStatement stmt, ResultSet rs, String mensajeError) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.conexion = conexion;
+            this.stmt = stmt;
+            this.rs = rs;
+            this.mensajeError = mensajeError;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Estudiante> accion) {
+            if (cerrado) {
+                return false;
+            }
+            Estudiante estudiante;
+            try {
+                if (!rs.next()) {
+                    cerrar();
+                    return false;
+                }
+                estudiante = mapearResultSetAEstudiante(rs);
+            } catch (SQLException e) {
+                cerrar();
+                throw new RepositorioRuntimeException(
+                    new RepositorioException(mensajeError + e.getMessage(), "SQL_ERROR", e));
+            }
+            accion.accept(estudiante);
+            return true;
+        }
+
+        private void cerrar() {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+            cerrarSinErrores(rs);
+            cerrarSinErrores(stmt);
+            cerrarSinErrores(conexion);
+        }
+    }
+
+    /**
+     * Abre las conexiones iniciales del pool (database.pool.initial.size)
+     */
+    public void precalentarPool() throws RepositorioException {
+        try {
+            pool.precalentar();
+        } catch (SQLException e) {
+            throw new RepositorioException("No se pudo precalentar el pool de conexiones: " + e.getMessage(),
+                                           "SQL_ERROR", e);
+        }
+    }
+
+    /**
+     * @return Métricas del pool de conexiones del repositorio
+     */
+    public EstadisticasPoolConexiones obtenerEstadisticasPool() {
+        return pool.obtenerEstadisticas();
+    }
+
+    // Cierra las conexiones del pool; las prestadas se cierran al devolverse
+    public void cerrar() {
+        pool.close();
+    }
+
     // Métodos privados de utilidad (Principio de Separación de Intereses)
+    // El driver JDBC 4 se registra solo al arrancar DriverManager: no hace falta Class.forName
     private Connection obtenerConexion() throws SQLException {
-        try {
-            // Cargar driver MySQL
-            Class.forName("com.mysql.cj.jdbc.Driver");
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("Driver MySQL no encontrado", e);
+        Connection enCurso = conexionEnCurso.get();
+        return enCurso != null ? enCurso : pool.obtenerConexion();
+    }
+
+    // Vista de la conexión de la unidad de trabajo para las operaciones anidadas:
+    // su try-with-resources no debe devolverla al pool antes de confirmar
+    private static Connection sinCierre(Connection conexion) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                                                   new Class<?>[] {Connection.class}, (proxy, metodo, argumentos) -> {
+            if ("close".equals(metodo.getName())) {
+                return null;
+            }
+            try {
+                return metodo.invoke(conexion, argumentos);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    private static boolean esViolacionUnicidad(SQLException e) {
+        if (e instanceof SQLIntegrityConstraintViolationException
+            || (e.getSQLState() != null && e.getSQLState().startsWith(CLASE_VIOLACION_INTEGRIDAD))) {
+            return true;
         }
-        
-        return DriverManager.getConnection(url, usuario, contrasena);
+        // BatchUpdateException suele traer la causa real encadenada
+        return e.getCause() instanceof SQLException causa && causa != e && esViolacionUnicidad(causa);
+    }
+
+    // Forma canónica con la que se guarda y se busca el email
+    private static String normalizarEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void asignarParametrosInsercion(PreparedStatement stmt, Estudiante estudiante) 
+            throws SQLException {
+        stmt.setString(1, estudiante.getNombre());
+        stmt.setString(2, estudiante.getApellido());
+        stmt.setString(3, normalizarEmail(estudiante.getEmail()));
+        stmt.setString(4, estudiante.getCarrera());
+        stmt.setDate(5, java.sql.Date.valueOf(estudiante.getFechaIngreso()));
+        stmt.setBoolean(6, estudiante.isActivo());
     }
 
     private Estudiante mapearResultSetAEstudiante(ResultSet rs) throws SQLException {
@@ -328,11 +897,12 @@ public class EstudianteRepositorioBD implements IEstudianteRepositorio {
         return estudiante;
     }
 
+    // Copia de lo escrito, con el email tal como quedó guardado
     private Estudiante clonarEstudiante(Estudiante original) {
         Estudiante clon = new Estudiante(original.getId(), 
                                        original.getNombre(), 
                                        original.getApellido(),
-                                       original.getEmail(), 
+                                       normalizarEmail(original.getEmail()), 
                                        original.getCarrera());
         clon.setFechaIngreso(original.getFechaIngreso());
         clon.setActivo(original.isActivo());
@@ -388,13 +958,22 @@ public class EstudianteRepositorioBD implements IEstudianteRepositorio {
         }
     }
 
+    private void validarRangoFechas(LocalDate desde, LocalDate hasta) throws RepositorioException {
+        if (desde == null || hasta == null) {
+            throw new RepositorioException("Las fechas del rango no pueden ser nulas", "FECHA_NULA");
+        }
+        if (desde.isAfter(hasta)) {
+            throw new RepositorioException("La fecha inicial no puede ser posterior a la final", "RANGO_FECHAS_INVALIDO");
+        }
+    }
+
     private void validarEmailUnicoParaActualizacion(String email, Long idExcluir) throws RepositorioException {
-        String sql = "SELECT COUNT(*) FROM estudiantes WHERE LOWER(email) = LOWER(?) AND id != ?";
+        String sql = "SELECT COUNT(*) FROM estudiantes WHERE email = ? AND id != ?";
 
         try (Connection conexion = obtenerConexion();
              PreparedStatement stmt = conexion.prepareStatement(sql)) {
 
-            stmt.setString(1, email);
+            stmt.setString(1, normalizarEmail(email));
             stmt.setLong(2, idExcluir);
 
             try (ResultSet rs = stmt.executeQuery()) {
@@ -409,8 +988,35 @@ public class EstudianteRepositorioBD implements IEstudianteRepositorio {
         }
     }
 
+    /**
+     * Lleva a la forma canónica los emails guardados antes de normalizarse al
+     * escribir, con un único UPDATE que solo toca las filas que cambian: no
+     * trae filas a la aplicación y volver a ejecutarlo no modifica nada
+     * Es una tarea de administración de una sola vez (igual que
+     * sql-scripts/migracion_v2_emails_canonicos.sql): su WHERE no puede usar
+     * índices y recorre la tabla, por eso no se ejecuta al inicializar
+     * 
+     * @return Cantidad de filas actualizadas
+     * @throws RepositorioException EMAIL_DUPLICADO si dos filas quedan con el mismo email
+     */
+    public int migrarEmailsCanonicos() throws RepositorioException {
+        try (Connection conexion = obtenerConexion();
+             PreparedStatement stmt = conexion.prepareStatement(SQL_CANONIZAR_EMAILS)) {
+            
+            return stmt.executeUpdate();
+            
+        } catch (SQLException e) {
+            if (esViolacionUnicidad(e)) {
+                throw new RepositorioException("Hay estudiantes cuyos emails solo difieren en mayúsculas o espacios",
+                                             "EMAIL_DUPLICADO", e);
+            }
+            throw new RepositorioException("Error al migrar los emails: " + e.getMessage(), "SQL_ERROR", e);
+        }
+    }
+
     // Método para crear las tablas (útil para inicialización)
     public void inicializarBaseDatos() throws RepositorioException {
+        // Mismos índices que sql-scripts/estudiantes_schema.sql: deben cambiar juntos
         String sqlCrearTabla = """
             CREATE TABLE IF NOT EXISTS estudiantes (
                 id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -423,7 +1029,9 @@ public class EstudianteRepositorioBD implements IEstudianteRepositorio {
                 fecha_creacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                 INDEX idx_email (email),
                 INDEX idx_carrera (carrera),
-                INDEX idx_activo (activo)
+                INDEX idx_activo (activo),
+                INDEX idx_fecha_ingreso (fecha_ingreso),
+                INDEX idx_nombre_apellido (apellido, nombre)
             ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
             """;
 
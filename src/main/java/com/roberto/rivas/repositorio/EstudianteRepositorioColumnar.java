@@ -0,0 +1,587 @@
+package com.roberto.rivas.repositorio;
+
+import com.roberto.rivas.modelo.Estudiante;
+import com.roberto.rivas.modelo.EstudianteInmutable;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Implementación columnar (struct-of-arrays) del repositorio de Estudiantes
+ * Orientada a consultas analíticas: filtros y agregaciones recorren arreglos
+ * primitivos en lugar de objetos completos
+ * 
+ * Columnas: IDs (long[]), activo (bitset en long[]), carrera (códigos int de
+ * diccionario), fecha de ingreso (días epoch en int[]) y textos en columnas
+ * compactas de bytes UTF-8
+ * 
+ * Los listados se ordenan al materializarlos con el mismo orden que los demás
+ * repositorios (OrdenEstudiantes): las columnas guardan las filas por ID
+ * 
+ * @author Roberto Rivas Lopez
+ */
+public class EstudianteRepositorioColumnar implements IEstudianteRepositorio, IEstadisticasRepositorio,
+                                                      IPublicadorCambios {
+
+    private static final int CAPACIDAD_INICIAL = 64;
+
+    private final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+
+    // Columnas (la fila de un estudiante es id - 1: los IDs son secuenciales y nunca se borran)
+    private long[] ids;
+    private long[] activos;
+    private int[] codigosCarrera;
+    private int[] diasIngreso;
+    private final ColumnaTexto nombres;
+    private final ColumnaTexto apellidos;
+    private final ColumnaTexto emails;
+    private int filas;
+
+    // Diccionario de carreras: código -> texto y texto -> código
+    private final List<String> diccionarioCarreras;
+    private final Map<String, Integer> codigosPorCarrera;
+
+    // Índice de email normalizado -> fila
+    private final Map<String, Integer> filasPorEmail;
+
+    // Flujo de cambios (se publica bajo el cerrojo de escritura)
+    private final PublicadorCambios cambios = new PublicadorCambios();
+
+    public EstudianteRepositorioColumnar() {
+        this.ids = new long[CAPACIDAD_INICIAL];
+        this.activos = new long[palabrasPara(CAPACIDAD_INICIAL)];
+        this.codigosCarrera = new int[CAPACIDAD_INICIAL];
+        this.diasIngreso = new int[CAPACIDAD_INICIAL];
+        this.nombres = new ColumnaTexto(CAPACIDAD_INICIAL);
+        this.apellidos = new ColumnaTexto(CAPACIDAD_INICIAL);
+        this.emails = new ColumnaTexto(CAPACIDAD_INICIAL);
+        this.diccionarioCarreras = new ArrayList<>();
+        this.codigosPorCarrera = new HashMap<>();
+        this.filasPorEmail = new HashMap<>();
+    }
+
+    @Override
+    public Estudiante crear(Estudiante estudiante) throws RepositorioException {
+        validarEstudianteNoNulo(estudiante);
+
+        cerrojo.writeLock().lock();
+        try {
+            String claveEmail = normalizar(estudiante.getEmail());
+            if (claveEmail != null && filasPorEmail.containsKey(claveEmail)) {
+                throw new RepositorioException("Ya existe un estudiante con este email", "EMAIL_DUPLICADO");
+            }
+
+            asegurarCapacidad(filas + 1);
+            int fila = filas++;
+            ids[fila] = fila + 1L;
+            escribirFila(fila, estudiante);
+            if (claveEmail != null) {
+                filasPorEmail.put(claveEmail, fila);
+            }
+            EstudianteInmutable creado = materializar(fila);
+            cambios.publicar(null, creado);
+            return creado.copiar();
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Estudiante> buscarPorId(Long id) throws RepositorioException {
+        validarIdNoNulo(id);
+
+        cerrojo.readLock().lock();
+        try {
+            int fila = filaDe(id);
+            return fila >= 0 ? Optional.of(materializar(fila)) : Optional.empty();
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Estudiante> buscarPorEmail(String email) throws RepositorioException {
+        validarEmailNoNulo(email);
+
+        cerrojo.readLock().lock();
+        try {
+            Integer fila = filasPorEmail.get(normalizar(email));
+            return fila != null ? Optional.of(materializar(fila)) : Optional.empty();
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Estudiante> obtenerTodos() throws RepositorioException {
+        List<Estudiante> resultado;
+        cerrojo.readLock().lock();
+        try {
+            resultado = new ArrayList<>(contarActivos());
+            for (int fila = siguienteActiva(0); fila >= 0; fila = siguienteActiva(fila + 1)) {
+                resultado.add(materializar(fila));
+            }
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+        // Las filas están por ID; el orden de los listados se aplica fuera del cerrojo
+        resultado.sort(OrdenEstudiantes.ESTUDIANTE);
+        return resultado;
+    }
+
+    @Override
+    public List<Estudiante> obtenerPorCarrera(String carrera) throws RepositorioException {
+        validarCarreraNoNula(carrera);
+
+        List<Estudiante> resultado;
+        cerrojo.readLock().lock();
+        try {
+            boolean[] coincide = codigosQueCoinciden(carrera);
+            if (coincide == null) {
+                return new ArrayList<>();
+            }
+
+            // Filtro sobre la columna de códigos: solo se materializan las filas devueltas
+            resultado = new ArrayList<>();
+            for (int fila = siguienteActiva(0); fila >= 0; fila = siguienteActiva(fila + 1)) {
+                int codigo = codigosCarrera[fila];
+                if (codigo >= 0 && coincide[codigo]) {
+                    resultado.add(materializar(fila));
+                }
+            }
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+        resultado.sort(OrdenEstudiantes.ESTUDIANTE);
+        return resultado;
+    }
+
+    @Override
+    public List<Estudiante> obtenerPorFechaIngreso(LocalDate desde, LocalDate hasta, String carrera, Boolean activo) 
+            throws RepositorioException {
+        validarRangoFechas(desde, hasta);
+
+        cerrojo.readLock().lock();
+        try {
+            boolean[] coincide = carrera != null ? codigosQueCoinciden(carrera) : null;
+            if (carrera != null && coincide == null) {
+                return new ArrayList<>();
+            }
+
+            // Filtro sobre la columna de días: clave (día, fila) en un long para ordenar primitivos
+            long inicio = desde.toEpochDay();
+            long fin = hasta.toEpochDay();
+            long[] claves = new long[16];
+            int encontradas = 0;
+            for (int fila = 0; fila < filas; fila++) {
+                int dias = diasIngreso[fila];
+                if (dias == Integer.MIN_VALUE || dias < inicio || dias > fin) {
+                    continue;
+                }
+                if (activo != null && activo != estaActivo(fila)) {
+                    continue;
+                }
+                if (coincide != null && (codigosCarrera[fila] < 0 || !coincide[codigosCarrera[fila]])) {
+                    continue;
+                }
+                if (encontradas == claves.length) {
+                    claves = Arrays.copyOf(claves, claves.length * 2);
+                }
+                claves[encontradas++] = ((long) dias << 32) | fila;
+            }
+
+            // Las filas siguen el orden de los IDs: ordenar por (día, fila) equivale a (fecha, id)
+            Arrays.sort(claves, 0, encontradas);
+            List<Estudiante> resultado = new ArrayList<>(encontradas);
+            for (int i = 0; i < encontradas; i++) {
+                resultado.add(materializar((int) claves[i]));
+            }
+            return resultado;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Estudiante actualizar(Estudiante estudiante) throws RepositorioException {
+        validarEstudianteNoNulo(estudiante);
+        validarIdNoNulo(estudiante.getId());
+
+        cerrojo.writeLock().lock();
+        try {
+            int fila = filaDe(estudiante.getId());
+            if (fila < 0) {
+                throw new RepositorioException("El estudiante no existe", "ESTUDIANTE_NO_ENCONTRADO");
+            }
+
+            String claveNueva = normalizar(estudiante.getEmail());
+            Integer titular = claveNueva != null ? filasPorEmail.get(claveNueva) : null;
+            if (titular != null && titular != fila) {
+                throw new RepositorioException("Ya existe un estudiante con este email", "EMAIL_DUPLICADO");
+            }
+
+            EstudianteInmutable anterior = materializar(fila);
+            String claveAnterior = normalizar(anterior.getEmail());
+            if (claveAnterior != null && !claveAnterior.equals(claveNueva)) {
+                filasPorEmail.remove(claveAnterior);
+            }
+            escribirFila(fila, estudiante);
+            if (claveNueva != null) {
+                filasPorEmail.put(claveNueva, fila);
+            }
+            EstudianteInmutable actualizado = materializar(fila);
+            cambios.publicar(anterior, actualizado);
+            return actualizado.copiar();
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean eliminar(Long id) throws RepositorioException {
+        validarIdNoNulo(id);
+
+        cerrojo.writeLock().lock();
+        try {
+            int fila = filaDe(id);
+            if (fila < 0) {
+                throw new RepositorioException("El estudiante no existe", "ESTUDIANTE_NO_ENCONTRADO");
+            }
+            // Eliminación lógica: solo se apaga el bit de la fila
+            if (estaActivo(fila)) {
+                EstudianteInmutable anterior = materializar(fila);
+                marcarActivo(fila, false);
+                cambios.publicar(anterior, anterior.conActivo(false));
+            }
+            return true;
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existe(Long id) throws RepositorioException {
+        validarIdNoNulo(id);
+
+        cerrojo.readLock().lock();
+        try {
+            return filaDe(id) >= 0;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existePorEmail(String email) throws RepositorioException {
+        validarEmailNoNulo(email);
+
+        cerrojo.readLock().lock();
+        try {
+            return filasPorEmail.containsKey(normalizar(email));
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long contarEstudiantes() throws RepositorioException {
+        cerrojo.readLock().lock();
+        try {
+            return contarActivos();
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public EstadisticasEstudiantes obtenerEstadisticasEstudiantes() {
+        cerrojo.readLock().lock();
+        try {
+            // Agregación por código de carrera en un arreglo primitivo
+            long[] porCodigo = new long[diccionarioCarreras.size()];
+            long activosTotales = 0;
+            for (int fila = siguienteActiva(0); fila >= 0; fila = siguienteActiva(fila + 1)) {
+                activosTotales++;
+                int codigo = codigosCarrera[fila];
+                if (codigo >= 0) {
+                    porCodigo[codigo]++;
+                }
+            }
+
+            Map<String, Long> activosPorCarrera = new HashMap<>();
+            for (int codigo = 0; codigo < porCodigo.length; codigo++) {
+                if (porCodigo[codigo] > 0) {
+                    activosPorCarrera.put(diccionarioCarreras.get(codigo), porCodigo[codigo]);
+                }
+            }
+            return new EstadisticasEstudiantes(filas, activosTotales, filas - activosTotales, activosPorCarrera);
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void suscribir(Flow.Subscriber<? super EventoCambio> suscriptor) {
+        cambios.suscribir(suscriptor);
+    }
+
+    @Override
+    public long obtenerUltimaSecuencia() {
+        return cambios.obtenerUltimaSecuencia();
+    }
+
+    @Override
+    public long obtenerEventosDescartados() {
+        return cambios.obtenerEventosDescartados();
+    }
+
+    // Método para limpiar repositorio (útil para pruebas)
+    public void limpiar() {
+        cerrojo.writeLock().lock();
+        try {
+            Arrays.fill(activos, 0L);
+            nombres.vaciar();
+            apellidos.vaciar();
+            emails.vaciar();
+            diccionarioCarreras.clear();
+            codigosPorCarrera.clear();
+            filasPorEmail.clear();
+            filas = 0;
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    // Métodos de columnas (Principio de Separación de Intereses)
+    private void escribirFila(int fila, Estudiante estudiante) {
+        nombres.escribir(fila, estudiante.getNombre());
+        apellidos.escribir(fila, estudiante.getApellido());
+        emails.escribir(fila, estudiante.getEmail());
+        codigosCarrera[fila] = codificarCarrera(estudiante.getCarrera());
+        LocalDate fecha = estudiante.getFechaIngreso();
+        diasIngreso[fila] = fecha != null ? (int) fecha.toEpochDay() : Integer.MIN_VALUE;
+        marcarActivo(fila, estudiante.isActivo());
+    }
+
+    private EstudianteInmutable materializar(int fila) {
+        int codigo = codigosCarrera[fila];
+        int dias = diasIngreso[fila];
+        return new EstudianteInmutable(ids[fila], nombres.leer(fila), apellidos.leer(fila), emails.leer(fila),
+                                       codigo >= 0 ? diccionarioCarreras.get(codigo) : null,
+                                       dias != Integer.MIN_VALUE ? LocalDate.ofEpochDay(dias) : null,
+                                       estaActivo(fila));
+    }
+
+    private int codificarCarrera(String carrera) {
+        if (carrera == null) {
+            return -1;
+        }
+        return codigosPorCarrera.computeIfAbsent(carrera, c -> {
+            diccionarioCarreras.add(c);
+            return diccionarioCarreras.size() - 1;
+        });
+    }
+
+    // Códigos de diccionario que coinciden con la carrera sin distinguir mayúsculas (null si ninguno)
+    private boolean[] codigosQueCoinciden(String carrera) {
+        String clave = normalizar(carrera);
+        boolean[] coincide = new boolean[diccionarioCarreras.size()];
+        boolean alguna = false;
+        for (int codigo = 0; codigo < coincide.length; codigo++) {
+            coincide[codigo] = clave.equals(normalizar(diccionarioCarreras.get(codigo)));
+            alguna |= coincide[codigo];
+        }
+        return alguna ? coincide : null;
+    }
+
+    private int filaDe(long id) {
+        return id >= 1 && id <= filas ? (int) (id - 1) : -1;
+    }
+
+    private void asegurarCapacidad(int requeridas) {
+        if (requeridas <= ids.length) {
+            return;
+        }
+        int capacidad = Math.max(requeridas, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacidad);
+        codigosCarrera = Arrays.copyOf(codigosCarrera, capacidad);
+        diasIngreso = Arrays.copyOf(diasIngreso, capacidad);
+        activos = Arrays.copyOf(activos, palabrasPara(capacidad));
+    }
+
+    // Operaciones del bitset de activos
+    private static int palabrasPara(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    private boolean estaActivo(int fila) {
+        return (activos[fila >>> 6] & (1L << fila)) != 0;
+    }
+
+    private void marcarActivo(int fila, boolean activo) {
+        if (activo) {
+            activos[fila >>> 6] |= 1L << fila;
+        } else {
+            activos[fila >>> 6] &= ~(1L << fila);
+        }
+    }
+
+    private int siguienteActiva(int desde) {
+        if (desde >= filas) {
+            return -1;
+        }
+        int palabra = desde >>> 6;
+        long bits = activos[palabra] & (-1L << desde);
+        int ultimaPalabra = (filas - 1) >>> 6;
+        while (true) {
+            if (bits != 0) {
+                int fila = (palabra << 6) + Long.numberOfTrailingZeros(bits);
+                return fila < filas ? fila : -1;
+            }
+            if (++palabra > ultimaPalabra) {
+                return -1;
+            }
+            bits = activos[palabra];
+        }
+    }
+
+    private int contarActivos() {
+        int total = 0;
+        for (int palabra = 0, ultima = palabrasPara(filas); palabra < ultima; palabra++) {
+            total += Long.bitCount(activos[palabra]);
+        }
+        return total;
+    }
+
+    private static String normalizar(String texto) {
+        return texto != null ? texto.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    // Métodos privados de validación (Principio de Separación de Intereses)
+    private void validarEstudianteNoNulo(Estudiante estudiante) throws RepositorioException {
+        if (estudiante == null) {
+            throw new RepositorioException("No se puede procesar un estudiante nulo", "ESTUDIANTE_NULO");
+        }
+    }
+
+    private void validarIdNoNulo(Long id) throws RepositorioException {
+        if (id == null) {
+            throw new RepositorioException("El ID no puede ser nulo", "ID_NULO");
+        }
+    }
+
+    private void validarEmailNoNulo(String email) throws RepositorioException {
+        if (email == null || email.trim().isEmpty()) {
+            throw new RepositorioException("El email no puede ser nulo o vacío", "EMAIL_NULO");
+        }
+    }
+
+    private void validarCarreraNoNula(String carrera) throws RepositorioException {
+        if (carrera == null || carrera.trim().isEmpty()) {
+            throw new RepositorioException("La carrera no puede ser nula o vacía", "CARRERA_NULA");
+        }
+    }
+
+    private void validarRangoFechas(LocalDate desde, LocalDate hasta) throws RepositorioException {
+        if (desde == null || hasta == null) {
+            throw new RepositorioException("Las fechas del rango no pueden ser nulas", "FECHA_NULA");
+        }
+        if (desde.isAfter(hasta)) {
+            throw new RepositorioException("La fecha inicial no puede ser posterior a la final", "RANGO_FECHAS_INVALIDO");
+        }
+    }
+
+    /**
+     * Columna de textos compacta: bytes UTF-8 contiguos más desplazamiento y
+     * longitud por fila. Las reescrituras se agregan al final y el espacio
+     * obsoleto se recupera compactando cuando supera la mitad del buffer.
+     */
+    private static final class ColumnaTexto {
+        private static final int NULO = -1;
+
+        private byte[] datos;
+        private int[] inicios;
+        private int[] longitudes;
+        private int usados;
+        private int obsoletos;
+
+        private ColumnaTexto(int capacidad) {
+            this.datos = new byte[capacidad * 16];
+            this.inicios = new int[capacidad];
+            this.longitudes = new int[capacidad];
+        }
+
+        private void escribir(int fila, String texto) {
+            asegurarFilas(fila + 1);
+            if (longitudes[fila] > 0) {
+                obsoletos += longitudes[fila];
+            }
+            if (texto == null) {
+                inicios[fila] = 0;
+                longitudes[fila] = NULO;
+                return;
+            }
+            byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+            asegurarBytes(bytes.length, fila);
+            System.arraycopy(bytes, 0, datos, usados, bytes.length);
+            inicios[fila] = usados;
+            longitudes[fila] = bytes.length;
+            usados += bytes.length;
+        }
+
+        private String leer(int fila) {
+            int longitud = longitudes[fila];
+            if (longitud == NULO) {
+                return null;
+            }
+            return new String(datos, inicios[fila], longitud, StandardCharsets.UTF_8);
+        }
+
+        private void vaciar() {
+            usados = 0;
+            obsoletos = 0;
+            Arrays.fill(longitudes, 0);
+        }
+
+        private void asegurarFilas(int requeridas) {
+            if (requeridas > inicios.length) {
+                int capacidad = Math.max(requeridas, inicios.length * 2);
+                inicios = Arrays.copyOf(inicios, capacidad);
+                longitudes = Arrays.copyOf(longitudes, capacidad);
+            }
+        }
+
+        private void asegurarBytes(int adicionales, int filaEnEscritura) {
+            if (usados + adicionales <= datos.length) {
+                return;
+            }
+            if (obsoletos > usados / 2) {
+                compactar(filaEnEscritura);
+                if (usados + adicionales <= datos.length) {
+                    return;
+                }
+            }
+            datos = Arrays.copyOf(datos, Math.max(usados + adicionales, datos.length * 2));
+        }
+
+        // Copia solo los textos vigentes a un buffer nuevo (la fila en escritura ya se descartó)
+        private void compactar(int filaEnEscritura) {
+            byte[] nuevos = new byte[datos.length];
+            int posicion = 0;
+            for (int fila = 0; fila < inicios.length; fila++) {
+                int longitud = longitudes[fila];
+                if (fila == filaEnEscritura || longitud <= 0) {
+                    continue;
+                }
+                System.arraycopy(datos, inicios[fila], nuevos, posicion, longitud);
+                inicios[fila] = posicion;
+                posicion += longitud;
+            }
+            datos = nuevos;
+            usados = posicion;
+            obsoletos = 0;
+        }
+    }
+}
@@ -0,0 +1,601 @@
+package com.roberto.rivas.repositorio;
+
+import com.roberto.rivas.modelo.Estudiante;
+import com.roberto.rivas.modelo.EstudianteInmutable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Implementación fuera del heap del repositorio de Estudiantes
+ * Los campos codificados viven en segmentos de memoria directa; en el heap
+ * solo quedan los índices de ID y email, que apuntan a desplazamientos
+ * 
+ * Cada escritura agrega una versión nueva del registro al segmento activo.
+ * Las versiones reemplazadas se contabilizan como bytes muertos y se
+ * recuperan compactando el segmento cuando superan el umbral configurado
+ * 
+ * La eliminación es lógica, como en EstudianteRepositorioMemoria: el registro
+ * eliminado sigue siendo la versión vigente (buscarPorId lo devuelve inactivo),
+ * así que la compactación lo traslada junto con los activos. Solo se recupera
+ * el espacio de las versiones reemplazadas por actualizaciones
+ * 
+ * Los listados se ordenan al materializarlos con el mismo orden que los demás
+ * repositorios (OrdenEstudiantes): los registros se recorren por ID
+ * 
+ * Formato del registro: longitud (int), id (long), activo (byte),
+ * fecha de ingreso en días epoch (int) y cuatro textos UTF-8 con prefijo
+ * de longitud (short, -1 para nulo): nombre, apellido, email y carrera
+ * 
+ * @author Roberto Rivas Lopez
+ */
+public class EstudianteRepositorioFueraDeHeap implements IEstudianteRepositorio, IEstadisticasRepositorio,
+                                                         IPublicadorCambios {
+
+    public static final int TAMANO_SEGMENTO_POR_DEFECTO = 1 << 20;
+    private static final double UMBRAL_COMPACTACION = 0.5;
+
+    private static final int DESPLAZAMIENTO_ID = 4;
+    private static final int DESPLAZAMIENTO_ACTIVO = 12;
+    private static final int DESPLAZAMIENTO_FECHA = 13;
+    private static final int DESPLAZAMIENTO_TEXTOS = 17;
+    private static final int SIN_FECHA = Integer.MIN_VALUE;
+
+    private final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+    private final int tamanoSegmento;
+
+    // Segmentos de memoria directa y su ocupación
+    private final List<ByteBuffer> segmentos;
+    private int[] bytesUsados;
+    private int[] bytesMuertos;
+    private final Deque<Integer> segmentosLibres;
+    private int segmentoActivo;
+
+    // Índices en el heap: ubicación por ID (segmento << 32 | desplazamiento) y ID por email
+    private long[] ubicaciones;
+    private int totalEstudiantes;
+    private int estudiantesActivos;
+    private final Map<String, Long> idsPorEmail;
+
+    // Flujo de cambios (se publica bajo el cerrojo de escritura)
+    private final PublicadorCambios cambios = new PublicadorCambios();
+
+    public EstudianteRepositorioFueraDeHeap() {
+        this(TAMANO_SEGMENTO_POR_DEFECTO);
+    }
+
+    public EstudianteRepositorioFueraDeHeap(int tamanoSegmento) {
+        if (tamanoSegmento < 256) {
+            throw new IllegalArgumentException("El tamaño de segmento debe ser al menos 256 bytes");
+        }
+        this.tamanoSegmento = tamanoSegmento;
+        this.segmentos = new ArrayList<>();
+        this.bytesUsados = new int[4];
+        this.bytesMuertos = new int[4];
+        this.segmentosLibres = new ArrayDeque<>();
+        this.ubicaciones = new long[64];
+        this.idsPorEmail = new HashMap<>();
+        this.segmentoActivo = nuevoSegmento();
+    }
+
+    @Override
+    public Estudiante crear(Estudiante estudiante) throws RepositorioException {
+        validarEstudianteNoNulo(estudiante);
+
+        cerrojo.writeLock().lock();
+        try {
+            String claveEmail = normalizar(estudiante.getEmail());
+            if (claveEmail != null && idsPorEmail.containsKey(claveEmail)) {
+                throw new RepositorioException("Ya existe un estudiante con este email", "EMAIL_DUPLICADO");
+            }
+
+            long id = totalEstudiantes + 1L;
+            EstudianteInmutable nuevo = EstudianteInmutable.conId(estudiante, id);
+            byte[] registro = codificar(nuevo);
+
+            if (totalEstudiantes == ubicaciones.length) {
+                ubicaciones = Arrays.copyOf(ubicaciones, ubicaciones.length * 2);
+            }
+            ubicaciones[totalEstudiantes++] = agregar(registro);
+            if (nuevo.isActivo()) {
+                estudiantesActivos++;
+            }
+            if (claveEmail != null) {
+                idsPorEmail.put(claveEmail, id);
+            }
+            cambios.publicar(null, nuevo);
+            return nuevo.copiar();
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Estudiante> buscarPorId(Long id) throws RepositorioException {
+        validarIdNoNulo(id);
+
+        cerrojo.readLock().lock();
+        try {
+            return existeId(id) ? Optional.of(decodificar(ubicacionDe(id))) : Optional.empty();
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Estudiante> buscarPorEmail(String email) throws RepositorioException {
+        validarEmailNoNulo(email);
+
+        cerrojo.readLock().lock();
+        try {
+            Long id = idsPorEmail.get(normalizar(email));
+            return id != null ? Optional.of(decodificar(ubicacionDe(id))) : Optional.empty();
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Estudiante> obtenerTodos() throws RepositorioException {
+        List<Estudiante> resultado;
+        cerrojo.readLock().lock();
+        try {
+            resultado = new ArrayList<>(estudiantesActivos);
+            for (int i = 0; i < totalEstudiantes; i++) {
+                // Se consulta el byte de estado antes de decodificar el registro completo
+                if (leerActivo(ubicaciones[i])) {
+                    resultado.add(decodificar(ubicaciones[i]));
+                }
+            }
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+        // Los registros se recorren por ID; el orden de los listados se aplica fuera del cerrojo
+        resultado.sort(OrdenEstudiantes.ESTUDIANTE);
+        return resultado;
+    }
+
+    @Override
+    public List<Estudiante> obtenerPorCarrera(String carrera) throws RepositorioException {
+        validarCarreraNoNula(carrera);
+
+        String clave = normalizar(carrera);
+        List<Estudiante> resultado = new ArrayList<>();
+        cerrojo.readLock().lock();
+        try {
+            for (int i = 0; i < totalEstudiantes; i++) {
+                if (leerActivo(ubicaciones[i])) {
+                    EstudianteInmutable estudiante = decodificar(ubicaciones[i]);
+                    if (clave.equals(normalizar(estudiante.getCarrera()))) {
+                        resultado.add(estudiante);
+                    }
+                }
+            }
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+        resultado.sort(OrdenEstudiantes.ESTUDIANTE);
+        return resultado;
+    }
+
+    @Override
+    public List<Estudiante> obtenerPorFechaIngreso(LocalDate desde, LocalDate hasta, String carrera, Boolean activo) 
+            throws RepositorioException {
+        validarRangoFechas(desde, hasta);
+
+        cerrojo.readLock().lock();
+        try {
+            // Estado y fecha se leen en su posición fija; solo se decodifican las filas del rango
+            String clave = normalizar(carrera);
+            long inicio = desde.toEpochDay();
+            long fin = hasta.toEpochDay();
+            long[] claves = new long[16];
+            int encontradas = 0;
+            for (int i = 0; i < totalEstudiantes; i++) {
+                int dias = leerDias(ubicaciones[i]);
+                if (dias == SIN_FECHA || dias < inicio || dias > fin) {
+                    continue;
+                }
+                if (activo != null && activo != leerActivo(ubicaciones[i])) {
+                    continue;
+                }
+                if (encontradas == claves.length) {
+                    claves = Arrays.copyOf(claves, claves.length * 2);
+                }
+                claves[encontradas++] = ((long) dias << 32) | i;
+            }
+
+            // El índice i es id - 1: ordenar por (día, i) equivale a (fecha, id)
+            Arrays.sort(claves, 0, encontradas);
+            List<Estudiante> resultado = new ArrayList<>(encontradas);
+            for (int j = 0; j < encontradas; j++) {
+                EstudianteInmutable estudiante = decodificar(ubicaciones[(int) claves[j]]);
+                if (clave == null || clave.equals(normalizar(estudiante.getCarrera()))) {
+                    resultado.add(estudiante);
+                }
+            }
+            return resultado;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Estudiante actualizar(Estudiante estudiante) throws RepositorioException {
+        validarEstudianteNoNulo(estudiante);
+        validarIdNoNulo(estudiante.getId());
+
+        cerrojo.writeLock().lock();
+        try {
+            Long id = estudiante.getId();
+            if (!existeId(id)) {
+                throw new RepositorioException("El estudiante no existe", "ESTUDIANTE_NO_ENCONTRADO");
+            }
+
+            String claveNueva = normalizar(estudiante.getEmail());
+            Long titular = claveNueva != null ? idsPorEmail.get(claveNueva) : null;
+            if (titular != null && !titular.equals(id)) {
+                throw new RepositorioException("Ya existe un estudiante con este email", "EMAIL_DUPLICADO");
+            }
+
+            long ubicacionAnterior = ubicacionDe(id);
+            EstudianteInmutable anterior = decodificar(ubicacionAnterior);
+            EstudianteInmutable nuevo = EstudianteInmutable.de(estudiante);
+            byte[] registro = codificar(nuevo);
+
+            ubicaciones[(int) (id - 1)] = agregar(registro);
+            estudiantesActivos += (nuevo.isActivo() ? 1 : 0) - (anterior.isActivo() ? 1 : 0);
+
+            String claveAnterior = normalizar(anterior.getEmail());
+            if (claveAnterior != null && !claveAnterior.equals(claveNueva)) {
+                idsPorEmail.remove(claveAnterior);
+            }
+            if (claveNueva != null) {
+                idsPorEmail.put(claveNueva, id);
+            }
+
+            descartar(ubicacionAnterior);
+            cambios.publicar(anterior, nuevo);
+            return nuevo.copiar();
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean eliminar(Long id) throws RepositorioException {
+        validarIdNoNulo(id);
+
+        cerrojo.writeLock().lock();
+        try {
+            if (!existeId(id)) {
+                throw new RepositorioException("El estudiante no existe", "ESTUDIANTE_NO_ENCONTRADO");
+            }
+            // Eliminación lógica: el byte de estado se reescribe en su lugar y el registro
+            // sigue vigente (no cuenta como bytes muertos ni lo descarta la compactación)
+            long ubicacion = ubicacionDe(id);
+            if (leerActivo(ubicacion)) {
+                EstudianteInmutable anterior = decodificar(ubicacion);
+                segmentos.get(segmentoDe(ubicacion)).put(desplazamientoDe(ubicacion) + DESPLAZAMIENTO_ACTIVO, (byte) 0);
+                estudiantesActivos--;
+                cambios.publicar(anterior, anterior.conActivo(false));
+            }
+            return true;
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existe(Long id) throws RepositorioException {
+        validarIdNoNulo(id);
+
+        cerrojo.readLock().lock();
+        try {
+            return existeId(id);
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existePorEmail(String email) throws RepositorioException {
+        validarEmailNoNulo(email);
+
+        cerrojo.readLock().lock();
+        try {
+            return idsPorEmail.containsKey(normalizar(email));
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long contarEstudiantes() throws RepositorioException {
+        cerrojo.readLock().lock();
+        try {
+            return estudiantesActivos;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public EstadisticasEstudiantes obtenerEstadisticasEstudiantes() {
+        cerrojo.readLock().lock();
+        try {
+            Map<String, Long> activosPorCarrera = new HashMap<>();
+            for (int i = 0; i < totalEstudiantes; i++) {
+                if (leerActivo(ubicaciones[i])) {
+                    String carrera = decodificar(ubicaciones[i]).getCarrera();
+                    if (carrera != null) {
+                        activosPorCarrera.merge(carrera, 1L, Long::sum);
+                    }
+                }
+            }
+            return new EstadisticasEstudiantes(totalEstudiantes, estudiantesActivos,
+                                               totalEstudiantes - estudiantesActivos, activosPorCarrera);
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void suscribir(Flow.Subscriber<? super EventoCambio> suscriptor) {
+        cambios.suscribir(suscriptor);
+    }
+
+    @Override
+    public long obtenerUltimaSecuencia() {
+        return cambios.obtenerUltimaSecuencia();
+    }
+
+    @Override
+    public long obtenerEventosDescartados() {
+        return cambios.obtenerEventosDescartados();
+    }
+
+    /**
+     * Compacta todos los segmentos con versiones reemplazadas, salvo el activo
+     * @return bytes recuperados
+     */
+    public long compactar() {
+        cerrojo.writeLock().lock();
+        try {
+            long recuperados = 0;
+            for (int segmento = 0; segmento < segmentos.size(); segmento++) {
+                if (segmento != segmentoActivo && bytesMuertos[segmento] > 0) {
+                    recuperados += compactarSegmento(segmento);
+                }
+            }
+            return recuperados;
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    // Bytes de memoria directa reservados (útil para monitoreo)
+    public long obtenerBytesReservados() {
+        cerrojo.readLock().lock();
+        try {
+            return (long) segmentos.size() * tamanoSegmento;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    // Bytes ocupados por versiones vigentes de los registros
+    public long obtenerBytesVivos() {
+        cerrojo.readLock().lock();
+        try {
+            long vivos = 0;
+            for (int segmento = 0; segmento < segmentos.size(); segmento++) {
+                vivos += bytesUsados[segmento] - bytesMuertos[segmento];
+            }
+            return vivos;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    // Método para limpiar repositorio (útil para pruebas)
+    public void limpiar() {
+        cerrojo.writeLock().lock();
+        try {
+            segmentosLibres.clear();
+            for (int segmento = 0; segmento < segmentos.size(); segmento++) {
+                bytesUsados[segmento] = 0;
+                bytesMuertos[segmento] = 0;
+                if (segmento != 0) {
+                    segmentosLibres.add(segmento);
+                }
+            }
+            segmentoActivo = 0;
+            totalEstudiantes = 0;
+            estudiantesActivos = 0;
+            idsPorEmail.clear();
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    // Métodos de segmentos (Principio de Separación de Intereses)
+    private long agregar(byte[] registro) {
+        if (bytesUsados[segmentoActivo] + registro.length > tamanoSegmento) {
+            Integer libre = segmentosLibres.poll();
+            segmentoActivo = libre != null ? libre : nuevoSegmento();
+        }
+        int desplazamiento = bytesUsados[segmentoActivo];
+        segmentos.get(segmentoActivo).put(desplazamiento, registro);
+        bytesUsados[segmentoActivo] += registro.length;
+        return ubicacion(segmentoActivo, desplazamiento);
+    }
+
+    private void descartar(long ubicacion) {
+        int segmento = segmentoDe(ubicacion);
+        bytesMuertos[segmento] += segmentos.get(segmento).getInt(desplazamientoDe(ubicacion));
+        if (segmento != segmentoActivo && bytesMuertos[segmento] >= bytesUsados[segmento] * UMBRAL_COMPACTACION) {
+            compactarSegmento(segmento);
+        }
+    }
+
+    // Copia las versiones vigentes del segmento al final del activo y lo deja libre
+    // (los registros eliminados lógicamente también son vigentes)
+    private int compactarSegmento(int segmento) {
+        ByteBuffer origen = segmentos.get(segmento);
+        int recuperados = bytesMuertos[segmento];
+        int desplazamiento = 0;
+        while (desplazamiento < bytesUsados[segmento]) {
+            int longitud = origen.getInt(desplazamiento);
+            long id = origen.getLong(desplazamiento + DESPLAZAMIENTO_ID);
+            if (ubicaciones[(int) (id - 1)] == ubicacion(segmento, desplazamiento)) {
+                byte[] registro = new byte[longitud];
+                origen.get(desplazamiento, registro);
+                ubicaciones[(int) (id - 1)] = agregar(registro);
+            }
+            desplazamiento += longitud;
+        }
+        bytesUsados[segmento] = 0;
+        bytesMuertos[segmento] = 0;
+        segmentosLibres.add(segmento);
+        return recuperados;
+    }
+
+    private int nuevoSegmento() {
+        segmentos.add(ByteBuffer.allocateDirect(tamanoSegmento));
+        int indice = segmentos.size() - 1;
+        if (indice >= bytesUsados.length) {
+            bytesUsados = Arrays.copyOf(bytesUsados, bytesUsados.length * 2);
+            bytesMuertos = Arrays.copyOf(bytesMuertos, bytesMuertos.length * 2);
+        }
+        return indice;
+    }
+
+    // Métodos de codificación de registros
+    private byte[] codificar(Estudiante estudiante) throws RepositorioException {
+        byte[][] textos = {
+            bytesDe(estudiante.getNombre()), bytesDe(estudiante.getApellido()),
+            bytesDe(estudiante.getEmail()), bytesDe(estudiante.getCarrera())
+        };
+        int longitud = DESPLAZAMIENTO_TEXTOS;
+        for (byte[] texto : textos) {
+            if (texto != null && texto.length > Short.MAX_VALUE) {
+                throw new RepositorioException("Un campo del estudiante excede el tamaño permitido", "CAMPO_DEMASIADO_LARGO");
+            }
+            longitud += Short.BYTES + (texto != null ? texto.length : 0);
+        }
+        if (longitud > tamanoSegmento) {
+            throw new RepositorioException("El registro excede el tamaño del segmento", "REGISTRO_DEMASIADO_GRANDE");
+        }
+
+        LocalDate fecha = estudiante.getFechaIngreso();
+        ByteBuffer registro = ByteBuffer.allocate(longitud);
+        registro.putInt(longitud)
+                .putLong(estudiante.getId())
+                .put((byte) (estudiante.isActivo() ? 1 : 0))
+                .putInt(fecha != null ? (int) fecha.toEpochDay() : SIN_FECHA);
+        for (byte[] texto : textos) {
+            registro.putShort((short) (texto != null ? texto.length : -1));
+            if (texto != null) {
+                registro.put(texto);
+            }
+        }
+        return registro.array();
+    }
+
+    private EstudianteInmutable decodificar(long ubicacion) {
+        ByteBuffer segmento = segmentos.get(segmentoDe(ubicacion));
+        int base = desplazamientoDe(ubicacion);
+        long id = segmento.getLong(base + DESPLAZAMIENTO_ID);
+        boolean activo = segmento.get(base + DESPLAZAMIENTO_ACTIVO) != 0;
+        int dias = segmento.getInt(base + DESPLAZAMIENTO_FECHA);
+
+        String[] textos = new String[4];
+        int posicion = base + DESPLAZAMIENTO_TEXTOS;
+        for (int i = 0; i < textos.length; i++) {
+            short longitud = segmento.getShort(posicion);
+            posicion += Short.BYTES;
+            if (longitud >= 0) {
+                byte[] bytes = new byte[longitud];
+                segmento.get(posicion, bytes);
+                textos[i] = new String(bytes, StandardCharsets.UTF_8);
+                posicion += longitud;
+            }
+        }
+        return new EstudianteInmutable(id, textos[0], textos[1], textos[2], textos[3],
+                                       dias != SIN_FECHA ? LocalDate.ofEpochDay(dias) : null, activo);
+    }
+
+    private boolean leerActivo(long ubicacion) {
+        return segmentos.get(segmentoDe(ubicacion)).get(desplazamientoDe(ubicacion) + DESPLAZAMIENTO_ACTIVO) != 0;
+    }
+
+    private int leerDias(long ubicacion) {
+        return segmentos.get(segmentoDe(ubicacion)).getInt(desplazamientoDe(ubicacion) + DESPLAZAMIENTO_FECHA);
+    }
+
+    private static byte[] bytesDe(String texto) {
+        return texto != null ? texto.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private boolean existeId(long id) {
+        return id >= 1 && id <= totalEstudiantes;
+    }
+
+    private long ubicacionDe(long id) {
+        return ubicaciones[(int) (id - 1)];
+    }
+
+    private static long ubicacion(int segmento, int desplazamiento) {
+        return ((long) segmento << 32) | (desplazamiento & 0xFFFFFFFFL);
+    }
+
+    private static int segmentoDe(long ubicacion) {
+        return (int) (ubicacion >>> 32);
+    }
+
+    private static int desplazamientoDe(long ubicacion) {
+        return (int) ubicacion;
+    }
+
+    private static String normalizar(String texto) {
+        return texto != null ? texto.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    // Métodos privados de validación (Principio de Separación de Intereses)
+    private void validarEstudianteNoNulo(Estudiante estudiante) throws RepositorioException {
+        if (estudiante == null) {
+            throw new RepositorioException("No se puede procesar un estudiante nulo", "ESTUDIANTE_NULO");
+        }
+    }
+
+    private void validarIdNoNulo(Long id) throws RepositorioException {
+        if (id == null) {
+            throw new RepositorioException("El ID no puede ser nulo", "ID_NULO");
+        }
+    }
+
+    private void validarEmailNoNulo(String email) throws RepositorioException {
+        if (email == null || email.trim().isEmpty()) {
+            throw new RepositorioException("El email no puede ser nulo o vacío", "EMAIL_NULO");
+        }
+    }
+
+    private void validarCarreraNoNula(String carrera) throws RepositorioException {
+        if (carrera == null || carrera.trim().isEmpty()) {
+            throw new RepositorioException("La carrera no puede ser nula o vacía", "CARRERA_NULA");
+        }
+    }
+
+    private void validarRangoFechas(LocalDate desde, LocalDate hasta) throws RepositorioException {
+        if (desde == null || hasta == null) {
+            throw new RepositorioException("Las fechas del rango no pueden ser nulas", "FECHA_NULA");
+        }
+        if (desde.isAfter(hasta)) {
+            throw new RepositorioException("La fecha inicial no puede ser posterior a la final", "RANGO_FECHAS_INVALIDO");
+        }
+    }
+}
@@ -1,77 +1,528 @@
 package com.roberto.rivas.repositorio;
 
 import com.roberto.rivas.modelo.Estudiante;
+import com.roberto.rivas.modelo.EstudianteInmutable;
+import com.roberto.rivas.repositorio.estructura.AlmacenComprimido;
+import com.roberto.rivas.repositorio.estructura.MapaLongConcurrente;
+import com.roberto.rivas.repositorio.estructura.VersionesFijadas;
+import com.roberto.rivas.repositorio.persistencia.AlmacenDesborde;
+import com.roberto.rivas.repositorio.persistencia.ArchivoInstantanea;
+import com.roberto.rivas.repositorio.persistencia.CodificadorEstudiante;
+import com.roberto.rivas.repositorio.persistencia.RegistroEscrituraAnticipada;
+import com.roberto.rivas.repositorio.persistencia.RegistroEscrituraAnticipada.TipoOperacion;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.text.CollationKey;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Implementación en memoria del repositorio de Estudiantes
  * Aplica principios SOLID y patrones de diseño
  * Implementación thread-safe para entornos concurrentes
+ * Las lecturas devuelven instantáneas inmutables compartidas (sin copias por fila);
+ * las escrituras reemplazan la instantánea almacenada en lugar de mutarla
+ * Control de concurrencia multiversión (MVCC): cada fila guarda una cadena de
+ * versiones; los recorridos completos fijan una versión del reloj y leen sin
+ * bloquear escritores una vista consistente, y las versiones que ya ningún
+ * lector fijado puede ver se descartan al escribir la fila
+ * Los listados salen ya ordenados por (apellido, nombre, id) de un índice
+ * ordenado concurrente, igual que el ORDER BY del repositorio de base de datos
+ * (los textos se comparan como su collation, ver OrdenEstudiantes);
+ * las consultas por rango de fecha de ingreso recorren solo el tramo pedido
+ * de un índice ordenado por (fecha de ingreso, id)
+ * Nivel frío opcional: los inactivos sin cambios durante una antigüedad mínima
+ * se mueven a un almacén comprimido fuera del almacén principal y de sus índices;
+ * las búsquedas por ID y email los siguen encontrando y una actualización
+ * (por ejemplo, la reactivación) los promueve de vuelta al nivel caliente
+ * Modo acotado opcional: con un presupuesto de memoria, las filas menos usadas
+ * (política de reloj con frecuencia, GCLOCK) sacan su contenido del heap a un
+ * archivo de desborde local; el índice de email y los índices ordenados siguen
+ * en memoria, y una lectura por ID o email vuelve a cargar la fila
+ * Modo duradero opcional: cada escritura se agrega a un registro de escritura
+ * anticipada dentro de su sección crítica y espera su durabilidad antes de retornar
+ * Flujo de cambios: cada escritura publica su evento bajo el cerrojo de la fila,
+ * con la misma visibilidad que tiene para los lectores (antes de esperar la
+ * durabilidad); la restauración y el paso entre niveles no son cambios
  * 
  * @author Roberto Rivas Lopez
  */
-public class EstudianteRepositorioMemoria implements IEstudianteRepositorio {
+public class EstudianteRepositorioMemoria implements IEstudianteRepositorio, IEstadisticasRepositorio, 
+                                                     IPublicadorCambios {
 
-    private final Map<Long, Estudiante> estudiantes;
+    // Almacén principal con claves long primitivas: ID -> cadena de versiones de la fila
+    private final MapaLongConcurrente<VersionEstudiante> estudiantes;
+    // Reloj de versiones (última versión asignada) y lectores con versión fijada
+    private final AtomicLong reloj;
+    private final VersionesFijadas lectores;
+    // Escrituras entre el avance del reloj y la actualización de contadores
+    private final AtomicLong escriturasEnCurso;
+    // Índice secundario email normalizado -> ID (búsquedas y unicidad en O(1))
+    private final Map<String, Long> indicePorEmail;
+    // Índice ordenado (apellido, nombre, id) de los activos, global y por carrera normalizada
+    private final NavigableSet<ClaveOrden> indiceOrdenado;
+    private final Map<String, NavigableSet<ClaveOrden>> indiceOrdenadoPorCarrera;
+    // Índice ordenado (fecha de ingreso, id) de todas las filas para consultas por rango
+    private final NavigableSet<ClaveFecha> indicePorFechaIngreso;
+    // Claves que dejaron de ser vigentes; se retiran cuando ningún lector fijado las necesita
+    private final Queue<RetiroPendiente> retirosPendientes;
+    private final ReentrantLock cerrojoRetiros;
+    // Contadores mantenidos en escritura (lecturas en O(1) sin contención)
+    // El total se deriva de activos + inactivos para que siempre cuadre
+    private final LongAdder estudiantesActivos;
+    private final LongAdder estudiantesInactivos;
+    private final Map<String, LongAdder> activosPorCarrera;
     private final AtomicLong contadorId;
+    // Asignación de IDs: primer ID y paso (paso > 1 cuando es una partición)
+    private final long primerId;
+    private final long pasoId;
+    // Registro de escritura anticipada (null en modo solo memoria)
+    private final RegistroEscrituraAnticipada registro;
+    // Flujo de cambios (compartido entre particiones para una sola secuencia)
+    private final PublicadorCambios cambios;
+    // Nivel frío: inactivos archivados comprimidos y desactivaciones en orden de llegada
+    private final AlmacenComprimido frio;
+    private final Queue<Desactivacion> desactivaciones;
+    // Antigüedad mínima como inactivo para archivar (null: nivel frío desactivado)
+    private volatile Duration edadMinimaFrio;
+    // Modo acotado: presupuesto de bytes residentes (0: sin límite), bytes de las
+    // versiones vigentes residentes, filas desbordadas y archivo de desborde
+    private final long presupuestoBytes;
+    private final LongAdder bytesResidentes;
+    private final LongAdder filasDesbordadas;
+    private final AlmacenDesborde desborde;
+    // Reloj de desalojo (null sin presupuesto) y cerrojo para un solo desalojador a la vez
+    private final AnilloDesalojo anillo;
+    private final ReentrantLock cerrojoDesalojo;
+    // Recursos abiertos por conConfiguracion, que se liberan en cerrar()
+    private final Deque<AutoCloseable> recursosPropios;
+    
+    // Marca de reserva de email mientras se asigna el ID (nunca es un ID válido)
+    private static final Long EMAIL_RESERVADO = -1L;
+    private static final int CAPACIDAD_INICIAL = 16;
+    // Intentos de leer los contadores sin escrituras en curso antes de recorrer
+    private static final int INTENTOS_LECTURA_CONTADORES = 64;
+    // Accesos que una fila acumula como máximo: vueltas del reloj que sobrevive sin uso
+    private static final int FRECUENCIA_MAXIMA = 15;
+    // Estimación de un estudiante sin sus textos: objeto (40 B), Long (16 B) y LocalDate (24 B)
+    private static final long BYTES_ESTUDIANTE_SIN_TEXTOS = 80L;
     
     public EstudianteRepositorioMemoria() {
-        this.estudiantes = new ConcurrentHashMap<>();
-        this.contadorId = new AtomicLong(1);
+        this(null, CAPACIDAD_INICIAL, 1, 1, 0L, null, new PublicadorCambios());
+    }
+    
+    /**
+     * Repositorio que asigna IDs primerId, primerId + pasoId, ... (usado por particiones
+     * para que los IDs de distintas particiones nunca coincidan) y publica sus
+     * cambios en el publicador indicado
+     */
+    EstudianteRepositorioMemoria(long primerId, long pasoId, PublicadorCambios cambios) {
+        this(null, CAPACIDAD_INICIAL, primerId, pasoId, 0L, null, cambios);
+    }
+    
+    private EstudianteRepositorioMemoria(RegistroEscrituraAnticipada registro, int capacidadInicial,
+                                         long primerId, long pasoId, long presupuestoBytes, AlmacenDesborde desborde,
+                                         PublicadorCambios cambios) {
+        if (primerId < 1 || pasoId < 1) {
+            throw new IllegalArgumentException("El primer ID y el paso deben ser positivos");
+        }
+        this.registro = registro;
+        this.cambios = cambios;
+        this.primerId = primerId;
+        this.pasoId = pasoId;
+        this.estudiantes = new MapaLongConcurrente<>(capacidadInicial);
+        this.reloj = new AtomicLong();
+        this.lectores = new VersionesFijadas();
+        this.escriturasEnCurso = new AtomicLong();
+        this.indicePorEmail = new ConcurrentHashMap<>(capacidadInicial);
+        this.indiceOrdenado = new ConcurrentSkipListSet<>();
+        this.indiceOrdenadoPorCarrera = new ConcurrentHashMap<>();
+        this.indicePorFechaIngreso = new ConcurrentSkipListSet<>();
+        this.retirosPendientes = new ConcurrentLinkedQueue<>();
+        this.cerrojoRetiros = new ReentrantLock();
+        this.estudiantesActivos = new LongAdder();
+        this.estudiantesInactivos = new LongAdder();
+        this.activosPorCarrera = new ConcurrentHashMap<>();
+        this.contadorId = new AtomicLong(primerId);
+        this.frio = new AlmacenComprimido();
+        this.desactivaciones = new ConcurrentLinkedQueue<>();
+        this.presupuestoBytes = presupuestoBytes;
+        this.bytesResidentes = new LongAdder();
+        this.filasDesbordadas = new LongAdder();
+        this.desborde = desborde;
+        this.anillo = presupuestoBytes > 0 ? new AnilloDesalojo() : null;
+        this.cerrojoDesalojo = new ReentrantLock();
+        this.recursosPropios = new ConcurrentLinkedDeque<>();
+    }
+    
+    /**
+     * Crea un repositorio según la configuración: capacidad inicial, modo acotado
+     * con su archivo de desborde si se indica un presupuesto, modo duradero
+     * reconstruido desde su registro si se indica un archivo de registro, y
+     * nivel frío con su tarea periódica de archivo
+     * El repositorio es dueño de esos archivos y de la tarea: se liberan con cerrar()
+     * @throws RepositorioException si no se puede abrir o reproducir alguno de los archivos
+     */
+    public static EstudianteRepositorioMemoria conConfiguracion(ConfiguracionRepositorioMemoria configuracion)
+            throws RepositorioException {
+        if (configuracion == null) {
+            throw new IllegalArgumentException("La configuración no puede ser nula");
+        }
+        
+        AlmacenDesborde desborde = null;
+        RegistroEscrituraAnticipada registro = null;
+        try {
+            if (configuracion.isAcotado()) {
+                Path archivo = configuracion.getArchivoDesborde();
+                desborde = archivo != null ? new AlmacenDesborde(archivo) : AlmacenDesborde.temporal();
+            }
+            if (configuracion.isDuradero()) {
+                Path archivo = configuracion.getArchivoRegistro().toAbsolutePath();
+                Files.createDirectories(archivo.getParent());
+                registro = new RegistroEscrituraAnticipada(archivo, configuracion.getPoliticaSincronizacion(),
+                                                           configuracion.getEsperaSincronizacion());
+            }
+            EstudianteRepositorioMemoria repositorio = new EstudianteRepositorioMemoria(
+                registro, configuracion.getCapacidadInicial(), 1, 1,
+                configuracion.getPresupuestoBytes(), desborde, new PublicadorCambios());
+            if (desborde != null) {
+                repositorio.recursosPropios.push(desborde);
+            }
+            if (registro != null) {
+                repositorio.recursosPropios.push(registro);
+                registro.reproducir(repositorio::reproducir);
+            }
+            // Después de reproducir: los inactivos recuperados cuentan su antigüedad desde aquí
+            if (configuracion.isNivelFrio()) {
+                repositorio.configurarNivelFrio(configuracion.getEdadMinimaFrio());
+                repositorio.iniciarArchivoPeriodico(configuracion.getIntervaloArchivo());
+            }
+            return repositorio;
+        } catch (IOException e) {
+            cerrarSinErrores(registro);
+            cerrarSinErrores(desborde);
+            throw new RepositorioException("No se pudieron abrir los archivos del repositorio", "PERSISTENCIA_ERROR", e);
+        }
+    }
+    
+    /**
+     * Crea un repositorio duradero reconstruido a partir del registro indicado
+     * Las operaciones posteriores se siguen agregando al mismo registro
+     */
+    public static EstudianteRepositorioMemoria conRegistro(RegistroEscrituraAnticipada registro) 
+            throws RepositorioException {
+        if (registro == null) {
+            throw new IllegalArgumentException("El registro de escritura no puede ser nulo");
+        }
+        
+        EstudianteRepositorioMemoria repositorio = new EstudianteRepositorioMemoria(
+            registro, CAPACIDAD_INICIAL, 1, 1, 0L, null, new PublicadorCambios());
+        try {
+            registro.reproducir(repositorio::reproducir);
+        } catch (IOException e) {
+            throw new RepositorioException("No se pudo reproducir el registro de escritura", "PERSISTENCIA_ERROR", e);
+        }
+        return repositorio;
+    }
+    
+    /**
+     * Crea un repositorio a partir de una instantánea y, si se indica un registro,
+     * reproduce solo las operaciones posteriores al LSN que cubre la instantánea
+     */
+    public static EstudianteRepositorioMemoria desdeInstantanea(Path instantanea, RegistroEscrituraAnticipada registro)
+            throws RepositorioException {
+        if (instantanea == null) {
+            throw new IllegalArgumentException("La ruta de la instantánea no puede ser nula");
+        }
+        
+        try {
+            // Dimensionar el almacén y el índice de email con la cantidad de la cabecera
+            ArchivoInstantanea.Cabecera previa = ArchivoInstantanea.leerCabecera(instantanea);
+            int capacidad = (int) Math.min(Integer.MAX_VALUE / 2, Math.max(CAPACIDAD_INICIAL, previa.getCantidad()));
+            EstudianteRepositorioMemoria repositorio = new EstudianteRepositorioMemoria(
+                registro, capacidad, 1, 1, 0L, null, new PublicadorCambios());
+            ArchivoInstantanea.Cabecera cabecera = ArchivoInstantanea.leer(instantanea, repositorio::restaurar);
+            repositorio.contadorId.accumulateAndGet(cabecera.getProximoId(), Math::max);
+            if (registro != null) {
+                registro.reproducir(cabecera.getLsn(), repositorio::reproducir);
+            }
+            return repositorio;
+        } catch (IOException e) {
+            throw new RepositorioException("No se pudo cargar la instantánea", "PERSISTENCIA_ERROR", e);
+        }
+    }
+    
+    /**
+     * Guarda una instantánea consistente (versión fijada) sin detener a los escritores
+     * Con registro de escritura, toda operación con LSN hasta el devuelto ya está
+     * aplicada en su fila al iniciar el recorrido (se registra bajo el cerrojo de
+     * la fila); las posteriores que el recorrido alcance a ver se vuelven a aplicar
+     * al reproducir, lo que es idempotente porque el registro guarda imágenes completas
+     * @return LSN cubierto por la instantánea (0 sin registro de escritura)
+     */
+    public long guardarInstantanea(Path archivo) throws RepositorioException {
+        if (archivo == null) {
+            throw new IllegalArgumentException("La ruta de la instantánea no puede ser nula");
+        }
+        
+        long lsn = registro != null ? registro.obtenerUltimoLsn() : 0L;
+        List<EstudianteInmutable> filas = new ArrayList<>(estudiantes.size() + frio.cantidad());
+        recorrerVersion(filas::add);
+        // Después del recorrido: una fila archivada durante él ya está en el nivel frío
+        Set<Long> vistos = new HashSet<>();
+        filas.forEach(fila -> vistos.add(fila.getId()));
+        recorrerFrios(fila -> {
+            if (vistos.add(fila.getId())) {
+                filas.add(fila);
+            }
+        });
+        try {
+            ArchivoInstantanea.escribir(archivo, lsn, contadorId.get(), filas);
+        } catch (IOException e) {
+            throw new RepositorioException("No se pudo guardar la instantánea", "PERSISTENCIA_ERROR", e);
+        }
+        return lsn;
+    }
+    
+    /**
+     * Punto de control: guarda una instantánea y descarta del registro de
+     * escritura las operaciones que ya cubre, acotando el tiempo de arranque
+     * @return LSN cubierto por la instantánea
+     */
+    public long crearPuntoControl(Path archivo) throws RepositorioException {
+        long lsn = guardarInstantanea(archivo);
+        if (registro != null) {
+            try {
+                registro.truncarHasta(lsn);
+            } catch (IOException e) {
+                throw new RepositorioException("No se pudo truncar el registro de escritura", "PERSISTENCIA_ERROR", e);
+            }
+        }
+        return lsn;
     }
 
     @Override
     public Estudiante crear(Estudiante estudiante) throws RepositorioException {
         validarEstudianteNoNulo(estudiante);
-        validarEmailUnico(estudiante.getEmail(), null);
         
-        // Clonar estudiante para evitar modificaciones externas (Principio de Encapsulación)
-        Estudiante nuevoEstudiante = clonarEstudiante(estudiante);
-        nuevoEstudiante.setId(contadorId.getAndIncrement());
+        long[] lsn = new long[1];
+        EstudianteInmutable nuevoEstudiante = insertar(estudiante, lsn);
+        liberarMemoria();
+        confirmar(lsn[0]);
+        
+        // El llamador recibe una copia modificable propia
+        return nuevoEstudiante.copiar();
+    }
+
+    /**
+     * Una sola pasada por el lote: la reserva del email en el índice detecta a la
+     * vez los duplicados ya guardados y los repetidos dentro del lote. Con registro
+     * de escritura se espera la durabilidad una sola vez, por el último LSN
+     */
+    @Override
+    public ResultadoLote<Estudiante> crearLote(List<Estudiante> lote) throws RepositorioException {
+        if (lote == null) {
+            throw new RepositorioException("El lote de estudiantes no puede ser nulo", "LOTE_NULO");
+        }
+        
+        List<ResultadoLote.Fila<Estudiante>> filas = new ArrayList<>(lote.size());
+        long[] lsn = new long[1];
+        long ultimoLsn = 0L;
+        for (int i = 0; i < lote.size(); i++) {
+            try {
+                validarEstudianteNoNulo(lote.get(i));
+                EstudianteInmutable nuevoEstudiante = insertar(lote.get(i), lsn);
+                ultimoLsn = Math.max(ultimoLsn, lsn[0]);
+                filas.add(ResultadoLote.exito(i, nuevoEstudiante.copiar()));
+            } catch (RepositorioException e) {
+                filas.add(ResultadoLote.fallo(i, e));
+            }
+            liberarMemoria(); // Sin presupuesto o bajo él vuelve de inmediato
+        }
+        confirmar(ultimoLsn);
+        return new ResultadoLote<>(filas);
+    }
+
+    // Reserva el email e inserta la fila; el LSN del registro queda en lsn[0] (sin esperar durabilidad)
+    private EstudianteInmutable insertar(Estudiante estudiante, long[] lsn) throws RepositorioException {
+        // Reserva atómica del email: solo un registro concurrente puede ganarla
+        String claveEmail = normalizarEmail(estudiante.getEmail());
+        reservarEmail(claveEmail, EMAIL_RESERVADO);
         
-        estudiantes.put(nuevoEstudiante.getId(), nuevoEstudiante);
+        // Instantánea propia para evitar modificaciones externas (Principio de Encapsulación)
+        // El registro se hace bajo el cerrojo de la fila, igual que en actualizar y eliminar
+        EstudianteInmutable nuevoEstudiante;
+        lsn[0] = 0L;
+        try {
+            nuevoEstudiante = EstudianteInmutable.conId(estudiante, contadorId.getAndAdd(pasoId));
+            estudiantes.computeIfAbsent(nuevoEstudiante.getId(), clave -> {
+                lsn[0] = registrar(TipoOperacion.CREAR, nuevoEstudiante);
+                indexar(nuevoEstudiante);
+                VersionEstudiante nueva = nuevaVersion(nuevoEstudiante, null);
+                cambios.publicar(null, nuevoEstudiante);
+                return nueva;
+            });
+        } catch (RuntimeException e) {
+            liberarEmail(claveEmail, EMAIL_RESERVADO);
+            throw fallaRegistro(e);
+        }
         
-        return clonarEstudiante(nuevoEstudiante);
+        try {
+            if (claveEmail != null) {
+                indicePorEmail.replace(claveEmail, EMAIL_RESERVADO, nuevoEstudiante.getId());
+            }
+            contabilizar(nuevoEstudiante, 1);
+        } finally {
+            escriturasEnCurso.decrementAndGet();
+        }
+        return nuevoEstudiante;
     }
 
     @Override
     public Optional<Estudiante> buscarPorId(Long id) throws RepositorioException {
         validarIdNoNulo(id);
         
-        Estudiante estudiante = estudiantes.get(id);
-        return estudiante != null ? Optional.of(clonarEstudiante(estudiante)) : Optional.empty();
+        return Optional.ofNullable(localizar(id));
     }
 
     @Override
     public Optional<Estudiante> buscarPorEmail(String email) throws RepositorioException {
         validarEmailNoNulo(email);
         
-        return estudiantes.values().stream()
-                .filter(e -> email.equalsIgnoreCase(e.getEmail()))
-                .map(this::clonarEstudiante)
-                .findFirst();
+        Long id = indicePorEmail.get(normalizarEmail(email));
+        return id != null ? Optional.ofNullable(localizar(id)) : Optional.empty();
     }
 
     @Override
     public List<Estudiante> obtenerTodos() throws RepositorioException {
-        return estudiantes.values().stream()
-                .filter(Estudiante::isActivo)
-                .map(this::clonarEstudiante)
-                .collect(Collectors.toList());
+        // Vista consistente y ordenada: todas las filas en la misma versión fijada
+        return recorrerOrdenados(indiceOrdenado, null, Integer.MAX_VALUE);
     }
 
     @Override
     public List<Estudiante> obtenerPorCarrera(String carrera) throws RepositorioException {
         validarCarreraNoNula(carrera);
         
-        return estudiantes.values().stream()
-                .filter(Estudiante::isActivo)
-                .filter(e -> carrera.equalsIgnoreCase(e.getCarrera()))
-                .map(this::clonarEstudiante)
-                .collect(Collectors.toList());
+        // Solo se recorren los activos de la carrera solicitada, ya en orden
+        String clave = normalizarCarrera(carrera);
+        NavigableSet<ClaveOrden> indice = indiceOrdenadoPorCarrera.get(clave);
+        if (indice == null) {
+            return new ArrayList<>();
+        }
+        return recorrerOrdenados(indice, clave, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Pagina<Estudiante> obtenerPagina(String token, int tamano) throws RepositorioException {
+        return paginar(indiceOrdenado, null, token, tamano);
+    }
+
+    @Override
+    public Pagina<Estudiante> obtenerPaginaPorCarrera(String carrera, String token, int tamano) 
+            throws RepositorioException {
+        validarCarreraNoNula(carrera);
+        
+        String clave = normalizarCarrera(carrera);
+        NavigableSet<ClaveOrden> indice = indiceOrdenadoPorCarrera.get(clave);
+        if (indice == null) {
+            TokenPagina.validarTamano(tamano);
+            TokenPagina.decodificar(token);
+            return new Pagina<>(new ArrayList<>(), null);
+        }
+        return paginar(indice, clave, token, tamano);
+    }
+
+    // Salta en el índice ordenado a la clave del token y lee hasta tamano + 1 filas
+    private Pagina<Estudiante> paginar(NavigableSet<ClaveOrden> indice, String carrera, String token, int tamano) 
+            throws RepositorioException {
+        TokenPagina.validarTamano(tamano);
+        TokenPagina desde = TokenPagina.decodificar(token);
+        NavigableSet<ClaveOrden> tramo = desde == null ? indice 
+            : indice.tailSet(new ClaveOrden(desde.getApellido(), desde.getNombre(), desde.getId()), false);
+        return TokenPagina.armar(recorrerOrdenados(tramo, carrera, tamano + 1), tamano);
+    }
+
+    @Override
+    public Stream<Estudiante> obtenerTodosEnFlujo() {
+        return recorrerOrdenadosEnFlujo(indiceOrdenado, null);
+    }
+
+    @Override
+    public Stream<Estudiante> obtenerPorCarreraEnFlujo(String carrera) throws RepositorioException {
+        validarCarreraNoNula(carrera);
+        
+        String clave = normalizarCarrera(carrera);
+        NavigableSet<ClaveOrden> indice = indiceOrdenadoPorCarrera.get(clave);
+        return indice != null ? recorrerOrdenadosEnFlujo(indice, clave) : Stream.empty();
+    }
+
+    /**
+     * Recorrido con cursor: estudiantes activos a partir de (apellido, nombre)
+     * inclusive, en el mismo orden que obtenerTodos y sin ordenar en memoria
+     * @param apellido Apellido inicial (null: desde el principio)
+     * @param nombre Nombre inicial dentro del apellido (null: desde el primero)
+     * @param limite Cantidad máxima de estudiantes a devolver
+     * @return Estudiantes ordenados por apellido, nombre e ID
+     * @throws RepositorioException si el límite no es positivo
+     */
+    public List<Estudiante> obtenerOrdenadosDesde(String apellido, String nombre, int limite) 
+            throws RepositorioException {
+        if (limite <= 0) {
+            throw new RepositorioException("El límite debe ser mayor que cero", "LIMITE_INVALIDO");
+        }
+        
+        ClaveOrden inicio = new ClaveOrden(apellido, nombre, Long.MIN_VALUE);
+        return recorrerOrdenados(indiceOrdenado.tailSet(inicio, true), null, limite);
+    }
+
+    @Override
+    public List<Estudiante> obtenerPorFechaIngreso(LocalDate desde, LocalDate hasta, String carrera, Boolean activo) 
+            throws RepositorioException {
+        validarRangoFechas(desde, hasta);
+        
+        // Solo se recorre el tramo del índice dentro del rango, ya en orden
+        NavigableSet<ClaveFecha> tramo = indicePorFechaIngreso.subSet(
+            new ClaveFecha(desde.toEpochDay(), Long.MIN_VALUE), true,
+            new ClaveFecha(hasta.toEpochDay(), Long.MAX_VALUE), true);
+        String claveCarrera = normalizarCarrera(carrera);
+        List<Estudiante> resultado = new ArrayList<>();
+        long version = lectores.fijar(reloj::get);
+        try {
+            for (ClaveFecha clave : tramo) {
+                VersionEstudiante cadena = estudiantes.get(clave.id());
+                VersionEstudiante visible = cadena != null ? cadena.visibleEn(version) : null;
+                EstudianteInmutable estudiante = visible != null ? contenido(visible) : null;
+                if (estudiante == null || !clave.equals(ClaveFecha.deSiTiene(estudiante))) {
+                    continue;
+                }
+                if ((activo == null || activo == estudiante.isActivo())
+                        && (claveCarrera == null || claveCarrera.equals(normalizarCarrera(estudiante.getCarrera())))) {
+                    resultado.add(estudiante);
+                }
+            }
+        } finally {
+            lectores.liberar(version);
+        }
+        return Boolean.TRUE.equals(activo) ? resultado : agregarFriosEnRango(resultado, desde, hasta, claveCarrera);
     }
 
     @Override
@@ -79,52 +530,332 @@ public class EstudianteRepositorioMemoria implements IEstudianteRepositorio {
         validarEstudianteNoNulo(estudiante);
         validarIdNoNulo(estudiante.getId());
         
-        if (!existe(estudiante.getId())) {
+        Long id = estudiante.getId();
+        if (!existe(id)) {
             throw new RepositorioException("El estudiante no existe", "ESTUDIANTE_NO_ENCONTRADO");
         }
+        promover(id);
+        
+        // Reservar el email para este ID (no-op si ya le pertenece)
+        String claveEmail = normalizarEmail(estudiante.getEmail());
+        boolean reservaNueva = reservarEmail(claveEmail, id);
         
-        // Validar que el email no esté en uso por otro estudiante
-        validarEmailUnico(estudiante.getEmail(), estudiante.getId());
+        // El reemplazo captura exactamente la versión anterior, base de los índices,
+        // y registra la operación bajo el mismo cerrojo de la fila
+        EstudianteInmutable estudianteActualizado;
+        EstudianteInmutable anterior;
+        long version;
+        long[] lsn = new long[1];
+        try {
+            estudianteActualizado = EstudianteInmutable.conId(estudiante, id);
+            EstudianteInmutable[] reemplazado = new EstudianteInmutable[1];
+            VersionEstudiante publicada = estudiantes.computeIfPresent(id, (clave, actual) -> {
+                lsn[0] = registrar(TipoOperacion.ACTUALIZAR, estudianteActualizado);
+                reemplazado[0] = contenido(actual);
+                indexar(estudianteActualizado);
+                VersionEstudiante nueva = nuevaVersion(estudianteActualizado, actual);
+                cambios.publicar(reemplazado[0], estudianteActualizado);
+                return nueva;
+            });
+            anterior = reemplazado[0];
+            version = publicada != null ? publicada.version : 0L;
+        } catch (RuntimeException e) {
+            if (reservaNueva) {
+                liberarEmail(claveEmail, id);
+            }
+            throw fallaRegistro(e);
+        }
+        if (anterior == null) {
+            if (reservaNueva) {
+                liberarEmail(claveEmail, id);
+            }
+            throw new RepositorioException("El estudiante no existe", "ESTUDIANTE_NO_ENCONTRADO");
+        }
         
-        Estudiante estudianteActualizado = clonarEstudiante(estudiante);
-        estudiantes.put(estudianteActualizado.getId(), estudianteActualizado);
+        try {
+            // Liberar el email anterior si cambió
+            String claveAnterior = normalizarEmail(anterior.getEmail());
+            if (!Objects.equals(claveAnterior, claveEmail)) {
+                liberarEmail(claveAnterior, id);
+            }
+            
+            // Actualizar contadores y programar el retiro de la clave ordenada anterior
+            reindexar(anterior, estudianteActualizado);
+            programarRetiro(anterior, estudianteActualizado, version);
+            if (!estudianteActualizado.isActivo()) {
+                programarArchivo(id, version);
+            }
+        } finally {
+            escriturasEnCurso.decrementAndGet();
+        }
+        retirarClavesObsoletas();
+        liberarMemoria();
+        confirmar(lsn[0]);
         
-        return clonarEstudiante(estudianteActualizado);
+        return estudianteActualizado.copiar();
     }
 
     @Override
     public boolean eliminar(Long id) throws RepositorioException {
         validarIdNoNulo(id);
         
-        Estudiante estudiante = estudiantes.get(id);
-        if (estudiante == null) {
+        // Eliminación lógica (Principio de Conservación de Datos): se publica una
+        // nueva instantánea desactivada en lugar de mutar la almacenada
+        EstudianteInmutable[] anterior = new EstudianteInmutable[1];
+        EstudianteInmutable[] desactivado = new EstudianteInmutable[1];
+        long[] lsn = new long[1];
+        VersionEstudiante version;
+        try {
+            version = estudiantes.computeIfPresent(id, (clave, actual) -> {
+                anterior[0] = contenido(actual);
+                EstudianteInmutable nuevo = anterior[0].conActivo(false);
+                if (nuevo == anterior[0]) {
+                    return actual; // Ya estaba inactivo: no hay versión nueva
+                }
+                lsn[0] = registrar(TipoOperacion.ELIMINAR, nuevo);
+                desactivado[0] = nuevo;
+                VersionEstudiante nueva = nuevaVersion(nuevo, actual);
+                cambios.publicar(anterior[0], nuevo);
+                return nueva;
+            });
+        } catch (RuntimeException e) {
+            throw fallaRegistro(e);
+        }
+        if (version == null) {
+            // Un archivado en el nivel frío ya está inactivo
+            if (frio.contiene(id)) {
+                return true;
+            }
             throw new RepositorioException("El estudiante no existe", "ESTUDIANTE_NO_ENCONTRADO");
         }
         
-        // Eliminación lógica (Principio de Conservación de Datos)
-        estudiante.desactivar();
+        if (desactivado[0] != null) {
+            try {
+                reindexar(anterior[0], desactivado[0]);
+                programarRetiro(anterior[0], desactivado[0], version.version);
+                programarArchivo(id, version.version);
+            } finally {
+                escriturasEnCurso.decrementAndGet();
+            }
+            retirarClavesObsoletas();
+            liberarMemoria();
+        }
+        confirmar(lsn[0]);
         return true;
     }
 
     @Override
     public boolean existe(Long id) throws RepositorioException {
         validarIdNoNulo(id);
-        return estudiantes.containsKey(id);
+        return estudiantes.containsKey(id) || frio.contiene(id);
+    }
+
+    @Override
+    public void suscribir(Flow.Subscriber<? super EventoCambio> suscriptor) {
+        cambios.suscribir(suscriptor);
+    }
+
+    @Override
+    public long obtenerUltimaSecuencia() {
+        return cambios.obtenerUltimaSecuencia();
+    }
+
+    @Override
+    public long obtenerEventosDescartados() {
+        return cambios.obtenerEventosDescartados();
     }
 
     @Override
     public boolean existePorEmail(String email) throws RepositorioException {
         validarEmailNoNulo(email);
         
-        return estudiantes.values().stream()
-                .anyMatch(e -> email.equalsIgnoreCase(e.getEmail()));
+        return indicePorEmail.containsKey(normalizarEmail(email));
     }
 
     @Override
     public long contarEstudiantes() throws RepositorioException {
-        return estudiantes.values().stream()
-                .filter(Estudiante::isActivo)
-                .count();
+        return estudiantesActivos.sum();
+    }
+
+    /**
+     * Vista consistente de estadísticas
+     * Camino rápido tipo seqlock: se leen los contadores en O(1) si ninguna
+     * escritura estaba entre el avance del reloj y sus contadores y el reloj no
+     * cambió durante la lectura. Con escrituras sostenidas se recurre a un
+     * recorrido en una versión fijada
+     */
+    @Override
+    public EstadisticasEstudiantes obtenerEstadisticasEstudiantes() {
+        for (int intento = 0; intento < INTENTOS_LECTURA_CONTADORES; intento++) {
+            long version = reloj.get();
+            if (escriturasEnCurso.get() == 0) {
+                EstadisticasEstudiantes vista = leerContadores();
+                if (reloj.get() == version) {
+                    return vista;
+                }
+            }
+            Thread.onSpinWait();
+        }
+        return calcularEstadisticasEnVersion();
+    }
+
+    private EstadisticasEstudiantes leerContadores() {
+        Map<String, Long> porCarrera = new HashMap<>();
+        activosPorCarrera.forEach((carrera, contador) -> {
+            long cantidad = contador.sum();
+            if (cantidad > 0) {
+                porCarrera.put(carrera, cantidad);
+            }
+        });
+        
+        long activos = estudiantesActivos.sum();
+        long inactivos = estudiantesInactivos.sum();
+        return new EstadisticasEstudiantes(activos + inactivos, activos, inactivos, porCarrera);
+    }
+
+    private EstadisticasEstudiantes calcularEstadisticasEnVersion() {
+        Map<String, Long> porCarrera = new HashMap<>();
+        long[] totales = new long[2];
+        List<Long> inactivosVistos = new ArrayList<>();
+        recorrerVersion(estudiante -> {
+            if (estudiante.isActivo()) {
+                totales[0]++;
+                if (estudiante.getCarrera() != null) {
+                    porCarrera.merge(estudiante.getCarrera(), 1L, Long::sum);
+                }
+            } else {
+                totales[1]++;
+                inactivosVistos.add(estudiante.getId());
+            }
+        });
+        // Los archivados en el nivel frío son inactivos; los que se archivaron
+        // durante el recorrido ya se contaron en el nivel caliente
+        totales[1] += frio.cantidadExcepto(inactivosVistos);
+        return new EstadisticasEstudiantes(totales[0] + totales[1], totales[0], totales[1], porCarrera);
+    }
+
+    // Métodos MVCC (Principio de Responsabilidad Única)
+    // Lectura puntual: cuenta un acceso y, si la fila estaba desbordada, la vuelve a cargar
+    private EstudianteInmutable vigente(long id) {
+        VersionEstudiante version = estudiantes.get(id);
+        if (version == null) {
+            return null;
+        }
+        EstudianteInmutable estudiante = version.estudiante;
+        if (estudiante == null) {
+            return recargar(id, version);
+        }
+        registrarAcceso(version);
+        return estudiante;
+    }
+
+    // Estado vigente en cualquiera de los niveles: caliente, frío y de nuevo
+    // caliente por si una promoción lo movió entre ambas consultas
+    private EstudianteInmutable localizar(long id) {
+        EstudianteInmutable caliente = vigente(id);
+        if (caliente != null) {
+            return caliente;
+        }
+        byte[] registro = frio.obtener(id);
+        return registro != null ? CodificadorEstudiante.decodificar(ByteBuffer.wrap(registro)) : vigente(id);
+    }
+
+    /**
+     * Crea la versión siguiente de una fila; debe llamarse bajo el cerrojo de la fila
+     * Abre una escritura en curso que el llamador cierra tras actualizar contadores
+     */
+    private VersionEstudiante nuevaVersion(EstudianteInmutable estudiante, VersionEstudiante actual) {
+        escriturasEnCurso.incrementAndGet();
+        VersionEstudiante nueva = new VersionEstudiante(estudiante, reloj.incrementAndGet(), actual);
+        nueva.podar(lectores.minima(Long.MAX_VALUE));
+        ocupar(nueva, actual);
+        return nueva;
+    }
+
+    // Recorre todas las filas tal como estaban en una versión fijada del reloj
+    private void recorrerVersion(Consumer<EstudianteInmutable> consumidor) {
+        long version = lectores.fijar(reloj::get);
+        try {
+            estudiantes.forEachValue(cadena -> {
+                VersionEstudiante visible = cadena.visibleEn(version);
+                if (visible != null) {
+                    consumidor.accept(contenido(visible));
+                }
+            });
+        } finally {
+            lectores.liberar(version);
+        }
+    }
+
+    /**
+     * Recorre un índice ordenado en una versión fijada del reloj
+     * Una fila solo se emite por la clave de su versión visible: las claves
+     * de versiones más nuevas o ya reemplazadas se saltan
+     */
+    private List<Estudiante> recorrerOrdenados(NavigableSet<ClaveOrden> indice, String carrera, int limite) {
+        List<Estudiante> resultado = new ArrayList<>(Math.min(limite, estudiantesActivos.intValue()));
+        long version = lectores.fijar(reloj::get);
+        try {
+            for (ClaveOrden clave : indice) {
+                EstudianteInmutable estudiante = visibleOrdenado(clave, version, carrera);
+                if (estudiante == null) {
+                    continue;
+                }
+                resultado.add(estudiante);
+                if (resultado.size() == limite) {
+                    break;
+                }
+            }
+        } finally {
+            lectores.liberar(version);
+        }
+        return resultado;
+    }
+
+    /**
+     * Igual que recorrerOrdenados pero perezoso: la versión queda fijada desde que
+     * se crea el flujo hasta que se agota o se cierra, y cada fila se resuelve al
+     * pedirla. Mientras esté abierto, las versiones y claves que ve no se retiran
+     */
+    private Stream<Estudiante> recorrerOrdenadosEnFlujo(NavigableSet<ClaveOrden> indice, String carrera) {
+        long version = lectores.fijar(reloj::get);
+        AtomicBoolean liberada = new AtomicBoolean();
+        Runnable liberar = () -> {
+            if (liberada.compareAndSet(false, true)) {
+                lectores.liberar(version);
+            }
+        };
+        Iterator<ClaveOrden> claves = indice.iterator();
+        Spliterator<Estudiante> cursor = new Spliterators.AbstractSpliterator<>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Estudiante> accion) {
+                while (!liberada.get() && claves.hasNext()) {
+                    EstudianteInmutable estudiante = visibleOrdenado(claves.next(), version, carrera);
+                    if (estudiante != null) {
+                        accion.accept(estudiante);
+                        return true;
+                    }
+                }
+                liberar.run();
+                return false;
+            }
+        };
+        return StreamSupport.stream(cursor, false).onClose(liberar);
+    }
+
+    // Estudiante activo visible en la versión cuya clave ordenada vigente es la indicada, o null
+    private EstudianteInmutable visibleOrdenado(ClaveOrden clave, long version, String carrera) {
+        VersionEstudiante cadena = estudiantes.get(clave.id());
+        VersionEstudiante visible = cadena != null ? cadena.visibleEn(version) : null;
+        EstudianteInmutable estudiante = visible != null ? contenido(visible) : null;
+        if (estudiante == null || !estudiante.isActivo() || !clave.equals(ClaveOrden.de(estudiante))) {
+            return null;
+        }
+        if (carrera != null && !carrera.equals(normalizarCarrera(estudiante.getCarrera()))) {
+            return null;
+        }
+        return estudiante;
     }
 
     // Métodos privados de validación (Principio de Separación de Intereses)
@@ -152,57 +883,753 @@ public class EstudianteRepositorioMemoria implements IEstudianteRepositorio {
         }
     }
 
-    private void validarEmailUnico(String email, Long idExcluir) throws RepositorioException {
-        boolean emailExiste = estudiantes.values().stream()
-                .anyMatch(e -> email.equalsIgnoreCase(e.getEmail()) && 
-                              !Objects.equals(e.getId(), idExcluir));
+    private void validarRangoFechas(LocalDate desde, LocalDate hasta) throws RepositorioException {
+        if (desde == null || hasta == null) {
+            throw new RepositorioException("Las fechas del rango no pueden ser nulas", "FECHA_NULA");
+        }
+        if (desde.isAfter(hasta)) {
+            throw new RepositorioException("La fecha inicial no puede ser posterior a la final", "RANGO_FECHAS_INVALIDO");
+        }
+    }
+
+    // Métodos del índice de email (Principio de Responsabilidad Única)
+    private String normalizarEmail(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Reserva el email para el titular con putIfAbsent (linealizable y sin bloqueos)
+     * @return true si la reserva es nueva, false si el titular ya la tenía
+     */
+    private boolean reservarEmail(String clave, Long titular) throws RepositorioException {
+        if (clave == null) {
+            return false;
+        }
         
-        if (emailExiste) {
-            throw new RepositorioException("Ya existe un estudiante con este email", "EMAIL_DUPLICADO");
+        Long existente = indicePorEmail.putIfAbsent(clave, titular);
+        if (existente == null) {
+            return true;
+        }
+        if (existente.equals(titular) && !EMAIL_RESERVADO.equals(titular)) {
+            return false;
+        }
+        throw new RepositorioException("Ya existe un estudiante con este email", "EMAIL_DUPLICADO");
+    }
+
+    private void liberarEmail(String clave, Long titular) {
+        if (clave != null) {
+            indicePorEmail.remove(clave, titular);
+        }
+    }
+
+    // Métodos del índice de carrera (Principio de Responsabilidad Única)
+    private String normalizarCarrera(String carrera) {
+        return carrera != null ? carrera.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Agrega las claves ordenadas de una versión (apellido y nombre solo si está
+     * activa; fecha de ingreso siempre); debe llamarse bajo el cerrojo de la fila
+     * y antes de publicar la versión
+     */
+    private void indexar(Estudiante estudiante) {
+        if (estudiante.getFechaIngreso() != null) {
+            indicePorFechaIngreso.add(ClaveFecha.de(estudiante));
+        }
+        if (!estudiante.isActivo()) {
+            return;
+        }
+        ClaveOrden clave = ClaveOrden.de(estudiante);
+        indiceOrdenado.add(clave);
+        String carrera = normalizarCarrera(estudiante.getCarrera());
+        if (carrera != null) {
+            indiceOrdenadoPorCarrera.computeIfAbsent(carrera, k -> new ConcurrentSkipListSet<>()).add(clave);
         }
     }
 
-    // Método para clonar estudiantes (Principio de Inmutabilidad)
-    private Estudiante clonarEstudiante(Estudiante original) {
-        Estudiante clon = new Estudiante(original.getId(), 
-                                       original.getNombre(), 
-                                       original.getApellido(),
-                                       original.getEmail(), 
-                                       original.getCarrera());
-        clon.setFechaIngreso(original.getFechaIngreso());
-        clon.setActivo(original.isActivo());
-        return clon;
+    // Quita las claves de la versión anterior que la versión actual ya no usa
+    private void desindexar(Estudiante anterior, Estudiante actual) {
+        if (anterior.getFechaIngreso() != null && !(actual != null && mismaFecha(anterior, actual))) {
+            indicePorFechaIngreso.remove(ClaveFecha.de(anterior));
+        }
+        if (!anterior.isActivo()) {
+            return;
+        }
+        ClaveOrden clave = ClaveOrden.de(anterior);
+        boolean mismaClave = actual != null && actual.isActivo() && clave.equals(ClaveOrden.de(actual));
+        if (!mismaClave) {
+            indiceOrdenado.remove(clave);
+        }
+        String carrera = normalizarCarrera(anterior.getCarrera());
+        if (carrera != null && !(mismaClave && carrera.equals(normalizarCarrera(actual.getCarrera())))) {
+            NavigableSet<ClaveOrden> indice = indiceOrdenadoPorCarrera.get(carrera);
+            if (indice != null) {
+                indice.remove(clave);
+            }
+        }
+    }
+
+    private static boolean mismaFecha(Estudiante anterior, Estudiante actual) {
+        return Objects.equals(anterior.getFechaIngreso(), actual.getFechaIngreso());
+    }
+
+    /**
+     * Las claves de la versión reemplazada se conservan mientras algún lector
+     * tenga fijada una versión anterior a la publicada: su recorrido aún las necesita
+     */
+    private void programarRetiro(EstudianteInmutable anterior, EstudianteInmutable nuevo, long version) {
+        boolean cambiaFecha = anterior.getFechaIngreso() != null && !mismaFecha(anterior, nuevo);
+        boolean cambiaOrden = anterior.isActivo() && !(nuevo.isActivo() 
+            && ClaveOrden.de(anterior).equals(ClaveOrden.de(nuevo))
+            && Objects.equals(normalizarCarrera(anterior.getCarrera()), normalizarCarrera(nuevo.getCarrera())));
+        if (cambiaFecha || cambiaOrden) {
+            retirosPendientes.add(new RetiroPendiente(anterior, version));
+        }
+    }
+
+    private void retirarClavesObsoletas() {
+        if (retirosPendientes.isEmpty() || !cerrojoRetiros.tryLock()) {
+            return;
+        }
+        try {
+            long minimaFijada = lectores.minima(Long.MAX_VALUE);
+            RetiroPendiente retiro;
+            while ((retiro = retirosPendientes.peek()) != null && retiro.version() <= minimaFijada) {
+                retirosPendientes.poll();
+                EstudianteInmutable anterior = retiro.anterior();
+                // Bajo el cerrojo de la fila: una escritura concurrente no puede volver a agregar la clave a medias
+                VersionEstudiante actual = estudiantes.computeIfPresent(anterior.getId(), (id, cadena) -> {
+                    desindexar(anterior, contenido(cadena));
+                    return cadena;
+                });
+                if (actual == null) {
+                    // Fila archivada: también bajo su cerrojo, por si se está promoviendo
+                    estudiantes.computeIfAbsent(anterior.getId(), id -> {
+                        desindexar(anterior, null);
+                        return null;
+                    });
+                }
+            }
+        } finally {
+            cerrojoRetiros.unlock();
+        }
+    }
+
+    // Traslada los contadores de la versión anterior a la nueva
+    private void reindexar(Estudiante anterior, Estudiante nuevo) {
+        contabilizar(anterior, -1);
+        contabilizar(nuevo, 1);
+    }
+
+    // Suma o resta la contribución de un estudiante a los contadores de estado
+    private void contabilizar(Estudiante estudiante, int delta) {
+        if (estudiante.isActivo()) {
+            estudiantesActivos.add(delta);
+            if (estudiante.getCarrera() != null) {
+                activosPorCarrera.computeIfAbsent(estudiante.getCarrera(), k -> new LongAdder()).add(delta);
+            }
+        } else {
+            estudiantesInactivos.add(delta);
+        }
+    }
+
+    // Métodos del registro de escritura (Principio de Responsabilidad Única)
+    // Se llama dentro de las funciones del mapa, que no admiten excepciones verificadas:
+    // el rechazo del registro (cerrado o con un fsync fallido) viaja envuelto hasta
+    // la operación pública, que lo relanza con fallaRegistro
+    private long registrar(TipoOperacion tipo, Estudiante estudiante) {
+        if (registro == null) {
+            return 0L;
+        }
+        try {
+            return registro.registrar(tipo, estudiante);
+        } catch (IllegalStateException e) {
+            throw new RepositorioRuntimeException(
+                new RepositorioException("No se pudo registrar la operación: " + e.getMessage(), "PERSISTENCIA_ERROR", e));
+        }
+    }
+    
+    // Excepción verificada de un rechazo del registro; cualquier otra se relanza tal cual
+    private static RepositorioException fallaRegistro(RuntimeException e) {
+        if (e instanceof RepositorioRuntimeException rechazo) {
+            return rechazo.getCause();
+        }
+        throw e;
+    }
+    
+    private void confirmar(long lsn) throws RepositorioException {
+        if (registro == null || lsn == 0L) {
+            return;
+        }
+        try {
+            registro.esperarDurabilidad(lsn);
+        } catch (IOException e) {
+            throw new RepositorioException("No se pudo persistir la operación", "PERSISTENCIA_ERROR", e);
+        }
+    }
+    
+    // Aplica una operación reproducida sin volver a registrarla
+    private void reproducir(TipoOperacion tipo, EstudianteInmutable estudiante) {
+        if (tipo == TipoOperacion.VACIAR) {
+            vaciar();
+        } else {
+            restaurar(estudiante);
+        }
+    }
+    
+    // Instala una imagen completa de estudiante manteniendo índices y contadores
+    private void restaurar(EstudianteInmutable estudiante) {
+        Long id = estudiante.getId();
+        VersionEstudiante restaurada = new VersionEstudiante(estudiante, reloj.incrementAndGet(), null);
+        VersionEstudiante reemplazada = estudiantes.put(id, restaurada);
+        EstudianteInmutable anterior = reemplazada != null ? contenido(reemplazada) : null;
+        ocupar(restaurada, reemplazada);
+        indexar(estudiante);
+        if (anterior != null) {
+            liberarEmail(normalizarEmail(anterior.getEmail()), id);
+            desindexar(anterior, estudiante);
+            reindexar(anterior, estudiante);
+        } else {
+            contabilizar(estudiante, 1);
+        }
+        String claveEmail = normalizarEmail(estudiante.getEmail());
+        if (claveEmail != null) {
+            indicePorEmail.put(claveEmail, id);
+        }
+        contadorId.accumulateAndGet(id + pasoId, Math::max);
+        liberarMemoria();
+    }
+    
+    /**
+     * Activa el nivel frío: los estudiantes inactivos sin cambios durante al menos
+     * la antigüedad indicada pasan al almacén comprimido en cada llamada a archivarInactivos
+     * Los que ya estaban inactivos cuentan su antigüedad desde este momento
+     * @param edadMinima Antigüedad mínima como inactivo (Duration.ZERO: inmediato)
+     */
+    public void configurarNivelFrio(Duration edadMinima) {
+        if (edadMinima == null || edadMinima.isNegative()) {
+            throw new IllegalArgumentException("La antigüedad mínima debe ser cero o positiva");
+        }
+        boolean yaActivo = edadMinimaFrio != null;
+        edadMinimaFrio = edadMinima;
+        if (!yaActivo) {
+            estudiantes.forEachValue(cadena -> {
+                EstudianteInmutable estudiante = contenido(cadena);
+                if (!estudiante.isActivo()) {
+                    programarArchivo(estudiante.getId(), cadena.version);
+                }
+            });
+        }
+    }
+
+    /**
+     * Mueve al nivel frío los inactivos que cumplieron la antigüedad mínima
+     * Pensado para ejecutarse periódicamente como tarea de mantenimiento
+     * @return Cantidad de estudiantes archivados
+     */
+    public int archivarInactivos() {
+        Duration edadMinima = edadMinimaFrio;
+        if (edadMinima == null) {
+            return 0;
+        }
+        
+        long limite = System.currentTimeMillis() - edadMinima.toMillis();
+        int archivados = 0;
+        Desactivacion desactivacion;
+        while ((desactivacion = desactivaciones.peek()) != null && desactivacion.instante() <= limite) {
+            if (!desactivaciones.remove(desactivacion)) {
+                continue;
+            }
+            if (archivar(desactivacion)) {
+                archivados++;
+            }
+        }
+        return archivados;
+    }
+
+    public int obtenerCantidadArchivados() {
+        return frio.cantidad();
+    }
+
+    /**
+     * Ejecuta archivarInactivos cada intervalo en un hilo de fondo hasta cerrar()
+     */
+    public void iniciarArchivoPeriodico(Duration intervalo) {
+        if (intervalo == null || intervalo.isNegative() || intervalo.isZero()) {
+            throw new IllegalArgumentException("El intervalo de archivo debe ser positivo");
+        }
+        ScheduledExecutorService programador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "archivo-nivel-frio");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        long nanos = intervalo.toNanos();
+        programador.scheduleWithFixedDelay(this::archivarInactivos, nanos, nanos, TimeUnit.NANOSECONDS);
+        recursosPropios.push(programador::shutdownNow);
+    }
+
+    // Métodos del nivel frío (Principio de Responsabilidad Única)
+    private void programarArchivo(long id, long version) {
+        if (edadMinimaFrio != null) {
+            desactivaciones.add(new Desactivacion(System.currentTimeMillis(), id, version));
+        }
+    }
+
+    /**
+     * Archiva la fila solo si sigue en la versión desactivada (cualquier cambio
+     * posterior reinicia su antigüedad); bajo el cerrojo de la fila para no
+     * cruzarse con una promoción
+     */
+    private boolean archivar(Desactivacion desactivacion) {
+        boolean[] archivado = new boolean[1];
+        estudiantes.computeIfPresent(desactivacion.id(), (id, cadena) -> {
+            EstudianteInmutable estudiante = contenido(cadena);
+            if (cadena.version != desactivacion.version() || estudiante.isActivo()) {
+                return cadena;
+            }
+            frio.agregar(id, CodificadorEstudiante.codificar(estudiante));
+            desindexar(estudiante, null);
+            desocupar(cadena);
+            archivado[0] = true;
+            return null;
+        });
+        return archivado[0];
+    }
+
+    /**
+     * Devuelve una fila archivada al nivel caliente sin cambiar su contenido
+     * Se instala con versión 0 porque su estado ya era el vigente para todo lector
+     */
+    private void promover(long id) {
+        if (estudiantes.containsKey(id) || !frio.contiene(id)) {
+            return;
+        }
+        VersionEstudiante promovida = estudiantes.computeIfAbsent(id, clave -> {
+            byte[] registro = frio.extraer(clave);
+            if (registro == null) {
+                return null;
+            }
+            EstudianteInmutable estudiante = CodificadorEstudiante.decodificar(ByteBuffer.wrap(registro));
+            indexar(estudiante);
+            VersionEstudiante nodo = new VersionEstudiante(estudiante, 0L, null);
+            ocupar(nodo, null);
+            return nodo;
+        });
+        if (promovida != null && promovida.version == 0L) {
+            programarArchivo(id, 0L);
+        }
+    }
+
+    /**
+     * Presupuesto de bytes residentes del modo acotado (0: sin límite)
+     */
+    public long obtenerPresupuestoBytes() {
+        return presupuestoBytes;
+    }
+
+    /**
+     * @return Bytes estimados de las versiones vigentes que están en el heap
+     */
+    public long obtenerBytesResidentes() {
+        return bytesResidentes.sum();
+    }
+
+    public long obtenerCantidadDesbordados() {
+        return filasDesbordadas.sum();
+    }
+
+    // Indica si el contenido vigente de la fila está en el heap (usado por pruebas)
+    boolean estaResidente(long id) {
+        VersionEstudiante version = estudiantes.get(id);
+        return version != null && version.estudiante != null;
+    }
+
+    // Métodos del modo acotado (Principio de Responsabilidad Única)
+
+    // Contenido de una versión, leído del archivo de desborde si salió del heap
+    private EstudianteInmutable contenido(VersionEstudiante version) {
+        EstudianteInmutable estudiante = version.estudiante;
+        if (estudiante != null) {
+            return estudiante;
+        }
+        // La ubicación se publica antes de soltar el contenido, así que ya es visible
+        byte[] registro = desborde.leer(version.desborde);
+        return CodificadorEstudiante.decodificar(ByteBuffer.wrap(registro));
+    }
+
+    private void registrarAcceso(VersionEstudiante version) {
+        if (anillo != null) {
+            int frecuencia = version.frecuencia;
+            if (frecuencia < FRECUENCIA_MAXIMA) {
+                version.frecuencia = frecuencia + 1;
+            }
+        }
+    }
+
+    /**
+     * Devuelve al heap una fila desbordada, solo si nadie la reemplazó mientras
+     * se leía; los recorridos completos leen el archivo sin recargar, para que
+     * un listado no expulse a las filas realmente usadas
+     */
+    private EstudianteInmutable recargar(long id, VersionEstudiante version) {
+        EstudianteInmutable leido = contenido(version);
+        estudiantes.computeIfPresent(id, (clave, cadena) -> {
+            if (cadena == version && cadena.estudiante == null) {
+                cadena.estudiante = leido;
+                cadena.frecuencia = 1;
+                bytesResidentes.add(estimarBytes(leido));
+                filasDesbordadas.decrement();
+                anillo.agregar(clave);
+            }
+            return cadena;
+        });
+        liberarMemoria();
+        return leido;
+    }
+
+    /**
+     * Traslada la residencia de la versión reemplazada a la nueva; debe
+     * llamarse bajo el cerrojo de la fila y antes de publicar la versión
+     */
+    private void ocupar(VersionEstudiante nueva, VersionEstudiante reemplazada) {
+        bytesResidentes.add(estimarBytes(nueva.estudiante));
+        if (reemplazada != null && reemplazada.estudiante != null) {
+            bytesResidentes.add(-estimarBytes(reemplazada.estudiante));
+            nueva.frecuencia = Math.min(FRECUENCIA_MAXIMA, reemplazada.frecuencia + 1);
+            return;
+        }
+        if (reemplazada != null) {
+            // Escritura sobre una fila desbordada: vuelve al heap con un acceso
+            filasDesbordadas.decrement();
+            nueva.frecuencia = 1;
+        }
+        if (anillo != null) {
+            anillo.agregar(nueva.estudiante.getId());
+        }
+    }
+
+    // La fila sale del nivel caliente (bajo su cerrojo)
+    private void desocupar(VersionEstudiante cadena) {
+        EstudianteInmutable estudiante = cadena.estudiante;
+        if (estudiante != null) {
+            bytesResidentes.add(-estimarBytes(estudiante));
+        } else {
+            filasDesbordadas.decrement();
+        }
+    }
+
+    /**
+     * Desaloja filas hasta volver al presupuesto con un reloj de segunda
+     * oportunidad con frecuencia (GCLOCK): cada fila que pasa por la manecilla
+     * pierde un acceso y sale del heap cuando llega sin accesos. Un solo hilo
+     * desaloja a la vez; los demás siguen sin esperar
+     */
+    private void liberarMemoria() {
+        if (anillo == null || bytesResidentes.sum() <= presupuestoBytes || !cerrojoDesalojo.tryLock()) {
+            return;
+        }
+        try {
+            // Cota de pasos: cada fila da a lo sumo FRECUENCIA_MAXIMA + 1 vueltas
+            long pasos = (long) anillo.cantidad() * (FRECUENCIA_MAXIMA + 1);
+            while (pasos-- > 0 && bytesResidentes.sum() > presupuestoBytes) {
+                long id = anillo.tomar();
+                if (id == AnilloDesalojo.VACIO) {
+                    break;
+                }
+                estudiantes.computeIfPresent(id, (clave, cadena) -> {
+                    if (cadena.estudiante == null) {
+                        return cadena; // Ya desbordada (o archivada y vuelta): sale del anillo
+                    }
+                    if (cadena.frecuencia > 0) {
+                        cadena.frecuencia--;
+                        anillo.agregar(clave);
+                    } else {
+                        desbordar(cadena);
+                    }
+                    return cadena;
+                });
+            }
+        } catch (UncheckedIOException e) {
+            // El archivo de desborde falló: se sigue sobre el presupuesto y se reintenta en la próxima escritura
+        } finally {
+            cerrojoDesalojo.unlock();
+        }
+    }
+
+    /**
+     * Saca del heap el contenido de la versión vigente (bajo el cerrojo de la fila)
+     * Una versión ya escrita antes conserva su ubicación: su contenido no cambia
+     */
+    private void desbordar(VersionEstudiante cadena) {
+        EstudianteInmutable estudiante = cadena.estudiante;
+        if (cadena.desborde < 0) {
+            cadena.desborde = desborde.escribir(CodificadorEstudiante.codificar(estudiante));
+        }
+        cadena.estudiante = null;
+        bytesResidentes.add(-estimarBytes(estudiante));
+        filasDesbordadas.increment();
+    }
+
+    // Bytes aproximados de un estudiante en el heap (textos Latin-1, ver huella-memoria-repositorio.md)
+    private static long estimarBytes(Estudiante estudiante) {
+        return BYTES_ESTUDIANTE_SIN_TEXTOS + bytesTexto(estudiante.getNombre()) + bytesTexto(estudiante.getApellido())
+            + bytesTexto(estudiante.getEmail()) + bytesTexto(estudiante.getCarrera());
+    }
+
+    // String (24 B) más su arreglo de bytes (cabecera de 16 B alineada a 8)
+    private static long bytesTexto(String texto) {
+        return texto != null ? 24L + ((16L + texto.length() + 7L) & ~7L) : 0L;
+    }
+
+    private void recorrerFrios(Consumer<EstudianteInmutable> consumidor) {
+        frio.recorrer(registro -> consumidor.accept(CodificadorEstudiante.decodificar(ByteBuffer.wrap(registro))));
+    }
+
+    // Los archivados son inactivos: se agregan a una consulta por rango que no pidió solo activos
+    private List<Estudiante> agregarFriosEnRango(List<Estudiante> calientes, LocalDate desde, LocalDate hasta,
+                                                 String claveCarrera) {
+        if (frio.cantidad() == 0) {
+            return calientes;
+        }
+        Set<Long> vistos = new HashSet<>();
+        calientes.forEach(estudiante -> vistos.add(estudiante.getId()));
+        List<Estudiante> archivados = new ArrayList<>();
+        recorrerFrios(estudiante -> {
+            LocalDate fecha = estudiante.getFechaIngreso();
+            if (fecha != null && !fecha.isBefore(desde) && !fecha.isAfter(hasta)
+                    && (claveCarrera == null || claveCarrera.equals(normalizarCarrera(estudiante.getCarrera())))
+                    && vistos.add(estudiante.getId())) {
+                archivados.add(estudiante);
+            }
+        });
+        if (archivados.isEmpty()) {
+            return calientes;
+        }
+        calientes.addAll(archivados);
+        calientes.sort(Comparator.comparing(Estudiante::getFechaIngreso).thenComparing(Estudiante::getId));
+        return calientes;
+    }
+
+    /**
+     * Detiene el archivo periódico y libera los archivos que abrió conConfiguracion
+     * (registro y desborde)
+     * Los registros recibidos en conRegistro o desdeInstantanea los cierra quien los abrió
+     */
+    public void cerrar() throws RepositorioException {
+        Exception primerFallo = null;
+        AutoCloseable recurso;
+        while ((recurso = recursosPropios.poll()) != null) {
+            try {
+                recurso.close();
+            } catch (Exception e) {
+                primerFallo = primerFallo != null ? primerFallo : e;
+            }
+        }
+        if (primerFallo != null) {
+            throw new RepositorioException("No se pudieron cerrar los archivos del repositorio", 
+                                         "PERSISTENCIA_ERROR", primerFallo);
+        }
+    }
+
+    private static void cerrarSinErrores(AutoCloseable recurso) {
+        if (recurso == null) {
+            return;
+        }
+        try {
+            recurso.close();
+        } catch (Exception e) {
+            // Ya se informa el error que impidió abrir el repositorio
+        }
     }
 
     // Método para limpiar repositorio (útil para pruebas)
     public void limpiar() {
+        if (registro != null) {
+            try {
+                confirmar(registro.registrar(TipoOperacion.VACIAR, null));
+            } catch (RepositorioException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+        vaciar();
+    }
+    
+    private void vaciar() {
         estudiantes.clear();
-        contadorId.set(1);
+        indicePorEmail.clear();
+        indiceOrdenado.clear();
+        indiceOrdenadoPorCarrera.clear();
+        indicePorFechaIngreso.clear();
+        retirosPendientes.clear();
+        frio.limpiar();
+        desactivaciones.clear();
+        estudiantesActivos.reset();
+        estudiantesInactivos.reset();
+        activosPorCarrera.clear();
+        bytesResidentes.reset();
+        filasDesbordadas.reset();
+        if (anillo != null) {
+            anillo.limpiar();
+        }
+        if (desborde != null) {
+            desborde.limpiar();
+        }
+        contadorId.set(primerId);
     }
 
     // Método para obtener estadísticas (funcionalidad adicional)
     public Map<String, Object> obtenerEstadisticas() {
         Map<String, Object> stats = new HashMap<>();
+        EstadisticasEstudiantes vista = obtenerEstadisticasEstudiantes();
         
-        long totalEstudiantes = estudiantes.size();
-        long estudiantesActivos = estudiantes.values().stream()
-                .filter(Estudiante::isActivo)
-                .count();
-        long estudiantesInactivos = totalEstudiantes - estudiantesActivos;
-        
-        Map<String, Long> estudiantesPorCarrera = estudiantes.values().stream()
-                .filter(Estudiante::isActivo)
-                .collect(Collectors.groupingBy(
-                    Estudiante::getCarrera,
-                    Collectors.counting()
-                ));
-        
-        stats.put("totalEstudiantes", totalEstudiantes);
-        stats.put("estudiantesActivos", estudiantesActivos);
-        stats.put("estudiantesInactivos", estudiantesInactivos);
-        stats.put("estudiantesPorCarrera", estudiantesPorCarrera);
+        stats.put("totalEstudiantes", vista.getTotalEstudiantes());
+        stats.put("estudiantesActivos", vista.getEstudiantesActivos());
+        stats.put("estudiantesInactivos", vista.getEstudiantesInactivos());
+        stats.put("estudiantesPorCarrera", new HashMap<>(vista.getActivosPorCarrera()));
         stats.put("proximoId", contadorId.get());
+        stats.put("estudiantesArchivados", frio.cantidad());
+        stats.put("estudiantesDesbordados", filasDesbordadas.sum());
         
         return stats;
     }
-}
\ No newline at end of file
+
+    /**
+     * Nodo de la cadena de versiones de una fila (de la más nueva a la más antigua)
+     * En modo acotado el contenido puede salir del heap (estudiante null) y leerse
+     * de la ubicación de desborde; ambos campos cambian solo bajo el cerrojo de la fila
+     */
+    private static final class VersionEstudiante {
+        private volatile EstudianteInmutable estudiante;
+        private final long version;
+        private volatile VersionEstudiante anterior;
+        private volatile long desborde = -1L;
+        // Accesos recientes para el reloj de desalojo (solo en la versión vigente)
+        private volatile int frecuencia;
+
+        private VersionEstudiante(EstudianteInmutable estudiante, long version, VersionEstudiante anterior) {
+            this.estudiante = estudiante;
+            this.version = version;
+            this.anterior = anterior;
+        }
+
+        // Versión más nueva con número menor o igual al fijado (null si la fila no existía)
+        private VersionEstudiante visibleEn(long fijada) {
+            VersionEstudiante actual = this;
+            while (actual != null && actual.version > fijada) {
+                actual = actual.anterior;
+            }
+            return actual;
+        }
+
+        // Descarta las versiones que el lector fijado más antiguo ya no puede ver
+        private void podar(long minimaFijada) {
+            VersionEstudiante conservada = visibleEn(minimaFijada);
+            if (conservada != null) {
+                conservada.anterior = null;
+            }
+        }
+    }
+
+    /**
+     * Clave del índice ordenado: mismo orden que OrdenEstudiantes.ESTUDIANTE,
+     * con las claves de collation calculadas una sola vez al crear la clave
+     */
+    private record ClaveOrden(String apellido, String nombre, long id,
+                              CollationKey claveApellido, CollationKey claveNombre) implements Comparable<ClaveOrden> {
+
+        private ClaveOrden(String apellido, String nombre, long id) {
+            this(apellido, nombre, id, OrdenEstudiantes.clave(apellido), OrdenEstudiantes.clave(nombre));
+        }
+
+        private static ClaveOrden de(Estudiante estudiante) {
+            return new ClaveOrden(estudiante.getApellido(), estudiante.getNombre(), estudiante.getId());
+        }
+
+        @Override
+        public int compareTo(ClaveOrden otra) {
+            int comparacion = OrdenEstudiantes.CLAVE.compare(claveApellido, otra.claveApellido);
+            if (comparacion == 0) {
+                comparacion = OrdenEstudiantes.CLAVE.compare(claveNombre, otra.claveNombre);
+            }
+            if (comparacion == 0) {
+                comparacion = Long.compare(id, otra.id);
+            }
+            if (comparacion == 0) {
+                comparacion = OrdenEstudiantes.BINARIO.compare(apellido, otra.apellido);
+            }
+            return comparacion != 0 ? comparacion : OrdenEstudiantes.BINARIO.compare(nombre, otra.nombre);
+        }
+    }
+
+    // Clave del índice por fecha de ingreso: día epoch y desempate por ID
+    private record ClaveFecha(long dia, long id) implements Comparable<ClaveFecha> {
+        private static ClaveFecha de(Estudiante estudiante) {
+            return new ClaveFecha(estudiante.getFechaIngreso().toEpochDay(), estudiante.getId());
+        }
+
+        private static ClaveFecha deSiTiene(Estudiante estudiante) {
+            return estudiante.getFechaIngreso() != null ? de(estudiante) : null;
+        }
+
+        @Override
+        public int compareTo(ClaveFecha otra) {
+            int comparacion = Long.compare(dia, otra.dia);
+            return comparacion != 0 ? comparacion : Long.compare(id, otra.id);
+        }
+    }
+
+    /**
+     * Anillo de IDs residentes que recorre la manecilla del reloj de desalojo
+     * Arreglo circular de long primitivos; un ID puede quedar obsoleto (fila
+     * desbordada o archivada) y se descarta cuando la manecilla lo alcanza
+     */
+    private static final class AnilloDesalojo {
+        private static final long VACIO = 0L;
+
+        private long[] ids = new long[CAPACIDAD_INICIAL];
+        private int cabeza;
+        private int cantidad;
+
+        private synchronized void agregar(long id) {
+            if (cantidad == ids.length) {
+                long[] mayor = new long[ids.length * 2];
+                for (int i = 0; i < cantidad; i++) {
+                    mayor[i] = ids[(cabeza + i) % ids.length];
+                }
+                ids = mayor;
+                cabeza = 0;
+            }
+            ids[(cabeza + cantidad) % ids.length] = id;
+            cantidad++;
+        }
+
+        // Siguiente ID bajo la manecilla (VACIO si no queda ninguno)
+        private synchronized long tomar() {
+            if (cantidad == 0) {
+                return VACIO;
+            }
+            long id = ids[cabeza];
+            cabeza = (cabeza + 1) % ids.length;
+            cantidad--;
+            return id;
+        }
+
+        private synchronized int cantidad() {
+            return cantidad;
+        }
+
+        private synchronized void limpiar() {
+            ids = new long[CAPACIDAD_INICIAL];
+            cabeza = 0;
+            cantidad = 0;
+        }
+    }
+
+    // Desactivación pendiente de archivar: instante, fila y versión desactivada
+    private record Desactivacion(long instante, long id, long version) {
+    }
+
+    // Claves de una versión reemplazada en la versión del reloj indicada
+    private record RetiroPendiente(EstudianteInmutable anterior, long version) {
+    }
+}
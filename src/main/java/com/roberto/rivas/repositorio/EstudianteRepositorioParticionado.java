@@ -0,0 +1,420 @@
+package com.roberto.rivas.repositorio;
+
+import com.roberto.rivas.modelo.Estudiante;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Implementación particionada del repositorio de Estudiantes
+ * Reparte los estudiantes entre N repositorios en memoria independientes para
+ * que las escrituras de distintos núcleos no compitan por el mismo contador,
+ * índices ni contadores de estado
+ * 
+ * Cada partición i asigna IDs i+1, i+1+N, i+1+2N, ..., de modo que la
+ * partición de un ID se obtiene en O(1) como (id - 1) mod N. La unicidad
+ * global del email se garantiza con un índice de email particionado por hash
+ * que se reserva antes de crear en la partición. Los listados y las páginas
+ * mezclan los resultados ya ordenados de cada partición. Todas las particiones publican
+ * sus cambios en un mismo publicador, con una sola secuencia
+ * 
+ * @author Roberto Rivas Lopez
+ */
+public class EstudianteRepositorioParticionado implements IEstudianteRepositorio, IEstadisticasRepositorio,
+                                                          IPublicadorCambios {
+
+    // Marca de reserva de email mientras se asigna el ID (nunca es un ID válido)
+    private static final Long EMAIL_RESERVADO = -1L;
+    // Cerrojos por fila para serializar cambios de email de un mismo ID
+    private static final int CERROJOS_POR_PARTICION = 16;
+
+    private final EstudianteRepositorioMemoria[] particiones;
+    private final List<Map<String, Long>> indicePorEmail;
+    private final Object[] cerrojosFila;
+    private final PublicadorCambios cambios;
+
+    public EstudianteRepositorioParticionado() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public EstudianteRepositorioParticionado(int cantidadParticiones) {
+        if (cantidadParticiones < 1) {
+            throw new IllegalArgumentException("Debe haber al menos una partición");
+        }
+        this.particiones = new EstudianteRepositorioMemoria[cantidadParticiones];
+        this.indicePorEmail = new ArrayList<>(cantidadParticiones);
+        this.cambios = new PublicadorCambios();
+        for (int i = 0; i < cantidadParticiones; i++) {
+            particiones[i] = new EstudianteRepositorioMemoria(i + 1, cantidadParticiones, cambios);
+            indicePorEmail.add(new ConcurrentHashMap<>());
+        }
+        this.cerrojosFila = new Object[cantidadParticiones * CERROJOS_POR_PARTICION];
+        for (int i = 0; i < cerrojosFila.length; i++) {
+            cerrojosFila[i] = new Object();
+        }
+    }
+
+    @Override
+    public Estudiante crear(Estudiante estudiante) throws RepositorioException {
+        validarEstudianteNoNulo(estudiante);
+
+        // Reserva global del email antes de elegir partición
+        String claveEmail = normalizar(estudiante.getEmail());
+        reservarEmail(claveEmail, EMAIL_RESERVADO);
+
+        // Cada hilo escribe en una partición al azar: sin un punto de contención común
+        EstudianteRepositorioMemoria particion = particiones[ThreadLocalRandom.current().nextInt(particiones.length)];
+        Estudiante creado;
+        try {
+            creado = particion.crear(estudiante);
+        } catch (RepositorioException | RuntimeException e) {
+            liberarEmail(claveEmail, EMAIL_RESERVADO);
+            throw e;
+        }
+
+        if (claveEmail != null) {
+            indiceEmailDe(claveEmail).replace(claveEmail, EMAIL_RESERVADO, creado.getId());
+        }
+        return creado;
+    }
+
+    @Override
+    public Optional<Estudiante> buscarPorId(Long id) throws RepositorioException {
+        validarIdNoNulo(id);
+        return particionDe(id).buscarPorId(id);
+    }
+
+    @Override
+    public Optional<Estudiante> buscarPorEmail(String email) throws RepositorioException {
+        validarEmailNoNulo(email);
+
+        String clave = normalizar(email);
+        Long id = indiceEmailDe(clave).get(clave);
+        if (id == null || EMAIL_RESERVADO.equals(id)) {
+            return Optional.empty();
+        }
+        return particionDe(id).buscarPorId(id);
+    }
+
+    @Override
+    public List<Estudiante> obtenerTodos() throws RepositorioException {
+        return unir(enParalelo(EstudianteRepositorioMemoria::obtenerTodos), Iterador.POR_NOMBRE);
+    }
+
+    @Override
+    public List<Estudiante> obtenerPorCarrera(String carrera) throws RepositorioException {
+        validarCarreraNoNula(carrera);
+        return unir(enParalelo(particion -> particion.obtenerPorCarrera(carrera)), Iterador.POR_NOMBRE);
+    }
+
+    @Override
+    public Pagina<Estudiante> obtenerPagina(String token, int tamano) throws RepositorioException {
+        return unirPaginas(enParalelo(particion -> particion.obtenerPagina(token, tamano)), tamano);
+    }
+
+    @Override
+    public Pagina<Estudiante> obtenerPaginaPorCarrera(String carrera, String token, int tamano) 
+            throws RepositorioException {
+        validarCarreraNoNula(carrera);
+        return unirPaginas(enParalelo(particion -> particion.obtenerPaginaPorCarrera(carrera, token, tamano)),
+                           tamano);
+    }
+
+    @Override
+    public List<Estudiante> obtenerPorFechaIngreso(LocalDate desde, LocalDate hasta, String carrera, Boolean activo) 
+            throws RepositorioException {
+        // Cada partición valida el rango y responde desde su índice por fecha
+        return unir(enParalelo(particion -> particion.obtenerPorFechaIngreso(desde, hasta, carrera, activo)),
+                    Iterador.POR_FECHA);
+    }
+
+    @Override
+    public Estudiante actualizar(Estudiante estudiante) throws RepositorioException {
+        validarEstudianteNoNulo(estudiante);
+        validarIdNoNulo(estudiante.getId());
+
+        Long id = estudiante.getId();
+        EstudianteRepositorioMemoria particion = particionDe(id);
+        synchronized (cerrojoDe(id)) {
+            Estudiante anterior = particion.buscarPorId(id)
+                .orElseThrow(() -> new RepositorioException("El estudiante no existe", "ESTUDIANTE_NO_ENCONTRADO"));
+
+            String claveEmail = normalizar(estudiante.getEmail());
+            boolean reservaNueva = reservarEmail(claveEmail, id);
+            Estudiante actualizado;
+            try {
+                actualizado = particion.actualizar(estudiante);
+            } catch (RepositorioException | RuntimeException e) {
+                if (reservaNueva) {
+                    liberarEmail(claveEmail, id);
+                }
+                throw e;
+            }
+
+            String claveAnterior = normalizar(anterior.getEmail());
+            if (!Objects.equals(claveAnterior, claveEmail)) {
+                liberarEmail(claveAnterior, id);
+            }
+            return actualizado;
+        }
+    }
+
+    @Override
+    public boolean eliminar(Long id) throws RepositorioException {
+        validarIdNoNulo(id);
+        // Eliminación lógica: el email sigue reservado, igual que en memoria
+        return particionDe(id).eliminar(id);
+    }
+
+    @Override
+    public boolean existe(Long id) throws RepositorioException {
+        validarIdNoNulo(id);
+        return particionDe(id).existe(id);
+    }
+
+    @Override
+    public boolean existePorEmail(String email) throws RepositorioException {
+        validarEmailNoNulo(email);
+
+        String clave = normalizar(email);
+        return indiceEmailDe(clave).containsKey(clave);
+    }
+
+    @Override
+    public void suscribir(Flow.Subscriber<? super EventoCambio> suscriptor) {
+        cambios.suscribir(suscriptor);
+    }
+
+    @Override
+    public long obtenerUltimaSecuencia() {
+        return cambios.obtenerUltimaSecuencia();
+    }
+
+    @Override
+    public long obtenerEventosDescartados() {
+        return cambios.obtenerEventosDescartados();
+    }
+
+    @Override
+    public long contarEstudiantes() throws RepositorioException {
+        // Cada partición responde en O(1) con sus contadores: sumar en serie es más barato
+        long total = 0;
+        for (EstudianteRepositorioMemoria particion : particiones) {
+            total += particion.contarEstudiantes();
+        }
+        return total;
+    }
+
+    /**
+     * Combina las estadísticas de cada partición (cada una es consistente por sí
+     * misma; la suma no es atómica entre particiones)
+     */
+    @Override
+    public EstadisticasEstudiantes obtenerEstadisticasEstudiantes() {
+        long activos = 0;
+        long inactivos = 0;
+        Map<String, Long> porCarrera = new HashMap<>();
+        for (EstudianteRepositorioMemoria particion : particiones) {
+            EstadisticasEstudiantes parcial = particion.obtenerEstadisticasEstudiantes();
+            activos += parcial.getEstudiantesActivos();
+            inactivos += parcial.getEstudiantesInactivos();
+            parcial.getActivosPorCarrera().forEach((carrera, cantidad) -> porCarrera.merge(carrera, cantidad, Long::sum));
+        }
+        return new EstadisticasEstudiantes(activos + inactivos, activos, inactivos, porCarrera);
+    }
+
+    public int obtenerCantidadParticiones() {
+        return particiones.length;
+    }
+
+    // Método para limpiar repositorio (útil para pruebas)
+    public void limpiar() {
+        for (EstudianteRepositorioMemoria particion : particiones) {
+            particion.limpiar();
+        }
+        indicePorEmail.forEach(Map::clear);
+    }
+
+    // Métodos de enrutamiento (Principio de Responsabilidad Única)
+    private EstudianteRepositorioMemoria particionDe(long id) {
+        return particiones[(int) Math.floorMod(id - 1, (long) particiones.length)];
+    }
+
+    private Map<String, Long> indiceEmailDe(String clave) {
+        return indicePorEmail.get(Math.floorMod(clave.hashCode(), indicePorEmail.size()));
+    }
+
+    private Object cerrojoDe(long id) {
+        return cerrojosFila[(int) Math.floorMod(Long.hashCode(id), (long) cerrojosFila.length)];
+    }
+
+    /**
+     * Ejecuta la consulta en todas las particiones en paralelo
+     * @return Resultados en el orden de las particiones
+     */
+    private <T> List<T> enParalelo(ConsultaParticion<T> consulta) throws RepositorioException {
+        try {
+            return IntStream.range(0, particiones.length)
+                .parallel()
+                .mapToObj(i -> {
+                    try {
+                        return consulta.ejecutar(particiones[i]);
+                    } catch (RepositorioException e) {
+                        throw new FalloParticion(e);
+                    }
+                })
+                .toList();
+        } catch (FalloParticion e) {
+            throw e.causa;
+        }
+    }
+
+    /**
+     * Mezcla k-vías de los listados de cada partición, que ya llegan ordenados
+     * según el mismo criterio: el resultado queda ordenado sin volver a ordenar
+     */
+    private static List<Estudiante> unir(List<List<Estudiante>> parciales, Comparator<Estudiante> orden) {
+        int total = 0;
+        PriorityQueue<Iterador> frentes = new PriorityQueue<>(Math.max(1, parciales.size()));
+        for (List<Estudiante> parcial : parciales) {
+            total += parcial.size();
+            if (!parcial.isEmpty()) {
+                frentes.add(new Iterador(parcial.iterator(), orden));
+            }
+        }
+        
+        List<Estudiante> resultado = new ArrayList<>(total);
+        while (!frentes.isEmpty()) {
+            Iterador frente = frentes.poll();
+            resultado.add(frente.actual);
+            if (frente.avanzar()) {
+                frentes.add(frente);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Mezcla las páginas pedidas a cada partición con el mismo token: cada una
+     * salta en su índice ordenado y lee a lo sumo tamano filas, y la página
+     * global son las primeras tamano filas de la mezcla
+     */
+    private static Pagina<Estudiante> unirPaginas(List<Pagina<Estudiante>> paginas, int tamano) {
+        List<List<Estudiante>> parciales = new ArrayList<>(paginas.size());
+        boolean quedanEnParticiones = false;
+        for (Pagina<Estudiante> pagina : paginas) {
+            parciales.add(pagina.getElementos());
+            quedanEnParticiones |= pagina.hayMas();
+        }
+        
+        List<Estudiante> filas = unir(parciales, Iterador.POR_NOMBRE);
+        if (filas.size() > tamano || !quedanEnParticiones) {
+            return TokenPagina.armar(filas, tamano);
+        }
+        // Exactamente tamano filas y una partición con más: la página está completa pero no es la última
+        return new Pagina<>(filas, TokenPagina.codificar(filas.get(tamano - 1)));
+    }
+
+    // Métodos del índice de email (Principio de Responsabilidad Única)
+    private String normalizar(String texto) {
+        return texto != null ? texto.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * @return true si la reserva es nueva, false si el titular ya la tenía
+     */
+    private boolean reservarEmail(String clave, Long titular) throws RepositorioException {
+        if (clave == null) {
+            return false;
+        }
+
+        Long existente = indiceEmailDe(clave).putIfAbsent(clave, titular);
+        if (existente == null) {
+            return true;
+        }
+        if (existente.equals(titular) && !EMAIL_RESERVADO.equals(titular)) {
+            return false;
+        }
+        throw new RepositorioException("Ya existe un estudiante con este email", "EMAIL_DUPLICADO");
+    }
+
+    private void liberarEmail(String clave, Long titular) {
+        if (clave != null) {
+            indiceEmailDe(clave).remove(clave, titular);
+        }
+    }
+
+    // Métodos privados de validación (Principio de Separación de Intereses)
+    private void validarEstudianteNoNulo(Estudiante estudiante) throws RepositorioException {
+        if (estudiante == null) {
+            throw new RepositorioException("No se puede procesar un estudiante nulo", "ESTUDIANTE_NULO");
+        }
+    }
+
+    private void validarIdNoNulo(Long id) throws RepositorioException {
+        if (id == null) {
+            throw new RepositorioException("El ID no puede ser nulo", "ID_NULO");
+        }
+    }
+
+    private void validarEmailNoNulo(String email) throws RepositorioException {
+        if (email == null || email.trim().isEmpty()) {
+            throw new RepositorioException("El email no puede ser nulo o vacío", "EMAIL_NULO");
+        }
+    }
+
+    private void validarCarreraNoNula(String carrera) throws RepositorioException {
+        if (carrera == null || carrera.trim().isEmpty()) {
+            throw new RepositorioException("La carrera no puede ser nula o vacía", "CARRERA_NULA");
+        }
+    }
+
+    // Cabeza de un listado parcial durante la mezcla
+    private static final class Iterador implements Comparable<Iterador> {
+        // El de los índices de cada partición, para mezclar listados ya ordenados
+        private static final Comparator<Estudiante> POR_NOMBRE = OrdenEstudiantes.ESTUDIANTE;
+        private static final Comparator<Estudiante> POR_FECHA = Comparator
+            .comparing(Estudiante::getFechaIngreso)
+            .thenComparing(Estudiante::getId);
+
+        private final Iterator<Estudiante> resto;
+        private final Comparator<Estudiante> orden;
+        private Estudiante actual;
+
+        private Iterador(Iterator<Estudiante> resto, Comparator<Estudiante> orden) {
+            this.resto = resto;
+            this.orden = orden;
+            this.actual = resto.next();
+        }
+
+        private boolean avanzar() {
+            actual = resto.hasNext() ? resto.next() : null;
+            return actual != null;
+        }
+
+        @Override
+        public int compareTo(Iterador otro) {
+            return orden.compare(actual, otro.actual);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConsultaParticion<T> {
+        T ejecutar(EstudianteRepositorioMemoria particion) throws RepositorioException;
+    }
+
+    // Transporta una RepositorioException a través del stream paralelo
+    private static final class FalloParticion extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final RepositorioException causa;
+
+        private FalloParticion(RepositorioException causa) {
+            super(causa);
+            this.causa = causa;
+        }
+    }
+}
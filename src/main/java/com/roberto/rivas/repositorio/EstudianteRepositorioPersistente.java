@@ -0,0 +1,376 @@
+package com.roberto.rivas.repositorio;
+
+import com.roberto.rivas.modelo.Estudiante;
+import com.roberto.rivas.modelo.EstudianteInmutable;
+import com.roberto.rivas.repositorio.estructura.MapaPersistente;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Implementación copy-on-write del repositorio de Estudiantes sobre mapas persistentes
+ *
+ * Todo el estado (estudiantes por ID, índice de email, contadores y próximo ID)
+ * es un único valor inmutable publicado en una referencia atómica. Un lector
+ * toma la raíz una vez y obtiene una instantánea consistente sin cerrojos ni
+ * copias, aunque haya escrituras en curso. Cada escritor construye el estado
+ * siguiente compartiendo casi toda la estructura con el anterior (HAMT) y lo
+ * publica con compareAndSet; si otro escritor se adelantó, vuelve a aplicar
+ * la operación sobre la raíz nueva
+ * 
+ * Cada raíz lleva la secuencia de su último cambio; los eventos se publican
+ * en el orden de las raíces aunque los escritores terminen en otro orden
+ *
+ * Pensado para cargas de lectura intensiva: las escrituras concurrentes sobre
+ * la misma raíz se reintentan en lugar de avanzar en paralelo
+ *
+ * @author Roberto Rivas Lopez
+ */
+public class EstudianteRepositorioPersistente implements IEstudianteRepositorio, IEstadisticasRepositorio,
+                                                         IPublicadorCambios {
+
+    // Mismo orden que ORDER BY apellido, nombre, id del repositorio de base de datos
+    private static final Comparator<Estudiante> POR_NOMBRE = OrdenEstudiantes.ESTUDIANTE;
+    private static final Comparator<Estudiante> POR_FECHA = Comparator
+        .comparing(Estudiante::getFechaIngreso)
+        .thenComparing(Estudiante::getId);
+
+    private final AtomicReference<Estado> raiz = new AtomicReference<>(Estado.VACIO);
+    private final PublicadorCambios cambios = new PublicadorCambios();
+
+    @Override
+    public Estudiante crear(Estudiante estudiante) throws RepositorioException {
+        validarEstudianteNoNulo(estudiante);
+
+        String claveEmail = normalizar(estudiante.getEmail());
+        EstudianteInmutable[] creado = new EstudianteInmutable[1];
+        publicar(actual -> {
+            if (claveEmail != null && actual.porEmail.contiene(claveEmail)) {
+                throw new RepositorioException("Ya existe un estudiante con este email", "EMAIL_DUPLICADO");
+            }
+            creado[0] = EstudianteInmutable.conId(estudiante, actual.proximoId);
+            return actual.con(null, creado[0], actual.proximoId + 1);
+        }, null, creado);
+        return creado[0].copiar();
+    }
+
+    @Override
+    public Optional<Estudiante> buscarPorId(Long id) throws RepositorioException {
+        validarIdNoNulo(id);
+
+        return Optional.ofNullable(raiz.get().porId.obtener(id));
+    }
+
+    @Override
+    public Optional<Estudiante> buscarPorEmail(String email) throws RepositorioException {
+        validarEmailNoNulo(email);
+
+        Estado estado = raiz.get();
+        Long id = estado.porEmail.obtener(normalizar(email));
+        return id != null ? Optional.ofNullable(estado.porId.obtener(id)) : Optional.empty();
+    }
+
+    @Override
+    public List<Estudiante> obtenerTodos() throws RepositorioException {
+        // Una sola lectura de la raíz: instantánea consistente sin cerrojos
+        Estado estado = raiz.get();
+        List<Estudiante> resultado = new ArrayList<>((int) estado.activos);
+        estado.porId.recorrer((id, estudiante) -> {
+            if (estudiante.isActivo()) {
+                resultado.add(estudiante);
+            }
+        });
+        resultado.sort(POR_NOMBRE);
+        return resultado;
+    }
+
+    @Override
+    public List<Estudiante> obtenerPorCarrera(String carrera) throws RepositorioException {
+        validarCarreraNoNula(carrera);
+
+        String clave = normalizar(carrera);
+        List<Estudiante> resultado = new ArrayList<>();
+        raiz.get().porId.recorrer((id, estudiante) -> {
+            if (estudiante.isActivo() && clave.equals(normalizar(estudiante.getCarrera()))) {
+                resultado.add(estudiante);
+            }
+        });
+        resultado.sort(POR_NOMBRE);
+        return resultado;
+    }
+
+    @Override
+    public List<Estudiante> obtenerPorFechaIngreso(LocalDate desde, LocalDate hasta, String carrera, Boolean activo)
+            throws RepositorioException {
+        validarRangoFechas(desde, hasta);
+
+        String clave = normalizar(carrera);
+        List<Estudiante> resultado = new ArrayList<>();
+        raiz.get().porId.recorrer((id, estudiante) -> {
+            LocalDate fecha = estudiante.getFechaIngreso();
+            if (fecha != null && !fecha.isBefore(desde) && !fecha.isAfter(hasta)
+                    && (activo == null || activo == estudiante.isActivo())
+                    && (clave == null || clave.equals(normalizar(estudiante.getCarrera())))) {
+                resultado.add(estudiante);
+            }
+        });
+        resultado.sort(POR_FECHA);
+        return resultado;
+    }
+
+    @Override
+    public Estudiante actualizar(Estudiante estudiante) throws RepositorioException {
+        validarEstudianteNoNulo(estudiante);
+        validarIdNoNulo(estudiante.getId());
+
+        Long id = estudiante.getId();
+        String claveEmail = normalizar(estudiante.getEmail());
+        EstudianteInmutable actualizado = EstudianteInmutable.conId(estudiante, id);
+        EstudianteInmutable[] anterior = new EstudianteInmutable[1];
+        publicar(actual -> {
+            anterior[0] = actual.porId.obtener(id);
+            if (anterior[0] == null) {
+                throw new RepositorioException("El estudiante no existe", "ESTUDIANTE_NO_ENCONTRADO");
+            }
+            Long titular = claveEmail != null ? actual.porEmail.obtener(claveEmail) : null;
+            if (titular != null && !titular.equals(id)) {
+                throw new RepositorioException("Ya existe un estudiante con este email", "EMAIL_DUPLICADO");
+            }
+            return actual.con(anterior[0], actualizado, actual.proximoId);
+        }, anterior, new EstudianteInmutable[] {actualizado});
+        return actualizado.copiar();
+    }
+
+    @Override
+    public boolean eliminar(Long id) throws RepositorioException {
+        validarIdNoNulo(id);
+
+        // Eliminación lógica: se publica la instantánea desactivada
+        EstudianteInmutable[] anterior = new EstudianteInmutable[1];
+        EstudianteInmutable[] desactivado = new EstudianteInmutable[1];
+        publicar(actual -> {
+            anterior[0] = actual.porId.obtener(id);
+            if (anterior[0] == null) {
+                throw new RepositorioException("El estudiante no existe", "ESTUDIANTE_NO_ENCONTRADO");
+            }
+            desactivado[0] = anterior[0].conActivo(false);
+            return desactivado[0] == anterior[0] ? actual : actual.con(anterior[0], desactivado[0], actual.proximoId);
+        }, anterior, desactivado);
+        return true;
+    }
+
+    @Override
+    public boolean existe(Long id) throws RepositorioException {
+        validarIdNoNulo(id);
+
+        return raiz.get().porId.contiene(id);
+    }
+
+    @Override
+    public boolean existePorEmail(String email) throws RepositorioException {
+        validarEmailNoNulo(email);
+
+        return raiz.get().porEmail.contiene(normalizar(email));
+    }
+
+    @Override
+    public long contarEstudiantes() throws RepositorioException {
+        return raiz.get().activos;
+    }
+
+    @Override
+    public void suscribir(Flow.Subscriber<? super EventoCambio> suscriptor) {
+        cambios.suscribir(suscriptor);
+    }
+
+    @Override
+    public long obtenerUltimaSecuencia() {
+        return cambios.obtenerUltimaSecuencia();
+    }
+
+    @Override
+    public long obtenerEventosDescartados() {
+        return cambios.obtenerEventosDescartados();
+    }
+
+    /**
+     * Los contadores viajan en el mismo estado que las filas: siempre cuadran
+     * entre sí sin recorrer ni reintentar
+     */
+    @Override
+    public EstadisticasEstudiantes obtenerEstadisticasEstudiantes() {
+        Estado estado = raiz.get();
+        Map<String, Long> porCarrera = new HashMap<>();
+        estado.activosPorCarrera.recorrer(porCarrera::put);
+        return new EstadisticasEstudiantes(estado.activos + estado.inactivos, estado.activos,
+                                           estado.inactivos, porCarrera);
+    }
+
+    // Método para obtener estadísticas (funcionalidad adicional)
+    public Map<String, Object> obtenerEstadisticas() {
+        Estado estado = raiz.get();
+        EstadisticasEstudiantes vista = obtenerEstadisticasEstudiantes();
+        Map<String, Object> stats = new HashMap<>();
+
+        stats.put("totalEstudiantes", vista.getTotalEstudiantes());
+        stats.put("estudiantesActivos", vista.getEstudiantesActivos());
+        stats.put("estudiantesInactivos", vista.getEstudiantesInactivos());
+        stats.put("estudiantesPorCarrera", new HashMap<>(vista.getActivosPorCarrera()));
+        stats.put("proximoId", estado.proximoId);
+
+        return stats;
+    }
+
+    // Método para limpiar repositorio (útil para pruebas); la secuencia de cambios continúa
+    public void limpiar() {
+        raiz.updateAndGet(actual -> Estado.VACIO.conSecuencia(actual.secuencia));
+    }
+
+    /**
+     * Aplica la transición sobre la raíz vigente y la publica con compareAndSet,
+     * reintentando sobre la raíz nueva si otro escritor publicó antes
+     * Las imágenes del evento las deja la transición en los arreglos indicados:
+     * tras el compareAndSet exitoso contienen las del último intento, el publicado
+     */
+    private void publicar(Transicion transicion, EstudianteInmutable[] anterior, EstudianteInmutable[] posterior)
+            throws RepositorioException {
+        while (true) {
+            Estado actual = raiz.get();
+            Estado siguiente = transicion.aplicar(actual);
+            if (siguiente == actual) {
+                return;
+            }
+            if (raiz.compareAndSet(actual, siguiente)) {
+                cambios.publicarEnOrden(siguiente.secuencia, anterior != null ? anterior[0] : null, posterior[0]);
+                return;
+            }
+        }
+    }
+
+    private static String normalizar(String texto) {
+        return texto != null ? texto.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    // Métodos privados de validación (Principio de Separación de Intereses)
+    private void validarEstudianteNoNulo(Estudiante estudiante) throws RepositorioException {
+        if (estudiante == null) {
+            throw new RepositorioException("No se puede procesar un estudiante nulo", "ESTUDIANTE_NULO");
+        }
+    }
+
+    private void validarIdNoNulo(Long id) throws RepositorioException {
+        if (id == null) {
+            throw new RepositorioException("El ID no puede ser nulo", "ID_NULO");
+        }
+    }
+
+    private void validarEmailNoNulo(String email) throws RepositorioException {
+        if (email == null || email.trim().isEmpty()) {
+            throw new RepositorioException("El email no puede ser nulo o vacío", "EMAIL_NULO");
+        }
+    }
+
+    private void validarCarreraNoNula(String carrera) throws RepositorioException {
+        if (carrera == null || carrera.trim().isEmpty()) {
+            throw new RepositorioException("La carrera no puede ser nula o vacía", "CARRERA_NULA");
+        }
+    }
+
+    private void validarRangoFechas(LocalDate desde, LocalDate hasta) throws RepositorioException {
+        if (desde == null || hasta == null) {
+            throw new RepositorioException("Las fechas del rango no pueden ser nulas", "FECHA_NULA");
+        }
+        if (desde.isAfter(hasta)) {
+            throw new RepositorioException("La fecha inicial no puede ser posterior a la final", "RANGO_FECHAS_INVALIDO");
+        }
+    }
+
+    // Operación de escritura como función pura del estado vigente (puede ejecutarse varias veces)
+    @FunctionalInterface
+    private interface Transicion {
+        Estado aplicar(Estado actual) throws RepositorioException;
+    }
+
+    /**
+     * Estado inmutable completo del repositorio; cada escritura publica uno nuevo
+     */
+    private static final class Estado {
+        private static final Estado VACIO = new Estado(MapaPersistente.vacio(), MapaPersistente.vacio(),
+                                                       MapaPersistente.vacio(), 0L, 0L, 1L, 0L);
+
+        private final MapaPersistente<Long, EstudianteInmutable> porId;
+        // Email normalizado -> ID (búsquedas y unicidad)
+        private final MapaPersistente<String, Long> porEmail;
+        private final MapaPersistente<String, Long> activosPorCarrera;
+        private final long activos;
+        private final long inactivos;
+        private final long proximoId;
+        // Secuencia del cambio que produjo este estado
+        private final long secuencia;
+
+        private Estado(MapaPersistente<Long, EstudianteInmutable> porId, MapaPersistente<String, Long> porEmail,
+                       MapaPersistente<String, Long> activosPorCarrera, long activos, long inactivos, long proximoId,
+                       long secuencia) {
+            this.porId = porId;
+            this.porEmail = porEmail;
+            this.activosPorCarrera = activosPorCarrera;
+            this.activos = activos;
+            this.inactivos = inactivos;
+            this.proximoId = proximoId;
+            this.secuencia = secuencia;
+        }
+
+        private Estado conSecuencia(long secuencia) {
+            return new Estado(porId, porEmail, activosPorCarrera, activos, inactivos, proximoId, secuencia);
+        }
+
+        /**
+         * Estado siguiente con la fila reemplazada (anterior null: fila nueva),
+         * trasladando su email y su contribución a los contadores
+         */
+        private Estado con(EstudianteInmutable anterior, EstudianteInmutable nuevo, long proximoId) {
+            MapaPersistente<String, Long> emails = porEmail;
+            String claveNueva = normalizar(nuevo.getEmail());
+            if (anterior != null) {
+                String claveAnterior = normalizar(anterior.getEmail());
+                if (claveAnterior != null && !claveAnterior.equals(claveNueva)) {
+                    emails = emails.sin(claveAnterior);
+                }
+            }
+            if (claveNueva != null) {
+                emails = emails.con(claveNueva, nuevo.getId());
+            }
+
+            MapaPersistente<String, Long> porCarrera = activosPorCarrera;
+            long totalActivos = activos;
+            long totalInactivos = inactivos;
+            if (anterior != null) {
+                if (anterior.isActivo()) {
+                    totalActivos--;
+                    porCarrera = contabilizar(porCarrera, anterior.getCarrera(), -1);
+                } else {
+                    totalInactivos--;
+                }
+            }
+            if (nuevo.isActivo()) {
+                totalActivos++;
+                porCarrera = contabilizar(porCarrera, nuevo.getCarrera(), 1);
+            } else {
+                totalInactivos++;
+            }
+            return new Estado(porId.con(nuevo.getId(), nuevo), emails, porCarrera,
+                              totalActivos, totalInactivos, proximoId, secuencia + 1);
+        }
+
+        private static MapaPersistente<String, Long> contabilizar(MapaPersistente<String, Long> porCarrera,
+                                                                  String carrera, int delta) {
+            if (carrera == null) {
+                return porCarrera;
+            }
+            Long actual = porCarrera.obtener(carrera);
+            long cantidad = (actual != null ? actual : 0L) + delta;
+            return cantidad > 0 ? porCarrera.con(carrera, cantidad) : porCarrera.sin(carrera);
+        }
+    }
+}
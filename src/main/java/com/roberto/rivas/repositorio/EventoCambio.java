@@ -0,0 +1,81 @@
+package com.roberto.rivas.repositorio;
+
+import com.roberto.rivas.modelo.EstudianteInmutable;
+
+/**
+ * Cambio confirmado sobre un estudiante, con su número de secuencia y las
+ * imágenes completas anterior y posterior
+ * 
+ * Las imágenes son instantáneas inmutables compartidas con el repositorio:
+ * aplicar un evento es idempotente (basta con reemplazar por ID), así que un
+ * consumidor puede suscribirse primero y cargar el estado inicial después
+ * 
+ * @author Roberto Rivas Lopez
+ */
+public final class EventoCambio {
+
+    /**
+     * Tipo de cambio, derivado del estado de actividad de ambas imágenes
+     */
+    public enum TipoCambio {
+        CREADO, ACTUALIZADO, DESACTIVADO, REACTIVADO
+    }
+
+    private final long secuencia;
+    private final TipoCambio tipo;
+    private final EstudianteInmutable anterior;
+    private final EstudianteInmutable posterior;
+
+    private EventoCambio(long secuencia, TipoCambio tipo, EstudianteInmutable anterior, EstudianteInmutable posterior) {
+        this.secuencia = secuencia;
+        this.tipo = tipo;
+        this.anterior = anterior;
+        this.posterior = posterior;
+    }
+
+    /**
+     * @param anterior Imagen previa (null si el estudiante es nuevo)
+     * @param posterior Imagen resultante del cambio
+     */
+    public static EventoCambio de(long secuencia, EstudianteInmutable anterior, EstudianteInmutable posterior) {
+        if (posterior == null) {
+            throw new IllegalArgumentException("La imagen posterior no puede ser nula");
+        }
+        TipoCambio tipo;
+        if (anterior == null) {
+            tipo = TipoCambio.CREADO;
+        } else if (anterior.isActivo() && !posterior.isActivo()) {
+            tipo = TipoCambio.DESACTIVADO;
+        } else if (!anterior.isActivo() && posterior.isActivo()) {
+            tipo = TipoCambio.REACTIVADO;
+        } else {
+            tipo = TipoCambio.ACTUALIZADO;
+        }
+        return new EventoCambio(secuencia, tipo, anterior, posterior);
+    }
+
+    public long getSecuencia() {
+        return secuencia;
+    }
+
+    public TipoCambio getTipo() {
+        return tipo;
+    }
+
+    public EstudianteInmutable getAnterior() {
+        return anterior;
+    }
+
+    public EstudianteInmutable getPosterior() {
+        return posterior;
+    }
+
+    public Long getIdEstudiante() {
+        return posterior.getId();
+    }
+
+    @Override
+    public String toString() {
+        return "EventoCambio{secuencia=" + secuencia + ", tipo=" + tipo + ", id=" + posterior.getId() + "}";
+    }
+}
@@ -0,0 +1,17 @@
+package com.roberto.rivas.repositorio;
+
+/**
+ * Capacidad opcional de un repositorio para entregar estadísticas agregadas
+ * Aplica Principio de Segregación de Interfaces (SOLID)
+ * 
+ * @author Roberto Rivas Lopez
+ */
+public interface IEstadisticasRepositorio {
+
+    /**
+     * Obtener estadísticas agregadas sin materializar estudiantes
+     * @return Vista inmutable con totales y activos por carrera
+     * @throws RepositorioException Si ocurre un error al obtener las estadísticas
+     */
+    EstadisticasEstudiantes obtenerEstadisticasEstudiantes() throws RepositorioException;
+}
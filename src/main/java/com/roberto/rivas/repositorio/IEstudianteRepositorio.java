@@ -1,8 +1,11 @@
 package com.roberto.rivas.repositorio;
 
 import com.roberto.rivas.modelo.Estudiante;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Interfaz para el repositorio de Estudiantes
@@ -21,6 +24,32 @@ public interface IEstudianteRepositorio {
      */
     Estudiante crear(Estudiante estudiante) throws RepositorioException;
     
+    /**
+     * Crear varios estudiantes de una vez; una fila rechazada (por ejemplo con
+     * EMAIL_DUPLICADO, también si el email se repite dentro del propio lote)
+     * no impide crear las demás
+     * Por defecto crea fila por fila; las implementaciones lo reemplazan para
+     * validar y escribir el lote completo con menos viajes
+     * @param estudiantes Estudiantes a crear
+     * @return Resultado por fila, en el orden del lote, con el estudiante creado o el error
+     * @throws RepositorioException Si el lote es nulo o falla algo ajeno a las filas
+     */
+    default ResultadoLote<Estudiante> crearLote(List<Estudiante> estudiantes) throws RepositorioException {
+        if (estudiantes == null) {
+            throw new RepositorioException("El lote de estudiantes no puede ser nulo", "LOTE_NULO");
+        }
+        
+        List<ResultadoLote.Fila<Estudiante>> filas = new ArrayList<>(estudiantes.size());
+        for (int i = 0; i < estudiantes.size(); i++) {
+            try {
+                filas.add(ResultadoLote.exito(i, crear(estudiantes.get(i))));
+            } catch (RepositorioException e) {
+                filas.add(ResultadoLote.fallo(i, e));
+            }
+        }
+        return new ResultadoLote<>(filas);
+    }
+    
     /**
      * Buscar estudiante por ID
      * @param id ID del estudiante
@@ -44,6 +73,20 @@ public interface IEstudianteRepositorio {
      */
     List<Estudiante> obtenerTodos() throws RepositorioException;
     
+    /**
+     * Recorrer los estudiantes activos a medida que se leen, en el mismo orden
+     * que obtenerTodos, sin materializar la lista completa
+     * El flujo retiene recursos (conexión, versión fijada) hasta agotarse o
+     * cerrarse: debe usarse con try-with-resources, sobre todo si se corta antes
+     * Un error al leer a mitad del recorrido llega como RepositorioRuntimeException
+     * Por defecto recorre el resultado de obtenerTodos
+     * @return Flujo ordenado de estudiantes activos; cerrarlo libera sus recursos
+     * @throws RepositorioException Si no se puede iniciar la consulta
+     */
+    default Stream<Estudiante> obtenerTodosEnFlujo() throws RepositorioException {
+        return obtenerTodos().stream();
+    }
+    
     /**
      * Obtener estudiantes por carrera
      * @param carrera Nombre de la carrera
@@ -52,6 +95,64 @@ public interface IEstudianteRepositorio {
      */
     List<Estudiante> obtenerPorCarrera(String carrera) throws RepositorioException;
     
+    /**
+     * Recorrer los estudiantes activos de una carrera a medida que se leen, con
+     * las mismas condiciones de uso que obtenerTodosEnFlujo
+     * @param carrera Nombre de la carrera
+     * @return Flujo ordenado de estudiantes de la carrera; cerrarlo libera sus recursos
+     * @throws RepositorioException Si la carrera es inválida o no se puede iniciar la consulta
+     */
+    default Stream<Estudiante> obtenerPorCarreraEnFlujo(String carrera) throws RepositorioException {
+        return obtenerPorCarrera(carrera).stream();
+    }
+    
+    /**
+     * Obtener una página de estudiantes activos ordenados por (apellido, nombre, id)
+     * La página empieza justo después de la fila del token, por lo que pedir la
+     * página N cuesta lo mismo que la primera (sin OFFSET)
+     * La implementación por defecto es solo un respaldo correcto: lee obtenerTodos
+     * y lo ordena en cada página (O(n log n) por página). La usan los repositorios
+     * sin índice ordenado (columnar, fuera del heap y persistente); los que lo
+     * tienen (memoria, particionado y base de datos) la reemplazan para leer
+     * solo la página
+     * @param token Token de la página anterior (Pagina.getSiguienteToken), o null para la primera
+     * @param tamano Cantidad máxima de estudiantes de la página (1 a 1000)
+     * @return Página con los estudiantes y el token de la siguiente, si hay más
+     * @throws RepositorioException Si el token o el tamaño son inválidos, o error durante la consulta
+     */
+    default Pagina<Estudiante> obtenerPagina(String token, int tamano) throws RepositorioException {
+        TokenPagina.validarTamano(tamano);
+        return TokenPagina.paginar(obtenerTodos(), token, tamano);
+    }
+    
+    /**
+     * Obtener una página de estudiantes activos de una carrera, con el mismo
+     * orden y token que obtenerPagina (y el mismo respaldo por defecto, sobre
+     * obtenerPorCarrera)
+     * @param carrera Nombre de la carrera
+     * @param token Token de la página anterior, o null para la primera
+     * @param tamano Cantidad máxima de estudiantes de la página (1 a 1000)
+     * @return Página con los estudiantes y el token de la siguiente, si hay más
+     * @throws RepositorioException Si la carrera, el token o el tamaño son inválidos, o error durante la consulta
+     */
+    default Pagina<Estudiante> obtenerPaginaPorCarrera(String carrera, String token, int tamano) 
+            throws RepositorioException {
+        TokenPagina.validarTamano(tamano);
+        return TokenPagina.paginar(obtenerPorCarrera(carrera), token, tamano);
+    }
+    
+    /**
+     * Obtener estudiantes por rango de fecha de ingreso (ambos extremos incluidos)
+     * @param desde Primera fecha de ingreso del rango
+     * @param hasta Última fecha de ingreso del rango
+     * @param carrera Carrera a filtrar, o null para todas
+     * @param activo Estado a filtrar, o null para activos e inactivos
+     * @return Lista de estudiantes ordenada por fecha de ingreso e ID
+     * @throws RepositorioException Si el rango es inválido o error durante la consulta
+     */
+    List<Estudiante> obtenerPorFechaIngreso(LocalDate desde, LocalDate hasta, String carrera, Boolean activo) 
+            throws RepositorioException;
+    
     /**
      * Actualizar un estudiante existente
      * @param estudiante El estudiante con datos actualizados
@@ -0,0 +1,35 @@
+package com.roberto.rivas.repositorio;
+
+import java.util.concurrent.Flow;
+
+/**
+ * Capacidad opcional de un repositorio para publicar sus cambios como un flujo
+ * de eventos ordenados (creado, actualizado, desactivado, reactivado)
+ * Aplica Principio de Segregación de Interfaces (SOLID)
+ * 
+ * La entrega no bloquea a los escritores: cada suscriptor tiene un buffer
+ * acotado y, si no consume a tiempo, pierde los eventos que no caben. Las
+ * secuencias son consecutivas, así que el suscriptor detecta la pérdida por
+ * el salto y puede recargar el estado completo
+ * 
+ * @author Roberto Rivas Lopez
+ */
+public interface IPublicadorCambios {
+
+    /**
+     * Suscribe un consumidor a los cambios confirmados desde este momento
+     * La entrega es asíncrona y respeta la demanda pedida con request(n)
+     * @param suscriptor Consumidor de eventos (Flow API)
+     */
+    void suscribir(Flow.Subscriber<? super EventoCambio> suscriptor);
+
+    /**
+     * @return Secuencia del último cambio publicado (0 si todavía no hubo cambios)
+     */
+    long obtenerUltimaSecuencia();
+
+    /**
+     * @return Entregas descartadas por buffers llenos (una por suscriptor y evento)
+     */
+    long obtenerEventosDescartados();
+}
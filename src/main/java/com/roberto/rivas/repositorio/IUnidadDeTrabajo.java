@@ -0,0 +1,34 @@
+package com.roberto.rivas.repositorio;
+
+/**
+ * Capacidad opcional de un repositorio para ejecutar varias operaciones como
+ * una unidad de trabajo: una sola conexión y una sola transacción
+ * Aplica Principio de Segregación de Interfaces (SOLID)
+ *
+ * Las operaciones del repositorio llamadas dentro del trabajo, en el mismo
+ * hilo, se unen a la unidad en curso en lugar de abrir otra. Si el trabajo
+ * lanza cualquier excepción se deshace todo; si termina, se confirma todo
+ *
+ * @author Roberto Rivas Lopez
+ */
+public interface IUnidadDeTrabajo {
+
+    /**
+     * Trabajo a ejecutar dentro de la unidad
+     * @param <T> Resultado del trabajo
+     * @param <E> Excepción que puede lanzar el trabajo
+     */
+    @FunctionalInterface
+    interface Trabajo<T, E extends Exception> {
+        T ejecutar() throws E;
+    }
+
+    /**
+     * Ejecuta el trabajo en una unidad de trabajo; si ya hay una en curso en
+     * este hilo, se une a ella y la confirmación queda a cargo de la exterior
+     * @return Resultado del trabajo
+     * @throws E La excepción del trabajo, después de deshacer la transacción
+     * @throws RepositorioException Si no se puede iniciar o confirmar la transacción
+     */
+    <T, E extends Exception> T enUnidadDeTrabajo(Trabajo<T, E> trabajo) throws E, RepositorioException;
+}
@@ -0,0 +1,54 @@
+package com.roberto.rivas.repositorio;
+
+import com.roberto.rivas.modelo.Estudiante;
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Orden de los listados de estudiantes: (apellido, nombre, id), comparando los
+ * textos como la collation utf8mb4_unicode_ci de la tabla estudiantes (sin
+ * distinguir mayúsculas ni acentos), igual que ORDER BY apellido, nombre, id
+ *
+ * Dos claves que la collation considera iguales y con el mismo ID (la clave
+ * anterior y la nueva de una fila durante una actualización) se desempatan al
+ * final por código de carácter, para que el orden sea coherente con equals en
+ * los índices ordenados
+ *
+ * @author Roberto Rivas Lopez
+ */
+final class OrdenEstudiantes {
+
+    // Collator.compare está sincronizado: cada hilo usa su propia instancia
+    private static final ThreadLocal<Collator> COLACION = ThreadLocal.withInitial(OrdenEstudiantes::crearColacion);
+
+    static final Comparator<String> TEXTO = Comparator.nullsFirst((a, b) -> COLACION.get().compare(a, b));
+    static final Comparator<String> BINARIO = Comparator.nullsFirst(Comparator.naturalOrder());
+    static final Comparator<CollationKey> CLAVE = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    static final Comparator<Estudiante> ESTUDIANTE = Comparator
+        .comparing(Estudiante::getApellido, TEXTO)
+        .thenComparing(Estudiante::getNombre, TEXTO)
+        .thenComparingLong(Estudiante::getId)
+        .thenComparing(Estudiante::getApellido, BINARIO)
+        .thenComparing(Estudiante::getNombre, BINARIO);
+
+    private OrdenEstudiantes() {
+    }
+
+    private static Collator crearColacion() {
+        Collator colacion = Collator.getInstance(Locale.ROOT);
+        colacion.setStrength(Collator.PRIMARY);
+        colacion.setDecomposition(Collator.CANONICAL_DECOMPOSITION);
+        return colacion;
+    }
+
+    /**
+     * Clave precalculada para comparar el texto muchas veces (índices ordenados):
+     * compararla con CLAVE da el mismo resultado que TEXTO
+     */
+    static CollationKey clave(String texto) {
+        return texto == null ? null : COLACION.get().getCollationKey(texto);
+    }
+}
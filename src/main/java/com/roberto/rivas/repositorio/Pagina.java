@@ -0,0 +1,70 @@
+package com.roberto.rivas.repositorio;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de un listado paginado por clave (apellido, nombre, id)
+ *
+ * Trae los elementos de la página y, si quedan más, un token opaco para
+ * pedir la siguiente. El token apunta a la última fila entregada, así que la
+ * página siguiente empieza justo después aunque entre tanto se creen o
+ * eliminen estudiantes, y cuesta lo mismo que la primera
+ *
+ * @param <T> Tipo de los elementos
+ * @author Roberto Rivas Lopez
+ */
+public final class Pagina<T> {
+
+    private final List<T> elementos;
+    private final String siguienteToken;
+
+    /**
+     * @param elementos Elementos de la página, en orden
+     * @param siguienteToken Token de la página siguiente, o null si es la última
+     */
+    public Pagina(List<T> elementos, String siguienteToken) {
+        if (elementos == null) {
+            throw new IllegalArgumentException("Los elementos de la página no pueden ser nulos");
+        }
+        this.elementos = Collections.unmodifiableList(new ArrayList<>(elementos));
+        this.siguienteToken = siguienteToken;
+    }
+
+    public List<T> getElementos() {
+        return elementos;
+    }
+
+    /**
+     * @return Token para pedir la página siguiente, o null si no hay más
+     */
+    public String getSiguienteToken() {
+        return siguienteToken;
+    }
+
+    public boolean hayMas() {
+        return siguienteToken != null;
+    }
+
+    public int tamano() {
+        return elementos.size();
+    }
+
+    /**
+     * @return La misma página con cada elemento convertido; conserva el token
+     */
+    public <R> Pagina<R> mapear(Function<? super T, ? extends R> conversion) {
+        List<R> convertidos = new ArrayList<>(elementos.size());
+        for (T elemento : elementos) {
+            convertidos.add(conversion.apply(elemento));
+        }
+        return new Pagina<>(convertidos, siguienteToken);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Pagina[elementos=%d, hayMas=%s]", elementos.size(), hayMas());
+    }
+}
@@ -0,0 +1,124 @@
+package com.roberto.rivas.repositorio;
+
+import com.roberto.rivas.modelo.EstudianteInmutable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publicador de cambios compartido por los repositorios en proceso
+ *
+ * Asigna las secuencias y entrega cada evento con SubmissionPublisher.offer,
+ * que nunca bloquea: si el buffer de un suscriptor está lleno, el evento se
+ * descarta solo para él y se cuenta. El repositorio llama a publicar dentro
+ * de la sección crítica de la escritura, así que el orden de las secuencias
+ * es el orden en que se aplicaron los cambios sobre cada fila
+ *
+ * Sin suscriptores, publicar no hace nada: ni cerrojo ni contador compartido
+ * que frene a escritores de filas o particiones distintas
+ *
+ * @author Roberto Rivas Lopez
+ */
+public final class PublicadorCambios implements IPublicadorCambios {
+
+    private final SubmissionPublisher<EventoCambio> publicador;
+    private final AtomicLong ultimaSecuencia = new AtomicLong();
+    private final LongAdder descartados = new LongAdder();
+    // Eventos con secuencia asignada por el llamador que llegaron antes que sus predecesores
+    private final Map<Long, EventoCambio> pendientes = new HashMap<>();
+
+    public PublicadorCambios() {
+        this(Flow.defaultBufferSize());
+    }
+
+    /**
+     * @param capacidadPorSuscriptor Eventos que cada suscriptor puede tener sin consumir
+     */
+    public PublicadorCambios(int capacidadPorSuscriptor) {
+        if (capacidadPorSuscriptor < 1) {
+            throw new IllegalArgumentException("La capacidad por suscriptor debe ser positiva");
+        }
+        this.publicador = new SubmissionPublisher<>(ForkJoinPool.commonPool(), capacidadPorSuscriptor);
+    }
+
+    @Override
+    public void suscribir(Flow.Subscriber<? super EventoCambio> suscriptor) {
+        publicador.subscribe(suscriptor);
+    }
+
+    @Override
+    public long obtenerUltimaSecuencia() {
+        return ultimaSecuencia.get();
+    }
+
+    /**
+     * Publica un cambio con la siguiente secuencia; debe llamarse dentro de la
+     * sección crítica de la escritura (cerrojo de la fila o del repositorio)
+     * @param anterior Imagen previa (null si el estudiante es nuevo)
+     */
+    public void publicar(EstudianteInmutable anterior, EstudianteInmutable posterior) {
+        if (!publicador.hasSubscribers()) {
+            return;
+        }
+        synchronized (this) {
+            ofrecer(EventoCambio.de(ultimaSecuencia.incrementAndGet(), anterior, posterior));
+        }
+    }
+
+    /**
+     * Publica un cambio cuya secuencia ya asignó el repositorio (por ejemplo,
+     * la de la raíz publicada con compareAndSet), reordenando los que lleguen
+     * antes que sus predecesores; cada secuencia debe publicarse exactamente una vez
+     */
+    public synchronized void publicarEnOrden(long secuencia, EstudianteInmutable anterior, EstudianteInmutable posterior) {
+        EventoCambio evento = EventoCambio.de(secuencia, anterior, posterior);
+        if (secuencia != ultimaSecuencia.get() + 1) {
+            pendientes.put(secuencia, evento);
+            return;
+        }
+        while (evento != null) {
+            ultimaSecuencia.set(evento.getSecuencia());
+            if (publicador.hasSubscribers()) {
+                ofrecer(evento);
+            }
+            evento = pendientes.remove(evento.getSecuencia() + 1);
+        }
+    }
+
+    /**
+     * @return Suscriptores actuales
+     */
+    public int obtenerCantidadSuscriptores() {
+        return publicador.getNumberOfSubscribers();
+    }
+
+    @Override
+    public long obtenerEventosDescartados() {
+        return descartados.sum();
+    }
+
+    /**
+     * Completa a todos los suscriptores; los cambios posteriores ya no se entregan
+     */
+    public void cerrar() {
+        publicador.close();
+    }
+
+    private void ofrecer(EventoCambio evento) {
+        if (publicador.isClosed()) {
+            return;
+        }
+        try {
+            publicador.offer(evento, (suscriptor, descartado) -> {
+                descartados.increment();
+                return false;
+            });
+        } catch (IllegalStateException e) {
+            // Cerrado entre la comprobación y la entrega: el cambio ya está aplicado
+        }
+    }
+}
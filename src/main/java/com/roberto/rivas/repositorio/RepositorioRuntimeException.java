@@ -0,0 +1,29 @@
+package com.roberto.rivas.repositorio;
+
+/**
+ * Envoltura no verificada de una RepositorioException
+ *
+ * La usan los recorridos en flujo (Stream), cuyas operaciones no pueden
+ * lanzar excepciones verificadas: un error al leer una fila a mitad del
+ * recorrido llega al consumidor con la RepositorioException original
+ * como causa
+ *
+ * @author Roberto Rivas Lopez
+ */
+public class RepositorioRuntimeException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public RepositorioRuntimeException(RepositorioException causa) {
+        super(causa.getMessage(), causa);
+    }
+
+    @Override
+    public synchronized RepositorioException getCause() {
+        return (RepositorioException) super.getCause();
+    }
+
+    public String getCodigoError() {
+        return getCause().getCodigoError();
+    }
+}
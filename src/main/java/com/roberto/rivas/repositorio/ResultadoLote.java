@@ -0,0 +1,157 @@
+package com.roberto.rivas.repositorio;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Resultado fila por fila de una operación por lotes
+ *
+ * Cada fila del lote termina con su valor (por ejemplo, el estudiante creado
+ * con su ID) o con el código y mensaje del error que la rechazó, sin que una
+ * fila fallida impida procesar las demás. Las filas se guardan en el orden del
+ * lote de entrada
+ *
+ * @param <T> Tipo del valor de las filas exitosas
+ * @author Roberto Rivas Lopez
+ */
+public final class ResultadoLote<T> {
+
+    private final List<Fila<T>> filas;
+
+    /**
+     * @param filas Una fila por elemento del lote, con índices 0..n-1 en orden
+     * @throws IllegalArgumentException si falta alguna fila o los índices no cuadran
+     */
+    public ResultadoLote(List<Fila<T>> filas) {
+        if (filas == null) {
+            throw new IllegalArgumentException("Las filas del resultado no pueden ser nulas");
+        }
+        for (int i = 0; i < filas.size(); i++) {
+            if (filas.get(i) == null || filas.get(i).getIndice() != i) {
+                throw new IllegalArgumentException("Falta el resultado de la fila " + i);
+            }
+        }
+        this.filas = Collections.unmodifiableList(new ArrayList<>(filas));
+    }
+
+    public static <T> Fila<T> exito(int indice, T valor) {
+        return new Fila<>(indice, Objects.requireNonNull(valor, "valor"), null, null);
+    }
+
+    public static <T> Fila<T> fallo(int indice, String codigoError, String mensaje) {
+        return new Fila<>(indice, null, Objects.requireNonNull(codigoError, "codigoError"), mensaje);
+    }
+
+    public static <T> Fila<T> fallo(int indice, RepositorioException causa) {
+        return fallo(indice, causa.getCodigoError(), causa.getMessage());
+    }
+
+    public List<Fila<T>> getFilas() {
+        return filas;
+    }
+
+    public Fila<T> getFila(int indice) {
+        return filas.get(indice);
+    }
+
+    /**
+     * @return Valores de las filas exitosas, en el orden del lote
+     */
+    public List<T> getExitosos() {
+        List<T> exitosos = new ArrayList<>();
+        for (Fila<T> fila : filas) {
+            if (fila.isExitosa()) {
+                exitosos.add(fila.getValor());
+            }
+        }
+        return exitosos;
+    }
+
+    public List<Fila<T>> getFallidas() {
+        List<Fila<T>> fallidas = new ArrayList<>();
+        for (Fila<T> fila : filas) {
+            if (!fila.isExitosa()) {
+                fallidas.add(fila);
+            }
+        }
+        return fallidas;
+    }
+
+    public int getCantidadExitosas() {
+        return (int) filas.stream().filter(Fila::isExitosa).count();
+    }
+
+    public int getCantidadFallidas() {
+        return filas.size() - getCantidadExitosas();
+    }
+
+    public int tamano() {
+        return filas.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResultadoLote[filas=%d, exitosas=%d, fallidas=%d]",
+                           filas.size(), getCantidadExitosas(), getCantidadFallidas());
+    }
+
+    /**
+     * Resultado de una fila del lote: su valor o el error que la rechazó
+     * @param <T> Tipo del valor
+     */
+    public static final class Fila<T> {
+
+        private final int indice;
+        private final T valor;
+        private final String codigoError;
+        private final String mensaje;
+
+        private Fila(int indice, T valor, String codigoError, String mensaje) {
+            if (indice < 0) {
+                throw new IllegalArgumentException("El índice de la fila no puede ser negativo");
+            }
+            this.indice = indice;
+            this.valor = valor;
+            this.codigoError = codigoError;
+            this.mensaje = mensaje;
+        }
+
+        /**
+         * @return Posición de la fila en el lote de entrada
+         */
+        public int getIndice() {
+            return indice;
+        }
+
+        public boolean isExitosa() {
+            return codigoError == null;
+        }
+
+        /**
+         * @return Valor de la fila, o null si falló
+         */
+        public T getValor() {
+            return valor;
+        }
+
+        /**
+         * @return Código del error (por ejemplo EMAIL_DUPLICADO), o null si fue exitosa
+         */
+        public String getCodigoError() {
+            return codigoError;
+        }
+
+        public String getMensaje() {
+            return mensaje;
+        }
+
+        @Override
+        public String toString() {
+            return isExitosa()
+                ? String.format("Fila[%d, exitosa=%s]", indice, valor)
+                : String.format("Fila[%d, codigo=%s, mensaje=%s]", indice, codigoError, mensaje);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.roberto.rivas.repositorio;
+
+import com.roberto.rivas.modelo.Estudiante;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Token de continuación de la paginación por clave: la clave (apellido,
+ * nombre, id) de la última fila entregada, serializada y codificada en
+ * Base64 URL para que el llamador la trate como opaca
+ *
+ * Las páginas se piden con "clave estrictamente mayor que la del token", por
+ * eso cada backend resuelve la página con un salto en su índice ordenado en
+ * lugar de saltar filas como haría un OFFSET
+ *
+ * @author Roberto Rivas Lopez
+ */
+final class TokenPagina {
+
+    static final int TAMANO_MAXIMO_PAGINA = 1_000;
+
+    private static final byte VERSION = 1;
+
+    private final String apellido;
+    private final String nombre;
+    private final long id;
+
+    private TokenPagina(String apellido, String nombre, long id) {
+        this.apellido = apellido;
+        this.nombre = nombre;
+        this.id = id;
+    }
+
+    String getApellido() {
+        return apellido;
+    }
+
+    String getNombre() {
+        return nombre;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    // Orden de la clave del token frente a la del estudiante (OrdenEstudiantes.ESTUDIANTE)
+    private int compararCon(Estudiante estudiante) {
+        int comparacion = OrdenEstudiantes.TEXTO.compare(apellido, estudiante.getApellido());
+        if (comparacion == 0) {
+            comparacion = OrdenEstudiantes.TEXTO.compare(nombre, estudiante.getNombre());
+        }
+        if (comparacion == 0) {
+            comparacion = Long.compare(id, estudiante.getId());
+        }
+        if (comparacion == 0) {
+            comparacion = OrdenEstudiantes.BINARIO.compare(apellido, estudiante.getApellido());
+        }
+        return comparacion != 0 ? comparacion : OrdenEstudiantes.BINARIO.compare(nombre, estudiante.getNombre());
+    }
+
+    static String codificar(Estudiante ultimo) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream salida = new DataOutputStream(bytes)) {
+            salida.writeByte(VERSION);
+            salida.writeUTF(ultimo.getApellido());
+            salida.writeUTF(ultimo.getNombre());
+            salida.writeLong(ultimo.getId());
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo codificar el token de página", e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * @param token Token recibido, o null para la primera página
+     * @return Clave del token, o null si es la primera página
+     * @throws RepositorioException Si el token no es uno emitido por codificar
+     */
+    static TokenPagina decodificar(String token) throws RepositorioException {
+        if (token == null) {
+            return null;
+        }
+        try (DataInputStream entrada = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (entrada.readByte() != VERSION) {
+                throw new RepositorioException("El token de página no es válido", "TOKEN_INVALIDO");
+            }
+            TokenPagina clave = new TokenPagina(entrada.readUTF(), entrada.readUTF(), entrada.readLong());
+            if (entrada.available() > 0) {
+                throw new RepositorioException("El token de página no es válido", "TOKEN_INVALIDO");
+            }
+            return clave;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new RepositorioException("El token de página no es válido", "TOKEN_INVALIDO", e);
+        }
+    }
+
+    static void validarTamano(int tamano) throws RepositorioException {
+        if (tamano < 1 || tamano > TAMANO_MAXIMO_PAGINA) {
+            throw new RepositorioException("El tamaño de página debe estar entre 1 y " + TAMANO_MAXIMO_PAGINA,
+                                         "TAMANO_PAGINA_INVALIDO");
+        }
+    }
+
+    /**
+     * Arma la página a partir de hasta tamano + 1 filas leídas: la fila de más
+     * solo indica que hay página siguiente y no se entrega
+     */
+    static Pagina<Estudiante> armar(List<Estudiante> filas, int tamano) {
+        if (filas.size() <= tamano) {
+            return new Pagina<>(filas, null);
+        }
+        List<Estudiante> pagina = filas.subList(0, tamano);
+        return new Pagina<>(pagina, codificar(pagina.get(tamano - 1)));
+    }
+
+    /**
+     * Página de un listado ya materializado, en cualquier orden
+     * Para los repositorios sin índice ordenado propio: ordena una copia por
+     * (apellido, nombre, id), casi gratis si ya venía ordenado, y busca el
+     * inicio con búsqueda binaria, pero el listado completo ya se leyó
+     */
+    static Pagina<Estudiante> paginar(List<Estudiante> filas, String token, int tamano)
+            throws RepositorioException {
+        validarTamano(tamano);
+        TokenPagina desde = decodificar(token);
+        List<Estudiante> ordenados = new ArrayList<>(filas);
+        ordenados.sort(OrdenEstudiantes.ESTUDIANTE);
+        // Primera fila con clave mayor que la del token
+        int inicio = 0;
+        if (desde != null) {
+            int limite = ordenados.size();
+            while (inicio < limite) {
+                int medio = (inicio + limite) >>> 1;
+                if (desde.compararCon(ordenados.get(medio)) < 0) {
+                    limite = medio;
+                } else {
+                    inicio = medio + 1;
+                }
+            }
+        }
+        int fin = (int) Math.min(ordenados.size(), (long) inicio + tamano + 1);
+        return armar(new ArrayList<>(ordenados.subList(inicio, fin)), tamano);
+    }
+}
@@ -0,0 +1,305 @@
+package com.roberto.rivas.repositorio.estructura;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Almacén compacto de registros binarios con clave long, comprimidos por bloques
+ *
+ * Los registros se acumulan sin comprimir en un bloque abierto; al llenarse,
+ * el bloque se comprime con Deflate como una unidad (los registros vecinos
+ * comparten diccionario, mucho mejor que comprimir cada uno por separado).
+ * Leer un registro descomprime solo su bloque. Extraer un registro lo marca
+ * como muerto y el bloque se libera cuando ya no le quedan registros vivos
+ *
+ * Pensado para datos fríos: se optimiza el espacio, no la velocidad de acceso
+ *
+ * @author Roberto Rivas Lopez
+ */
+public final class AlmacenComprimido {
+
+    public static final int REGISTROS_POR_BLOQUE = 64;
+
+    private final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+    private final int registrosPorBloque;
+
+    // Bloques sellados (null cuando se liberan) y bloque abierto sin comprimir
+    private final List<Bloque> bloques = new ArrayList<>();
+    private ByteArrayOutputStream abierto;
+    private int[] iniciosAbierto;
+    private int registrosAbierto;
+    private int vivosAbierto;
+
+    // Clave -> ubicación (bloque << 32 | posición dentro del bloque)
+    private final Map<Long, Long> ubicaciones = new HashMap<>();
+    private long bytesComprimidos;
+
+    public AlmacenComprimido() {
+        this(REGISTROS_POR_BLOQUE);
+    }
+
+    public AlmacenComprimido(int registrosPorBloque) {
+        if (registrosPorBloque < 1) {
+            throw new IllegalArgumentException("Cada bloque debe admitir al menos un registro");
+        }
+        this.registrosPorBloque = registrosPorBloque;
+        abrirBloque();
+    }
+
+    /**
+     * Agrega un registro; la clave no debe estar ya en el almacén
+     */
+    public void agregar(long clave, byte[] registro) {
+        cerrojo.writeLock().lock();
+        try {
+            if (ubicaciones.containsKey(clave)) {
+                throw new IllegalStateException("La clave " + clave + " ya está en el almacén");
+            }
+            iniciosAbierto[registrosAbierto] = abierto.size();
+            abierto.write(registro, 0, registro.length);
+            ubicaciones.put(clave, ubicacion(bloques.size(), registrosAbierto));
+            registrosAbierto++;
+            vivosAbierto++;
+            if (registrosAbierto == registrosPorBloque) {
+                sellarBloque();
+            }
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Copia del registro, o null si la clave no está
+     */
+    public byte[] obtener(long clave) {
+        cerrojo.readLock().lock();
+        try {
+            Long ubicacion = ubicaciones.get(clave);
+            return ubicacion != null ? leer(ubicacion) : null;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Quita el registro del almacén
+     * @return El registro quitado, o null si la clave no está
+     */
+    public byte[] extraer(long clave) {
+        cerrojo.writeLock().lock();
+        try {
+            Long ubicacion = ubicaciones.remove(clave);
+            if (ubicacion == null) {
+                return null;
+            }
+            byte[] registro = leer(ubicacion);
+            int numero = bloqueDe(ubicacion);
+            if (numero == bloques.size()) {
+                vivosAbierto--;
+            } else {
+                Bloque bloque = bloques.get(numero);
+                if (--bloque.vivos == 0) {
+                    bytesComprimidos -= bloque.comprimido.length;
+                    bloques.set(numero, null);
+                }
+            }
+            return registro;
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    public boolean contiene(long clave) {
+        cerrojo.readLock().lock();
+        try {
+            return ubicaciones.containsKey(clave);
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recorre todos los registros vivos descomprimiendo cada bloque una sola vez
+     */
+    public void recorrer(Consumer<byte[]> consumidor) {
+        cerrojo.readLock().lock();
+        try {
+            Map<Integer, List<Integer>> posicionesPorBloque = new HashMap<>();
+            for (long ubicacion : ubicaciones.values()) {
+                posicionesPorBloque.computeIfAbsent(bloqueDe(ubicacion), k -> new ArrayList<>())
+                                   .add(posicionDe(ubicacion));
+            }
+            posicionesPorBloque.forEach((numero, posiciones) -> {
+                if (numero == bloques.size()) {
+                    byte[] datos = abierto.toByteArray();
+                    posiciones.forEach(posicion -> consumidor.accept(
+                        recortar(datos, iniciosAbierto, registrosAbierto, datos.length, posicion)));
+                } else {
+                    Bloque bloque = bloques.get(numero);
+                    byte[] datos = descomprimir(bloque);
+                    posiciones.forEach(posicion -> consumidor.accept(
+                        recortar(datos, bloque.inicios, bloque.inicios.length, bloque.longitudOriginal, posicion)));
+                }
+            });
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    public int cantidad() {
+        cerrojo.readLock().lock();
+        try {
+            return ubicaciones.size();
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Cantidad de registros cuya clave no está entre las indicadas,
+     *         leída de una sola vez frente a agregar y extraer
+     */
+    public int cantidadExcepto(Collection<Long> claves) {
+        cerrojo.readLock().lock();
+        try {
+            int presentes = 0;
+            for (Long clave : claves) {
+                if (ubicaciones.containsKey(clave)) {
+                    presentes++;
+                }
+            }
+            return ubicaciones.size() - presentes;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Bytes ocupados por los bloques sellados más el bloque abierto
+     */
+    public long obtenerBytesOcupados() {
+        cerrojo.readLock().lock();
+        try {
+            return bytesComprimidos + abierto.size();
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    public void limpiar() {
+        cerrojo.writeLock().lock();
+        try {
+            bloques.clear();
+            ubicaciones.clear();
+            bytesComprimidos = 0;
+            abrirBloque();
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    // Métodos de bloques (Principio de Responsabilidad Única)
+    private void abrirBloque() {
+        abierto = new ByteArrayOutputStream();
+        iniciosAbierto = new int[registrosPorBloque];
+        registrosAbierto = 0;
+        vivosAbierto = 0;
+    }
+
+    private void sellarBloque() {
+        byte[] datos = abierto.toByteArray();
+        if (vivosAbierto > 0) {
+            Deflater compresor = new Deflater();
+            try {
+                compresor.setInput(datos);
+                compresor.finish();
+                ByteArrayOutputStream salida = new ByteArrayOutputStream(datos.length / 2 + 64);
+                byte[] tramo = new byte[4096];
+                while (!compresor.finished()) {
+                    salida.write(tramo, 0, compresor.deflate(tramo));
+                }
+                Bloque bloque = new Bloque(salida.toByteArray(), datos.length,
+                                           Arrays.copyOf(iniciosAbierto, registrosAbierto), vivosAbierto);
+                bloques.add(bloque);
+                bytesComprimidos += bloque.comprimido.length;
+            } finally {
+                compresor.end();
+            }
+        } else {
+            // Todos sus registros ya se extrajeron: se reserva el número sin guardar datos
+            bloques.add(null);
+        }
+        abrirBloque();
+    }
+
+    private byte[] leer(long ubicacion) {
+        int numero = bloqueDe(ubicacion);
+        int posicion = posicionDe(ubicacion);
+        if (numero == bloques.size()) {
+            byte[] datos = abierto.toByteArray();
+            return recortar(datos, iniciosAbierto, registrosAbierto, datos.length, posicion);
+        }
+        Bloque bloque = bloques.get(numero);
+        return recortar(descomprimir(bloque), bloque.inicios, bloque.inicios.length, bloque.longitudOriginal, posicion);
+    }
+
+    private static byte[] recortar(byte[] datos, int[] inicios, int registros, int fin, int posicion) {
+        int desde = inicios[posicion];
+        int hasta = posicion + 1 < registros ? inicios[posicion + 1] : fin;
+        return Arrays.copyOfRange(datos, desde, hasta);
+    }
+
+    private static byte[] descomprimir(Bloque bloque) {
+        Inflater descompresor = new Inflater();
+        try {
+            descompresor.setInput(bloque.comprimido);
+            byte[] datos = new byte[bloque.longitudOriginal];
+            int leidos = 0;
+            while (leidos < datos.length && !descompresor.finished()) {
+                leidos += descompresor.inflate(datos, leidos, datos.length - leidos);
+            }
+            return datos;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Bloque comprimido corrupto", e);
+        } finally {
+            descompresor.end();
+        }
+    }
+
+    private static long ubicacion(int bloque, int posicion) {
+        return ((long) bloque << 32) | posicion;
+    }
+
+    private static int bloqueDe(long ubicacion) {
+        return (int) (ubicacion >>> 32);
+    }
+
+    private static int posicionDe(long ubicacion) {
+        return (int) ubicacion;
+    }
+
+    // Bloque sellado: datos comprimidos e inicio de cada registro en los datos originales
+    private static final class Bloque {
+        private final byte[] comprimido;
+        private final int longitudOriginal;
+        private final int[] inicios;
+        private int vivos;
+
+        private Bloque(byte[] comprimido, int longitudOriginal, int[] inicios, int vivos) {
+            this.comprimido = comprimido;
+            this.longitudOriginal = longitudOriginal;
+            this.inicios = inicios;
+            this.vivos = vivos;
+        }
+    }
+}
@@ -0,0 +1,461 @@
+package com.roberto.rivas.repositorio.estructura;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * Mapa concurrente long -> valor con direccionamiento abierto (sondeo lineal)
+ * Evita el boxing de claves Long y los nodos por entrada de ConcurrentHashMap
+ * 
+ * Concurrencia: la tabla se divide en segmentos, cada uno con su StampedLock.
+ * Las lecturas son optimistas (sin bloqueo) y solo recurren al bloqueo de
+ * lectura si una escritura concurrente invalida el sello.
+ * 
+ * Huella por entrada (JVM 64 bits, compressed oops, factor de carga 0.75):
+ * una ranura ocupa 8 bytes de clave + 4 de referencia, es decir entre 16 y 32
+ * bytes por entrada según la ocupación (unos 21 de media). ConcurrentHashMap
+ * necesita un Node (32), un Long (16) y su ranura de tabla (~7): unos 55
+ * bytes por entrada. Ver docs/notas/huella-memoria-repositorio.md.
+ * 
+ * @param <V> Tipo de los valores (no se admiten valores nulos)
+ * @author Roberto Rivas Lopez
+ */
+public final class MapaLongConcurrente<V> {
+
+    private static final int SEGMENTOS_POR_DEFECTO = 16;
+    private static final int CAPACIDAD_MINIMA_SEGMENTO = 8;
+    private static final float FACTOR_CARGA = 0.75f;
+
+    private final Segmento<V>[] segmentos;
+    private final int desplazamientoSegmento;
+
+    /**
+     * Función de actualización atómica de una entrada
+     * @param <V> Tipo del valor
+     */
+    @FunctionalInterface
+    public interface Actualizacion<V> {
+        /**
+         * @param clave Clave de la entrada
+         * @param actual Valor actual (nunca nulo)
+         * @return Nuevo valor, o null para eliminar la entrada
+         */
+        V aplicar(long clave, V actual);
+    }
+
+    /**
+     * Consumidor de entradas sin boxing de la clave
+     * @param <V> Tipo del valor
+     */
+    @FunctionalInterface
+    public interface ConsumidorEntrada<V> {
+        void aceptar(long clave, V valor);
+    }
+
+    public MapaLongConcurrente() {
+        this(SEGMENTOS_POR_DEFECTO * CAPACIDAD_MINIMA_SEGMENTO);
+    }
+
+    public MapaLongConcurrente(int capacidadInicial) {
+        this(capacidadInicial, SEGMENTOS_POR_DEFECTO);
+    }
+
+    @SuppressWarnings("unchecked")
+    public MapaLongConcurrente(int capacidadInicial, int nivelConcurrencia) {
+        if (capacidadInicial < 0) {
+            throw new IllegalArgumentException("La capacidad inicial no puede ser negativa");
+        }
+        if (nivelConcurrencia <= 0) {
+            throw new IllegalArgumentException("El nivel de concurrencia debe ser positivo");
+        }
+        int cantidadSegmentos = potenciaDeDos(nivelConcurrencia);
+        int capacidadSegmento = Math.max(CAPACIDAD_MINIMA_SEGMENTO,
+                potenciaDeDos((int) Math.ceil(capacidadInicial / (double) cantidadSegmentos / FACTOR_CARGA)));
+
+        @SuppressWarnings("unchecked")
+        Segmento<V>[] tabla = (Segmento<V>[]) new Segmento<?>[cantidadSegmentos];
+        for (int i = 0; i < cantidadSegmentos; i++) {
+            tabla[i] = new Segmento<>(capacidadSegmento);
+        }
+        this.segmentos = tabla;
+        this.desplazamientoSegmento = 64 - Integer.numberOfTrailingZeros(cantidadSegmentos);
+    }
+
+    public V get(long clave) {
+        long hash = mezclar(clave);
+        return segmentoDe(hash).get(clave, hash);
+    }
+
+    public boolean containsKey(long clave) {
+        return get(clave) != null;
+    }
+
+    /**
+     * @return Valor anterior o null si la clave no existía
+     */
+    public V put(long clave, V valor) {
+        validarValor(valor);
+        long hash = mezclar(clave);
+        return segmentoDe(hash).escribir(clave, hash, valor, true, false);
+    }
+
+    /**
+     * @return Valor existente (sin modificar) o null si se insertó
+     */
+    public V putIfAbsent(long clave, V valor) {
+        validarValor(valor);
+        long hash = mezclar(clave);
+        return segmentoDe(hash).escribir(clave, hash, valor, false, false);
+    }
+
+    /**
+     * Reemplaza solo si la clave existe
+     * @return Valor reemplazado o null si la clave no existía
+     */
+    public V replace(long clave, V valor) {
+        validarValor(valor);
+        long hash = mezclar(clave);
+        return segmentoDe(hash).escribir(clave, hash, valor, true, true);
+    }
+
+    /**
+     * Crea atómicamente la entrada si no existe; el creador se ejecuta bajo el
+     * cerrojo del segmento, por lo que no debe acceder a este mapa
+     * @return Valor existente o el recién creado (null si el creador devolvió null)
+     */
+    public V computeIfAbsent(long clave, LongFunction<? extends V> creador) {
+        long hash = mezclar(clave);
+        return segmentoDe(hash).crearSiAusente(clave, hash, creador);
+    }
+
+    /**
+     * Actualiza atómicamente una entrada existente
+     * @return Nuevo valor, o null si la clave no existía o fue eliminada
+     */
+    public V computeIfPresent(long clave, Actualizacion<V> actualizacion) {
+        long hash = mezclar(clave);
+        return segmentoDe(hash).computar(clave, hash, actualizacion);
+    }
+
+    public V remove(long clave) {
+        long hash = mezclar(clave);
+        return segmentoDe(hash).eliminar(clave, hash);
+    }
+
+    public int size() {
+        long total = 0;
+        for (Segmento<V> segmento : segmentos) {
+            total += segmento.tamano;
+        }
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        for (Segmento<V> segmento : segmentos) {
+            segmento.vaciar();
+        }
+    }
+
+    /**
+     * Recorre las entradas segmento a segmento (vista débilmente consistente,
+     * como los iteradores de ConcurrentHashMap)
+     */
+    public void forEach(ConsumidorEntrada<? super V> consumidor) {
+        for (Segmento<V> segmento : segmentos) {
+            segmento.recorrer(consumidor);
+        }
+    }
+
+    public void forEachValue(Consumer<? super V> consumidor) {
+        forEach((clave, valor) -> consumidor.accept(valor));
+    }
+
+    /**
+     * @return Capacidad total de ranuras reservadas (útil para estimar memoria)
+     */
+    public long capacidad() {
+        long total = 0;
+        for (Segmento<V> segmento : segmentos) {
+            total += segmento.tabla.claves.length;
+        }
+        return total;
+    }
+
+    // Métodos privados de utilidad
+    private Segmento<V> segmentoDe(long hash) {
+        return segmentos[(int) (hash >>> desplazamientoSegmento) & (segmentos.length - 1)];
+    }
+
+    private static void validarValor(Object valor) {
+        if (valor == null) {
+            throw new NullPointerException("El mapa no admite valores nulos");
+        }
+    }
+
+    // Finalizador de MurmurHash3: distribuye bien IDs secuenciales
+    private static long mezclar(long clave) {
+        long h = clave;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static int potenciaDeDos(int valor) {
+        if (valor <= 1) {
+            return 1;
+        }
+        int potencia = Integer.highestOneBit(valor - 1) << 1;
+        if (potencia <= 0) {
+            throw new IllegalArgumentException("Capacidad demasiado grande: " + valor);
+        }
+        return potencia;
+    }
+
+    // Par de arreglos publicado atómicamente para que las lecturas optimistas
+    // nunca combinen arreglos de tamaños distintos
+    private static final class Tabla {
+        private final long[] claves;
+        private final Object[] valores;
+
+        private Tabla(int capacidad) {
+            this.claves = new long[capacidad];
+            this.valores = new Object[capacidad];
+        }
+    }
+
+    private static final class Segmento<V> {
+        private final StampedLock cerrojo = new StampedLock();
+        private final int capacidadInicial;
+        private Tabla tabla;
+        private volatile int tamano;
+        private int umbral;
+
+        private Segmento(int capacidad) {
+            this.capacidadInicial = capacidad;
+            inicializar(capacidad);
+        }
+
+        private void inicializar(int capacidad) {
+            this.tabla = new Tabla(capacidad);
+            this.umbral = (int) (capacidad * FACTOR_CARGA);
+            this.tamano = 0;
+        }
+
+        private V get(long clave, long hash) {
+            long sello = cerrojo.tryOptimisticRead();
+            if (sello != 0L) {
+                Object valor = buscar(tabla, clave, hash);
+                if (cerrojo.validate(sello)) {
+                    return convertir(valor);
+                }
+            }
+            sello = cerrojo.readLock();
+            try {
+                return convertir(buscar(tabla, clave, hash));
+            } finally {
+                cerrojo.unlockRead(sello);
+            }
+        }
+
+        private V escribir(long clave, long hash, V valor, boolean sobrescribir, boolean soloSiExiste) {
+            long sello = cerrojo.writeLock();
+            try {
+                Tabla actual = tabla;
+                int mascara = actual.claves.length - 1;
+                int indice = (int) hash & mascara;
+                while (actual.valores[indice] != null) {
+                    if (actual.claves[indice] == clave) {
+                        V anterior = convertir(actual.valores[indice]);
+                        if (sobrescribir) {
+                            actual.valores[indice] = valor;
+                        }
+                        return anterior;
+                    }
+                    indice = (indice + 1) & mascara;
+                }
+                if (soloSiExiste) {
+                    return null;
+                }
+                actual.claves[indice] = clave;
+                actual.valores[indice] = valor;
+                if (++tamano > umbral) {
+                    redimensionar();
+                }
+                return null;
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+        }
+
+        private V crearSiAusente(long clave, long hash, LongFunction<? extends V> creador) {
+            long sello = cerrojo.writeLock();
+            try {
+                Tabla actual = tabla;
+                int mascara = actual.claves.length - 1;
+                int indice = (int) hash & mascara;
+                while (actual.valores[indice] != null) {
+                    if (actual.claves[indice] == clave) {
+                        return convertir(actual.valores[indice]);
+                    }
+                    indice = (indice + 1) & mascara;
+                }
+                V nuevo = creador.apply(clave);
+                if (nuevo != null) {
+                    actual.claves[indice] = clave;
+                    actual.valores[indice] = nuevo;
+                    if (++tamano > umbral) {
+                        redimensionar();
+                    }
+                }
+                return nuevo;
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+        }
+
+        private V computar(long clave, long hash, Actualizacion<V> actualizacion) {
+            long sello = cerrojo.writeLock();
+            try {
+                Tabla actual = tabla;
+                int mascara = actual.claves.length - 1;
+                int indice = (int) hash & mascara;
+                while (actual.valores[indice] != null) {
+                    if (actual.claves[indice] == clave) {
+                        V nuevo = actualizacion.aplicar(clave, convertir(actual.valores[indice]));
+                        if (nuevo == null) {
+                            eliminarEn(actual, indice);
+                        } else {
+                            actual.valores[indice] = nuevo;
+                        }
+                        return nuevo;
+                    }
+                    indice = (indice + 1) & mascara;
+                }
+                return null;
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+        }
+
+        private V eliminar(long clave, long hash) {
+            long sello = cerrojo.writeLock();
+            try {
+                Tabla actual = tabla;
+                int mascara = actual.claves.length - 1;
+                int indice = (int) hash & mascara;
+                while (actual.valores[indice] != null) {
+                    if (actual.claves[indice] == clave) {
+                        V anterior = convertir(actual.valores[indice]);
+                        eliminarEn(actual, indice);
+                        return anterior;
+                    }
+                    indice = (indice + 1) & mascara;
+                }
+                return null;
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+        }
+
+        // Borrado con desplazamiento hacia atrás: no deja lápidas en la tabla
+        private void eliminarEn(Tabla actual, int hueco) {
+            int mascara = actual.claves.length - 1;
+            int indice = hueco;
+            while (true) {
+                indice = (indice + 1) & mascara;
+                if (actual.valores[indice] == null) {
+                    break;
+                }
+                int ideal = (int) mezclar(actual.claves[indice]) & mascara;
+                // Mover solo si la ranura ideal no está entre el hueco y la posición actual
+                boolean mover = hueco <= indice
+                        ? (ideal <= hueco || ideal > indice)
+                        : (ideal <= hueco && ideal > indice);
+                if (mover) {
+                    actual.claves[hueco] = actual.claves[indice];
+                    actual.valores[hueco] = actual.valores[indice];
+                    hueco = indice;
+                }
+            }
+            actual.claves[hueco] = 0L;
+            actual.valores[hueco] = null;
+            tamano--;
+        }
+
+        private void redimensionar() {
+            Tabla anterior = tabla;
+            Tabla nueva = new Tabla(anterior.claves.length << 1);
+            int mascara = nueva.claves.length - 1;
+            for (int i = 0; i < anterior.claves.length; i++) {
+                Object valor = anterior.valores[i];
+                if (valor != null) {
+                    long clave = anterior.claves[i];
+                    int indice = (int) mezclar(clave) & mascara;
+                    while (nueva.valores[indice] != null) {
+                        indice = (indice + 1) & mascara;
+                    }
+                    nueva.claves[indice] = clave;
+                    nueva.valores[indice] = valor;
+                }
+            }
+            tabla = nueva;
+            umbral = (int) (nueva.claves.length * FACTOR_CARGA);
+        }
+
+        private void vaciar() {
+            long sello = cerrojo.writeLock();
+            try {
+                inicializar(capacidadInicial);
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+        }
+
+        private void recorrer(ConsumidorEntrada<? super V> consumidor) {
+            long sello = cerrojo.readLock();
+            try {
+                Tabla actual = tabla;
+                for (int i = 0; i < actual.claves.length; i++) {
+                    Object valor = actual.valores[i];
+                    if (valor != null) {
+                        consumidor.aceptar(actual.claves[i], convertir(valor));
+                    }
+                }
+            } finally {
+                cerrojo.unlockRead(sello);
+            }
+        }
+
+        // Sondeo acotado por la capacidad: termina aunque la lectura optimista sea inconsistente
+        private static Object buscar(Tabla actual, long clave, long hash) {
+            long[] claves = actual.claves;
+            Object[] valores = actual.valores;
+            int mascara = claves.length - 1;
+            int indice = (int) hash & mascara;
+            for (int paso = 0; paso < claves.length; paso++) {
+                Object valor = valores[indice];
+                if (valor == null) {
+                    return null;
+                }
+                if (claves[indice] == clave) {
+                    return valor;
+                }
+                indice = (indice + 1) & mascara;
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V> V convertir(Object valor) {
+            return (V) valor;
+        }
+    }
+}
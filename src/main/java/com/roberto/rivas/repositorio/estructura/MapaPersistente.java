@@ -0,0 +1,356 @@
+package com.roberto.rivas.repositorio.estructura;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Mapa persistente (inmutable) sobre un trie de hash con mapas de bits (HAMT)
+ *
+ * Cada nodo cubre 5 bits del hash y guarda solo las ranuras ocupadas, indicadas
+ * por un mapa de bits de 32 posiciones. Agregar o quitar una clave copia
+ * únicamente el camino de la raíz a la hoja (a lo sumo 7 nodos) y comparte
+ * el resto con la versión anterior, que sigue siendo válida e inmutable: un
+ * lector que tenga una versión la recorre sin cerrojos aunque otros publiquen
+ * versiones nuevas. Las claves con el mismo hash completo comparten un nodo
+ * de colisión
+ *
+ * Las claves y los valores no pueden ser nulos
+ *
+ * @author Roberto Rivas Lopez
+ */
+public final class MapaPersistente<K, V> {
+
+    private static final int BITS_POR_NIVEL = 5;
+    private static final int MASCARA = (1 << BITS_POR_NIVEL) - 1;
+
+    private static final MapaPersistente<?, ?> VACIO = new MapaPersistente<>(NodoBitmap.VACIO, 0);
+
+    private final Nodo raiz;
+    private final int tamano;
+
+    private MapaPersistente(Nodo raiz, int tamano) {
+        this.raiz = raiz;
+        this.tamano = tamano;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> MapaPersistente<K, V> vacio() {
+        return (MapaPersistente<K, V>) VACIO;
+    }
+
+    /**
+     * @return Valor asociado a la clave, o null si no está
+     */
+    @SuppressWarnings("unchecked")
+    public V obtener(K clave) {
+        return (V) raiz.buscar(hash(clave), 0, clave);
+    }
+
+    public boolean contiene(K clave) {
+        return obtener(clave) != null;
+    }
+
+    /**
+     * @return Mapa con la clave asociada al valor (el mismo mapa si ya lo estaba)
+     */
+    public MapaPersistente<K, V> con(K clave, V valor) {
+        Objects.requireNonNull(clave, "La clave no puede ser nula");
+        Objects.requireNonNull(valor, "El valor no puede ser nulo");
+        boolean[] agregada = new boolean[1];
+        Nodo nueva = raiz.con(hash(clave), 0, clave, valor, agregada);
+        if (nueva == raiz) {
+            return this;
+        }
+        return new MapaPersistente<>(nueva, agregada[0] ? tamano + 1 : tamano);
+    }
+
+    /**
+     * @return Mapa sin la clave (el mismo mapa si no estaba)
+     */
+    public MapaPersistente<K, V> sin(K clave) {
+        Nodo nueva = raiz.sin(hash(clave), 0, clave);
+        if (nueva == raiz) {
+            return this;
+        }
+        return new MapaPersistente<>(nueva != null ? nueva : NodoBitmap.VACIO, tamano - 1);
+    }
+
+    public int tamano() {
+        return tamano;
+    }
+
+    public boolean estaVacio() {
+        return tamano == 0;
+    }
+
+    /**
+     * Recorre todas las entradas en el orden del trie (no en el de inserción)
+     */
+    @SuppressWarnings("unchecked")
+    public void recorrer(BiConsumer<? super K, ? super V> consumidor) {
+        raiz.recorrer((clave, valor) -> consumidor.accept((K) clave, (V) valor));
+    }
+
+    // Dispersa los bits altos hacia los bajos: los primeros niveles usan los bits bajos
+    private static int hash(Object clave) {
+        int h = clave.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int fragmento(int hash, int desplazamiento) {
+        return (hash >>> desplazamiento) & MASCARA;
+    }
+
+    // Nodo del trie; ninguna operación modifica un nodo existente
+    private interface Nodo {
+        Object buscar(int hash, int desplazamiento, Object clave);
+
+        Nodo con(int hash, int desplazamiento, Object clave, Object valor, boolean[] agregada);
+
+        // null si el nodo queda vacío
+        Nodo sin(int hash, int desplazamiento, Object clave);
+
+        // Única entrada del nodo si no tiene otra cosa (para subirla al padre), o null
+        Entrada unica();
+
+        void recorrer(BiConsumer<Object, Object> consumidor);
+    }
+
+    private static final class Entrada {
+        private final int hash;
+        private final Object clave;
+        private final Object valor;
+
+        private Entrada(int hash, Object clave, Object valor) {
+            this.hash = hash;
+            this.clave = clave;
+            this.valor = valor;
+        }
+
+        private boolean esDe(int hash, Object clave) {
+            return this.hash == hash && this.clave.equals(clave);
+        }
+    }
+
+    /**
+     * Nodo interno: cada ranura ocupada guarda una entrada o un subnodo
+     * La posición de una ranura en el arreglo es la cantidad de bits encendidos
+     * por debajo de ella en el mapa de bits
+     */
+    private static final class NodoBitmap implements Nodo {
+        private static final NodoBitmap VACIO = new NodoBitmap(0, new Object[0]);
+
+        private final int mapaBits;
+        private final Object[] ranuras;
+
+        private NodoBitmap(int mapaBits, Object[] ranuras) {
+            this.mapaBits = mapaBits;
+            this.ranuras = ranuras;
+        }
+
+        private int posicion(int bit) {
+            return Integer.bitCount(mapaBits & (bit - 1));
+        }
+
+        @Override
+        public Object buscar(int hash, int desplazamiento, Object clave) {
+            int bit = 1 << fragmento(hash, desplazamiento);
+            if ((mapaBits & bit) == 0) {
+                return null;
+            }
+            Object ranura = ranuras[posicion(bit)];
+            if (ranura instanceof Entrada entrada) {
+                return entrada.esDe(hash, clave) ? entrada.valor : null;
+            }
+            return ((Nodo) ranura).buscar(hash, desplazamiento + BITS_POR_NIVEL, clave);
+        }
+
+        @Override
+        public Nodo con(int hash, int desplazamiento, Object clave, Object valor, boolean[] agregada) {
+            int bit = 1 << fragmento(hash, desplazamiento);
+            int posicion = posicion(bit);
+            if ((mapaBits & bit) == 0) {
+                Object[] nuevas = new Object[ranuras.length + 1];
+                System.arraycopy(ranuras, 0, nuevas, 0, posicion);
+                nuevas[posicion] = new Entrada(hash, clave, valor);
+                System.arraycopy(ranuras, posicion, nuevas, posicion + 1, ranuras.length - posicion);
+                agregada[0] = true;
+                return new NodoBitmap(mapaBits | bit, nuevas);
+            }
+
+            Object ranura = ranuras[posicion];
+            Object reemplazo;
+            if (ranura instanceof Entrada entrada) {
+                if (entrada.esDe(hash, clave)) {
+                    if (entrada.valor == valor) {
+                        return this;
+                    }
+                    reemplazo = new Entrada(hash, clave, valor);
+                } else {
+                    agregada[0] = true;
+                    reemplazo = combinar(entrada, new Entrada(hash, clave, valor), desplazamiento + BITS_POR_NIVEL);
+                }
+            } else {
+                Nodo hijo = (Nodo) ranura;
+                reemplazo = hijo.con(hash, desplazamiento + BITS_POR_NIVEL, clave, valor, agregada);
+                if (reemplazo == hijo) {
+                    return this;
+                }
+            }
+            return reemplazar(posicion, reemplazo);
+        }
+
+        @Override
+        public Nodo sin(int hash, int desplazamiento, Object clave) {
+            int bit = 1 << fragmento(hash, desplazamiento);
+            if ((mapaBits & bit) == 0) {
+                return this;
+            }
+            int posicion = posicion(bit);
+            Object ranura = ranuras[posicion];
+            if (ranura instanceof Entrada entrada) {
+                return entrada.esDe(hash, clave) ? quitar(bit, posicion) : this;
+            }
+
+            Nodo hijo = (Nodo) ranura;
+            Nodo nuevoHijo = hijo.sin(hash, desplazamiento + BITS_POR_NIVEL, clave);
+            if (nuevoHijo == hijo) {
+                return this;
+            }
+            if (nuevoHijo == null) {
+                return quitar(bit, posicion);
+            }
+            // Un subnodo con una sola entrada se reemplaza por la entrada misma
+            Entrada unica = nuevoHijo.unica();
+            return reemplazar(posicion, unica != null ? unica : nuevoHijo);
+        }
+
+        @Override
+        public Entrada unica() {
+            return ranuras.length == 1 && ranuras[0] instanceof Entrada entrada ? entrada : null;
+        }
+
+        @Override
+        public void recorrer(BiConsumer<Object, Object> consumidor) {
+            for (Object ranura : ranuras) {
+                if (ranura instanceof Entrada entrada) {
+                    consumidor.accept(entrada.clave, entrada.valor);
+                } else {
+                    ((Nodo) ranura).recorrer(consumidor);
+                }
+            }
+        }
+
+        private NodoBitmap reemplazar(int posicion, Object ranura) {
+            Object[] nuevas = ranuras.clone();
+            nuevas[posicion] = ranura;
+            return new NodoBitmap(mapaBits, nuevas);
+        }
+
+        private NodoBitmap quitar(int bit, int posicion) {
+            if (ranuras.length == 1) {
+                return null;
+            }
+            Object[] nuevas = new Object[ranuras.length - 1];
+            System.arraycopy(ranuras, 0, nuevas, 0, posicion);
+            System.arraycopy(ranuras, posicion + 1, nuevas, posicion, nuevas.length - posicion);
+            return new NodoBitmap(mapaBits & ~bit, nuevas);
+        }
+
+        // Subárbol con dos entradas de claves distintas, a partir del nivel indicado
+        private static Nodo combinar(Entrada primera, Entrada segunda, int desplazamiento) {
+            if (primera.hash == segunda.hash) {
+                return new NodoColision(primera.hash, new Entrada[] {primera, segunda});
+            }
+            int fragmentoPrimera = fragmento(primera.hash, desplazamiento);
+            int fragmentoSegunda = fragmento(segunda.hash, desplazamiento);
+            if (fragmentoPrimera == fragmentoSegunda) {
+                return new NodoBitmap(1 << fragmentoPrimera,
+                                      new Object[] {combinar(primera, segunda, desplazamiento + BITS_POR_NIVEL)});
+            }
+            Object[] ranuras = fragmentoPrimera < fragmentoSegunda
+                ? new Object[] {primera, segunda}
+                : new Object[] {segunda, primera};
+            return new NodoBitmap((1 << fragmentoPrimera) | (1 << fragmentoSegunda), ranuras);
+        }
+    }
+
+    // Claves distintas con el mismo hash completo (búsqueda lineal)
+    private static final class NodoColision implements Nodo {
+        private final int hash;
+        private final Entrada[] entradas;
+
+        private NodoColision(int hash, Entrada[] entradas) {
+            this.hash = hash;
+            this.entradas = entradas;
+        }
+
+        private int indice(Object clave) {
+            for (int i = 0; i < entradas.length; i++) {
+                if (entradas[i].clave.equals(clave)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public Object buscar(int hash, int desplazamiento, Object clave) {
+            if (hash != this.hash) {
+                return null;
+            }
+            int indice = indice(clave);
+            return indice >= 0 ? entradas[indice].valor : null;
+        }
+
+        @Override
+        public Nodo con(int hash, int desplazamiento, Object clave, Object valor, boolean[] agregada) {
+            if (hash != this.hash) {
+                // Otro hash: el nodo de colisión baja un nivel dentro de un nodo interno
+                NodoBitmap contenedor = new NodoBitmap(1 << fragmento(this.hash, desplazamiento), new Object[] {this});
+                return contenedor.con(hash, desplazamiento, clave, valor, agregada);
+            }
+            int indice = indice(clave);
+            if (indice >= 0) {
+                if (entradas[indice].valor == valor) {
+                    return this;
+                }
+                Entrada[] nuevas = entradas.clone();
+                nuevas[indice] = new Entrada(hash, clave, valor);
+                return new NodoColision(hash, nuevas);
+            }
+            Entrada[] nuevas = Arrays.copyOf(entradas, entradas.length + 1);
+            nuevas[entradas.length] = new Entrada(hash, clave, valor);
+            agregada[0] = true;
+            return new NodoColision(hash, nuevas);
+        }
+
+        @Override
+        public Nodo sin(int hash, int desplazamiento, Object clave) {
+            int indice = hash == this.hash ? indice(clave) : -1;
+            if (indice < 0) {
+                return this;
+            }
+            if (entradas.length == 1) {
+                return null;
+            }
+            Entrada[] nuevas = new Entrada[entradas.length - 1];
+            System.arraycopy(entradas, 0, nuevas, 0, indice);
+            System.arraycopy(entradas, indice + 1, nuevas, indice, nuevas.length - indice);
+            return new NodoColision(hash, nuevas);
+        }
+
+        @Override
+        public Entrada unica() {
+            return entradas.length == 1 ? entradas[0] : null;
+        }
+
+        @Override
+        public void recorrer(BiConsumer<Object, Object> consumidor) {
+            for (Entrada entrada : entradas) {
+                consumidor.accept(entrada.clave, entrada.valor);
+            }
+        }
+    }
+}
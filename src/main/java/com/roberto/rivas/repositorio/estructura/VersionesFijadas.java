@@ -0,0 +1,55 @@
+package com.roberto.rivas.repositorio.estructura;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Registro de versiones fijadas por lectores MVCC
+ * 
+ * Un lector fija la versión vigente del reloj antes de recorrer y la libera
+ * al terminar; los escritores consultan la mínima fijada para decidir qué
+ * versiones anteriores ya nadie puede ver y pueden descartarse
+ * 
+ * @author Roberto Rivas Lopez
+ */
+public final class VersionesFijadas {
+
+    // Versión -> cantidad de lectores que la tienen fijada
+    private final ConcurrentSkipListMap<Long, Integer> fijadas = new ConcurrentSkipListMap<>();
+
+    /**
+     * Fija la versión actual del reloj
+     * Si el reloj avanza mientras se registra la fijación, se reintenta: un
+     * escritor que avanzó el reloj pudo calcular la mínima antes de verla
+     * @return Versión fijada (debe liberarse con liberar)
+     */
+    public long fijar(LongSupplier reloj) {
+        long version = reloj.getAsLong();
+        while (true) {
+            fijadas.merge(version, 1, Integer::sum);
+            long actual = reloj.getAsLong();
+            if (actual == version) {
+                return version;
+            }
+            liberar(version);
+            version = actual;
+        }
+    }
+
+    public void liberar(long version) {
+        fijadas.computeIfPresent(version, (clave, lectores) -> lectores == 1 ? null : lectores - 1);
+    }
+
+    /**
+     * @return Versión fijada más antigua, o el valor indicado si no hay lectores
+     */
+    public long minima(long siNoHay) {
+        Map.Entry<Long, Integer> primera = fijadas.firstEntry();
+        return primera != null ? primera.getKey() : siNoHay;
+    }
+
+    public boolean hayLectores() {
+        return !fijadas.isEmpty();
+    }
+}
@@ -0,0 +1,137 @@
+package com.roberto.rivas.repositorio.persistencia;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Archivo local de solo agregado donde un repositorio acotado desborda los
+ * registros que saca del heap
+ *
+ * Cada registro se guarda como longitud (int) seguida de sus bytes, y su
+ * ubicación es la posición de la longitud en el archivo. Las escrituras se
+ * serializan; las lecturas son posicionales y no bloquean a nadie
+ *
+ * No es un medio duradero: el contenido se descarta al abrir el archivo y al
+ * vaciarlo. La durabilidad sigue siendo cosa del registro de escritura anticipada.
+ * Tampoco se compacta: un registro reemplazado deja su espacio sin usar hasta
+ * el siguiente vaciado
+ *
+ * @author Roberto Rivas Lopez
+ */
+public class AlmacenDesborde implements Closeable {
+
+    private final Path archivo;
+    private final FileChannel canal;
+    private final ReentrantLock cerrojoEscritura = new ReentrantLock();
+    private volatile long tamano;
+
+    public AlmacenDesborde(Path archivo) throws IOException {
+        if (archivo == null) {
+            throw new IllegalArgumentException("La ruta del archivo de desborde no puede ser nula");
+        }
+        Path directorio = archivo.toAbsolutePath().getParent();
+        if (directorio != null) {
+            Files.createDirectories(directorio);
+        }
+        this.archivo = archivo;
+        this.canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                      StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Archivo temporal que se borra al cerrar la JVM
+     */
+    public static AlmacenDesborde temporal() throws IOException {
+        Path archivo = Files.createTempFile("estudiantes-", ".desborde");
+        archivo.toFile().deleteOnExit();
+        return new AlmacenDesborde(archivo);
+    }
+
+    /**
+     * Agrega un registro al final del archivo
+     * @return Ubicación con la que se vuelve a leer
+     */
+    public long escribir(byte[] registro) {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + registro.length);
+        buffer.putInt(registro.length).put(registro).flip();
+        cerrojoEscritura.lock();
+        try {
+            long ubicacion = tamano;
+            long posicion = ubicacion;
+            while (buffer.hasRemaining()) {
+                posicion += canal.write(buffer, posicion);
+            }
+            tamano = posicion;
+            return ubicacion;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir en el archivo de desborde", e);
+        } finally {
+            cerrojoEscritura.unlock();
+        }
+    }
+
+    /**
+     * Lee el registro escrito en la ubicación indicada
+     */
+    public byte[] leer(long ubicacion) {
+        if (ubicacion < 0 || ubicacion + Integer.BYTES > tamano) {
+            throw new IllegalArgumentException("Ubicación fuera del archivo de desborde: " + ubicacion);
+        }
+        try {
+            ByteBuffer longitud = ByteBuffer.allocate(Integer.BYTES);
+            leerCompleto(longitud, ubicacion);
+            ByteBuffer registro = ByteBuffer.allocate(longitud.flip().getInt());
+            leerCompleto(registro, ubicacion + Integer.BYTES);
+            return registro.array();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el archivo de desborde", e);
+        }
+    }
+
+    /**
+     * @return Bytes escritos en el archivo, incluido el espacio ya no usado
+     */
+    public long obtenerTamano() {
+        return tamano;
+    }
+
+    public Path obtenerArchivo() {
+        return archivo;
+    }
+
+    /**
+     * Descarta todo el contenido; las ubicaciones entregadas dejan de ser válidas
+     */
+    public void limpiar() {
+        cerrojoEscritura.lock();
+        try {
+            canal.truncate(0);
+            tamano = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo vaciar el archivo de desborde", e);
+        } finally {
+            cerrojoEscritura.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    private void leerCompleto(ByteBuffer destino, long posicion) throws IOException {
+        while (destino.hasRemaining()) {
+            int leidos = canal.read(destino, posicion + destino.position());
+            if (leidos < 0) {
+                throw new IOException("Fin de archivo inesperado en el desborde");
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.roberto.rivas.repositorio.persistencia;
+
+import com.roberto.rivas.modelo.Estudiante;
+import com.roberto.rivas.modelo.EstudianteInmutable;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Archivo binario de instantánea de un repositorio de Estudiantes
+ * 
+ * Formato: cabecera (mágico, versión, LSN cubierto, próximo ID, cantidad),
+ * registros con prefijo de longitud codificados con CodificadorEstudiante
+ * y CRC32 final de la sección de registros. Se escribe en un archivo
+ * temporal que reemplaza atómicamente al anterior, y se lee mediante
+ * un mapeo de memoria de solo lectura (límite de 2 GB por archivo)
+ * 
+ * @author Roberto Rivas Lopez
+ */
+public final class ArchivoInstantanea {
+
+    private static final int MAGICO = 0x45535449; // "ESTI"
+    private static final int VERSION = 1;
+    private static final int TAMANO_CABECERA = Integer.BYTES * 2 + Long.BYTES * 3;
+    private static final int CAPACIDAD_BUFFER = 256 * 1024;
+
+    /**
+     * Datos de cabecera de una instantánea
+     */
+    public static final class Cabecera {
+        private final long lsn;
+        private final long proximoId;
+        private final long cantidad;
+
+        public Cabecera(long lsn, long proximoId, long cantidad) {
+            this.lsn = lsn;
+            this.proximoId = proximoId;
+            this.cantidad = cantidad;
+        }
+
+        // LSN del registro de escritura hasta el cual la instantánea está completa
+        public long getLsn() {
+            return lsn;
+        }
+
+        public long getProximoId() {
+            return proximoId;
+        }
+
+        public long getCantidad() {
+            return cantidad;
+        }
+    }
+
+    private ArchivoInstantanea() {
+        // Clase de utilidades
+    }
+
+    public static Cabecera escribir(Path archivo, long lsn, long proximoId,
+                                    Collection<? extends Estudiante> estudiantes) throws IOException {
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                                                  StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            BufferedOutputStream buffer = new BufferedOutputStream(Channels.newOutputStream(canal), CAPACIDAD_BUFFER);
+            DataOutputStream salida = new DataOutputStream(buffer);
+            salida.writeInt(MAGICO);
+            salida.writeInt(VERSION);
+            salida.writeLong(lsn);
+            salida.writeLong(proximoId);
+            salida.writeLong(estudiantes.size());
+
+            CRC32 crc = new CRC32();
+            DataOutputStream registros = new DataOutputStream(new CheckedOutputStream(buffer, crc));
+            for (Estudiante estudiante : estudiantes) {
+                byte[] codificado = CodificadorEstudiante.codificar(estudiante);
+                registros.writeInt(codificado.length);
+                registros.write(codificado);
+            }
+            salida.writeLong(crc.getValue());
+            salida.flush();
+            canal.force(true);
+        }
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new Cabecera(lsn, proximoId, estudiantes.size());
+    }
+
+    /**
+     * Lee solo la cabecera (útil para dimensionar estructuras antes de cargar)
+     */
+    public static Cabecera leerCabecera(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+            while (cabecera.hasRemaining() && canal.read(cabecera) >= 0) {
+                // Lectura completa de la cabecera
+            }
+            cabecera.flip();
+            if (cabecera.remaining() < TAMANO_CABECERA || cabecera.getInt() != MAGICO || cabecera.getInt() != VERSION) {
+                throw new IOException("El archivo no es una instantánea compatible: " + archivo);
+            }
+            return new Cabecera(cabecera.getLong(), cabecera.getLong(), cabecera.getLong());
+        }
+    }
+
+    /**
+     * Valida la instantánea completa y entrega cada estudiante al consumidor
+     */
+    public static Cabecera leer(Path archivo, Consumer<? super EstudianteInmutable> consumidor) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (tamano < TAMANO_CABECERA + Long.BYTES || tamano > Integer.MAX_VALUE) {
+                throw new IOException("Tamaño de instantánea inválido: " + tamano);
+            }
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamano);
+            if (mapa.getInt() != MAGICO || mapa.getInt() != VERSION) {
+                throw new IOException("El archivo no es una instantánea compatible: " + archivo);
+            }
+            Cabecera cabecera = new Cabecera(mapa.getLong(), mapa.getLong(), mapa.getLong());
+
+            // Verificar la integridad antes de entregar cualquier registro
+            int finRegistros = (int) tamano - Long.BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(mapa.slice(TAMANO_CABECERA, finRegistros - TAMANO_CABECERA));
+            if (crc.getValue() != mapa.getLong(finRegistros)) {
+                throw new IOException("La instantánea está corrupta (CRC inválido): " + archivo);
+            }
+
+            ByteBuffer registros = mapa.slice(TAMANO_CABECERA, finRegistros - TAMANO_CABECERA);
+            for (long i = 0; i < cabecera.getCantidad(); i++) {
+                int longitud = registros.getInt();
+                int fin = registros.position() + longitud;
+                consumidor.accept(CodificadorEstudiante.decodificar(registros));
+                if (registros.position() != fin) {
+                    throw new IOException("Registro de instantánea mal formado en la posición " + fin);
+                }
+            }
+            return cabecera;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.roberto.rivas.repositorio.persistencia;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché LRU acotada de sentencias preparadas de una conexión física del pool
+ *
+ * Vive tanto como la conexión, así que una sentencia preparada en un préstamo
+ * se reutiliza en los siguientes sin volver a analizarla ni planificarla en
+ * el cliente ni en el servidor. close() sobre la sentencia entregada no la
+ * cierra: limpia sus parámetros y su lote y la deja libre en la caché. Si
+ * el llamador cambió propiedades de la sentencia (fetch size, máximo de filas,
+ * timeout...) se cierra de verdad para que el siguiente no las herede
+ *
+ * Si el mismo SQL ya está en uso en el préstamo se prepara otra sentencia con
+ * el mismo envoltorio, que no se guarda en la caché y se cierra al liberarla
+ *
+ * Una conexión prestada la usa un solo hilo a la vez, por eso no se sincroniza
+ *
+ * @author Roberto Rivas Lopez
+ */
+final class CacheSentencias {
+
+    // Métodos de Statement que cambian su configuración y no se restauran al devolverla
+    private static final Set<String> CONFIGURACION_SENTENCIA = Set.of(
+        "setFetchSize", "setFetchDirection", "setMaxRows", "setLargeMaxRows", "setMaxFieldSize",
+        "setQueryTimeout", "setEscapeProcessing", "setCursorName", "setPoolable", "closeOnCompletion");
+
+    private final Connection fisica;
+    private final Map<String, SentenciaCacheada> sentencias;
+    // Repetidas del préstamo en curso: fuera de la caché, se cierran al liberarlas
+    private final List<SentenciaCacheada> duplicadas = new ArrayList<>();
+    private final LongAdder aciertos;
+    private final LongAdder fallos;
+
+    CacheSentencias(Connection fisica, int capacidad, LongAdder aciertos, LongAdder fallos) {
+        this.fisica = fisica;
+        this.aciertos = aciertos;
+        this.fallos = fallos;
+        this.sentencias = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SentenciaCacheada> masAntigua) {
+                if (size() <= capacidad) {
+                    return false;
+                }
+                masAntigua.getValue().desalojar();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @param autoGenerados Statement.RETURN_GENERATED_KEYS o NO_GENERATED_KEYS; null si no se indicó
+     * @param conexion Conexión que verá el llamador en getConnection()
+     */
+    PreparedStatement preparar(String sql, Integer autoGenerados, Connection conexion) throws SQLException {
+        String clave = autoGenerados == null ? sql : autoGenerados + "|" + sql;
+        SentenciaCacheada cacheada = sentencias.get(clave);
+        if (cacheada != null && !cacheada.enUso) {
+            aciertos.increment();
+            cacheada.enUso = true;
+            cacheada.conexion = conexion;
+            return cacheada.vista;
+        }
+        fallos.increment();
+        PreparedStatement nueva = autoGenerados == null
+            ? fisica.prepareStatement(sql)
+            : fisica.prepareStatement(sql, autoGenerados);
+        if (cacheada != null) {
+            // La misma sentencia ya está abierta en este préstamo: esta no se guarda
+            SentenciaCacheada duplicada = new SentenciaCacheada(clave, nueva, conexion);
+            duplicada.reutilizable = false;
+            duplicadas.add(duplicada);
+            return duplicada.vista;
+        }
+        cacheada = new SentenciaCacheada(clave, nueva, conexion);
+        sentencias.put(clave, cacheada);
+        return cacheada.vista;
+    }
+
+    /**
+     * Libera las sentencias que el llamador no cerró antes de devolver la conexión
+     */
+    void liberarTodas() {
+        List<SentenciaCacheada> todas = new ArrayList<>(sentencias.values());
+        todas.addAll(duplicadas);
+        for (SentenciaCacheada cacheada : todas) {
+            if (cacheada.enUso) {
+                cacheada.liberar();
+            }
+        }
+    }
+
+    void cerrarTodas() {
+        List<SentenciaCacheada> todas = new ArrayList<>(sentencias.values());
+        todas.addAll(duplicadas);
+        sentencias.clear();
+        duplicadas.clear();
+        for (SentenciaCacheada cacheada : todas) {
+            cacheada.cerrarFisica();
+        }
+    }
+
+    int tamano() {
+        return sentencias.size();
+    }
+
+    /**
+     * Sentencia guardada y el proxy que se entrega al llamador
+     */
+    private final class SentenciaCacheada implements InvocationHandler {
+        private final String clave;
+        private final PreparedStatement sentencia;
+        private final PreparedStatement vista;
+        private Connection conexion;
+        private boolean enUso = true;
+        private boolean reutilizable = true;
+        private boolean conLote;
+
+        private SentenciaCacheada(String clave, PreparedStatement sentencia, Connection conexion) {
+            this.clave = clave;
+            this.sentencia = sentencia;
+            this.conexion = conexion;
+            this.vista = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                                                                    new Class<?>[] {PreparedStatement.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] argumentos) throws Throwable {
+            String nombre = metodo.getName();
+            switch (nombre) {
+                case "close":
+                    if (enUso) {
+                        liberar();
+                    }
+                    return null;
+                case "isClosed":
+                    return !enUso || sentencia.isClosed();
+                case "getConnection":
+                    return conexion;
+                case "equals":
+                    return proxy == argumentos[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "SentenciaCacheada[" + clave + "]";
+                default:
+                    break;
+            }
+            if (!enUso) {
+                throw new SQLException("La sentencia ya está cerrada");
+            }
+            if (CONFIGURACION_SENTENCIA.contains(nombre)) {
+                reutilizable = false;
+            } else if ("addBatch".equals(nombre)) {
+                conLote = true;
+            }
+            try {
+                return metodo.invoke(sentencia, argumentos);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        // La deja libre en la caché, o la cierra si ya no debe reutilizarse
+        private void liberar() {
+            enUso = false;
+            conexion = null;
+            if (reutilizable) {
+                try {
+                    sentencia.clearParameters();
+                    if (conLote) {
+                        sentencia.clearBatch();
+                        conLote = false;
+                    }
+                    return;
+                } catch (SQLException e) {
+                    // No se pudo limpiar: se descarta
+                }
+            }
+            sentencias.remove(clave, this);
+            duplicadas.remove(this);
+            cerrarFisica();
+        }
+
+        // Sale de la caché por LRU: si está en uso se cierra cuando el llamador la libere
+        private void desalojar() {
+            reutilizable = false;
+            if (!enUso) {
+                cerrarFisica();
+            }
+        }
+
+        private void cerrarFisica() {
+            enUso = false;
+            try {
+                sentencia.close();
+            } catch (SQLException e) {
+                // Nada más que liberar
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.roberto.rivas.repositorio.persistencia;
+
+import com.roberto.rivas.modelo.Estudiante;
+import com.roberto.rivas.modelo.EstudianteInmutable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Codificación binaria compacta de un Estudiante para archivos de persistencia
+ * 
+ * Formato: id (long), activo (byte), fecha de ingreso en días epoch (int)
+ * y cuatro textos UTF-8 con prefijo de longitud (int, -1 para nulo):
+ * nombre, apellido, email y carrera
+ * 
+ * @author Roberto Rivas Lopez
+ */
+public final class CodificadorEstudiante {
+
+    private static final int SIN_FECHA = Integer.MIN_VALUE;
+    private static final int TAMANO_FIJO = Long.BYTES + 1 + Integer.BYTES;
+
+    private CodificadorEstudiante() {
+        // Clase de utilidades
+    }
+
+    public static byte[] codificar(Estudiante estudiante) {
+        byte[][] textos = textosDe(estudiante);
+        int tamano = TAMANO_FIJO;
+        for (byte[] texto : textos) {
+            tamano += Integer.BYTES + (texto != null ? texto.length : 0);
+        }
+
+        ByteBuffer destino = ByteBuffer.allocate(tamano);
+        LocalDate fecha = estudiante.getFechaIngreso();
+        destino.putLong(estudiante.getId())
+               .put((byte) (estudiante.isActivo() ? 1 : 0))
+               .putInt(fecha != null ? (int) fecha.toEpochDay() : SIN_FECHA);
+        for (byte[] texto : textos) {
+            destino.putInt(texto != null ? texto.length : -1);
+            if (texto != null) {
+                destino.put(texto);
+            }
+        }
+        return destino.array();
+    }
+
+    /**
+     * Decodifica un estudiante desde la posición actual del buffer
+     * y avanza la posición hasta el final del registro
+     */
+    public static EstudianteInmutable decodificar(ByteBuffer origen) {
+        long id = origen.getLong();
+        boolean activo = origen.get() != 0;
+        int dias = origen.getInt();
+        String nombre = leerTexto(origen);
+        String apellido = leerTexto(origen);
+        String email = leerTexto(origen);
+        String carrera = leerTexto(origen);
+        return new EstudianteInmutable(id, nombre, apellido, email, carrera,
+                                       dias != SIN_FECHA ? LocalDate.ofEpochDay(dias) : null, activo);
+    }
+
+    private static byte[][] textosDe(Estudiante estudiante) {
+        return new byte[][] {
+            bytesDe(estudiante.getNombre()), bytesDe(estudiante.getApellido()),
+            bytesDe(estudiante.getEmail()), bytesDe(estudiante.getCarrera())
+        };
+    }
+
+    private static byte[] bytesDe(String texto) {
+        return texto != null ? texto.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static String leerTexto(ByteBuffer origen) {
+        int longitud = origen.getInt();
+        if (longitud < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[longitud];
+        origen.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
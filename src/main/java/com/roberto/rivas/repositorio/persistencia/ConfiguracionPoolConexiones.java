@@ -0,0 +1,248 @@
+package com.roberto.rivas.repositorio.persistencia;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Configuración del pool de conexiones JDBC leída de application.properties
+ *
+ * Los tamaños salen de database.pool.*; el tiempo máximo de espera por una
+ * conexión y el de validación reutilizan database.mysql.connection.timeout y
+ * database.mysql.validation.timeout. También fija cuántas filas pide cada
+ * viaje al servidor en los recorridos en flujo (database.query.fetch.size)
+ *
+ * Es inmutable: los métodos con... devuelven una copia con el valor cambiado
+ *
+ * @author Roberto Rivas Lopez
+ */
+public final class ConfiguracionPoolConexiones {
+
+    public static final String PROPIEDAD_TAMANO_INICIAL = "database.pool.initial.size";
+    public static final String PROPIEDAD_TAMANO_MAXIMO = "database.pool.max.size";
+    public static final String PROPIEDAD_MINIMO_INACTIVAS = "database.pool.min.idle";
+    public static final String PROPIEDAD_MAXIMO_INACTIVAS = "database.pool.max.idle";
+    public static final String PROPIEDAD_TIMEOUT_ADQUISICION = "database.mysql.connection.timeout";
+    public static final String PROPIEDAD_TIMEOUT_VALIDACION = "database.mysql.validation.timeout";
+    public static final String PROPIEDAD_INTERVALO_VALIDACION = "database.pool.validation.interval.ms";
+    public static final String PROPIEDAD_UMBRAL_FUGA = "database.pool.leak.detection.ms";
+    public static final String PROPIEDAD_CACHE_SENTENCIAS = "database.pool.statement.cache.size";
+    public static final String PROPIEDAD_BLOQUE_LECTURA = "database.query.fetch.size";
+
+    private static final int TAMANO_INICIAL_POR_DEFECTO = 0;
+    private static final int TAMANO_MAXIMO_POR_DEFECTO = 10;
+    private static final int MINIMO_INACTIVAS_POR_DEFECTO = 0;
+    private static final long TIMEOUT_ADQUISICION_POR_DEFECTO = 30_000L;
+    private static final long TIMEOUT_VALIDACION_POR_DEFECTO = 5_000L;
+    private static final long INTERVALO_VALIDACION_POR_DEFECTO = 1_000L;
+    private static final int CACHE_SENTENCIAS_POR_DEFECTO = 32;
+    private static final int BLOQUE_LECTURA_POR_DEFECTO = 500;
+
+    private final int tamanoInicial;
+    private final int tamanoMaximo;
+    private final int minimoInactivas;
+    private final int maximoInactivas;
+    private final long timeoutAdquisicionMs;
+    private final long timeoutValidacionMs;
+    private final long intervaloValidacionMs;
+    private final long umbralFugaMs;
+    private final int tamanoCacheSentencias;
+    private final int tamanoBloqueLectura;
+
+    /**
+     * @param tamanoInicial Conexiones que abre precalentar()
+     * @param tamanoMaximo Conexiones abiertas como máximo (prestadas + inactivas)
+     * @param minimoInactivas Conexiones inactivas que el mantenimiento intenta conservar
+     * @param maximoInactivas Conexiones inactivas que se conservan al devolver; el resto se cierra
+     * @param timeoutAdquisicionMs Espera máxima por una conexión libre
+     * @param timeoutValidacionMs Espera máxima de Connection.isValid al validar
+     * @param intervaloValidacionMs Inactividad a partir de la cual se valida antes de prestar
+     * @param umbralFugaMs Tiempo prestada a partir del cual se informa una posible fuga (0: desactivado)
+     * @param tamanoCacheSentencias Sentencias preparadas guardadas por conexión (0: sin caché)
+     * @param tamanoBloqueLectura Fetch size de los recorridos en flujo (0: el del driver)
+     */
+    private ConfiguracionPoolConexiones(int tamanoInicial, int tamanoMaximo, int minimoInactivas, int maximoInactivas,
+                                        long timeoutAdquisicionMs, long timeoutValidacionMs,
+                                        long intervaloValidacionMs, long umbralFugaMs, int tamanoCacheSentencias,
+                                        int tamanoBloqueLectura) {
+        if (tamanoMaximo < 1) {
+            throw new IllegalArgumentException("El tamaño máximo del pool debe ser positivo");
+        }
+        if (tamanoInicial < 0 || tamanoInicial > tamanoMaximo) {
+            throw new IllegalArgumentException("El tamaño inicial debe estar entre 0 y el tamaño máximo");
+        }
+        if (minimoInactivas < 0 || minimoInactivas > maximoInactivas) {
+            throw new IllegalArgumentException("El mínimo de inactivas debe estar entre 0 y el máximo de inactivas");
+        }
+        if (maximoInactivas > tamanoMaximo) {
+            throw new IllegalArgumentException("El máximo de inactivas no puede superar el tamaño máximo");
+        }
+        if (timeoutAdquisicionMs < 0 || timeoutValidacionMs < 0 || intervaloValidacionMs < 0 || umbralFugaMs < 0) {
+            throw new IllegalArgumentException("Los tiempos del pool no pueden ser negativos");
+        }
+        if (tamanoCacheSentencias < 0) {
+            throw new IllegalArgumentException("El tamaño de la caché de sentencias no puede ser negativo");
+        }
+        if (tamanoBloqueLectura < 0) {
+            throw new IllegalArgumentException("El tamaño del bloque de lectura no puede ser negativo");
+        }
+        this.tamanoInicial = tamanoInicial;
+        this.tamanoMaximo = tamanoMaximo;
+        this.minimoInactivas = minimoInactivas;
+        this.maximoInactivas = maximoInactivas;
+        this.timeoutAdquisicionMs = timeoutAdquisicionMs;
+        this.timeoutValidacionMs = timeoutValidacionMs;
+        this.intervaloValidacionMs = intervaloValidacionMs;
+        this.umbralFugaMs = umbralFugaMs;
+        this.tamanoCacheSentencias = tamanoCacheSentencias;
+        this.tamanoBloqueLectura = tamanoBloqueLectura;
+    }
+
+    public static ConfiguracionPoolConexiones porDefecto() {
+        return new ConfiguracionPoolConexiones(TAMANO_INICIAL_POR_DEFECTO, TAMANO_MAXIMO_POR_DEFECTO,
+                                               MINIMO_INACTIVAS_POR_DEFECTO, TAMANO_MAXIMO_POR_DEFECTO,
+                                               TIMEOUT_ADQUISICION_POR_DEFECTO, TIMEOUT_VALIDACION_POR_DEFECTO,
+                                               INTERVALO_VALIDACION_POR_DEFECTO, 0L, CACHE_SENTENCIAS_POR_DEFECTO,
+                                               BLOQUE_LECTURA_POR_DEFECTO);
+    }
+
+    /**
+     * Construye la configuración a partir de propiedades; las ausentes toman su valor por defecto
+     * @throws IllegalArgumentException si algún valor no es un número válido o los tamaños no cuadran
+     */
+    public static ConfiguracionPoolConexiones desdePropiedades(Properties propiedades) {
+        int maximo = entero(propiedades, PROPIEDAD_TAMANO_MAXIMO, TAMANO_MAXIMO_POR_DEFECTO);
+        return new ConfiguracionPoolConexiones(
+            entero(propiedades, PROPIEDAD_TAMANO_INICIAL, TAMANO_INICIAL_POR_DEFECTO),
+            maximo,
+            entero(propiedades, PROPIEDAD_MINIMO_INACTIVAS, MINIMO_INACTIVAS_POR_DEFECTO),
+            entero(propiedades, PROPIEDAD_MAXIMO_INACTIVAS, maximo),
+            largo(propiedades, PROPIEDAD_TIMEOUT_ADQUISICION, TIMEOUT_ADQUISICION_POR_DEFECTO),
+            largo(propiedades, PROPIEDAD_TIMEOUT_VALIDACION, TIMEOUT_VALIDACION_POR_DEFECTO),
+            largo(propiedades, PROPIEDAD_INTERVALO_VALIDACION, INTERVALO_VALIDACION_POR_DEFECTO),
+            largo(propiedades, PROPIEDAD_UMBRAL_FUGA, 0L),
+            entero(propiedades, PROPIEDAD_CACHE_SENTENCIAS, CACHE_SENTENCIAS_POR_DEFECTO),
+            entero(propiedades, PROPIEDAD_BLOQUE_LECTURA, BLOQUE_LECTURA_POR_DEFECTO));
+    }
+
+    /**
+     * Lee el archivo de propiedades indicado; si no existe se usa la configuración por defecto
+     */
+    public static ConfiguracionPoolConexiones cargar(Path archivo) throws IOException {
+        if (archivo == null || !Files.exists(archivo)) {
+            return porDefecto();
+        }
+        Properties propiedades = new Properties();
+        try (InputStream entrada = Files.newInputStream(archivo)) {
+            propiedades.load(entrada);
+        }
+        return desdePropiedades(propiedades);
+    }
+
+    public ConfiguracionPoolConexiones conTamanoInicial(int tamanoInicial) {
+        return new ConfiguracionPoolConexiones(tamanoInicial, tamanoMaximo, minimoInactivas, maximoInactivas,
+                                               timeoutAdquisicionMs, timeoutValidacionMs, intervaloValidacionMs,
+                                               umbralFugaMs, tamanoCacheSentencias, tamanoBloqueLectura);
+    }
+
+    /**
+     * Cambia el tamaño máximo; el máximo de inactivas se recorta si lo supera
+     */
+    public ConfiguracionPoolConexiones conTamanoMaximo(int tamanoMaximo) {
+        return new ConfiguracionPoolConexiones(Math.min(tamanoInicial, tamanoMaximo), tamanoMaximo,
+                                               Math.min(minimoInactivas, tamanoMaximo),
+                                               Math.min(maximoInactivas, tamanoMaximo),
+                                               timeoutAdquisicionMs, timeoutValidacionMs, intervaloValidacionMs,
+                                               umbralFugaMs, tamanoCacheSentencias, tamanoBloqueLectura);
+    }
+
+    public ConfiguracionPoolConexiones conInactivas(int minimoInactivas, int maximoInactivas) {
+        return new ConfiguracionPoolConexiones(tamanoInicial, tamanoMaximo, minimoInactivas, maximoInactivas,
+                                               timeoutAdquisicionMs, timeoutValidacionMs, intervaloValidacionMs,
+                                               umbralFugaMs, tamanoCacheSentencias, tamanoBloqueLectura);
+    }
+
+    public ConfiguracionPoolConexiones conTimeoutAdquisicionMs(long timeoutAdquisicionMs) {
+        return new ConfiguracionPoolConexiones(tamanoInicial, tamanoMaximo, minimoInactivas, maximoInactivas,
+                                               timeoutAdquisicionMs, timeoutValidacionMs, intervaloValidacionMs,
+                                               umbralFugaMs, tamanoCacheSentencias, tamanoBloqueLectura);
+    }
+
+    public ConfiguracionPoolConexiones conIntervaloValidacionMs(long intervaloValidacionMs) {
+        return new ConfiguracionPoolConexiones(tamanoInicial, tamanoMaximo, minimoInactivas, maximoInactivas,
+                                               timeoutAdquisicionMs, timeoutValidacionMs, intervaloValidacionMs,
+                                               umbralFugaMs, tamanoCacheSentencias, tamanoBloqueLectura);
+    }
+
+    public ConfiguracionPoolConexiones conTamanoCacheSentencias(int tamanoCacheSentencias) {
+        return new ConfiguracionPoolConexiones(tamanoInicial, tamanoMaximo, minimoInactivas, maximoInactivas,
+                                               timeoutAdquisicionMs, timeoutValidacionMs, intervaloValidacionMs,
+                                               umbralFugaMs, tamanoCacheSentencias, tamanoBloqueLectura);
+    }
+
+    public ConfiguracionPoolConexiones conTamanoBloqueLectura(int tamanoBloqueLectura) {
+        return new ConfiguracionPoolConexiones(tamanoInicial, tamanoMaximo, minimoInactivas, maximoInactivas,
+                                               timeoutAdquisicionMs, timeoutValidacionMs, intervaloValidacionMs,
+                                               umbralFugaMs, tamanoCacheSentencias, tamanoBloqueLectura);
+    }
+
+    public ConfiguracionPoolConexiones conUmbralFugaMs(long umbralFugaMs) {
+        return new ConfiguracionPoolConexiones(tamanoInicial, tamanoMaximo, minimoInactivas, maximoInactivas,
+                                               timeoutAdquisicionMs, timeoutValidacionMs, intervaloValidacionMs,
+                                               umbralFugaMs, tamanoCacheSentencias, tamanoBloqueLectura);
+    }
+
+    public int getTamanoInicial() {
+        return tamanoInicial;
+    }
+
+    public int getTamanoMaximo() {
+        return tamanoMaximo;
+    }
+
+    public int getMinimoInactivas() {
+        return minimoInactivas;
+    }
+
+    public int getMaximoInactivas() {
+        return maximoInactivas;
+    }
+
+    public long getTimeoutAdquisicionMs() {
+        return timeoutAdquisicionMs;
+    }
+
+    public long getTimeoutValidacionMs() {
+        return timeoutValidacionMs;
+    }
+
+    public long getIntervaloValidacionMs() {
+        return intervaloValidacionMs;
+    }
+
+    public long getUmbralFugaMs() {
+        return umbralFugaMs;
+    }
+
+    public int getTamanoCacheSentencias() {
+        return tamanoCacheSentencias;
+    }
+
+    public int getTamanoBloqueLectura() {
+        return tamanoBloqueLectura;
+    }
+
+    public boolean isDeteccionFugas() {
+        return umbralFugaMs > 0;
+    }
+
+    private static int entero(Properties propiedades, String clave, int porDefecto) {
+        return Integer.parseInt(propiedades.getProperty(clave, String.valueOf(porDefecto)).trim());
+    }
+
+    private static long largo(Properties propiedades, String clave, long porDefecto) {
+        return Long.parseLong(propiedades.getProperty(clave, String.valueOf(porDefecto)).trim());
+    }
+}
@@ -0,0 +1,126 @@
+package com.roberto.rivas.repositorio.persistencia;
+
+/**
+ * Instantánea inmutable de las métricas del pool de conexiones
+ *
+ * @author Roberto Rivas Lopez
+ */
+public final class EstadisticasPoolConexiones {
+
+    private final int conexionesPrestadas;
+    private final int conexionesInactivas;
+    private final int hilosEsperando;
+    private final int tamanoMaximo;
+    private final long adquisiciones;
+    private final long conexionesCreadas;
+    private final long conexionesCerradas;
+    private final long esperasAgotadas;
+    private final long validacionesFallidas;
+    private final long fugasDetectadas;
+    private final Throwable origenUltimaFuga;
+    private final long aciertosCacheSentencias;
+    private final long fallosCacheSentencias;
+
+    public EstadisticasPoolConexiones(int conexionesPrestadas, int conexionesInactivas, int hilosEsperando,
+                                      int tamanoMaximo, long adquisiciones, long conexionesCreadas,
+                                      long conexionesCerradas, long esperasAgotadas, long validacionesFallidas,
+                                      long fugasDetectadas, Throwable origenUltimaFuga,
+                                      long aciertosCacheSentencias, long fallosCacheSentencias) {
+        this.conexionesPrestadas = conexionesPrestadas;
+        this.conexionesInactivas = conexionesInactivas;
+        this.hilosEsperando = hilosEsperando;
+        this.tamanoMaximo = tamanoMaximo;
+        this.adquisiciones = adquisiciones;
+        this.conexionesCreadas = conexionesCreadas;
+        this.conexionesCerradas = conexionesCerradas;
+        this.esperasAgotadas = esperasAgotadas;
+        this.validacionesFallidas = validacionesFallidas;
+        this.fugasDetectadas = fugasDetectadas;
+        this.origenUltimaFuga = origenUltimaFuga;
+        this.aciertosCacheSentencias = aciertosCacheSentencias;
+        this.fallosCacheSentencias = fallosCacheSentencias;
+    }
+
+    public int getConexionesPrestadas() {
+        return conexionesPrestadas;
+    }
+
+    public int getConexionesInactivas() {
+        return conexionesInactivas;
+    }
+
+    public int getHilosEsperando() {
+        return hilosEsperando;
+    }
+
+    public int getTamanoMaximo() {
+        return tamanoMaximo;
+    }
+
+    /**
+     * @return Préstamos concedidos desde que se creó el pool
+     */
+    public long getAdquisiciones() {
+        return adquisiciones;
+    }
+
+    /**
+     * @return Conexiones físicas abiertas contra la base de datos (cada una es un handshake)
+     */
+    public long getConexionesCreadas() {
+        return conexionesCreadas;
+    }
+
+    public long getConexionesCerradas() {
+        return conexionesCerradas;
+    }
+
+    /**
+     * @return Solicitudes que agotaron el tiempo de espera sin conseguir conexión
+     */
+    public long getEsperasAgotadas() {
+        return esperasAgotadas;
+    }
+
+    public long getValidacionesFallidas() {
+        return validacionesFallidas;
+    }
+
+    /**
+     * @return Conexiones prestadas más tiempo que el umbral de fuga sin devolverse
+     */
+    public long getFugasDetectadas() {
+        return fugasDetectadas;
+    }
+
+    /**
+     * @return Traza de quien pidió la última conexión con posible fuga (null si no hubo)
+     */
+    public Throwable getOrigenUltimaFuga() {
+        return origenUltimaFuga;
+    }
+
+    /**
+     * @return prepareStatement resueltos con una sentencia ya preparada en la conexión
+     */
+    public long getAciertosCacheSentencias() {
+        return aciertosCacheSentencias;
+    }
+
+    /**
+     * @return prepareStatement que tuvieron que preparar la sentencia
+     */
+    public long getFallosCacheSentencias() {
+        return fallosCacheSentencias;
+    }
+
+    @Override
+    public String toString() {
+        return "EstadisticasPoolConexiones{prestadas=" + conexionesPrestadas + ", inactivas=" + conexionesInactivas +
+               ", esperando=" + hilosEsperando + ", maximo=" + tamanoMaximo + ", adquisiciones=" + adquisiciones +
+               ", creadas=" + conexionesCreadas + ", cerradas=" + conexionesCerradas +
+               ", esperasAgotadas=" + esperasAgotadas + ", validacionesFallidas=" + validacionesFallidas +
+               ", fugas=" + fugasDetectadas + ", aciertosSentencias=" + aciertosCacheSentencias +
+               ", fallosSentencias=" + fallosCacheSentencias + "}";
+    }
+}
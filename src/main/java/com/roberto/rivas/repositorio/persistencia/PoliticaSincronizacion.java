@@ -0,0 +1,29 @@
+package com.roberto.rivas.repositorio.persistencia;
+
+/**
+ * Política de sincronización (fsync) del registro de escritura anticipada
+ * Permite elegir el equilibrio entre latencia y durabilidad
+ * 
+ * @author Roberto Rivas Lopez
+ */
+public enum PoliticaSincronizacion {
+
+    /**
+     * Cada escritura espera su fsync; los escritores concurrentes comparten
+     * la misma sincronización (group commit) cuando coinciden en el tiempo
+     */
+    SIEMPRE,
+
+    /**
+     * Cada escritura espera su fsync, pero el líder del lote aguarda una
+     * ventana breve para sumar más escritores antes de sincronizar
+     */
+    POR_LOTES,
+
+    /**
+     * Las escrituras solo esperan a que el lote llegue al sistema operativo;
+     * un hilo de fondo sincroniza cada intervalo (se pueden perder las
+     * operaciones del último intervalo ante una caída del equipo)
+     */
+    INTERVALO
+}
@@ -0,0 +1,383 @@
+package com.roberto.rivas.repositorio.persistencia;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool de conexiones JDBC para el repositorio de base de datos
+ *
+ * Cada conexión física se abre una vez (handshake TCP y autenticación) y se
+ * presta muchas veces. Un semáforo limita las conexiones prestadas al tamaño
+ * máximo; quien no consigue una dentro del tiempo de espera recibe una
+ * SQLTransientConnectionException en lugar de quedarse bloqueado
+ *
+ * Las conexiones inactivas se reutilizan en orden LIFO (la más reciente sigue
+ * caliente) y se validan con Connection.isValid solo si llevan inactivas más
+ * que el intervalo configurado. La conexión prestada es un proxy: close() la
+ * devuelve al pool, deshaciendo una transacción abierta y restaurando el
+ * autocommit. Con detección de fugas, una tarea de mantenimiento cuenta en las
+ * estadísticas las conexiones prestadas más tiempo que el umbral y guarda la
+ * traza de quien pidió la última
+ *
+ * Cada conexión física lleva su caché de sentencias preparadas (LRU acotada,
+ * database.pool.statement.cache.size): prepareStatement con el mismo SQL en
+ * préstamos sucesivos devuelve la sentencia ya preparada
+ *
+ * @author Roberto Rivas Lopez
+ */
+public class PoolConexiones implements AutoCloseable {
+
+    private static final long PERIODO_MANTENIMIENTO_MS = 1_000L;
+
+    private final String url;
+    private final String usuario;
+    private final String contrasena;
+    private final ConfiguracionPoolConexiones configuracion;
+
+    private final Semaphore permisos;
+    private final ConcurrentLinkedDeque<ConexionInactiva> inactivas = new ConcurrentLinkedDeque<>();
+    private final Map<ConexionPrestada, Boolean> prestadas = new ConcurrentHashMap<>();
+    private final AtomicInteger abiertas = new AtomicInteger();
+    private final ScheduledFuture<?> mantenimiento;
+    private volatile boolean cerrado;
+
+    private final LongAdder adquisiciones = new LongAdder();
+    private final LongAdder conexionesCreadas = new LongAdder();
+    private final LongAdder conexionesCerradas = new LongAdder();
+    private final LongAdder esperasAgotadas = new LongAdder();
+    private final LongAdder validacionesFallidas = new LongAdder();
+    private final LongAdder fugasDetectadas = new LongAdder();
+    private final LongAdder aciertosSentencias = new LongAdder();
+    private final LongAdder fallosSentencias = new LongAdder();
+    private volatile Throwable origenUltimaFuga;
+
+    public PoolConexiones(String url, String usuario, String contrasena, ConfiguracionPoolConexiones configuracion) {
+        if (url == null || url.isBlank()) {
+            throw new IllegalArgumentException("La URL de conexión es requerida");
+        }
+        if (configuracion == null) {
+            throw new IllegalArgumentException("La configuración del pool es requerida");
+        }
+        this.url = url;
+        this.usuario = usuario;
+        this.contrasena = contrasena;
+        this.configuracion = configuracion;
+        this.permisos = new Semaphore(configuracion.getTamanoMaximo(), true);
+        // Sin mínimo de inactivas ni detección de fugas no hay nada que mantener
+        this.mantenimiento = configuracion.getMinimoInactivas() > 0 || configuracion.isDeteccionFugas()
+            ? Mantenimiento.PROGRAMADOR.scheduleWithFixedDelay(this::mantener, PERIODO_MANTENIMIENTO_MS,
+                                                               PERIODO_MANTENIMIENTO_MS, TimeUnit.MILLISECONDS)
+            : null;
+    }
+
+    /**
+     * Abre las conexiones iniciales configuradas; el constructor no conecta
+     * para que crear el repositorio no falle si la base de datos aún no responde
+     */
+    public void precalentar() throws SQLException {
+        int objetivo = Math.max(configuracion.getTamanoInicial(), configuracion.getMinimoInactivas());
+        while (!cerrado && inactivas.size() < objetivo && abiertas.get() < configuracion.getTamanoMaximo()) {
+            agregarInactiva(abrir(), true);
+        }
+    }
+
+    /**
+     * Presta una conexión; cerrarla la devuelve al pool
+     * @throws SQLTransientConnectionException si no hay una libre dentro del tiempo de espera
+     */
+    public Connection obtenerConexion() throws SQLException {
+        if (cerrado) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+        try {
+            if (!permisos.tryAcquire(configuracion.getTimeoutAdquisicionMs(), TimeUnit.MILLISECONDS)) {
+                esperasAgotadas.increment();
+                throw new SQLTransientConnectionException("Tiempo de espera agotado al obtener una conexión (" +
+                    prestadas.size() + " prestadas de " + configuracion.getTamanoMaximo() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido mientras esperaba una conexión", e);
+        }
+
+        try {
+            ConexionFisica fisica = tomarInactiva();
+            if (fisica == null) {
+                fisica = abrir();
+            }
+            adquisiciones.increment();
+            return prestar(fisica);
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    public EstadisticasPoolConexiones obtenerEstadisticas() {
+        return new EstadisticasPoolConexiones(prestadas.size(), inactivas.size(), permisos.getQueueLength(),
+                                              configuracion.getTamanoMaximo(), adquisiciones.sum(),
+                                              conexionesCreadas.sum(), conexionesCerradas.sum(),
+                                              esperasAgotadas.sum(), validacionesFallidas.sum(),
+                                              fugasDetectadas.sum(), origenUltimaFuga,
+                                              aciertosSentencias.sum(), fallosSentencias.sum());
+    }
+
+    public ConfiguracionPoolConexiones obtenerConfiguracion() {
+        return configuracion;
+    }
+
+    /**
+     * Cierra las conexiones inactivas; las prestadas se cierran al devolverse
+     */
+    @Override
+    public void close() {
+        cerrado = true;
+        if (mantenimiento != null) {
+            mantenimiento.cancel(false);
+        }
+        ConexionInactiva inactiva;
+        while ((inactiva = inactivas.pollFirst()) != null) {
+            cerrarFisica(inactiva.fisica);
+        }
+    }
+
+    public boolean estaCerrado() {
+        return cerrado;
+    }
+
+    // Toma la inactiva más reciente; valida solo las que llevan tiempo sin usarse
+    private ConexionFisica tomarInactiva() {
+        long intervaloNanos = TimeUnit.MILLISECONDS.toNanos(configuracion.getIntervaloValidacionMs());
+        ConexionInactiva inactiva;
+        while ((inactiva = inactivas.pollFirst()) != null) {
+            if (System.nanoTime() - inactiva.desde < intervaloNanos || esValida(inactiva.fisica.conexion)) {
+                return inactiva.fisica;
+            }
+            validacionesFallidas.increment();
+            cerrarFisica(inactiva.fisica);
+        }
+        return null;
+    }
+
+    private boolean esValida(Connection fisica) {
+        // isValid recibe segundos; 0 significaría esperar sin límite
+        int segundos = (int) Math.max(1L, (configuracion.getTimeoutValidacionMs() + 999L) / 1000L);
+        try {
+            return fisica.isValid(segundos);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private ConexionFisica abrir() throws SQLException {
+        Connection conexion = DriverManager.getConnection(url, usuario, contrasena);
+        abiertas.incrementAndGet();
+        conexionesCreadas.increment();
+        int capacidad = configuracion.getTamanoCacheSentencias();
+        return new ConexionFisica(conexion, capacidad > 0
+            ? new CacheSentencias(conexion, capacidad, aciertosSentencias, fallosSentencias)
+            : null);
+    }
+
+    private void cerrarFisica(ConexionFisica fisica) {
+        abiertas.decrementAndGet();
+        conexionesCerradas.increment();
+        if (fisica.sentencias != null) {
+            fisica.sentencias.cerrarTodas();
+        }
+        try {
+            fisica.conexion.close();
+        } catch (SQLException e) {
+            // La conexión ya no sirve: no hay nada más que liberar
+        }
+    }
+
+    private Connection prestar(ConexionFisica fisica) {
+        ConexionPrestada prestada = new ConexionPrestada(fisica, configuracion.isDeteccionFugas()
+            ? new Throwable("Conexión obtenida en el hilo " + Thread.currentThread().getName())
+            : null);
+        prestadas.put(prestada, Boolean.TRUE);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                                                   new Class<?>[] {Connection.class}, prestada);
+    }
+
+    private void devolver(ConexionPrestada prestada) {
+        prestadas.remove(prestada);
+        try {
+            ConexionFisica fisica = prestada.fisica;
+            if (!reiniciar(fisica) || cerrado || inactivas.size() >= configuracion.getMaximoInactivas()) {
+                cerrarFisica(fisica);
+            } else {
+                agregarInactiva(fisica, true);
+            }
+        } finally {
+            permisos.release();
+        }
+    }
+
+    // Si el pool se cerró mientras se abría o devolvía, close() ya vació la lista y nadie más la cerraría
+    private void agregarInactiva(ConexionFisica fisica, boolean alFrente) {
+        ConexionInactiva inactiva = new ConexionInactiva(fisica);
+        if (alFrente) {
+            inactivas.offerFirst(inactiva);
+        } else {
+            inactivas.offerLast(inactiva);
+        }
+        if (cerrado && inactivas.remove(inactiva)) {
+            cerrarFisica(fisica);
+        }
+    }
+
+    // Deja la conexión como recién abierta; false si ya no es reutilizable
+    private boolean reiniciar(ConexionFisica fisica) {
+        try {
+            if (fisica.conexion.isClosed()) {
+                return false;
+            }
+            if (fisica.sentencias != null) {
+                fisica.sentencias.liberarTodas();
+            }
+            if (!fisica.conexion.getAutoCommit()) {
+                fisica.conexion.rollback();
+                fisica.conexion.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void mantener() {
+        if (cerrado) {
+            return;
+        }
+        if (configuracion.isDeteccionFugas()) {
+            detectarFugas();
+        }
+        try {
+            while (!cerrado && inactivas.size() < configuracion.getMinimoInactivas()
+                    && abiertas.get() < configuracion.getTamanoMaximo()) {
+                agregarInactiva(abrir(), false);
+            }
+        } catch (SQLException e) {
+            // Se reintenta en la siguiente ronda; los préstamos abren bajo demanda
+        }
+    }
+
+    private void detectarFugas() {
+        long umbralNanos = TimeUnit.MILLISECONDS.toNanos(configuracion.getUmbralFugaMs());
+        long ahora = System.nanoTime();
+        for (ConexionPrestada prestada : prestadas.keySet()) {
+            if (!prestada.fugaInformada && ahora - prestada.desde > umbralNanos) {
+                prestada.fugaInformada = true;
+                origenUltimaFuga = prestada.origen;
+                fugasDetectadas.increment();
+            }
+        }
+    }
+
+    // Conexión física y su caché de sentencias (null si la caché está desactivada)
+    private static final class ConexionFisica {
+        private final Connection conexion;
+        private final CacheSentencias sentencias;
+
+        private ConexionFisica(Connection conexion, CacheSentencias sentencias) {
+            this.conexion = conexion;
+            this.sentencias = sentencias;
+        }
+    }
+
+    private static final class ConexionInactiva {
+        private final ConexionFisica fisica;
+        private final long desde = System.nanoTime();
+
+        private ConexionInactiva(ConexionFisica fisica) {
+            this.fisica = fisica;
+        }
+    }
+
+    /**
+     * Manejador del proxy entregado al llamador: intercepta close() para
+     * devolver la conexión física, prepareStatement para usar la caché, y
+     * rechaza su uso después de devolverla
+     */
+    private final class ConexionPrestada implements InvocationHandler {
+        private final ConexionFisica fisica;
+        private final Throwable origen;
+        private final long desde = System.nanoTime();
+        private volatile boolean devuelta;
+        private volatile boolean fugaInformada;
+
+        private ConexionPrestada(ConexionFisica fisica, Throwable origen) {
+            this.fisica = fisica;
+            this.origen = origen;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] argumentos) throws Throwable {
+            switch (metodo.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (!devuelta) {
+                            devuelta = true;
+                            devolver(this);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return devuelta || fisica.conexion.isClosed();
+                case "equals":
+                    return proxy == argumentos[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexionPrestada[" + fisica.conexion + "]";
+                default:
+                    break;
+            }
+            if (devuelta) {
+                throw new SQLException("La conexión ya fue devuelta al pool");
+            }
+            if (fisica.sentencias != null && "prepareStatement".equals(metodo.getName())) {
+                Class<?>[] tipos = metodo.getParameterTypes();
+                if (tipos.length == 1) {
+                    return fisica.sentencias.preparar((String) argumentos[0], null, (Connection) proxy);
+                }
+                if (tipos.length == 2 && tipos[1] == int.class) {
+                    return fisica.sentencias.preparar((String) argumentos[0], (Integer) argumentos[1],
+                                                      (Connection) proxy);
+                }
+            }
+            try {
+                return metodo.invoke(fisica.conexion, argumentos);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    // Un único hilo daemon compartido por todos los pools para el mantenimiento
+    private static final class Mantenimiento {
+        private static final ScheduledExecutorService PROGRAMADOR = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "pool-conexiones-mantenimiento");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+}
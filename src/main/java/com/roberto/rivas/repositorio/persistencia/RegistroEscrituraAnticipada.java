@@ -0,0 +1,468 @@
+package com.roberto.rivas.repositorio.persistencia;
+
+import com.roberto.rivas.modelo.Estudiante;
+import com.roberto.rivas.modelo.EstudianteInmutable;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Registro de escritura anticipada (write-ahead log) para repositorios en memoria
+ * 
+ * Cada operación se agrega a un buffer con un número de secuencia (LSN) y el
+ * escritor espera luego su durabilidad. Un solo hilo a la vez (el líder) vuelca
+ * el buffer y sincroniza; los escritores que esperaban detrás encuentran su LSN
+ * ya durable y retornan sin otro fsync (group commit)
+ * 
+ * Formato del registro: longitud de la carga (int), CRC32 (int), LSN (long),
+ * tipo de operación (byte) y la imagen posterior del estudiante. Al abrir el
+ * archivo se descarta cualquier cola incompleta o corrupta; tras una
+ * instantánea, truncarHasta descarta el prefijo ya cubierto
+ * 
+ * @author Roberto Rivas Lopez
+ */
+public class RegistroEscrituraAnticipada implements Closeable {
+
+    private static final int TAMANO_CABECERA = Integer.BYTES + Integer.BYTES + Long.BYTES + 1;
+    private static final int CAPACIDAD_BUFFER = 64 * 1024;
+    private static final Duration VENTANA_LOTE_POR_DEFECTO = Duration.ofMillis(1);
+    private static final Duration INTERVALO_POR_DEFECTO = Duration.ofMillis(100);
+
+    /**
+     * Tipos de operación registrados; todos salvo VACIAR llevan la imagen posterior
+     */
+    public enum TipoOperacion {
+        CREAR, ACTUALIZAR, ELIMINAR, VACIAR
+    }
+
+    /**
+     * Receptor de operaciones durante la reproducción del registro
+     */
+    @FunctionalInterface
+    public interface ConsumidorOperacion {
+        void aplicar(TipoOperacion tipo, EstudianteInmutable estudiante);
+    }
+
+    private final Path archivo;
+    private FileChannel canal;
+    private final PoliticaSincronizacion politica;
+    private final long esperaNanos;
+    private final ScheduledExecutorService sincronizador;
+
+    // Estado del buffer de operaciones pendientes (protegido por cerrojoBuffer)
+    private final ReentrantLock cerrojoBuffer = new ReentrantLock();
+    private ByteBuffer pendiente = ByteBuffer.allocate(CAPACIDAD_BUFFER);
+    private long ultimoLsn;
+    private boolean cerrado;
+
+    // Estado del archivo (modificado solo por el líder que tiene cerrojoEscritura)
+    private final ReentrantLock cerrojoEscritura = new ReentrantLock();
+    private volatile long lsnEscrito;
+    private volatile long lsnDurable;
+    private volatile long sincronizaciones;
+    private volatile IOException fallo;
+
+    public RegistroEscrituraAnticipada(Path archivo, PoliticaSincronizacion politica) throws IOException {
+        this(archivo, politica, politica == PoliticaSincronizacion.INTERVALO
+                                ? INTERVALO_POR_DEFECTO : VENTANA_LOTE_POR_DEFECTO);
+    }
+
+    /**
+     * @param espera ventana de agrupación para POR_LOTES o intervalo de fsync para INTERVALO
+     */
+    public RegistroEscrituraAnticipada(Path archivo, PoliticaSincronizacion politica, Duration espera)
+            throws IOException {
+        if (archivo == null || politica == null || espera == null || espera.isNegative()) {
+            throw new IllegalArgumentException("Archivo, política y espera son obligatorios");
+        }
+        this.archivo = archivo;
+        this.politica = politica;
+        this.esperaNanos = espera.toNanos();
+        this.canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                                      StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        // Descartar la cola incompleta que pudo dejar una caída durante una escritura
+        Recorrido recorrido = recorrer(Long.MAX_VALUE, null);
+        if (recorrido.fin() < canal.size()) {
+            canal.truncate(recorrido.fin());
+            canal.force(true);
+        }
+        canal.position(recorrido.fin());
+        this.ultimoLsn = recorrido.ultimoLsn();
+        this.lsnEscrito = ultimoLsn;
+        this.lsnDurable = ultimoLsn;
+
+        if (politica == PoliticaSincronizacion.INTERVALO) {
+            this.sincronizador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+                Thread hilo = new Thread(tarea, "wal-sincronizador");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+            long intervalo = Math.max(1, esperaNanos);
+            sincronizador.scheduleWithFixedDelay(this::sincronizarEnFondo, intervalo, intervalo, TimeUnit.NANOSECONDS);
+        } else {
+            this.sincronizador = null;
+        }
+    }
+
+    /**
+     * Reproduce en orden todas las operaciones válidas del archivo
+     * @return cantidad de operaciones reproducidas
+     */
+    public long reproducir(ConsumidorOperacion consumidor) throws IOException {
+        return reproducir(0L, consumidor);
+    }
+
+    /**
+     * Reproduce en orden las operaciones con LSN posterior al indicado
+     * (las anteriores se validan pero no se decodifican)
+     * @return cantidad de operaciones reproducidas
+     */
+    public long reproducir(long desdeLsn, ConsumidorOperacion consumidor) throws IOException {
+        if (consumidor == null) {
+            throw new IllegalArgumentException("El consumidor no puede ser nulo");
+        }
+        long[] cantidad = new long[1];
+        cerrojoEscritura.lock();
+        try {
+            // La lectura mueve la posición del canal: se restaura para seguir agregando al final
+            long posicion = canal.position();
+            try {
+                recorrer(desdeLsn, (tipo, estudiante) -> {
+                    consumidor.aplicar(tipo, estudiante);
+                    cantidad[0]++;
+                });
+            } finally {
+                canal.position(posicion);
+            }
+        } finally {
+            cerrojoEscritura.unlock();
+        }
+        return cantidad[0];
+    }
+
+    /**
+     * Agrega una operación al buffer sin esperar E/S
+     * Debe llamarse dentro de la sección crítica de la escritura que registra,
+     * para que el orden del registro coincida con el orden de aplicación
+     * @return LSN asignado a la operación
+     */
+    public long registrar(TipoOperacion tipo, Estudiante estudiante) {
+        if (tipo == null || (estudiante == null && tipo != TipoOperacion.VACIAR)) {
+            throw new IllegalArgumentException("La operación requiere tipo e imagen del estudiante");
+        }
+        byte[] carga = estudiante != null ? CodificadorEstudiante.codificar(estudiante) : new byte[0];
+
+        cerrojoBuffer.lock();
+        try {
+            if (cerrado) {
+                throw new IllegalStateException("El registro de escritura está cerrado");
+            }
+            if (fallo != null) {
+                throw new IllegalStateException("El registro de escritura falló: " + fallo.getMessage(), fallo);
+            }
+            long lsn = ultimoLsn + 1;
+            asegurarEspacio(TAMANO_CABECERA + carga.length);
+            pendiente.putInt(carga.length)
+                     .putInt(calcularCrc(lsn, tipo, carga))
+                     .putLong(lsn)
+                     .put((byte) tipo.ordinal())
+                     .put(carga);
+            ultimoLsn = lsn;
+            return lsn;
+        } finally {
+            cerrojoBuffer.unlock();
+        }
+    }
+
+    /**
+     * Bloquea hasta que la operación con el LSN indicado cumpla la política
+     * (sincronizada en disco, o entregada al sistema operativo para INTERVALO)
+     */
+    public void esperarDurabilidad(long lsn) throws IOException {
+        if (cumplido(lsn)) {
+            return;
+        }
+        cerrojoEscritura.lock();
+        try {
+            verificarFallo();
+            if (cumplido(lsn)) {
+                return; // Otro líder ya incluyó esta operación en su lote
+            }
+            if (politica == PoliticaSincronizacion.POR_LOTES && esperaNanos > 0) {
+                LockSupport.parkNanos(esperaNanos);
+            }
+            if (politica == PoliticaSincronizacion.INTERVALO) {
+                escribirPendientes();
+            } else {
+                sincronizarPendientes();
+            }
+        } catch (IOException e) {
+            fallo = e;
+            throw e;
+        } finally {
+            cerrojoEscritura.unlock();
+        }
+    }
+
+    /**
+     * Vuelca y sincroniza todas las operaciones registradas hasta ahora
+     */
+    public void sincronizar() throws IOException {
+        cerrojoEscritura.lock();
+        try {
+            verificarFallo();
+            sincronizarPendientes();
+        } catch (IOException e) {
+            fallo = e;
+            throw e;
+        } finally {
+            cerrojoEscritura.unlock();
+        }
+    }
+
+    /**
+     * Descarta las operaciones con LSN hasta el indicado, ya cubiertas por una
+     * instantánea, reescribiendo la cola en un archivo que reemplaza al actual.
+     * Se conserva el último registro cubierto para que el LSN siga siendo
+     * monótono al reabrir (reproducirlo desde la instantánea no tiene efecto)
+     * @return bytes descartados
+     */
+    public long truncarHasta(long lsn) throws IOException {
+        cerrojoEscritura.lock();
+        try {
+            verificarFallo();
+            sincronizarPendientes();
+            long inicioCola = buscarUltimoCubierto(lsn);
+            if (inicioCola == 0) {
+                return 0;
+            }
+
+            Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+            long tamano = canal.size();
+            try (FileChannel destino = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                                                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                long copiados = 0;
+                while (copiados < tamano - inicioCola) {
+                    copiados += canal.transferTo(inicioCola + copiados, tamano - inicioCola - copiados, destino);
+                }
+                destino.force(true);
+            }
+            canal.close();
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            canal = FileChannel.open(archivo, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            canal.position(canal.size());
+            return inicioCola;
+        } catch (IOException e) {
+            fallo = e;
+            throw e;
+        } finally {
+            cerrojoEscritura.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        cerrojoBuffer.lock();
+        try {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+        } finally {
+            cerrojoBuffer.unlock();
+        }
+
+        if (sincronizador != null) {
+            sincronizador.shutdownNow();
+        }
+        cerrojoEscritura.lock();
+        try {
+            if (fallo == null) {
+                sincronizarPendientes();
+            }
+        } finally {
+            cerrojoEscritura.unlock();
+            canal.close();
+        }
+    }
+
+    // Getters para monitoreo
+    public long obtenerUltimoLsn() {
+        cerrojoBuffer.lock();
+        try {
+            return ultimoLsn;
+        } finally {
+            cerrojoBuffer.unlock();
+        }
+    }
+
+    public long obtenerLsnDurable() {
+        return lsnDurable;
+    }
+
+    public long obtenerSincronizaciones() {
+        return sincronizaciones;
+    }
+
+    public PoliticaSincronizacion obtenerPolitica() {
+        return politica;
+    }
+
+    public Path obtenerArchivo() {
+        return archivo;
+    }
+
+    // Métodos privados (requieren cerrojoEscritura)
+    private boolean cumplido(long lsn) {
+        return lsn <= lsnDurable
+            || (politica == PoliticaSincronizacion.INTERVALO && lsn <= lsnEscrito);
+    }
+
+    private void escribirPendientes() throws IOException {
+        ByteBuffer lote;
+        long hasta;
+        cerrojoBuffer.lock();
+        try {
+            if (pendiente.position() == 0) {
+                return;
+            }
+            lote = pendiente;
+            hasta = ultimoLsn;
+            pendiente = ByteBuffer.allocate(CAPACIDAD_BUFFER);
+        } finally {
+            cerrojoBuffer.unlock();
+        }
+
+        lote.flip();
+        while (lote.hasRemaining()) {
+            canal.write(lote);
+        }
+        lsnEscrito = hasta;
+    }
+
+    private void sincronizarPendientes() throws IOException {
+        escribirPendientes();
+        long objetivo = lsnEscrito;
+        if (objetivo > lsnDurable) {
+            canal.force(false);
+            sincronizaciones++;
+            lsnDurable = objetivo;
+        }
+    }
+
+    private void sincronizarEnFondo() {
+        cerrojoEscritura.lock();
+        try {
+            if (fallo == null && canal.isOpen()) {
+                sincronizarPendientes();
+            }
+        } catch (IOException e) {
+            fallo = e;
+        } finally {
+            cerrojoEscritura.unlock();
+        }
+    }
+
+    private void verificarFallo() throws IOException {
+        if (fallo != null) {
+            throw new IOException("El registro de escritura falló previamente", fallo);
+        }
+    }
+
+    private void asegurarEspacio(int requerido) {
+        if (pendiente.remaining() < requerido) {
+            ByteBuffer mayor = ByteBuffer.allocate(Math.max(pendiente.capacity() * 2, pendiente.position() + requerido));
+            pendiente.flip();
+            mayor.put(pendiente);
+            pendiente = mayor;
+        }
+    }
+
+    /**
+     * Recorre el archivo desde el inicio validando cada registro
+     * @return posición final y LSN del último registro válido
+     */
+    private Recorrido recorrer(long desdeLsn, ConsumidorOperacion consumidor) throws IOException {
+        long posicion = 0;
+        long lsnPrevio = 0;
+        DataInputStream entrada = new DataInputStream(new BufferedInputStream(
+            Channels.newInputStream(canal.position(0)), CAPACIDAD_BUFFER));
+        try {
+            while (true) {
+                int longitud = entrada.readInt();
+                int crc = entrada.readInt();
+                long lsn = entrada.readLong();
+                int ordinal = entrada.readUnsignedByte();
+                if (longitud < 0 || longitud > canal.size() - posicion - TAMANO_CABECERA
+                        || ordinal >= TipoOperacion.values().length || lsn <= lsnPrevio) {
+                    break;
+                }
+                byte[] carga = new byte[longitud];
+                entrada.readFully(carga);
+                TipoOperacion tipo = TipoOperacion.values()[ordinal];
+                if (crc != calcularCrc(lsn, tipo, carga)) {
+                    break;
+                }
+                if (consumidor != null && lsn > desdeLsn) {
+                    consumidor.aplicar(tipo, longitud > 0 ? CodificadorEstudiante.decodificar(ByteBuffer.wrap(carga)) : null);
+                }
+                posicion += TAMANO_CABECERA + longitud;
+                lsnPrevio = lsn;
+            }
+        } catch (EOFException e) {
+            // Fin del archivo o registro incompleto: se conserva lo leído hasta aquí
+        }
+        return new Recorrido(posicion, lsnPrevio);
+    }
+
+    // Posición del último registro con LSN menor o igual al indicado (0 si no hay)
+    private long buscarUltimoCubierto(long lsn) throws IOException {
+        long posicion = 0;
+        long ultimoCubierto = 0;
+        long fin = canal.position();
+        DataInputStream entrada = new DataInputStream(new BufferedInputStream(
+            Channels.newInputStream(canal.position(0)), CAPACIDAD_BUFFER));
+        try {
+            while (posicion < fin) {
+                int longitud = entrada.readInt();
+                entrada.readInt();
+                if (entrada.readLong() > lsn) {
+                    break;
+                }
+                ultimoCubierto = posicion;
+                entrada.skipNBytes(1L + longitud);
+                posicion += TAMANO_CABECERA + longitud;
+            }
+        } finally {
+            canal.position(fin);
+        }
+        return ultimoCubierto;
+    }
+
+    private static int calcularCrc(long lsn, TipoOperacion tipo, byte[] carga) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(Long.BYTES + 1).putLong(lsn).put((byte) tipo.ordinal()).flip());
+        crc.update(carga);
+        return (int) crc.getValue();
+    }
+
+    private record Recorrido(long fin, long ultimoLsn) {
+    }
+}
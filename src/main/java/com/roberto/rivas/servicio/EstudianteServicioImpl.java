@@ -1,19 +1,29 @@
 package com.roberto.rivas.servicio;
 
 import com.roberto.rivas.modelo.Estudiante;
+import com.roberto.rivas.repositorio.EstadisticasEstudiantes;
+import com.roberto.rivas.repositorio.IEstadisticasRepositorio;
 import com.roberto.rivas.repositorio.IEstudianteRepositorio;
+import com.roberto.rivas.repositorio.IUnidadDeTrabajo;
+import com.roberto.rivas.repositorio.Pagina;
 import com.roberto.rivas.repositorio.RepositorioException;
+import com.roberto.rivas.repositorio.ResultadoLote;
 import com.roberto.rivas.servicio.dto.EstudianteDTO;
 import com.roberto.rivas.servicio.excepcion.ServicioException;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementación del servicio de Estudiantes
  * Aplica principios SOLID y manejo de excepciones
  * Implementa lógica de negocio con validaciones
  * 
+ * Las operaciones que combinan varias llamadas al repositorio (verificar y
+ * luego escribir) corren como una unidad de trabajo si el repositorio la
+ * ofrece: una conexión y una transacción para toda la operación
+ * 
  * @author Roberto Rivas Lopez
  */
 public class EstudianteServicioImpl implements IEstudianteServicio {
@@ -33,26 +43,68 @@ public class EstudianteServicioImpl implements IEstudianteServicio {
         validarDTONoNulo(estudianteDTO, "Los datos del estudiante son requeridos");
         validarDatosCompletos(estudianteDTO);
         
-        try {
-            // Validar email único (Regla de negocio)
-            if (repositorio.existePorEmail(estudianteDTO.getEmail())) {
-                throw new ServicioException("Ya existe un estudiante con este email", 
-                                          "EMAIL_DUPLICADO", ServicioException.TipoError.NEGOCIO);
-            }
+        return enUnidadDeTrabajo(() -> {
+            try {
+                // Validar email único (Regla de negocio)
+                if (repositorio.existePorEmail(estudianteDTO.getEmail())) {
+                    throw new ServicioException("Ya existe un estudiante con este email", 
+                                              "EMAIL_DUPLICADO", ServicioException.TipoError.NEGOCIO);
+                }
 
-            // Convertir DTO a entidad
-            Estudiante estudiante = convertirDTOAEntidad(estudianteDTO);
+                // Convertir DTO a entidad
+                Estudiante estudiante = convertirDTOAEntidad(estudianteDTO);
             
-            // Crear en repositorio
-            Estudiante estudianteCreado = repositorio.crear(estudiante);
+                // Crear en repositorio
+                Estudiante estudianteCreado = repositorio.crear(estudiante);
             
-            // Convertir entidad a DTO y retornar
-            return convertirEntidadADTO(estudianteCreado);
+                // Convertir entidad a DTO y retornar
+                return convertirEntidadADTO(estudianteCreado);
             
-        } catch (RepositorioException e) {
-            throw new ServicioException("Error al registrar el estudiante: " + e.getMessage(), 
-                                      "REGISTRO_ERROR", ServicioException.TipoError.DATOS, e);
+            } catch (RepositorioException e) {
+                throw new ServicioException("Error al registrar el estudiante: " + e.getMessage(), 
+                                          "REGISTRO_ERROR", ServicioException.TipoError.DATOS, e);
+            }
+        }, "Error al registrar el estudiante: ", "REGISTRO_ERROR");
+    }
+
+    @Override
+    public ResultadoLote<EstudianteDTO> registrarEstudiantes(List<EstudianteDTO> estudiantesDTO) 
+            throws ServicioException {
+        if (estudiantesDTO == null) {
+            throw new ServicioException("La lista de estudiantes es requerida", 
+                                      "DTO_NULO", ServicioException.TipoError.VALIDACION);
         }
+        
+        // Las filas inválidas se resuelven aquí; el resto va al repositorio en un solo lote
+        List<ResultadoLote.Fila<EstudianteDTO>> filas = new ArrayList<>(estudiantesDTO.size());
+        List<Estudiante> validos = new ArrayList<>();
+        List<Integer> indicesValidos = new ArrayList<>();
+        for (int i = 0; i < estudiantesDTO.size(); i++) {
+            EstudianteDTO dto = estudiantesDTO.get(i);
+            if (dto == null || !dto.esValido()) {
+                filas.add(ResultadoLote.fallo(i, "DATOS_INVALIDOS", "Los datos del estudiante no son válidos"));
+                continue;
+            }
+            filas.add(null);
+            validos.add(convertirDTOAEntidad(dto));
+            indicesValidos.add(i);
+        }
+        
+        if (!validos.isEmpty()) {
+            try {
+                ResultadoLote<Estudiante> creados = repositorio.crearLote(validos);
+                for (ResultadoLote.Fila<Estudiante> fila : creados.getFilas()) {
+                    int indice = indicesValidos.get(fila.getIndice());
+                    filas.set(indice, fila.isExitosa()
+                        ? ResultadoLote.exito(indice, convertirEntidadADTO(fila.getValor()))
+                        : ResultadoLote.fallo(indice, fila.getCodigoError(), fila.getMensaje()));
+                }
+            } catch (RepositorioException e) {
+                throw new ServicioException("Error al registrar el lote de estudiantes: " + e.getMessage(), 
+                                          "REGISTRO_LOTE_ERROR", ServicioException.TipoError.DATOS, e);
+            }
+        }
+        return new ResultadoLote<>(filas);
     }
 
     @Override
@@ -94,6 +146,26 @@ public class EstudianteServicioImpl implements IEstudianteServicio {
         }
     }
 
+    @Override
+    public Stream<EstudianteDTO> listarEstudiantesActivosEnFlujo() throws ServicioException {
+        try {
+            // map conserva el cierre del flujo del repositorio
+            return repositorio.obtenerTodosEnFlujo().map(this::convertirEntidadADTO);
+        } catch (RepositorioException e) {
+            throw new ServicioException("Error al listar estudiantes: " + e.getMessage(), 
+                                      "LISTADO_ERROR", ServicioException.TipoError.DATOS, e);
+        }
+    }
+
+    @Override
+    public Pagina<EstudianteDTO> paginarEstudiantesActivos(String token, int tamano) throws ServicioException {
+        try {
+            return repositorio.obtenerPagina(token, tamano).mapear(this::convertirEntidadADTO);
+        } catch (RepositorioException e) {
+            throw errorDePaginacion(e, "Error al listar estudiantes: ", "LISTADO_ERROR");
+        }
+    }
+
     @Override
     public List<EstudianteDTO> listarEstudiantesPorCarrera(String carrera) throws ServicioException {
         validarCarreraNoVacia(carrera);
@@ -109,77 +181,108 @@ public class EstudianteServicioImpl implements IEstudianteServicio {
         }
     }
 
+    @Override
+    public Stream<EstudianteDTO> listarEstudiantesPorCarreraEnFlujo(String carrera) throws ServicioException {
+        validarCarreraNoVacia(carrera);
+        
+        try {
+            return repositorio.obtenerPorCarreraEnFlujo(carrera).map(this::convertirEntidadADTO);
+        } catch (RepositorioException e) {
+            throw new ServicioException("Error al listar estudiantes por carrera: " + e.getMessage(), 
+                                      "LISTADO_CARRERA_ERROR", ServicioException.TipoError.DATOS, e);
+        }
+    }
+
+    @Override
+    public Pagina<EstudianteDTO> paginarEstudiantesPorCarrera(String carrera, String token, int tamano) 
+            throws ServicioException {
+        validarCarreraNoVacia(carrera);
+        
+        try {
+            return repositorio.obtenerPaginaPorCarrera(carrera, token, tamano).mapear(this::convertirEntidadADTO);
+        } catch (RepositorioException e) {
+            throw errorDePaginacion(e, "Error al listar estudiantes por carrera: ", "LISTADO_CARRERA_ERROR");
+        }
+    }
+
     @Override
     public EstudianteDTO actualizarEstudiante(EstudianteDTO estudianteDTO) throws ServicioException {
         validarDTONoNulo(estudianteDTO, "Los datos del estudiante son requeridos");
         validarIdNoNulo(estudianteDTO.getId());
         validarDatosCompletos(estudianteDTO);
         
-        try {
-            // Verificar que el estudiante existe
-            if (!repositorio.existe(estudianteDTO.getId())) {
-                throw new ServicioException("El estudiante no existe", 
-                                          "ESTUDIANTE_NO_ENCONTRADO", ServicioException.TipoError.NEGOCIO);
-            }
+        return enUnidadDeTrabajo(() -> {
+            try {
+                // Verificar que el estudiante existe
+                if (!repositorio.existe(estudianteDTO.getId())) {
+                    throw new ServicioException("El estudiante no existe", 
+                                              "ESTUDIANTE_NO_ENCONTRADO", ServicioException.TipoError.NEGOCIO);
+                }
 
-            // Validar email único (excluyendo el propio estudiante)
-            if (!validarEmailUnico(estudianteDTO.getEmail(), estudianteDTO.getId())) {
-                throw new ServicioException("Ya existe otro estudiante con este email", 
-                                          "EMAIL_DUPLICADO", ServicioException.TipoError.NEGOCIO);
-            }
+                // Validar email único (excluyendo el propio estudiante)
+                if (!validarEmailUnico(estudianteDTO.getEmail(), estudianteDTO.getId())) {
+                    throw new ServicioException("Ya existe otro estudiante con este email", 
+                                              "EMAIL_DUPLICADO", ServicioException.TipoError.NEGOCIO);
+                }
 
-            // Convertir y actualizar
-            Estudiante estudiante = convertirDTOAEntidad(estudianteDTO);
-            Estudiante estudianteActualizado = repositorio.actualizar(estudiante);
+                // Convertir y actualizar
+                Estudiante estudiante = convertirDTOAEntidad(estudianteDTO);
+                Estudiante estudianteActualizado = repositorio.actualizar(estudiante);
             
-            return convertirEntidadADTO(estudianteActualizado);
+                return convertirEntidadADTO(estudianteActualizado);
             
-        } catch (RepositorioException e) {
-            throw new ServicioException("Error al actualizar el estudiante: " + e.getMessage(), 
-                                      "ACTUALIZACION_ERROR", ServicioException.TipoError.DATOS, e);
-        }
+            } catch (RepositorioException e) {
+                throw new ServicioException("Error al actualizar el estudiante: " + e.getMessage(), 
+                                          "ACTUALIZACION_ERROR", ServicioException.TipoError.DATOS, e);
+            }
+        }, "Error al actualizar el estudiante: ", "ACTUALIZACION_ERROR");
     }
 
     @Override
     public boolean eliminarEstudiante(Long id) throws ServicioException {
         validarIdNoNulo(id);
         
-        try {
-            if (!repositorio.existe(id)) {
-                throw new ServicioException("El estudiante no existe", 
-                                          "ESTUDIANTE_NO_ENCONTRADO", ServicioException.TipoError.NEGOCIO);
-            }
+        return enUnidadDeTrabajo(() -> {
+            try {
+                if (!repositorio.existe(id)) {
+                    throw new ServicioException("El estudiante no existe", 
+                                              "ESTUDIANTE_NO_ENCONTRADO", ServicioException.TipoError.NEGOCIO);
+                }
 
-            return repositorio.eliminar(id);
+                return repositorio.eliminar(id);
             
-        } catch (RepositorioException e) {
-            throw new ServicioException("Error al eliminar el estudiante: " + e.getMessage(), 
-                                      "ELIMINACION_ERROR", ServicioException.TipoError.DATOS, e);
-        }
+            } catch (RepositorioException e) {
+                throw new ServicioException("Error al eliminar el estudiante: " + e.getMessage(), 
+                                          "ELIMINACION_ERROR", ServicioException.TipoError.DATOS, e);
+            }
+        }, "Error al eliminar el estudiante: ", "ELIMINACION_ERROR");
     }
 
     @Override
     public EstudianteDTO reactivarEstudiante(Long id) throws ServicioException {
         validarIdNoNulo(id);
         
-        try {
-            Optional<Estudiante> estudianteOpt = repositorio.buscarPorId(id);
+        return enUnidadDeTrabajo(() -> {
+            try {
+                Optional<Estudiante> estudianteOpt = repositorio.buscarPorId(id);
             
-            if (!estudianteOpt.isPresent()) {
-                throw new ServicioException("El estudiante no existe", 
-                                          "ESTUDIANTE_NO_ENCONTRADO", ServicioException.TipoError.NEGOCIO);
-            }
+                if (!estudianteOpt.isPresent()) {
+                    throw new ServicioException("El estudiante no existe", 
+                                              "ESTUDIANTE_NO_ENCONTRADO", ServicioException.TipoError.NEGOCIO);
+                }
 
-            Estudiante estudiante = estudianteOpt.get();
-            estudiante.activar();
+                // Copia modificable: el repositorio puede devolver instantáneas inmutables
+                Estudiante estudiante = estudianteOpt.get().copiar();
+                estudiante.activar();
             
-            Estudiante estudianteReactivado = repositorio.actualizar(estudiante);
-            return convertirEntidadADTO(estudianteReactivado);
+                Estudiante estudianteReactivado = repositorio.actualizar(estudiante);
+                return convertirEntidadADTO(estudianteReactivado);
             
-        } catch (RepositorioException e) {
-            throw new ServicioException("Error al reactivar el estudiante: " + e.getMessage(), 
-                                      "REACTIVACION_ERROR", ServicioException.TipoError.DATOS, e);
-        }
+            } catch (RepositorioException e) {
+                throw new ServicioException("Error al reactivar el estudiante: " + e.getMessage(), 
+                                          "REACTIVACION_ERROR", ServicioException.TipoError.DATOS, e);
+            }
+        }, "Error al reactivar el estudiante: ", "REACTIVACION_ERROR");
     }
 
     @Override
@@ -187,6 +290,15 @@ public class EstudianteServicioImpl implements IEstudianteServicio {
         try {
             Map<String, Object> estadisticas = new HashMap<>();
             
+            // Si el repositorio mantiene contadores, evitar materializar estudiantes
+            if (repositorio instanceof IEstadisticasRepositorio fuente) {
+                EstadisticasEstudiantes vista = fuente.obtenerEstadisticasEstudiantes();
+                estadisticas.put("totalEstudiantesActivos", vista.getEstudiantesActivos());
+                estadisticas.put("estudiantesPorCarrera", new HashMap<>(vista.getActivosPorCarrera()));
+                estadisticas.put("fechaGeneracion", new Date());
+                return estadisticas;
+            }
+            
             long totalActivos = repositorio.contarEstudiantes();
             estadisticas.put("totalEstudiantesActivos", totalActivos);
             
@@ -239,6 +351,31 @@ public class EstudianteServicioImpl implements IEstudianteServicio {
         }
     }
 
+    /**
+     * Ejecuta la operación como unidad de trabajo si el repositorio la ofrece;
+     * si no, la ejecuta tal cual (cada llamada al repositorio es independiente)
+     */
+    private <T> T enUnidadDeTrabajo(IUnidadDeTrabajo.Trabajo<T, ServicioException> operacion,
+                                    String mensajeError, String codigoError) throws ServicioException {
+        if (!(repositorio instanceof IUnidadDeTrabajo unidad)) {
+            return operacion.ejecutar();
+        }
+        try {
+            return unidad.enUnidadDeTrabajo(operacion);
+        } catch (RepositorioException e) {
+            throw new ServicioException(mensajeError + e.getMessage(), codigoError,
+                                      ServicioException.TipoError.DATOS, e);
+        }
+    }
+
+    // Un token o tamaño inválidos son errores del llamador, no de acceso a datos
+    private ServicioException errorDePaginacion(RepositorioException e, String mensajeError, String codigoError) {
+        if ("TOKEN_INVALIDO".equals(e.getCodigoError()) || "TAMANO_PAGINA_INVALIDO".equals(e.getCodigoError())) {
+            return new ServicioException(e.getMessage(), e.getCodigoError(), ServicioException.TipoError.VALIDACION, e);
+        }
+        return new ServicioException(mensajeError + e.getMessage(), codigoError, ServicioException.TipoError.DATOS, e);
+    }
+
     // Métodos privados de validación (Principio de Separación de Intereses)
     private void validarDTONoNulo(EstudianteDTO dto, String mensaje) throws ServicioException {
         if (dto == null) {
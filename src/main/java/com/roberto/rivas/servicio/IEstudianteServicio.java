@@ -1,12 +1,15 @@
 package com.roberto.rivas.servicio;
 
 import com.roberto.rivas.modelo.Estudiante;
+import com.roberto.rivas.repositorio.Pagina;
+import com.roberto.rivas.repositorio.ResultadoLote;
 import com.roberto.rivas.servicio.dto.EstudianteDTO;
 import com.roberto.rivas.servicio.excepcion.ServicioException;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Interfaz del servicio de Estudiantes
@@ -25,6 +28,16 @@ public interface IEstudianteServicio {
      */
     EstudianteDTO registrarEstudiante(EstudianteDTO estudianteDTO) throws ServicioException;
     
+    /**
+     * Registrar varios estudiantes de una vez (importaciones)
+     * Cada fila inválida o con email duplicado se informa en su resultado sin
+     * impedir el registro de las demás
+     * @param estudiantesDTO Datos de los estudiantes a registrar
+     * @return Resultado por fila, en el orden recibido, con el DTO registrado o el error
+     * @throws ServicioException Si la lista es nula o falla el acceso a datos
+     */
+    ResultadoLote<EstudianteDTO> registrarEstudiantes(List<EstudianteDTO> estudiantesDTO) throws ServicioException;
+    
     /**
      * Buscar estudiante por ID
      * @param id ID del estudiante
@@ -48,6 +61,23 @@ public interface IEstudianteServicio {
      */
     List<EstudianteDTO> listarEstudiantesActivos() throws ServicioException;
     
+    /**
+     * Recorrer los estudiantes activos a medida que se leen, sin armar la lista
+     * Debe cerrarse (try-with-resources) para liberar la conexión o versión que retiene
+     * @return Flujo ordenado de DTOs de estudiantes activos
+     * @throws ServicioException Si no se puede iniciar la consulta
+     */
+    Stream<EstudianteDTO> listarEstudiantesActivosEnFlujo() throws ServicioException;
+    
+    /**
+     * Obtener una página de estudiantes activos ordenados por apellido, nombre e ID
+     * @param token Token de la página anterior (Pagina.getSiguienteToken), o null para la primera
+     * @param tamano Cantidad máxima de estudiantes de la página (1 a 1000)
+     * @return Página de DTOs y token de la siguiente, si hay más
+     * @throws ServicioException Si el token o el tamaño son inválidos, o error en la consulta
+     */
+    Pagina<EstudianteDTO> paginarEstudiantesActivos(String token, int tamano) throws ServicioException;
+    
     /**
      * Obtener estudiantes por carrera
      * @param carrera Nombre de la carrera
@@ -56,6 +86,26 @@ public interface IEstudianteServicio {
      */
     List<EstudianteDTO> listarEstudiantesPorCarrera(String carrera) throws ServicioException;
     
+    /**
+     * Recorrer los estudiantes activos de una carrera a medida que se leen
+     * Debe cerrarse (try-with-resources) igual que listarEstudiantesActivosEnFlujo
+     * @param carrera Nombre de la carrera
+     * @return Flujo ordenado de DTOs de estudiantes de la carrera
+     * @throws ServicioException Si la carrera es inválida o no se puede iniciar la consulta
+     */
+    Stream<EstudianteDTO> listarEstudiantesPorCarreraEnFlujo(String carrera) throws ServicioException;
+    
+    /**
+     * Obtener una página de estudiantes activos de una carrera
+     * @param carrera Nombre de la carrera
+     * @param token Token de la página anterior, o null para la primera
+     * @param tamano Cantidad máxima de estudiantes de la página (1 a 1000)
+     * @return Página de DTOs y token de la siguiente, si hay más
+     * @throws ServicioException Si la carrera, el token o el tamaño son inválidos, o error en la consulta
+     */
+    Pagina<EstudianteDTO> paginarEstudiantesPorCarrera(String carrera, String token, int tamano) 
+            throws ServicioException;
+    
     /**
      * Actualizar información de un estudiante
      * @param estudianteDTO Datos actualizados del estudiante
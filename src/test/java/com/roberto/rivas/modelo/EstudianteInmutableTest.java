@@ -0,0 +1,90 @@
+package com.roberto.rivas.modelo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la instantánea inmutable de Estudiante
+ * 
+ * @author Roberto Rivas Lopez
+ */
+@DisplayName("Pruebas del Modelo EstudianteInmutable")
+class EstudianteInmutableTest {
+
+    private EstudianteInmutable crearInstantanea() {
+        return new EstudianteInmutable(1L, "Roberto", "Rivas", "roberto@test.com",
+                                       "Ingeniería", LocalDate.of(2024, 1, 15), true);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar cualquier modificación")
+    void debeRechazarCualquierModificacion() {
+        // Arrange
+        EstudianteInmutable instantanea = crearInstantanea();
+        
+        // Act & Assert
+        assertThrows(UnsupportedOperationException.class, () -> instantanea.setId(2L));
+        assertThrows(UnsupportedOperationException.class, () -> instantanea.setEmail("otro@test.com"));
+        assertThrows(UnsupportedOperationException.class, () -> instantanea.setFechaIngreso(LocalDate.now()));
+        assertThrows(UnsupportedOperationException.class, () -> instantanea.setActivo(false));
+        assertThrows(UnsupportedOperationException.class, instantanea::activar);
+        assertEquals("Roberto", instantanea.getNombre());
+    }
+
+    @Test
+    @DisplayName("Debe conservar todos los campos al crear desde un estudiante")
+    void debeConservarCamposAlCrearDesdeEstudiante() {
+        // Arrange
+        Estudiante original = new Estudiante(5L, "Ana", "García", "ana@test.com", "Medicina");
+        original.setFechaIngreso(LocalDate.of(2023, 3, 1));
+        original.desactivar();
+        
+        // Act
+        EstudianteInmutable instantanea = EstudianteInmutable.de(original);
+        
+        // Assert
+        assertEquals(5L, instantanea.getId());
+        assertEquals("Ana García", instantanea.getNombreCompleto());
+        assertEquals(LocalDate.of(2023, 3, 1), instantanea.getFechaIngreso());
+        assertFalse(instantanea.isActivo());
+        assertEquals(original, instantanea);
+        assertEquals(original.hashCode(), instantanea.hashCode());
+        assertSame(instantanea, EstudianteInmutable.de(instantanea));
+    }
+
+    @Test
+    @DisplayName("Debe crear una nueva instantánea al cambiar el estado")
+    void debeCrearNuevaInstantaneaAlCambiarEstado() {
+        // Arrange
+        EstudianteInmutable activa = crearInstantanea();
+        
+        // Act
+        EstudianteInmutable inactiva = activa.conActivo(false);
+        
+        // Assert
+        assertTrue(activa.isActivo());
+        assertFalse(inactiva.isActivo());
+        assertSame(activa, activa.conActivo(true));
+    }
+
+    @Test
+    @DisplayName("Debe entregar una copia modificable independiente")
+    void debeEntregarCopiaModificable() {
+        // Arrange
+        EstudianteInmutable instantanea = crearInstantanea();
+        
+        // Act
+        Estudiante copia = instantanea.copiar();
+        copia.setNombre("Carlos");
+        copia.desactivar();
+        
+        // Assert
+        assertFalse(copia instanceof EstudianteInmutable);
+        assertEquals("Roberto", instantanea.getNombre());
+        assertTrue(instantanea.isActivo());
+        assertEquals(LocalDate.of(2024, 1, 15), copia.getFechaIngreso());
+    }
+}
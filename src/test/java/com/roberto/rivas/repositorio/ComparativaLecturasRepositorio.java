@@ -0,0 +1,121 @@
+package com.roberto.rivas.repositorio;
+
+import com.roberto.rivas.modelo.Estudiante;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Comparativa de rendimiento con carga de lectura intensiva entre el
+ * repositorio en memoria (mapas concurrentes con cerrojo por fila y MVCC)
+ * y el repositorio copy-on-write sobre mapas persistentes (HAMT)
+ *
+ * No es una prueba automática: se ejecuta a mano desde las clases de prueba
+ *   java -cp target/classes:target/test-classes \
+ *        com.roberto.rivas.repositorio.ComparativaLecturasRepositorio [estudiantes] [segundos] [% escrituras]
+ *
+ * Mezcla por operación: escrituras (actualizar) según el porcentaje indicado;
+ * del resto, 1 de cada 1000 lecturas es un listado completo, 1 de cada 100
+ * unas estadísticas y las demás búsquedas por ID. Los resultados son
+ * orientativos (sin JMH): se descarta una ronda de calentamiento por caso
+ *
+ * @author Roberto Rivas Lopez
+ */
+public class ComparativaLecturasRepositorio {
+
+    private static final int[] HILOS = {1, 2, 4, 8};
+
+    public static void main(String[] args) throws Exception {
+        int estudiantes = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int segundos = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int porcentajeEscrituras = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        System.out.printf("Estudiantes: %d, %d s por caso, %d%% escrituras%n%n",
+                          estudiantes, segundos, porcentajeEscrituras);
+        System.out.printf("%-12s %6s %18s%n", "Repositorio", "Hilos", "Operaciones/s");
+        comparar("Memoria", EstudianteRepositorioMemoria::new, estudiantes, segundos, porcentajeEscrituras);
+        comparar("Persistente", EstudianteRepositorioPersistente::new, estudiantes, segundos, porcentajeEscrituras);
+    }
+
+    private static void comparar(String nombre, Supplier<IEstudianteRepositorio> fabrica, int estudiantes,
+                                 int segundos, int porcentajeEscrituras) throws Exception {
+        for (int hilos : HILOS) {
+            IEstudianteRepositorio repositorio = fabrica.get();
+            List<Estudiante> creados = poblar(repositorio, estudiantes);
+            medir(repositorio, creados, hilos, 1, porcentajeEscrituras);
+            double porSegundo = medir(repositorio, creados, hilos, segundos, porcentajeEscrituras) / (double) segundos;
+            System.out.printf(Locale.ROOT, "%-12s %6d %,18.0f%n", nombre, hilos, porSegundo);
+        }
+    }
+
+    private static List<Estudiante> poblar(IEstudianteRepositorio repositorio, int cantidad) throws RepositorioException {
+        List<Estudiante> creados = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            creados.add(repositorio.crear(new Estudiante("Nombre" + i, "Apellido" + (i % 997),
+                                                         "estudiante" + i + "@test.com", "Carrera" + (i % 8))));
+        }
+        return creados;
+    }
+
+    // Ejecuta la mezcla durante el tiempo indicado y devuelve las operaciones completadas
+    private static long medir(IEstudianteRepositorio repositorio, List<Estudiante> creados, int hilos,
+                              int segundos, int porcentajeEscrituras) throws InterruptedException {
+        LongAdder operaciones = new LongAdder();
+        AtomicBoolean enMarcha = new AtomicBoolean(true);
+        CountDownLatch inicio = new CountDownLatch(1);
+        CountDownLatch fin = new CountDownLatch(hilos);
+        for (int h = 0; h < hilos; h++) {
+            Thread hilo = new Thread(() -> {
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                long completadas = 0;
+                try {
+                    inicio.await();
+                    while (enMarcha.get()) {
+                        operar(repositorio, creados, aleatorio, porcentajeEscrituras);
+                        completadas++;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RepositorioException e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                } finally {
+                    operaciones.add(completadas);
+                    fin.countDown();
+                }
+            });
+            hilo.setDaemon(true);
+            hilo.start();
+        }
+        inicio.countDown();
+        Thread.sleep(segundos * 1000L);
+        enMarcha.set(false);
+        fin.await();
+        return operaciones.sum();
+    }
+
+    private static void operar(IEstudianteRepositorio repositorio, List<Estudiante> creados,
+                               ThreadLocalRandom aleatorio, int porcentajeEscrituras) throws RepositorioException {
+        Estudiante elegido = creados.get(aleatorio.nextInt(creados.size()));
+        if (aleatorio.nextInt(100) < porcentajeEscrituras) {
+            // Cada hilo escribe su propia copia: solo cambia la carrera
+            Estudiante cambio = elegido.copiar();
+            cambio.setCarrera("Carrera" + aleatorio.nextInt(8));
+            repositorio.actualizar(cambio);
+            return;
+        }
+        int tipo = aleatorio.nextInt(1000);
+        if (tipo == 0) {
+            repositorio.obtenerTodos();
+        } else if (tipo < 10 && repositorio instanceof IEstadisticasRepositorio estadisticas) {
+            estadisticas.obtenerEstadisticasEstudiantes();
+        } else {
+            repositorio.buscarPorId(elegido.getId());
+        }
+    }
+}
@@ -1,16 +1,34 @@
 package com.roberto.rivas.repositorio;
 
 import com.roberto.rivas.modelo.Estudiante;
+import com.roberto.rivas.repositorio.persistencia.ConfiguracionPoolConexiones;
+import com.roberto.rivas.repositorio.persistencia.EstadisticasPoolConexiones;
+import com.roberto.rivas.repositorio.persistencia.PoolConexiones;
+import com.roberto.rivas.servicio.EstudianteServicioImpl;
+import com.roberto.rivas.servicio.IEstudianteServicio;
+import com.roberto.rivas.servicio.dto.EstudianteDTO;
+import com.roberto.rivas.servicio.excepcion.ServicioException;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.sql.*;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 /**
  * Pruebas para EstudianteRepositorioBD
@@ -36,6 +54,7 @@ class EstudianteRepositorioBDTest {
 
     @AfterEach
     void tearDown() throws SQLException {
+        repositorio.cerrar();
         limpiarBaseDatos();
     }
 
@@ -57,6 +76,8 @@ class EstudianteRepositorioBDTest {
             
             try (Statement stmt = conn.createStatement()) {
                 stmt.execute(createTable);
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_fecha_ingreso ON estudiantes (fecha_ingreso)");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_nombre_apellido ON estudiantes (apellido, nombre)");
             }
         }
     }
@@ -446,8 +467,572 @@ class EstudianteRepositorioBDTest {
         assertDoesNotThrow(() -> repositorio.inicializarBaseDatos());
     }
 
+    // =================== PRUEBAS DE RANGO DE FECHAS ===================
+
+    @Test
+    @Order(25)
+    @DisplayName("Rango de fecha de ingreso debe filtrar y ordenar por fecha")
+    void testObtenerPorFechaIngresoFiltraYOrdena() throws RepositorioException {
+        // Arrange
+        Estudiante julio = crearEstudiantePrueba("Julio", "Test", "julio@test.com", "Medicina");
+        julio.setFechaIngreso(LocalDate.of(2024, 7, 1));
+        Estudiante marzo = crearEstudiantePrueba("Marzo", "Test", "marzo@test.com");
+        marzo.setFechaIngreso(LocalDate.of(2024, 3, 4));
+        Estudiante previo = crearEstudiantePrueba("Previo", "Test", "previo@test.com");
+        previo.setFechaIngreso(LocalDate.of(2023, 12, 31));
+        repositorio.crear(julio);
+        repositorio.crear(marzo);
+        repositorio.crear(previo);
+        LocalDate desde = LocalDate.of(2024, 1, 1);
+        LocalDate hasta = LocalDate.of(2024, 7, 1);
+
+        // Act
+        List<Estudiante> semestre = repositorio.obtenerPorFechaIngreso(desde, hasta, null, null);
+        List<Estudiante> medicina = repositorio.obtenerPorFechaIngreso(desde, hasta, "medicina", true);
+        List<Estudiante> inactivos = repositorio.obtenerPorFechaIngreso(desde, hasta, null, false);
+
+        // Assert
+        assertEquals(List.of("Marzo", "Julio"), semestre.stream().map(Estudiante::getNombre).toList());
+        assertEquals(List.of("Julio"), medicina.stream().map(Estudiante::getNombre).toList());
+        assertTrue(inactivos.isEmpty());
+    }
+
+    @Test
+    @Order(26)
+    @DisplayName("Consulta por rango de fechas debe usar idx_fecha_ingreso")
+    void testConsultaPorRangoUsaIndiceFechaIngreso() throws SQLException {
+        // Arrange
+        String sql = "EXPLAIN SELECT * FROM estudiantes WHERE fecha_ingreso BETWEEN DATE '2024-01-01' "
+                   + "AND DATE '2024-06-30' AND activo = TRUE ORDER BY fecha_ingreso, id";
+
+        // Act
+        String plan;
+        try (Connection conn = DriverManager.getConnection(H2_URL, H2_USER, H2_PASSWORD);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            assertTrue(rs.next());
+            plan = rs.getString(1).toUpperCase();
+        }
+
+        // Assert
+        assertTrue(plan.contains("IDX_FECHA_INGRESO"), plan);
+    }
+
+    @Test
+    @Order(27)
+    @DisplayName("Rango de fechas invertido debe lanzar excepción")
+    void testObtenerPorFechaIngresoRangoInvertido() {
+        RepositorioException excepcion = assertThrows(RepositorioException.class,
+            () -> repositorio.obtenerPorFechaIngreso(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), null, null));
+        assertEquals("RANGO_FECHAS_INVALIDO", excepcion.getCodigoError());
+    }
+
+    @Test
+    @Order(28)
+    @DisplayName("Operaciones repetidas deben reutilizar las conexiones del pool")
+    void testOperacionesReutilizanConexionesDelPool() throws RepositorioException {
+        // Arrange
+        Estudiante creado = repositorio.crear(crearEstudiantePrueba("Ana", "García", "ana@test.com"));
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            repositorio.buscarPorId(creado.getId());
+            repositorio.existePorEmail("ana@test.com");
+        }
+
+        // Assert: crear consulta el email con una segunda conexión; nada más se abre
+        EstadisticasPoolConexiones estadisticas = repositorio.obtenerEstadisticasPool();
+        assertTrue(estadisticas.getConexionesCreadas() <= 2, estadisticas.toString());
+        assertTrue(estadisticas.getAdquisiciones() >= 101, estadisticas.toString());
+        assertEquals(0, estadisticas.getConexionesPrestadas());
+    }
+
+    @Test
+    @Order(29)
+    @DisplayName("Crear y actualizar deben usar una sola conexión cada uno")
+    void testCrearYActualizarUsanUnaConexion() throws RepositorioException {
+        // Arrange
+        long antes = repositorio.obtenerEstadisticasPool().getAdquisiciones();
+
+        // Act
+        Estudiante creado = repositorio.crear(crearEstudiantePrueba("Ana", "García", "ana@test.com"));
+        long trasCrear = repositorio.obtenerEstadisticasPool().getAdquisiciones();
+        creado.setCarrera("Ciberseguridad");
+        repositorio.actualizar(creado);
+        long trasActualizar = repositorio.obtenerEstadisticasPool().getAdquisiciones();
+
+        // Assert
+        assertEquals(1, trasCrear - antes);
+        assertEquals(1, trasActualizar - trasCrear);
+        assertEquals("Ciberseguridad", repositorio.buscarPorId(creado.getId()).orElseThrow().getCarrera());
+    }
+
+    @Test
+    @Order(30)
+    @DisplayName("Unidad de trabajo fallida debe deshacer todas sus escrituras")
+    void testUnidadDeTrabajoFallidaDeshaceTodo() throws RepositorioException {
+        // Act
+        RepositorioException excepcion = assertThrows(RepositorioException.class, () ->
+            repositorio.enUnidadDeTrabajo(() -> {
+                repositorio.crear(crearEstudiantePrueba("Ana", "García", "ana@test.com"));
+                repositorio.crear(crearEstudiantePrueba("Luis", "Soto", "luis@test.com"));
+                return repositorio.crear(crearEstudiantePrueba("Otra", "Ana", "ana@test.com"));
+            }));
+
+        // Assert
+        assertEquals("EMAIL_DUPLICADO", excepcion.getCodigoError());
+        assertEquals(0, repositorio.contarEstudiantes());
+        assertEquals(0, repositorio.obtenerEstadisticasPool().getConexionesPrestadas());
+    }
+
+    @Test
+    @Order(31)
+    @DisplayName("Creación concurrente con el mismo email debe admitir un solo ganador")
+    void testCreacionConcurrenteMismoEmail() throws Exception {
+        // Arrange
+        int hilos = 6;
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<String>> resultados = new ArrayList<>();
+
+        // Act
+        for (int h = 0; h < hilos; h++) {
+            int hilo = h;
+            resultados.add(ejecutor.submit(() -> {
+                inicio.await();
+                try {
+                    repositorio.crear(crearEstudiantePrueba("E" + hilo, "Rivas", "mismo@test.com"));
+                    return "CREADO";
+                } catch (RepositorioException e) {
+                    return e.getCodigoError();
+                }
+            }));
+        }
+        inicio.countDown();
+        List<String> codigos = new ArrayList<>();
+        for (Future<String> resultado : resultados) {
+            codigos.add(resultado.get(30, TimeUnit.SECONDS));
+        }
+        ejecutor.shutdown();
+
+        // Assert: la restricción UNIQUE resuelve la carrera entre verificación e INSERT
+        assertEquals(1, codigos.stream().filter("CREADO"::equals).count(), codigos.toString());
+        assertEquals(hilos - 1, codigos.stream().filter("EMAIL_DUPLICADO"::equals).count(), codigos.toString());
+        assertEquals(1, repositorio.contarEstudiantes());
+    }
+
+    @Test
+    @Order(32)
+    @DisplayName("Operación del servicio con varias llamadas debe usar una sola conexión")
+    void testServicioCompuestoUsaUnaConexion() throws Exception {
+        // Arrange
+        IEstudianteServicio servicio =
+            new EstudianteServicioImpl(repositorio);
+        Estudiante creado = repositorio.crear(crearEstudiantePrueba("Ana", "García", "ana@test.com"));
+        repositorio.eliminar(creado.getId());
+        long antes = repositorio.obtenerEstadisticasPool().getAdquisiciones();
+
+        // Act: buscar, actualizar (existe + email único + UPDATE) en una unidad de trabajo
+        servicio.reactivarEstudiante(creado.getId());
+
+        // Assert
+        assertEquals(1, repositorio.obtenerEstadisticasPool().getAdquisiciones() - antes);
+        assertTrue(repositorio.buscarPorId(creado.getId()).orElseThrow().isActivo());
+    }
+
+    @Test
+    @Order(33)
+    @DisplayName("Consultas repetidas deben reutilizar las sentencias preparadas")
+    void testConsultasRepetidasReutilizanSentencias() throws RepositorioException {
+        // Arrange
+        Estudiante creado = repositorio.crear(crearEstudiantePrueba("Ana", "García", "ana@test.com"));
+        long aciertosAntes = repositorio.obtenerEstadisticasPool().getAciertosCacheSentencias();
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            assertTrue(repositorio.buscarPorId(creado.getId()).isPresent());
+        }
+
+        // Assert
+        assertTrue(repositorio.obtenerEstadisticasPool().getAciertosCacheSentencias() - aciertosAntes >= 19);
+    }
+
+    @Test
+    @Order(34)
+    @DisplayName("Crear lote debe informar por fila y usar una sola conexión")
+    void testCrearLoteConResultadoPorFila() throws RepositorioException {
+        // Arrange
+        repositorio.crear(crearEstudiantePrueba("Ana", "García", "ana@test.com"));
+        List<Estudiante> lote = new ArrayList<>();
+        lote.add(crearEstudiantePrueba("Luis", "Pérez", "luis@test.com"));
+        lote.add(crearEstudiantePrueba("Otra", "Ana", "ana@test.com"));
+        lote.add(null);
+        lote.add(crearEstudiantePrueba("Luis", "Repetido", "luis@test.com"));
+        lote.add(crearEstudiantePrueba("María", "López", "maria@test.com"));
+        long antes = repositorio.obtenerEstadisticasPool().getAdquisiciones();
+
+        // Act
+        ResultadoLote<Estudiante> resultado = repositorio.crearLote(lote);
+
+        // Assert
+        assertEquals(1, repositorio.obtenerEstadisticasPool().getAdquisiciones() - antes);
+        assertTrue(resultado.getFila(0).isExitosa());
+        assertEquals("EMAIL_DUPLICADO", resultado.getFila(1).getCodigoError());
+        assertEquals("ESTUDIANTE_NULO", resultado.getFila(2).getCodigoError());
+        assertEquals("EMAIL_DUPLICADO", resultado.getFila(3).getCodigoError());
+        assertTrue(resultado.getFila(4).isExitosa());
+        Estudiante maria = resultado.getFila(4).getValor();
+        assertEquals(maria.getEmail(), repositorio.buscarPorId(maria.getId()).orElseThrow().getEmail());
+        assertEquals(3, repositorio.contarEstudiantes());
+        assertNull(lote.get(4).getId());
+    }
+
+    @Test
+    @Order(35)
+    @DisplayName("Crear lote grande debe procesarse por bloques con IDs distintos")
+    void testCrearLoteGrandePorBloques() throws RepositorioException {
+        // Arrange
+        int cantidad = 1_200;
+        List<Estudiante> lote = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            lote.add(crearEstudiantePrueba("Nombre" + i, "Apellido" + i, "lote" + i + "@test.com"));
+        }
+        repositorio.crear(crearEstudiantePrueba("Ya", "Existe", "lote700@test.com"));
+
+        // Act
+        ResultadoLote<Estudiante> resultado = repositorio.crearLote(lote);
+
+        // Assert
+        assertEquals(cantidad - 1, resultado.getCantidadExitosas());
+        assertEquals("EMAIL_DUPLICADO", resultado.getFila(700).getCodigoError());
+        assertEquals(cantidad - 1, resultado.getExitosos().stream().map(Estudiante::getId).distinct().count());
+        assertEquals(cantidad, repositorio.contarEstudiantes());
+        assertEquals("lote1199@test.com", 
+                     repositorio.buscarPorId(resultado.getFila(1199).getValor().getId()).orElseThrow().getEmail());
+    }
+
+    @Test
+    @Order(36)
+    @DisplayName("Registrar lote en el servicio debe rechazar solo las filas inválidas")
+    void testServicioRegistrarLote() throws Exception {
+        // Arrange
+        IEstudianteServicio servicio = new EstudianteServicioImpl(repositorio);
+        List<EstudianteDTO> lote = List.of(
+            new EstudianteDTO("Ana", "García", "ana@test.com", "Medicina"),
+            new EstudianteDTO("", "", "email-invalido", ""),
+            new EstudianteDTO("Luis", "Pérez", "ana@test.com", "Derecho"));
+
+        // Act
+        ResultadoLote<EstudianteDTO> resultado = servicio.registrarEstudiantes(lote);
+
+        // Assert
+        assertNotNull(resultado.getFila(0).getValor().getId());
+        assertEquals("DATOS_INVALIDOS", resultado.getFila(1).getCodigoError());
+        assertEquals("EMAIL_DUPLICADO", resultado.getFila(2).getCodigoError());
+        assertEquals(1, servicio.contarEstudiantesActivos());
+    }
+
+    @Test
+    @Order(37)
+    @DisplayName("Listado en flujo debe coincidir con el listado y devolver la conexión al agotarse")
+    void testListadoEnFlujoDevuelveConexionAlAgotarse() throws RepositorioException {
+        // Arrange
+        repositorio.crear(crearEstudiantePrueba("Luis", "Soto", "luis@test.com", "Medicina"));
+        repositorio.crear(crearEstudiantePrueba("Ana", "Rivas", "ana@test.com", "Derecho"));
+        repositorio.crear(crearEstudiantePrueba("Carla", "Pérez", "carla@test.com", "Medicina"));
+
+        // Act
+        Stream<Estudiante> flujo = repositorio.obtenerTodosEnFlujo();
+        assertEquals(1, repositorio.obtenerEstadisticasPool().getConexionesPrestadas());
+        List<Long> ids = flujo.map(Estudiante::getId).collect(Collectors.toList());
+
+        // Assert: agotado sin cerrar explícitamente
+        assertEquals(0, repositorio.obtenerEstadisticasPool().getConexionesPrestadas());
+        assertEquals(repositorio.obtenerTodos().stream().map(Estudiante::getId).collect(Collectors.toList()), ids);
+        try (Stream<Estudiante> medicina = repositorio.obtenerPorCarreraEnFlujo("medicina")) {
+            assertEquals(List.of("Pérez", "Soto"), medicina.map(Estudiante::getApellido).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    @Order(38)
+    @DisplayName("Cortar un listado en flujo y cerrarlo debe liberar la conexión")
+    void testListadoEnFlujoCortadoLiberaConexion() throws Exception {
+        // Arrange
+        for (int i = 0; i < 50; i++) {
+            repositorio.crear(crearEstudiantePrueba("Nombre" + i, String.format("Apellido%02d", i), "flujo" + i + "@test.com"));
+        }
+        IEstudianteServicio servicio = new EstudianteServicioImpl(repositorio);
+
+        // Act
+        List<String> primeros;
+        try (Stream<EstudianteDTO> flujo = servicio.listarEstudiantesActivosEnFlujo()) {
+            primeros = flujo.limit(2).map(EstudianteDTO::getApellido).collect(Collectors.toList());
+            assertEquals(1, repositorio.obtenerEstadisticasPool().getConexionesPrestadas());
+        }
+
+        // Assert
+        assertEquals(List.of("Apellido00", "Apellido01"), primeros);
+        assertEquals(0, repositorio.obtenerEstadisticasPool().getConexionesPrestadas());
+    }
+
+    @Test
+    @Order(39)
+    @DisplayName("Listado en flujo dentro de una unidad de trabajo debe usar su conexión")
+    void testListadoEnFlujoEnUnidadDeTrabajo() throws RepositorioException {
+        // Arrange
+        repositorio.crear(crearEstudiantePrueba("Ana", "García", "ana@test.com"));
+        long antes = repositorio.obtenerEstadisticasPool().getAdquisiciones();
+
+        // Act
+        long cantidad = repositorio.enUnidadDeTrabajo(() -> {
+            repositorio.crear(crearEstudiantePrueba("Luis", "Pérez", "luis@test.com"));
+            try (Stream<Estudiante> flujo = repositorio.obtenerTodosEnFlujo()) {
+                return flujo.count();
+            }
+        });
+
+        // Assert: ve su propia escritura sin confirmar y no pide otra conexión
+        assertEquals(2, cantidad);
+        assertEquals(1, repositorio.obtenerEstadisticasPool().getAdquisiciones() - antes);
+    }
+
+    @Test
+    @Order(40)
+    @DisplayName("Paginación por clave debe recorrer lo mismo que el listado completo")
+    void testPaginacionRecorreLoMismoQueElListado() throws RepositorioException {
+        // Arrange: apellidos y nombres repetidos para desempatar por ID
+        for (int i = 0; i < 23; i++) {
+            repositorio.crear(crearEstudiantePrueba("Nombre" + (i % 3), "Apellido" + (i % 4), "pagina" + i + "@test.com",
+                                                    i % 2 == 0 ? "Medicina" : "Derecho"));
+        }
+        Estudiante eliminado = repositorio.crear(crearEstudiantePrueba("Zoe", "Apellido0", "zoe@test.com"));
+        repositorio.eliminar(eliminado.getId());
+
+        // Act
+        List<Long> ids = new ArrayList<>();
+        List<Integer> tamanos = new ArrayList<>();
+        String token = null;
+        do {
+            Pagina<Estudiante> pagina = repositorio.obtenerPagina(token, 5);
+            pagina.getElementos().forEach(estudiante -> ids.add(estudiante.getId()));
+            tamanos.add(pagina.tamano());
+            token = pagina.getSiguienteToken();
+        } while (token != null);
+
+        // Assert
+        assertEquals(repositorio.obtenerTodos().stream().map(Estudiante::getId).collect(Collectors.toList()), ids);
+        assertEquals(List.of(5, 5, 5, 5, 3), tamanos);
+        Pagina<Estudiante> medicina = repositorio.obtenerPaginaPorCarrera("medicina", null, 20);
+        assertEquals(12, medicina.tamano());
+        assertFalse(medicina.hayMas());
+    }
+
+    @Test
+    @Order(41)
+    @DisplayName("Página posterior a un token debe buscar en idx_nombre_apellido")
+    void testPaginaPosteriorUsaIndiceNombreApellido() throws SQLException {
+        // Arrange
+        String sql = "EXPLAIN SELECT * FROM estudiantes WHERE activo = true "
+                   + "AND apellido >= 'Perez' AND (apellido > 'Perez' OR (apellido = 'Perez' AND (nombre > 'Ana' "
+                   + "OR (nombre = 'Ana' AND id > 10)))) ORDER BY apellido, nombre, id LIMIT 21";
+
+        // Act
+        String plan;
+        try (Connection conn = DriverManager.getConnection(H2_URL, H2_USER, H2_PASSWORD);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            assertTrue(rs.next());
+            plan = rs.getString(1).toUpperCase();
+        }
+
+        // Assert
+        assertTrue(plan.contains("IDX_NOMBRE_APELLIDO"), plan);
+    }
+
+    @Test
+    @Order(42)
+    @DisplayName("Paginación del servicio debe convertir a DTO y validar el token")
+    void testServicioPaginaEstudiantes() throws Exception {
+        // Arrange
+        IEstudianteServicio servicio = new EstudianteServicioImpl(repositorio);
+        repositorio.crear(crearEstudiantePrueba("Luis", "Soto", "luis@test.com", "Medicina"));
+        repositorio.crear(crearEstudiantePrueba("Ana", "Rivas", "ana@test.com", "Medicina"));
+        repositorio.crear(crearEstudiantePrueba("Carla", "Pérez", "carla@test.com", "Derecho"));
+
+        // Act
+        Pagina<EstudianteDTO> primera = servicio.paginarEstudiantesPorCarrera("Medicina", null, 1);
+        Pagina<EstudianteDTO> segunda = servicio.paginarEstudiantesPorCarrera("Medicina", primera.getSiguienteToken(), 1);
+
+        // Assert
+        assertEquals("Rivas", primera.getElementos().get(0).getApellido());
+        assertEquals("Soto", segunda.getElementos().get(0).getApellido());
+        assertFalse(segunda.hayMas());
+        assertEquals(3, servicio.paginarEstudiantesActivos(null, 10).tamano());
+        ServicioException error = assertThrows(ServicioException.class, 
+                                               () -> servicio.paginarEstudiantesActivos("@@@", 10));
+        assertTrue(error.esErrorDeValidacion());
+        assertEquals("TOKEN_INVALIDO", error.getCodigoError());
+    }
+
+    @Test
+    @Order(43)
+    @DisplayName("Crear debe guardar el email en forma canónica y buscarlo sin distinguir mayúsculas")
+    void testEmailGuardadoEnFormaCanonica() throws Exception {
+        // Arrange
+        Estudiante estudiante = new Estudiante("Ana", "Mayus", " Ana.Mayus@Test.COM ", "Medicina");
+
+        // Act
+        Estudiante creado = repositorio.crear(estudiante);
+        String guardado;
+        try (Connection conn = DriverManager.getConnection(H2_URL, H2_USER, H2_PASSWORD);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT email FROM estudiantes WHERE id = " + creado.getId())) {
+            assertTrue(rs.next());
+            guardado = rs.getString(1);
+        }
+
+        // Assert
+        assertEquals("ana.mayus@test.com", guardado);
+        assertEquals("ana.mayus@test.com", creado.getEmail());
+        assertTrue(repositorio.buscarPorEmail("ANA.MAYUS@test.com").isPresent());
+        RepositorioException duplicado = assertThrows(RepositorioException.class, () -> 
+            repositorio.crear(new Estudiante("Otra", "Ana", "ana.MAYUS@test.com", "Derecho")));
+        assertEquals("EMAIL_DUPLICADO", duplicado.getCodigoError());
+    }
+
+    @Test
+    @Order(44)
+    @DisplayName("Migración debe normalizar los emails existentes una sola vez")
+    void testMigrarEmailsCanonicos() throws Exception {
+        // Arrange: filas escritas antes de normalizar el email
+        try (Connection conn = DriverManager.getConnection(H2_URL, H2_USER, H2_PASSWORD);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO estudiantes (nombre, apellido, email, carrera, fecha_ingreso) "
+                       + "VALUES ('Luis', 'Mixto', 'Luis.Mixto@Test.com', 'Medicina', DATE '2024-01-15'), "
+                       + "('Eva', 'Baja', 'eva@test.com', 'Medicina', DATE '2024-01-15'), "
+                       + "('Ines', 'Espacio', '  ines@test.com', 'Medicina', DATE '2024-01-15')");
+        }
+        // Inicializar no migra: es una tarea de administración explícita
+        repositorio.inicializarBaseDatos();
+        assertFalse(repositorio.existePorEmail("luis.mixto@test.com"));
+
+        // Act
+        int primera = repositorio.migrarEmailsCanonicos();
+        int segunda = repositorio.migrarEmailsCanonicos();
+
+        // Assert
+        assertEquals(2, primera);
+        assertEquals(0, segunda);
+        assertTrue(repositorio.existePorEmail("Luis.Mixto@Test.com"));
+        assertTrue(repositorio.existePorEmail("ines@test.com"));
+        assertTrue(repositorio.buscarPorEmail("eva@test.com").isPresent());
+    }
+
+    @Test
+    @Order(45)
+    @DisplayName("Búsqueda por email debe usar el índice y no recorrer la tabla")
+    void testBusquedaPorEmailUsaIndice() throws SQLException {
+        // Act
+        String exacta;
+        String conFuncion;
+        try (Connection conn = DriverManager.getConnection(H2_URL, H2_USER, H2_PASSWORD);
+             Statement stmt = conn.createStatement()) {
+            exacta = planDe(stmt, "SELECT * FROM estudiantes WHERE email = 'ana@test.com'");
+            conFuncion = planDe(stmt, "SELECT * FROM estudiantes WHERE LOWER(email) = LOWER('ana@test.com')");
+        }
+
+        // Assert
+        assertFalse(exacta.contains("TABLESCAN"), exacta);
+        assertTrue(exacta.contains("EMAIL = 'ana@test.com'".toUpperCase()), exacta);
+        assertTrue(conFuncion.contains("TABLESCAN"), conFuncion);
+    }
+
+    @Test
+    @Order(46)
+    @DisplayName("Precalentar debe abrir las conexiones iniciales o informar el fallo")
+    void testPrecalentarPool() throws RepositorioException {
+        // Arrange
+        EstudianteRepositorioBD precalentado = new EstudianteRepositorioBD(H2_URL, H2_USER, H2_PASSWORD,
+            ConfiguracionPoolConexiones.porDefecto().conTamanoInicial(3));
+        EstudianteRepositorioBD inalcanzable = new EstudianteRepositorioBD("jdbc:noexiste:estudiantes", H2_USER,
+            H2_PASSWORD, ConfiguracionPoolConexiones.porDefecto().conTamanoInicial(3));
+
+        try {
+            // Act
+            precalentado.precalentarPool();
+            RepositorioException fallo = assertThrows(RepositorioException.class, inalcanzable::precalentarPool);
+
+            // Assert
+            assertEquals(3, precalentado.obtenerEstadisticasPool().getConexionesCreadas());
+            assertEquals(3, precalentado.obtenerEstadisticasPool().getConexionesInactivas());
+            assertEquals("SQL_ERROR", fallo.getCodigoError());
+        } finally {
+            precalentado.cerrar();
+            inalcanzable.cerrar();
+        }
+    }
+
+    @Test
+    @Order(47)
+    @DisplayName("Listado en flujo debe pasar el fetch size al driver y pedir cursor a MySQL")
+    void testFetchSizeLlegaAlDriver() throws Exception {
+        // Arrange
+        PoolConexiones poolSimulado = mock(PoolConexiones.class);
+        Connection conexion = mock(Connection.class);
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        when(poolSimulado.obtenerConfiguracion())
+            .thenReturn(ConfiguracionPoolConexiones.porDefecto().conTamanoBloqueLectura(250));
+        when(poolSimulado.obtenerConexion()).thenReturn(conexion);
+        when(conexion.prepareStatement(anyString(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY)))
+            .thenReturn(stmt);
+        when(stmt.executeQuery()).thenReturn(mock(ResultSet.class));
+
+        // Act
+        try (Stream<Estudiante> flujo = new EstudianteRepositorioBD(poolSimulado).obtenerTodosEnFlujo()) {
+            assertEquals(0, flujo.count());
+        }
+
+        // Assert
+        verify(stmt).setFetchSize(250);
+        assertEquals("jdbc:mysql://db:3306/estudiantes?useCursorFetch=true",
+                     EstudianteRepositorioBD.conLecturaPorBloques("jdbc:mysql://db:3306/estudiantes"));
+        assertEquals("jdbc:mysql://db:3306/estudiantes?useSSL=false&useCursorFetch=true",
+                     EstudianteRepositorioBD.conLecturaPorBloques("jdbc:mysql://db:3306/estudiantes?useSSL=false"));
+        assertEquals("jdbc:mysql://db:3306/estudiantes?useCursorFetch=false",
+                     EstudianteRepositorioBD.conLecturaPorBloques("jdbc:mysql://db:3306/estudiantes?useCursorFetch=false"));
+        assertEquals(H2_URL, EstudianteRepositorioBD.conLecturaPorBloques(H2_URL));
+    }
+
+    @Test
+    @Order(48)
+    @DisplayName("Crear lote deshecho no debe dejar IDs en los estudiantes recibidos")
+    void testCrearLoteDeshechoNoAsignaIds() throws RepositorioException {
+        // Arrange: el primer bloque se inserta y el segundo falla por un nombre demasiado largo
+        List<Estudiante> lote = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            lote.add(crearEstudiantePrueba("Nombre" + i, "Apellido" + i, "deshecho" + i + "@test.com"));
+        }
+        lote.get(550).setNombre("N".repeat(150));
+
+        // Act
+        RepositorioException excepcion = assertThrows(RepositorioException.class, () -> repositorio.crearLote(lote));
+
+        // Assert
+        assertEquals("SQL_ERROR", excepcion.getCodigoError());
+        assertEquals(0, repositorio.contarEstudiantes());
+        assertTrue(lote.stream().allMatch(estudiante -> estudiante.getId() == null));
+    }
+
     // =================== MÉTODOS AUXILIARES ===================
 
+    private static String planDe(Statement stmt, String consulta) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("EXPLAIN " + consulta)) {
+            assertTrue(rs.next());
+            return rs.getString(1).toUpperCase();
+        }
+    }
+
     private Estudiante crearEstudiantePrueba(String nombre, String apellido, String email) {
         return crearEstudiantePrueba(nombre, apellido, email, "Ingeniería Informática");
     }
@@ -713,6 +713,28 @@ class EstudianteRepositorioBDTestCompleto {
             // Assert
             assertEquals(0, conteo);
         }
+
+        @Test
+        @Order(40)
+        @DisplayName("Debe agregar estadísticas por carrera en una consulta")
+        void debeAgregarEstadisticasPorCarrera() throws RepositorioException {
+            // Arrange
+            repositorio.crear(crearEstudiantePrueba("Uno", "Test", "uno@test.com", "Medicina"));
+            repositorio.crear(crearEstudiantePrueba("Dos", "Test", "dos@test.com", "Medicina"));
+            Estudiante inactivo = crearEstudiantePrueba("Tres", "Test", "tres@test.com", "Derecho");
+            inactivo.setActivo(false);
+            repositorio.crear(inactivo);
+
+            // Act
+            EstadisticasEstudiantes estadisticas = repositorio.obtenerEstadisticasEstudiantes();
+
+            // Assert
+            assertEquals(3, estadisticas.getTotalEstudiantes());
+            assertEquals(2, estadisticas.getEstudiantesActivos());
+            assertEquals(1, estadisticas.getEstudiantesInactivos());
+            assertEquals(2L, estadisticas.getActivosPorCarrera().get("Medicina"));
+            assertFalse(estadisticas.getActivosPorCarrera().containsKey("Derecho"));
+        }
     }
 
     @Nested
@@ -0,0 +1,264 @@
+package com.roberto.rivas.repositorio;
+
+import com.roberto.rivas.modelo.Estudiante;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para el repositorio columnar de Estudiantes
+ * Verifica que respete el mismo contrato que la implementación en memoria
+ * 
+ * @author Roberto Rivas Lopez
+ */
+@DisplayName("Pruebas del Repositorio Columnar de Estudiantes")
+public class EstudianteRepositorioColumnarTest {
+
+    private EstudianteRepositorioColumnar repositorio;
+
+    @BeforeEach
+    void configurarPrueba() {
+        repositorio = new EstudianteRepositorioColumnar();
+    }
+
+    private Estudiante crear(String nombre, String email, String carrera) throws RepositorioException {
+        return repositorio.crear(new Estudiante(nombre, "Rivas", email, carrera));
+    }
+
+    @Nested
+    @DisplayName("Operaciones CRUD")
+    class OperacionesCrud {
+
+        @Test
+        @DisplayName("Debe crear y recuperar estudiante con todas sus columnas")
+        void debeCrearYRecuperarEstudiante() throws RepositorioException {
+            // Arrange
+            Estudiante creado = crear("José", "jose@test.com", "Ingeniería DevOps");
+
+            // Act
+            Optional<Estudiante> encontrado = repositorio.buscarPorId(creado.getId());
+
+            // Assert
+            assertTrue(encontrado.isPresent());
+            assertEquals(1L, creado.getId());
+            assertEquals("José", encontrado.get().getNombre());
+            assertEquals("Rivas", encontrado.get().getApellido());
+            assertEquals("jose@test.com", encontrado.get().getEmail());
+            assertEquals("Ingeniería DevOps", encontrado.get().getCarrera());
+            assertEquals(creado.getFechaIngreso(), encontrado.get().getFechaIngreso());
+            assertTrue(encontrado.get().isActivo());
+        }
+
+        @Test
+        @DisplayName("Debe rechazar email duplicado sin distinguir mayúsculas")
+        void debeRechazarEmailDuplicado() throws RepositorioException {
+            // Arrange
+            crear("Ana", "ana@test.com", "Sistemas");
+
+            // Act & Assert
+            RepositorioException excepcion = assertThrows(RepositorioException.class,
+                () -> crear("Otra", "ANA@test.com", "Sistemas"));
+            assertEquals("EMAIL_DUPLICADO", excepcion.getCodigoError());
+            assertEquals(1, repositorio.contarEstudiantes());
+        }
+
+        @Test
+        @DisplayName("Debe actualizar textos y liberar el email anterior")
+        void debeActualizarTextosYLiberarEmailAnterior() throws RepositorioException {
+            // Arrange
+            Estudiante creado = crear("Ana", "ana@test.com", "Sistemas");
+            creado.setNombre("Ana María");
+            creado.setEmail("ana.maria@test.com");
+            creado.setCarrera("Redes");
+
+            // Act
+            repositorio.actualizar(creado);
+
+            // Assert
+            Estudiante actual = repositorio.buscarPorId(creado.getId()).orElseThrow();
+            assertEquals("Ana María", actual.getNombre());
+            assertEquals("Redes", actual.getCarrera());
+            assertFalse(repositorio.existePorEmail("ana@test.com"));
+            assertTrue(repositorio.buscarPorEmail("ANA.MARIA@test.com").isPresent());
+        }
+
+        @Test
+        @DisplayName("Debe rechazar actualización con email de otro estudiante")
+        void debeRechazarActualizacionConEmailAjeno() throws RepositorioException {
+            // Arrange
+            crear("Ana", "ana@test.com", "Sistemas");
+            Estudiante segundo = crear("Luis", "luis@test.com", "Sistemas");
+            segundo.setEmail("ana@test.com");
+
+            // Act & Assert
+            RepositorioException excepcion = assertThrows(RepositorioException.class,
+                () -> repositorio.actualizar(segundo));
+            assertEquals("EMAIL_DUPLICADO", excepcion.getCodigoError());
+            assertEquals("luis@test.com", repositorio.buscarPorId(segundo.getId()).orElseThrow().getEmail());
+        }
+
+        @Test
+        @DisplayName("Debe eliminar lógicamente y fallar con ID inexistente")
+        void debeEliminarLogicamente() throws RepositorioException {
+            // Arrange
+            Estudiante creado = crear("Ana", "ana@test.com", "Sistemas");
+
+            // Act
+            assertTrue(repositorio.eliminar(creado.getId()));
+
+            // Assert
+            assertTrue(repositorio.existe(creado.getId()));
+            assertFalse(repositorio.buscarPorId(creado.getId()).orElseThrow().isActivo());
+            assertEquals(0, repositorio.contarEstudiantes());
+            RepositorioException excepcion = assertThrows(RepositorioException.class,
+                () -> repositorio.eliminar(99L));
+            assertEquals("ESTUDIANTE_NO_ENCONTRADO", excepcion.getCodigoError());
+        }
+    }
+
+    @Nested
+    @DisplayName("Filtros y agregaciones sobre columnas")
+    class FiltrosYAgregaciones {
+
+        @Test
+        @DisplayName("Debe filtrar por carrera sin distinguir mayúsculas y solo activos")
+        void debeFiltrarPorCarrera() throws RepositorioException {
+            // Arrange
+            crear("Ana", "ana@test.com", "Sistemas");
+            crear("Luis", "luis@test.com", "SISTEMAS");
+            Estudiante inactivo = crear("Eva", "eva@test.com", "Sistemas");
+            crear("Juan", "juan@test.com", "Redes");
+            repositorio.eliminar(inactivo.getId());
+
+            // Act
+            List<Estudiante> resultado = repositorio.obtenerPorCarrera("sistemas");
+
+            // Assert
+            assertEquals(2, resultado.size());
+            assertTrue(repositorio.obtenerPorCarrera("Medicina").isEmpty());
+        }
+
+        @Test
+        @DisplayName("Debe filtrar por rango de fecha de ingreso y ordenar por fecha")
+        void debeFiltrarPorRangoDeFechaIngreso() throws RepositorioException {
+            // Arrange
+            LocalDate[] fechas = {LocalDate.of(2024, 7, 1), LocalDate.of(2024, 3, 4),
+                                  LocalDate.of(2023, 12, 31), LocalDate.of(2024, 4, 2)};
+            for (int i = 0; i < fechas.length; i++) {
+                Estudiante estudiante = new Estudiante("Nombre" + i, "Rivas", "f" + i + "@test.com", i % 2 == 0 ? "Sistemas" : "Redes");
+                estudiante.setFechaIngreso(fechas[i]);
+                Estudiante creado = repositorio.crear(estudiante);
+                if (i == 3) {
+                    repositorio.eliminar(creado.getId());
+                }
+            }
+            LocalDate desde = LocalDate.of(2024, 1, 1);
+            LocalDate hasta = LocalDate.of(2024, 7, 1);
+
+            // Act
+            List<Estudiante> todos = repositorio.obtenerPorFechaIngreso(desde, hasta, null, null);
+            List<Estudiante> activosRedes = repositorio.obtenerPorFechaIngreso(desde, hasta, "REDES", true);
+
+            // Assert
+            assertEquals(List.of("Nombre1", "Nombre3", "Nombre0"), todos.stream().map(Estudiante::getNombre).toList());
+            assertEquals(List.of("Nombre1"), activosRedes.stream().map(Estudiante::getNombre).toList());
+            assertTrue(repositorio.obtenerPorFechaIngreso(desde, hasta, "Medicina", null).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Debe recorrer correctamente más filas que una palabra del bitset")
+        void debeRecorrerVariasPalabrasDelBitset() throws RepositorioException {
+            // Arrange
+            for (int i = 0; i < 200; i++) {
+                Estudiante creado = crear("Nombre" + i, "e" + i + "@test.com", i % 2 == 0 ? "Par" : "Impar");
+                if (i % 3 == 0) {
+                    repositorio.eliminar(creado.getId());
+                }
+            }
+
+            // Act
+            List<Estudiante> todos = repositorio.obtenerTodos();
+
+            // Assert
+            assertEquals(133, todos.size());
+            assertEquals(133, repositorio.contarEstudiantes());
+            assertTrue(todos.stream().allMatch(Estudiante::isActivo));
+            assertEquals(67, repositorio.obtenerPorCarrera("Impar").size());
+        }
+
+        @Test
+        @DisplayName("Debe agregar estadísticas por código de carrera")
+        void debeAgregarEstadisticas() throws RepositorioException {
+            // Arrange
+            crear("Ana", "ana@test.com", "Sistemas");
+            crear("Luis", "luis@test.com", "Sistemas");
+            Estudiante inactivo = crear("Eva", "eva@test.com", "Redes");
+            repositorio.eliminar(inactivo.getId());
+
+            // Act
+            EstadisticasEstudiantes estadisticas = repositorio.obtenerEstadisticasEstudiantes();
+
+            // Assert
+            assertEquals(3, estadisticas.getTotalEstudiantes());
+            assertEquals(2, estadisticas.getEstudiantesActivos());
+            assertEquals(1, estadisticas.getEstudiantesInactivos());
+            assertEquals(Map.of("Sistemas", 2L), estadisticas.getActivosPorCarrera());
+        }
+
+        @Test
+        @DisplayName("Debe conservar textos tras muchas reescrituras")
+        void debeConservarTextosTrasReescrituras() throws RepositorioException {
+            // Arrange
+            Estudiante fijo = crear("Fijo", "fijo@test.com", "Sistemas");
+            Estudiante variable = crear("Variable", "variable@test.com", "Sistemas");
+
+            // Act
+            for (int i = 0; i < 500; i++) {
+                variable.setNombre("Nombre número " + i);
+                repositorio.actualizar(variable);
+            }
+
+            // Assert
+            assertEquals("Fijo", repositorio.buscarPorId(fijo.getId()).orElseThrow().getNombre());
+            assertEquals("Nombre número 499", repositorio.buscarPorId(variable.getId()).orElseThrow().getNombre());
+        }
+    }
+
+    @Nested
+    @DisplayName("Flujo de Cambios")
+    class FlujoCambios {
+
+        @Test
+        @DisplayName("Debe emitir los cambios con las imágenes materializadas de la fila")
+        void debeEmitirCambiosConImagenes() throws Exception {
+            // Arrange
+            RecolectorCambios recolector = new RecolectorCambios();
+            repositorio.suscribir(recolector);
+            recolector.esperarSuscripcion();
+            Estudiante creado = crear("José", "jose@test.com", "Ingeniería DevOps");
+            creado.setCarrera("Sistemas");
+
+            // Act
+            repositorio.actualizar(creado);
+            repositorio.eliminar(creado.getId());
+            repositorio.eliminar(creado.getId());
+
+            // Assert
+            List<EventoCambio> eventos = recolector.esperar(3);
+            assertEquals(List.of(EventoCambio.TipoCambio.CREADO, EventoCambio.TipoCambio.ACTUALIZADO,
+                                 EventoCambio.TipoCambio.DESACTIVADO),
+                         eventos.stream().map(EventoCambio::getTipo).toList());
+            assertEquals("Ingeniería DevOps", eventos.get(1).getAnterior().getCarrera());
+            assertEquals("Sistemas", eventos.get(1).getPosterior().getCarrera());
+            assertEquals(3, repositorio.obtenerUltimaSecuencia());
+        }
+    }
+}
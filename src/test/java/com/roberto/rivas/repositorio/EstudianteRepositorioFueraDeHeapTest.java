@@ -0,0 +1,264 @@
+package com.roberto.rivas.repositorio;
+
+import com.roberto.rivas.modelo.Estudiante;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para el repositorio fuera del heap
+ * Verifica el contrato del repositorio y la recuperación de segmentos
+ * 
+ * @author Roberto Rivas Lopez
+ */
+@DisplayName("Pruebas del Repositorio Fuera del Heap")
+public class EstudianteRepositorioFueraDeHeapTest {
+
+    private static final int SEGMENTO_PEQUENO = 512;
+
+    private EstudianteRepositorioFueraDeHeap repositorio;
+
+    @BeforeEach
+    void configurarPrueba() {
+        repositorio = new EstudianteRepositorioFueraDeHeap(SEGMENTO_PEQUENO);
+    }
+
+    private Estudiante crear(String nombre, String email, String carrera) throws RepositorioException {
+        return repositorio.crear(new Estudiante(nombre, "Rivas", email, carrera));
+    }
+
+    @Nested
+    @DisplayName("Contrato del repositorio")
+    class ContratoRepositorio {
+
+        @Test
+        @DisplayName("Debe codificar y decodificar todos los campos")
+        void debeCodificarYDecodificarCampos() throws RepositorioException {
+            // Arrange
+            Estudiante creado = crear("Begoña", "begona@test.com", "Ingeniería DevOps");
+
+            // Act
+            Estudiante leido = repositorio.buscarPorId(creado.getId()).orElseThrow();
+
+            // Assert
+            assertEquals(creado, leido);
+            assertEquals("Begoña", leido.getNombre());
+            assertEquals("Rivas", leido.getApellido());
+            assertEquals("Ingeniería DevOps", leido.getCarrera());
+            assertEquals(creado.getFechaIngreso(), leido.getFechaIngreso());
+            assertTrue(leido.isActivo());
+        }
+
+        @Test
+        @DisplayName("Debe rechazar email duplicado al crear y al actualizar")
+        void debeRechazarEmailDuplicado() throws RepositorioException {
+            // Arrange
+            crear("Ana", "ana@test.com", "Sistemas");
+            Estudiante luis = crear("Luis", "luis@test.com", "Sistemas");
+            luis.setEmail("ana@test.com");
+
+            // Act & Assert
+            assertEquals("EMAIL_DUPLICADO", assertThrows(RepositorioException.class,
+                () -> crear("Otra", "ANA@test.com", "Sistemas")).getCodigoError());
+            assertEquals("EMAIL_DUPLICADO", assertThrows(RepositorioException.class,
+                () -> repositorio.actualizar(luis)).getCodigoError());
+        }
+
+        @Test
+        @DisplayName("Debe eliminar lógicamente y excluir de listados")
+        void debeEliminarLogicamente() throws RepositorioException {
+            // Arrange
+            Estudiante ana = crear("Ana", "ana@test.com", "Sistemas");
+            crear("Luis", "luis@test.com", "sistemas");
+
+            // Act
+            repositorio.eliminar(ana.getId());
+
+            // Assert
+            assertFalse(repositorio.buscarPorId(ana.getId()).orElseThrow().isActivo());
+            assertTrue(repositorio.existePorEmail("ana@test.com"));
+            assertEquals(1, repositorio.contarEstudiantes());
+            assertEquals(1, repositorio.obtenerTodos().size());
+            assertEquals(1, repositorio.obtenerPorCarrera("SISTEMAS").size());
+            assertEquals("ESTUDIANTE_NO_ENCONTRADO", assertThrows(RepositorioException.class,
+                () -> repositorio.eliminar(42L)).getCodigoError());
+        }
+
+        @Test
+        @DisplayName("Debe reflejar cambios de email y estado al actualizar")
+        void debeReflejarCambiosAlActualizar() throws RepositorioException {
+            // Arrange
+            Estudiante ana = crear("Ana", "ana@test.com", "Sistemas");
+            repositorio.eliminar(ana.getId());
+            ana.setEmail("ana.nueva@test.com");
+            ana.activar();
+
+            // Act
+            repositorio.actualizar(ana);
+
+            // Assert
+            assertFalse(repositorio.existePorEmail("ana@test.com"));
+            assertEquals(ana.getId(), repositorio.buscarPorEmail("ana.nueva@test.com").orElseThrow().getId());
+            assertEquals(1, repositorio.contarEstudiantes());
+            EstadisticasEstudiantes estadisticas = repositorio.obtenerEstadisticasEstudiantes();
+            assertEquals(Map.of("Sistemas", 1L), estadisticas.getActivosPorCarrera());
+        }
+
+        @Test
+        @DisplayName("Debe filtrar por rango de fecha de ingreso y ordenar por fecha")
+        void debeFiltrarPorRangoDeFechaIngreso() throws RepositorioException {
+            // Arrange
+            LocalDate[] fechas = {LocalDate.of(2024, 7, 1), LocalDate.of(2024, 3, 4),
+                                  LocalDate.of(2023, 12, 31), LocalDate.of(2024, 4, 2)};
+            for (int i = 0; i < fechas.length; i++) {
+                Estudiante estudiante = new Estudiante("Nombre" + i, "Rivas", "f" + i + "@test.com", i % 2 == 0 ? "Sistemas" : "Redes");
+                estudiante.setFechaIngreso(fechas[i]);
+                Estudiante creado = repositorio.crear(estudiante);
+                if (i == 3) {
+                    repositorio.eliminar(creado.getId());
+                }
+            }
+            LocalDate desde = LocalDate.of(2024, 1, 1);
+            LocalDate hasta = LocalDate.of(2024, 7, 1);
+
+            // Act
+            List<Estudiante> todos = repositorio.obtenerPorFechaIngreso(desde, hasta, null, null);
+            List<Estudiante> activosRedes = repositorio.obtenerPorFechaIngreso(desde, hasta, "REDES", true);
+
+            // Assert
+            assertEquals(List.of("Nombre1", "Nombre3", "Nombre0"), todos.stream().map(Estudiante::getNombre).toList());
+            assertEquals(List.of("Nombre1"), activosRedes.stream().map(Estudiante::getNombre).toList());
+            assertTrue(repositorio.obtenerPorFechaIngreso(desde, hasta, "Medicina", null).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Compactación de segmentos")
+    class CompactacionSegmentos {
+
+        @Test
+        @DisplayName("Debe repartir registros en varios segmentos")
+        void debeRepartirRegistrosEnVariosSegmentos() throws RepositorioException {
+            // Act
+            for (int i = 0; i < 100; i++) {
+                crear("Nombre" + i, "e" + i + "@test.com", "Sistemas");
+            }
+
+            // Assert
+            assertTrue(repositorio.obtenerBytesReservados() > SEGMENTO_PEQUENO);
+            List<Estudiante> todos = repositorio.obtenerTodos();
+            assertEquals(100, todos.size());
+            assertEquals("e99@test.com", repositorio.buscarPorId(100L).orElseThrow().getEmail());
+        }
+
+        @Test
+        @DisplayName("Debe reciclar segmentos con versiones reemplazadas")
+        void debeReciclarSegmentosReemplazados() throws RepositorioException {
+            // Arrange
+            for (int i = 0; i < 20; i++) {
+                crear("Nombre" + i, "e" + i + "@test.com", "Sistemas");
+            }
+
+            // Act
+            for (int ronda = 0; ronda < 50; ronda++) {
+                for (long id = 1; id <= 20; id++) {
+                    Estudiante estudiante = repositorio.buscarPorId(id).orElseThrow().copiar();
+                    estudiante.setNombre("Ronda" + ronda);
+                    repositorio.actualizar(estudiante);
+                }
+            }
+            repositorio.compactar();
+
+            // Assert
+            long reservados = repositorio.obtenerBytesReservados();
+            assertTrue(reservados <= 8L * SEGMENTO_PEQUENO, "reservados: " + reservados);
+            assertTrue(repositorio.obtenerBytesVivos() <= reservados);
+            for (long id = 1; id <= 20; id++) {
+                Estudiante estudiante = repositorio.buscarPorId(id).orElseThrow();
+                assertEquals("Ronda49", estudiante.getNombre());
+                assertEquals("e" + (id - 1) + "@test.com", estudiante.getEmail());
+            }
+        }
+
+        @Test
+        @DisplayName("Debe conservar los eliminados lógicamente al compactar")
+        void debeConservarEliminadosAlCompactar() throws RepositorioException {
+            // Arrange
+            for (int i = 0; i < 20; i++) {
+                crear("Nombre" + i, "e" + i + "@test.com", "Sistemas");
+            }
+            for (long id = 1; id <= 20; id += 2) {
+                repositorio.eliminar(id);
+            }
+            for (long id = 2; id <= 20; id += 2) {
+                Estudiante estudiante = repositorio.buscarPorId(id).orElseThrow().copiar();
+                estudiante.setNombre("Actualizado" + id);
+                repositorio.actualizar(estudiante);
+            }
+            long vivos = repositorio.obtenerBytesVivos();
+
+            // Act
+            long recuperados = repositorio.compactar();
+
+            // Assert
+            assertEquals(vivos, repositorio.obtenerBytesVivos());
+            assertTrue(recuperados > 0);
+            assertEquals(10, repositorio.obtenerTodos().size());
+            for (long id = 1; id <= 20; id += 2) {
+                Estudiante eliminado = repositorio.buscarPorId(id).orElseThrow();
+                assertFalse(eliminado.isActivo());
+                assertEquals("Nombre" + (id - 1), eliminado.getNombre());
+                assertTrue(repositorio.existePorEmail("e" + (id - 1) + "@test.com"));
+            }
+        }
+
+        @Test
+        @DisplayName("Debe rechazar registros más grandes que un segmento")
+        void debeRechazarRegistrosDemasiadoGrandes() {
+            // Arrange
+            String carreraLarga = "x".repeat(SEGMENTO_PEQUENO);
+
+            // Act & Assert
+            RepositorioException excepcion = assertThrows(RepositorioException.class,
+                () -> crear("Ana", "ana@test.com", carreraLarga));
+            assertEquals("REGISTRO_DEMASIADO_GRANDE", excepcion.getCodigoError());
+        }
+    }
+
+    @Nested
+    @DisplayName("Flujo de Cambios")
+    class FlujoCambios {
+
+        @Test
+        @DisplayName("Debe emitir los cambios con las imágenes decodificadas del segmento")
+        void debeEmitirCambiosConImagenes() throws Exception {
+            // Arrange
+            RecolectorCambios recolector = new RecolectorCambios();
+            repositorio.suscribir(recolector);
+            recolector.esperarSuscripcion();
+            Estudiante creado = crear("José", "jose@test.com", "Ingeniería DevOps");
+            creado.setEmail("jose.rivas@test.com");
+
+            // Act
+            repositorio.actualizar(creado);
+            repositorio.eliminar(creado.getId());
+            repositorio.eliminar(creado.getId());
+
+            // Assert
+            List<EventoCambio> eventos = recolector.esperar(3);
+            assertEquals(List.of(EventoCambio.TipoCambio.CREADO, EventoCambio.TipoCambio.ACTUALIZADO,
+                                 EventoCambio.TipoCambio.DESACTIVADO),
+                         eventos.stream().map(EventoCambio::getTipo).toList());
+            assertEquals("jose@test.com", eventos.get(1).getAnterior().getEmail());
+            assertEquals("jose.rivas@test.com", eventos.get(1).getPosterior().getEmail());
+            assertEquals(3, repositorio.obtenerUltimaSecuencia());
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.roberto.rivas.repositorio;
+
+import com.roberto.rivas.modelo.Estudiante;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para el repositorio particionado de Estudiantes
+ * Verifica el enrutamiento por ID y la unicidad global del email entre particiones
+ * 
+ * @author Roberto Rivas Lopez
+ */
+@DisplayName("Pruebas del Repositorio Particionado de Estudiantes")
+public class EstudianteRepositorioParticionadoTest {
+
+    private EstudianteRepositorioParticionado repositorio;
+
+    @BeforeEach
+    void configurarPrueba() {
+        repositorio = new EstudianteRepositorioParticionado(4);
+    }
+
+    private Estudiante crear(String nombre, String email, String carrera) throws RepositorioException {
+        return repositorio.crear(new Estudiante(nombre, "Rivas", email, carrera));
+    }
+
+    @Nested
+    @DisplayName("Operaciones CRUD")
+    class OperacionesCrud {
+
+        @Test
+        @DisplayName("Debe asignar IDs únicos y encontrarlos en su partición")
+        void debeAsignarIdsUnicosYEncontrarlos() throws RepositorioException {
+            // Arrange
+            Set<Long> ids = new HashSet<>();
+
+            // Act
+            for (int i = 0; i < 200; i++) {
+                ids.add(crear("Est" + i, "est" + i + "@test.com", "Sistemas").getId());
+            }
+
+            // Assert
+            assertEquals(200, ids.size());
+            for (Long id : ids) {
+                Optional<Estudiante> encontrado = repositorio.buscarPorId(id);
+                assertTrue(encontrado.isPresent());
+                assertEquals(id, encontrado.get().getId());
+            }
+            assertFalse(repositorio.existe(10_000L));
+        }
+
+        @Test
+        @DisplayName("Debe rechazar email duplicado aunque caiga en otra partición")
+        void debeRechazarEmailDuplicado() throws RepositorioException {
+            // Arrange
+            crear("Ana", "ana@test.com", "Sistemas");
+
+            // Act & Assert
+            for (int i = 0; i < 20; i++) {
+                RepositorioException excepcion = assertThrows(RepositorioException.class,
+                    () -> crear("Otra", " ANA@test.com ", "Redes"));
+                assertEquals("EMAIL_DUPLICADO", excepcion.getCodigoError());
+            }
+            assertEquals(1, repositorio.contarEstudiantes());
+        }
+
+        @Test
+        @DisplayName("Debe cambiar el email liberando el anterior")
+        void debeCambiarEmailLiberandoAnterior() throws RepositorioException {
+            // Arrange
+            Estudiante ana = crear("Ana", "ana@test.com", "Sistemas");
+            Estudiante luis = crear("Luis", "luis@test.com", "Sistemas");
+
+            // Act
+            ana.setEmail("ana.maria@test.com");
+            repositorio.actualizar(ana);
+            luis.setEmail("ana@test.com");
+            repositorio.actualizar(luis);
+
+            // Assert
+            assertEquals(ana.getId(), repositorio.buscarPorEmail("ana.maria@test.com").get().getId());
+            assertEquals(luis.getId(), repositorio.buscarPorEmail("ana@test.com").get().getId());
+            assertFalse(repositorio.existePorEmail("luis@test.com"));
+        }
+
+        @Test
+        @DisplayName("Debe rechazar actualizar a un email ajeno sin perder el propio")
+        void debeRechazarActualizarAEmailAjeno() throws RepositorioException {
+            // Arrange
+            crear("Ana", "ana@test.com", "Sistemas");
+            Estudiante luis = crear("Luis", "luis@test.com", "Sistemas");
+
+            // Act
+            luis.setEmail("ana@test.com");
+            RepositorioException excepcion = assertThrows(RepositorioException.class,
+                () -> repositorio.actualizar(luis));
+
+            // Assert
+            assertEquals("EMAIL_DUPLICADO", excepcion.getCodigoError());
+            assertEquals(luis.getId(), repositorio.buscarPorEmail("luis@test.com").get().getId());
+        }
+
+        @Test
+        @DisplayName("Debe fallar al actualizar un estudiante inexistente")
+        void debeFallarAlActualizarInexistente() throws RepositorioException {
+            // Arrange
+            Estudiante fantasma = new Estudiante(99L, "Nadie", "Rivas", "nadie@test.com", "Sistemas");
+
+            // Act & Assert
+            RepositorioException excepcion = assertThrows(RepositorioException.class,
+                () -> repositorio.actualizar(fantasma));
+            assertEquals("ESTUDIANTE_NO_ENCONTRADO", excepcion.getCodigoError());
+            assertFalse(repositorio.existePorEmail("nadie@test.com"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Consultas Combinadas")
+    class ConsultasCombinadas {
+
+        @Test
+        @DisplayName("Debe combinar listados, conteo y estadísticas de todas las particiones")
+        void debeCombinarResultadosDeParticiones() throws RepositorioException {
+            // Arrange
+            for (int i = 0; i < 40; i++) {
+                crear("Est" + i, "est" + i + "@test.com", i % 2 == 0 ? "Sistemas" : "Redes");
+            }
+            repositorio.eliminar(repositorio.buscarPorEmail("est0@test.com").get().getId());
+
+            // Act
+            List<Estudiante> todos = repositorio.obtenerTodos();
+            List<Estudiante> sistemas = repositorio.obtenerPorCarrera("sistemas");
+            EstadisticasEstudiantes estadisticas = repositorio.obtenerEstadisticasEstudiantes();
+
+            // Assert
+            assertEquals(39, todos.size());
+            for (int i = 1; i < todos.size(); i++) {
+                assertTrue(todos.get(i - 1).getNombre().compareTo(todos.get(i).getNombre()) < 0);
+            }
+            assertEquals(19, sistemas.size());
+            assertEquals(39, repositorio.contarEstudiantes());
+            assertEquals(40, estadisticas.getTotalEstudiantes());
+            assertEquals(39, estadisticas.getEstudiantesActivos());
+            assertEquals(1, estadisticas.getEstudiantesInactivos());
+            assertEquals(20L, estadisticas.getActivosPorCarrera().values().stream().mapToLong(Long::longValue).max().getAsLong());
+        }
+
+        @Test
+        @DisplayName("Debe filtrar por rango de fecha de ingreso y ordenar por fecha")
+        void debeFiltrarPorRangoDeFechaIngreso() throws RepositorioException {
+            // Arrange
+            LocalDate[] fechas = {LocalDate.of(2024, 7, 1), LocalDate.of(2024, 3, 4),
+                                  LocalDate.of(2023, 12, 31), LocalDate.of(2024, 4, 2)};
+            for (int i = 0; i < fechas.length; i++) {
+                Estudiante estudiante = new Estudiante("Nombre" + i, "Rivas", "f" + i + "@test.com", i % 2 == 0 ? "Sistemas" : "Redes");
+                estudiante.setFechaIngreso(fechas[i]);
+                Estudiante creado = repositorio.crear(estudiante);
+                if (i == 3) {
+                    repositorio.eliminar(creado.getId());
+                }
+            }
+            LocalDate desde = LocalDate.of(2024, 1, 1);
+            LocalDate hasta = LocalDate.of(2024, 7, 1);
+
+            // Act
+            List<Estudiante> todos = repositorio.obtenerPorFechaIngreso(desde, hasta, null, null);
+            List<Estudiante> activosRedes = repositorio.obtenerPorFechaIngreso(desde, hasta, "REDES", true);
+
+            // Assert
+            assertEquals(List.of("Nombre1", "Nombre3", "Nombre0"), todos.stream().map(Estudiante::getNombre).toList());
+            assertEquals(List.of("Nombre1"), activosRedes.stream().map(Estudiante::getNombre).toList());
+            assertTrue(repositorio.obtenerPorFechaIngreso(desde, hasta, "Medicina", null).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Debe paginar mezclando las páginas de cada partición")
+        void debePaginarMezclandoParticiones() throws RepositorioException {
+            // Arrange
+            for (int i = 0; i < 40; i++) {
+                crear("Est" + i, "est" + i + "@test.com", i % 2 == 0 ? "Sistemas" : "Redes");
+            }
+            EstudianteRepositorioParticionado unaParticion = new EstudianteRepositorioParticionado(1);
+            for (int i = 0; i < 4; i++) {
+                unaParticion.crear(new Estudiante("Est" + i, "Rivas", "est" + i + "@test.com", "Sistemas"));
+            }
+
+            // Act
+            List<Estudiante> paginados = new ArrayList<>();
+            Pagina<Estudiante> pagina = repositorio.obtenerPagina(null, 7);
+            paginados.addAll(pagina.getElementos());
+            while (pagina.hayMas()) {
+                pagina = repositorio.obtenerPagina(pagina.getSiguienteToken(), 7);
+                paginados.addAll(pagina.getElementos());
+            }
+            Pagina<Estudiante> primera = unaParticion.obtenerPaginaPorCarrera("sistemas", null, 2);
+            Pagina<Estudiante> ultima = unaParticion.obtenerPaginaPorCarrera("sistemas", primera.getSiguienteToken(), 2);
+
+            // Assert
+            assertEquals(repositorio.obtenerTodos(), paginados);
+            assertEquals(List.of("Est0", "Est1"), primera.getElementos().stream().map(Estudiante::getNombre).toList());
+            assertEquals(List.of("Est2", "Est3"), ultima.getElementos().stream().map(Estudiante::getNombre).toList());
+            assertFalse(ultima.hayMas());
+            assertEquals("TOKEN_INVALIDO", assertThrows(RepositorioException.class,
+                () -> repositorio.obtenerPagina("no-es-un-token", 10)).getCodigoError());
+        }
+
+        @Test
+        @DisplayName("Debe propagar errores de validación de la consulta")
+        void debePropagarErroresDeValidacion() {
+            RepositorioException excepcion = assertThrows(RepositorioException.class,
+                () -> repositorio.obtenerPorCarrera(" "));
+            assertEquals("CARRERA_NULA", excepcion.getCodigoError());
+        }
+    }
+
+    @Nested
+    @DisplayName("Concurrencia")
+    class Concurrencia {
+
+        @Test
+        @DisplayName("Debe admitir un solo ganador por email bajo creación concurrente")
+        void debeAdmitirUnSoloGanadorPorEmail() throws Exception {
+            // Arrange
+            int hilos = 8;
+            int emails = 500;
+            ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+            CountDownLatch inicio = new CountDownLatch(1);
+            CountDownLatch fin = new CountDownLatch(hilos);
+            AtomicInteger duplicados = new AtomicInteger();
+
+            // Act
+            for (int h = 0; h < hilos; h++) {
+                ejecutor.execute(() -> {
+                    try {
+                        inicio.await();
+                        for (int i = 0; i < emails; i++) {
+                            try {
+                                crear("Est" + i, "est" + i + "@test.com", "Sistemas");
+                            } catch (RepositorioException e) {
+                                assertEquals("EMAIL_DUPLICADO", e.getCodigoError());
+                                duplicados.incrementAndGet();
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        fin.countDown();
+                    }
+                });
+            }
+            inicio.countDown();
+            assertTrue(fin.await(30, TimeUnit.SECONDS));
+            ejecutor.shutdown();
+
+            // Assert
+            assertEquals(emails, repositorio.contarEstudiantes());
+            assertEquals((hilos - 1) * emails, duplicados.get());
+            Set<Long> ids = new HashSet<>();
+            repositorio.obtenerTodos().forEach(e -> ids.add(e.getId()));
+            assertEquals(emails, ids.size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Flujo de Cambios")
+    class FlujoCambios {
+
+        @Test
+        @DisplayName("Debe emitir una sola secuencia global para todas las particiones")
+        void debeEmitirSecuenciaGlobal() throws Exception {
+            // Arrange
+            RecolectorCambios recolector = new RecolectorCambios();
+            repositorio.suscribir(recolector);
+            recolector.esperarSuscripcion();
+
+            // Act: IDs consecutivos caen en particiones distintas
+            Estudiante ultimo = null;
+            for (int i = 0; i < 8; i++) {
+                ultimo = crear("Est" + i, "est" + i + "@test.com", "Sistemas");
+            }
+            repositorio.eliminar(ultimo.getId());
+
+            // Assert
+            List<EventoCambio> eventos = recolector.esperar(9);
+            assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L),
+                         eventos.stream().map(EventoCambio::getSecuencia).toList());
+            assertEquals(8, eventos.stream().map(EventoCambio::getIdEstudiante).distinct().count());
+            assertEquals(EventoCambio.TipoCambio.DESACTIVADO, eventos.get(8).getTipo());
+            assertEquals(9, repositorio.obtenerUltimaSecuencia());
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.roberto.rivas.repositorio;
+
+import com.roberto.rivas.modelo.Estudiante;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para el repositorio copy-on-write sobre mapas persistentes
+ * Verifica que respete el mismo contrato que la implementación en memoria
+ *
+ * @author Roberto Rivas Lopez
+ */
+@DisplayName("Pruebas del Repositorio Persistente (HAMT) de Estudiantes")
+public class EstudianteRepositorioPersistenteTest {
+
+    private EstudianteRepositorioPersistente repositorio;
+
+    @BeforeEach
+    void configurarPrueba() {
+        repositorio = new EstudianteRepositorioPersistente();
+    }
+
+    private Estudiante crear(String nombre, String apellido, String email, String carrera) throws RepositorioException {
+        return repositorio.crear(new Estudiante(nombre, apellido, email, carrera));
+    }
+
+    @Nested
+    @DisplayName("Operaciones CRUD")
+    class OperacionesCrud {
+
+        @Test
+        @DisplayName("Debe crear con IDs secuenciales y buscar por ID y email")
+        void debeCrearYBuscar() throws RepositorioException {
+            // Act
+            Estudiante primero = crear("José", "Rivas", "jose@test.com", "Ingeniería DevOps");
+            Estudiante segundo = crear("Ana", "García", "ana@test.com", "Sistemas");
+
+            // Assert
+            assertEquals(1L, primero.getId());
+            assertEquals(2L, segundo.getId());
+            assertEquals("José", repositorio.buscarPorId(1L).orElseThrow().getNombre());
+            assertEquals(2L, repositorio.buscarPorEmail("ANA@test.com").orElseThrow().getId());
+            assertTrue(repositorio.existePorEmail("jose@test.com"));
+            assertFalse(repositorio.buscarPorId(99L).isPresent());
+        }
+
+        @Test
+        @DisplayName("Debe rechazar emails duplicados al crear y al actualizar")
+        void debeRechazarEmailsDuplicados() throws RepositorioException {
+            // Arrange
+            crear("Ana", "García", "ana@test.com", "Sistemas");
+            Estudiante otro = crear("Luis", "Soto", "luis@test.com", "Sistemas");
+            otro.setEmail("ANA@test.com");
+
+            // Act & Assert
+            assertEquals("EMAIL_DUPLICADO", assertThrows(RepositorioException.class,
+                () -> crear("Otra", "Pérez", "ana@test.com", "Redes")).getCodigoError());
+            assertEquals("EMAIL_DUPLICADO", assertThrows(RepositorioException.class,
+                () -> repositorio.actualizar(otro)).getCodigoError());
+            assertEquals(2, repositorio.contarEstudiantes());
+        }
+
+        @Test
+        @DisplayName("Debe actualizar, liberar el email anterior y eliminar lógicamente")
+        void debeActualizarYEliminar() throws RepositorioException {
+            // Arrange
+            Estudiante creado = crear("Ana", "García", "ana@test.com", "Sistemas");
+            creado.setEmail("ana.maria@test.com");
+            creado.setCarrera("Redes");
+
+            // Act
+            repositorio.actualizar(creado);
+            repositorio.eliminar(creado.getId());
+
+            // Assert
+            assertFalse(repositorio.existePorEmail("ana@test.com"));
+            assertFalse(repositorio.buscarPorEmail("ana.maria@test.com").orElseThrow().isActivo());
+            assertTrue(repositorio.obtenerTodos().isEmpty());
+            EstadisticasEstudiantes estadisticas = repositorio.obtenerEstadisticasEstudiantes();
+            assertEquals(0, estadisticas.getEstudiantesActivos());
+            assertEquals(1, estadisticas.getEstudiantesInactivos());
+            assertTrue(estadisticas.getActivosPorCarrera().isEmpty());
+            assertEquals("ESTUDIANTE_NO_ENCONTRADO", assertThrows(RepositorioException.class,
+                () -> repositorio.eliminar(99L)).getCodigoError());
+        }
+    }
+
+    @Nested
+    @DisplayName("Consultas sobre la instantánea")
+    class Consultas {
+
+        @Test
+        @DisplayName("Debe listar activos ordenados por apellido, nombre e ID")
+        void debeListarOrdenados() throws RepositorioException {
+            // Arrange
+            crear("Luis", "Soto", "luis@test.com", "Sistemas");
+            crear("Ana", "García", "ana@test.com", "sistemas");
+            crear("Beatriz", "García", "bea@test.com", "Redes");
+
+            // Act
+            List<Estudiante> todos = repositorio.obtenerTodos();
+            List<Estudiante> sistemas = repositorio.obtenerPorCarrera("SISTEMAS");
+
+            // Assert
+            assertEquals(List.of("Ana", "Beatriz", "Luis"), todos.stream().map(Estudiante::getNombre).toList());
+            assertEquals(List.of("Ana", "Luis"), sistemas.stream().map(Estudiante::getNombre).toList());
+        }
+
+        @Test
+        @DisplayName("Debe paginar con token en el mismo orden que el listado")
+        void debePaginarConToken() throws RepositorioException {
+            // Arrange
+            for (int i = 0; i < 10; i++) {
+                crear("Nombre" + (i % 2), "Apellido" + (i % 3), "pagina" + i + "@test.com", "Sistemas");
+            }
+
+            // Act
+            Pagina<Estudiante> primera = repositorio.obtenerPagina(null, 4);
+            Pagina<Estudiante> segunda = repositorio.obtenerPagina(primera.getSiguienteToken(), 4);
+            Pagina<Estudiante> tercera = repositorio.obtenerPagina(segunda.getSiguienteToken(), 4);
+
+            // Assert
+            List<Estudiante> recorridos = new ArrayList<>(primera.getElementos());
+            recorridos.addAll(segunda.getElementos());
+            recorridos.addAll(tercera.getElementos());
+            assertEquals(repositorio.obtenerTodos().stream().map(Estudiante::getId).toList(),
+                         recorridos.stream().map(Estudiante::getId).toList());
+            assertEquals(2, tercera.tamano());
+            assertFalse(tercera.hayMas());
+        }
+
+        @Test
+        @DisplayName("Debe filtrar por rango de fecha de ingreso y ordenar por fecha")
+        void debeFiltrarPorRangoDeFecha() throws RepositorioException {
+            // Arrange
+            for (int dia = 1; dia <= 5; dia++) {
+                Estudiante estudiante = new Estudiante("E" + dia, "Rivas", "e" + dia + "@test.com", "Sistemas");
+                estudiante.setFechaIngreso(LocalDate.of(2024, 3, 6 - dia));
+                repositorio.crear(estudiante);
+            }
+            repositorio.eliminar(3L);
+
+            // Act
+            List<Estudiante> activos = repositorio.obtenerPorFechaIngreso(
+                LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 4), null, true);
+
+            // Assert
+            assertEquals(List.of(4L, 2L), activos.stream().map(Estudiante::getId).toList());
+            assertEquals("RANGO_FECHAS_INVALIDO", assertThrows(RepositorioException.class,
+                () -> repositorio.obtenerPorFechaIngreso(LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 2), null, null))
+                .getCodigoError());
+        }
+
+        @Test
+        @DisplayName("Debe ver siempre estadísticas que cuadran con escrituras concurrentes")
+        void debeVerEstadisticasConsistentes() throws Exception {
+            // Arrange
+            int escritores = 4;
+            int porEscritor = 500;
+            ExecutorService ejecutor = Executors.newFixedThreadPool(escritores + 1);
+            AtomicBoolean escribiendo = new AtomicBoolean(true);
+
+            // Act: la mitad de las altas se desactiva enseguida; un lector verifica cada instantánea
+            Future<Integer> lector = ejecutor.submit(() -> {
+                int lecturas = 0;
+                do {
+                    EstadisticasEstudiantes vista = repositorio.obtenerEstadisticasEstudiantes();
+                    long porCarrera = vista.getActivosPorCarrera().values().stream().mapToLong(Long::longValue).sum();
+                    assertEquals(vista.getEstudiantesActivos(), porCarrera);
+                    assertEquals(vista.getTotalEstudiantes(),
+                                 vista.getEstudiantesActivos() + vista.getEstudiantesInactivos());
+                    lecturas++;
+                } while (escribiendo.get());
+                return lecturas;
+            });
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int e = 0; e < escritores; e++) {
+                int escritor = e;
+                tareas.add(ejecutor.submit(() -> {
+                    for (int i = 0; i < porEscritor; i++) {
+                        Estudiante creado = crear("N" + i, "A" + escritor, "e" + escritor + "-" + i + "@test.com", "C" + i % 4);
+                        if (i % 2 == 0) {
+                            repositorio.eliminar(creado.getId());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get(30, TimeUnit.SECONDS);
+            }
+            escribiendo.set(false);
+            assertTrue(lector.get(30, TimeUnit.SECONDS) > 0);
+            ejecutor.shutdown();
+
+            // Assert
+            EstadisticasEstudiantes totales = repositorio.obtenerEstadisticasEstudiantes();
+            assertEquals(escritores * porEscritor, totales.getTotalEstudiantes());
+            assertEquals(escritores * porEscritor / 2, totales.getEstudiantesActivos());
+            assertEquals(escritores * porEscritor / 2, repositorio.obtenerTodos().size());
+            assertEquals(escritores * porEscritor + 1L, repositorio.obtenerEstadisticas().get("proximoId"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Flujo de Cambios")
+    class FlujoCambios {
+
+        @Test
+        @DisplayName("Debe entregar en el orden de las raíces publicadas con escritores concurrentes")
+        void debeEntregarEnOrdenDeRaices() throws Exception {
+            // Arrange
+            RecolectorCambios recolector = new RecolectorCambios();
+            repositorio.suscribir(recolector);
+            recolector.esperarSuscripcion();
+            int escritores = 4;
+            int porEscritor = 250;
+            ExecutorService ejecutor = Executors.newFixedThreadPool(escritores);
+
+            // Act
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int e = 0; e < escritores; e++) {
+                int escritor = e;
+                tareas.add(ejecutor.submit(() -> {
+                    for (int i = 0; i < porEscritor; i++) {
+                        crear("N" + i, "A" + escritor, "e" + escritor + "-" + i + "@test.com", "Sistemas");
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get(30, TimeUnit.SECONDS);
+            }
+            ejecutor.shutdown();
+
+            // Assert: la secuencia coincide con el ID porque cada alta publica una raíz;
+            // lo que no cupo en el buffer queda contado como descartado
+            int total = escritores * porEscritor;
+            assertEquals(total, repositorio.obtenerUltimaSecuencia());
+            List<EventoCambio> eventos = recolector.esperar((int) (total - repositorio.obtenerEventosDescartados()));
+            long previa = 0;
+            for (EventoCambio evento : eventos) {
+                assertTrue(evento.getSecuencia() > previa, "Eventos fuera de orden");
+                assertEquals(evento.getSecuencia(), evento.getIdEstudiante());
+                previa = evento.getSecuencia();
+            }
+        }
+
+        @Test
+        @DisplayName("Debe continuar la secuencia tras limpiar el repositorio")
+        void debeContinuarSecuenciaTrasLimpiar() throws Exception {
+            // Arrange
+            RecolectorCambios recolector = new RecolectorCambios();
+            repositorio.suscribir(recolector);
+            recolector.esperarSuscripcion();
+            crear("Ana", "García", "ana@test.com", "Sistemas");
+
+            // Act
+            repositorio.limpiar();
+            crear("Luis", "Soto", "luis@test.com", "Sistemas");
+
+            // Assert
+            assertEquals(List.of(1L, 2L), recolector.esperar(2).stream().map(EventoCambio::getSecuencia).toList());
+        }
+    }
+}
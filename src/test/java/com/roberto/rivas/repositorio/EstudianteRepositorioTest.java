@@ -1,15 +1,36 @@
 package com.roberto.rivas.repositorio;
 
 import com.roberto.rivas.modelo.Estudiante;
+import com.roberto.rivas.modelo.EstudianteInmutable;
+import com.roberto.rivas.repositorio.persistencia.PoliticaSincronizacion;
+import com.roberto.rivas.repositorio.persistencia.RegistroEscrituraAnticipada;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -38,6 +59,227 @@ public class EstudianteRepositorioTest {
                                          "roberto.rivas@test.com", "Ingeniería DevOps");
     }
 
+    @Nested
+    @DisplayName("Paginación por Clave")
+    class PaginacionPorClave {
+        
+        private List<Long> recorrerPaginas(String carrera, int tamano) throws RepositorioException {
+            List<Long> ids = new ArrayList<>();
+            String token = null;
+            do {
+                Pagina<Estudiante> pagina = carrera == null 
+                    ? repositorio.obtenerPagina(token, tamano)
+                    : repositorio.obtenerPaginaPorCarrera(carrera, token, tamano);
+                assertTrue(pagina.tamano() <= tamano);
+                pagina.getElementos().forEach(estudiante -> ids.add(estudiante.getId()));
+                token = pagina.getSiguienteToken();
+            } while (token != null);
+            return ids;
+        }
+        
+        private List<Long> ids(List<Estudiante> estudiantes) {
+            List<Long> ids = new ArrayList<>();
+            estudiantes.forEach(estudiante -> ids.add(estudiante.getId()));
+            return ids;
+        }
+        
+        @Test
+        @DisplayName("Debe recorrer por páginas lo mismo que el listado completo")
+        void debeRecorrerLoMismoQueElListado() throws RepositorioException {
+            // Arrange: apellidos y nombres repetidos para desempatar por ID
+            for (int i = 0; i < 25; i++) {
+                repositorio.crear(new Estudiante("Nombre" + (i % 3), "Apellido" + (i % 4), 
+                                                 "pagina" + i + "@test.com", i % 2 == 0 ? "Medicina" : "Derecho"));
+            }
+            
+            // Act & Assert
+            assertEquals(ids(repositorio.obtenerTodos()), recorrerPaginas(null, 7));
+            assertEquals(ids(repositorio.obtenerTodos()), recorrerPaginas(null, 1));
+            assertEquals(ids(repositorio.obtenerPorCarrera("medicina")), recorrerPaginas("Medicina", 4));
+            assertFalse(repositorio.obtenerPagina(null, 25).hayMas());
+            assertTrue(repositorio.obtenerPagina(null, 24).hayMas());
+        }
+        
+        @Test
+        @DisplayName("Debe continuar tras la última fila entregada aunque cambien los datos")
+        void debeContinuarTrasUltimaFila() throws RepositorioException {
+            // Arrange
+            repositorio.crear(new Estudiante("Ana", "Alba", "ana@test.com", "Medicina"));
+            Estudiante bruno = repositorio.crear(new Estudiante("Bruno", "Bravo", "bruno@test.com", "Medicina"));
+            Estudiante carla = repositorio.crear(new Estudiante("Carla", "Cruz", "carla@test.com", "Medicina"));
+            repositorio.crear(new Estudiante("Diego", "Díaz", "diego@test.com", "Medicina"));
+            Pagina<Estudiante> primera = repositorio.obtenerPagina(null, 2);
+            
+            // Act: una fila nueva antes del token, se elimina la última entregada y la siguiente
+            repositorio.crear(new Estudiante("Aarón", "Abad", "aaron@test.com", "Medicina"));
+            repositorio.eliminar(bruno.getId());
+            repositorio.eliminar(carla.getId());
+            Pagina<Estudiante> segunda = repositorio.obtenerPagina(primera.getSiguienteToken(), 2);
+            
+            // Assert
+            assertEquals(List.of("Alba", "Bravo"), 
+                         primera.getElementos().stream().map(Estudiante::getApellido).collect(Collectors.toList()));
+            assertEquals(List.of("Díaz"), 
+                         segunda.getElementos().stream().map(Estudiante::getApellido).collect(Collectors.toList()));
+            assertFalse(segunda.hayMas());
+        }
+        
+        @Test
+        @DisplayName("Debe rechazar tokens y tamaños inválidos")
+        void debeRechazarTokenYTamanoInvalidos() {
+            // Act & Assert
+            assertEquals("TOKEN_INVALIDO", assertThrows(RepositorioException.class,
+                () -> repositorio.obtenerPagina("no-es-un-token", 10)).getCodigoError());
+            assertEquals("TOKEN_INVALIDO", assertThrows(RepositorioException.class,
+                () -> repositorio.obtenerPaginaPorCarrera("Inexistente", "%%", 10)).getCodigoError());
+            assertEquals("TAMANO_PAGINA_INVALIDO", assertThrows(RepositorioException.class,
+                () -> repositorio.obtenerPagina(null, 0)).getCodigoError());
+            assertEquals("TAMANO_PAGINA_INVALIDO", assertThrows(RepositorioException.class,
+                () -> repositorio.obtenerPagina(null, 1_001)).getCodigoError());
+        }
+    }
+
+    @Nested
+    @DisplayName("Listados en Flujo")
+    class ListadosEnFlujo {
+        
+        private List<String> apellidos(Stream<Estudiante> flujo) {
+            try (flujo) {
+                return flujo.map(Estudiante::getApellido).collect(Collectors.toList());
+            }
+        }
+        
+        @Test
+        @DisplayName("Debe entregar lo mismo y en el mismo orden que los listados")
+        void debeCoincidirConLosListados() throws RepositorioException {
+            // Arrange
+            repositorio.crear(new Estudiante("Luis", "Soto", "luis@test.com", "Medicina"));
+            repositorio.crear(new Estudiante("Ana", "Rivas", "ana@test.com", "Ingeniería DevOps"));
+            repositorio.crear(new Estudiante("Carla", "Pérez", "carla@test.com", "Medicina"));
+            Estudiante inactivo = repositorio.crear(new Estudiante("Eva", "Alba", "eva@test.com", "Medicina"));
+            repositorio.eliminar(inactivo.getId());
+            
+            // Act & Assert
+            assertEquals(List.of("Pérez", "Rivas", "Soto"), apellidos(repositorio.obtenerTodosEnFlujo()));
+            assertEquals(List.of("Pérez", "Soto"), apellidos(repositorio.obtenerPorCarreraEnFlujo("MEDICINA")));
+            assertEquals(List.of(), apellidos(repositorio.obtenerPorCarreraEnFlujo("Derecho")));
+            assertThrows(RepositorioException.class, () -> repositorio.obtenerPorCarreraEnFlujo(" "));
+        }
+        
+        @Test
+        @DisplayName("Debe recorrer la versión vigente al abrir el flujo aunque haya escrituras")
+        void debeRecorrerVersionDeApertura() throws RepositorioException {
+            // Arrange
+            Estudiante ana = repositorio.crear(new Estudiante("Ana", "Alba", "ana@test.com", "Medicina"));
+            repositorio.crear(new Estudiante("Luis", "Mora", "luis@test.com", "Medicina"));
+            
+            try (Stream<Estudiante> flujo = repositorio.obtenerTodosEnFlujo()) {
+                Iterator<Estudiante> cursor = flujo.iterator();
+                assertEquals("Alba", cursor.next().getApellido());
+                
+                // Act: cambios posteriores a la apertura
+                repositorio.crear(new Estudiante("Carla", "Nuñez", "carla@test.com", "Medicina"));
+                ana.setApellido("Zapata");
+                repositorio.actualizar(ana);
+                
+                // Assert
+                assertEquals("Mora", cursor.next().getApellido());
+                assertFalse(cursor.hasNext());
+            }
+            assertEquals(List.of("Mora", "Nuñez", "Zapata"), apellidos(repositorio.obtenerTodosEnFlujo()));
+        }
+        
+        @Test
+        @DisplayName("Debe permitir cortar el recorrido y cerrar el flujo más de una vez")
+        void debePermitirCortarYCerrar() throws RepositorioException {
+            // Arrange
+            for (int i = 0; i < 20; i++) {
+                repositorio.crear(new Estudiante("Nombre", "Apellido" + (char) ('A' + i), 
+                                                 "corte" + i + "@test.com", "Medicina"));
+            }
+            
+            // Act
+            Stream<Estudiante> flujo = repositorio.obtenerTodosEnFlujo();
+            List<String> primeros = flujo.limit(3).map(Estudiante::getApellido).collect(Collectors.toList());
+            flujo.close();
+            flujo.close();
+            
+            // Assert
+            assertEquals(List.of("ApellidoA", "ApellidoB", "ApellidoC"), primeros);
+            assertEquals(20, repositorio.contarEstudiantes());
+        }
+    }
+
+    @Nested
+    @DisplayName("Creación por Lotes")
+    class CreacionPorLotes {
+        
+        @Test
+        @DisplayName("Debe crear el lote e informar por fila los rechazados sin abortar")
+        void debeCrearLoteConResultadoPorFila() throws RepositorioException {
+            // Arrange
+            repositorio.crear(estudianteEjemplo);
+            List<Estudiante> lote = new ArrayList<>();
+            lote.add(new Estudiante("Ana", "García", "ana@test.com", "Medicina"));
+            lote.add(new Estudiante("Otro", "Rivas", "ROBERTO.RIVAS@test.com", "Medicina"));
+            lote.add(null);
+            lote.add(new Estudiante("Ana", "Repetida", "ana@test.com", "Derecho"));
+            lote.add(new Estudiante("Luis", "Pérez", "luis@test.com", "Derecho"));
+            
+            // Act
+            ResultadoLote<Estudiante> resultado = repositorio.crearLote(lote);
+            
+            // Assert
+            assertEquals(5, resultado.tamano());
+            assertEquals(2, resultado.getCantidadExitosas());
+            assertTrue(resultado.getFila(0).isExitosa());
+            assertEquals("EMAIL_DUPLICADO", resultado.getFila(1).getCodigoError());
+            assertEquals("ESTUDIANTE_NULO", resultado.getFila(2).getCodigoError());
+            assertEquals("EMAIL_DUPLICADO", resultado.getFila(3).getCodigoError());
+            assertTrue(resultado.getFila(4).isExitosa());
+            for (Estudiante creado : resultado.getExitosos()) {
+                assertNotNull(creado.getId());
+                assertEquals(creado.getEmail(), repositorio.buscarPorId(creado.getId()).orElseThrow().getEmail());
+            }
+            assertEquals(3, repositorio.contarEstudiantes());
+        }
+        
+        @Test
+        @DisplayName("Debe persistir el lote en el registro de escritura")
+        void debePersistirLoteEnRegistro(@TempDir Path directorio) throws Exception {
+            // Arrange
+            Path archivo = directorio.resolve("lote.wal");
+            List<Estudiante> lote = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                lote.add(new Estudiante("Nombre" + i, "Apellido", "lote" + i + "@test.com", "Medicina"));
+            }
+            
+            // Act
+            try (RegistroEscrituraAnticipada registro = 
+                     new RegistroEscrituraAnticipada(archivo, PoliticaSincronizacion.SIEMPRE)) {
+                assertEquals(50, EstudianteRepositorioMemoria.conRegistro(registro).crearLote(lote)
+                                                              .getCantidadExitosas());
+            }
+            
+            // Assert
+            try (RegistroEscrituraAnticipada registro = 
+                     new RegistroEscrituraAnticipada(archivo, PoliticaSincronizacion.SIEMPRE)) {
+                EstudianteRepositorioMemoria recuperado = EstudianteRepositorioMemoria.conRegistro(registro);
+                assertEquals(50, recuperado.contarEstudiantes());
+                assertTrue(recuperado.existePorEmail("lote49@test.com"));
+            }
+        }
+        
+        @Test
+        @DisplayName("Debe fallar con un lote nulo")
+        void debeFallarConLoteNulo() {
+            // Act & Assert
+            RepositorioException excepcion = assertThrows(RepositorioException.class, 
+                                                          () -> repositorio.crearLote(null));
+            assertEquals("LOTE_NULO", excepcion.getCodigoError());
+        }
+    }
+
     @Nested
     @DisplayName("Ciclo TDD 5: Operación Crear")
     class OperacionCrear {
@@ -274,6 +516,766 @@ public class EstudianteRepositorioTest {
         }
     }
 
+    @Nested
+    @DisplayName("Índice de Email")
+    class IndiceEmail {
+        
+        @Test
+        @DisplayName("Debe encontrar por email sin importar mayúsculas ni espacios")
+        void debeEncontrarPorEmailNormalizado() throws RepositorioException {
+            // Arrange
+            Estudiante creado = repositorio.crear(estudianteEjemplo);
+            
+            // Act
+            Optional<Estudiante> encontrado = repositorio.buscarPorEmail("  ROBERTO.Rivas@Test.com ");
+            
+            // Assert
+            assertTrue(encontrado.isPresent());
+            assertEquals(creado.getId(), encontrado.get().getId());
+            assertTrue(repositorio.existePorEmail("Roberto.Rivas@TEST.com"));
+        }
+        
+        @Test
+        @DisplayName("Debe liberar el email anterior al actualizar")
+        void debeLiberarEmailAnteriorAlActualizar() throws RepositorioException {
+            // Arrange
+            Estudiante creado = repositorio.crear(estudianteEjemplo);
+            creado.setEmail("nuevo.email@test.com");
+            
+            // Act
+            repositorio.actualizar(creado);
+            
+            // Assert
+            assertFalse(repositorio.existePorEmail("roberto.rivas@test.com"));
+            assertTrue(repositorio.buscarPorEmail("nuevo.email@test.com").isPresent());
+            assertDoesNotThrow(() -> repositorio.crear(
+                new Estudiante("Ana", "García", "roberto.rivas@test.com", "Medicina")));
+        }
+        
+        @Test
+        @DisplayName("Debe vaciar el índice al limpiar el repositorio")
+        void debeVaciarIndiceAlLimpiar() throws RepositorioException {
+            // Arrange
+            EstudianteRepositorioMemoria memoria = (EstudianteRepositorioMemoria) repositorio;
+            memoria.crear(estudianteEjemplo);
+            
+            // Act
+            memoria.limpiar();
+            
+            // Assert
+            assertFalse(memoria.existePorEmail("roberto.rivas@test.com"));
+            assertFalse(memoria.buscarPorEmail("roberto.rivas@test.com").isPresent());
+        }
+    }
+
+    @Nested
+    @DisplayName("Índice de Carrera")
+    class IndiceCarrera {
+        
+        @Test
+        @DisplayName("Debe listar por carrera sin distinguir mayúsculas")
+        void debeListarPorCarreraSinDistinguirMayusculas() throws RepositorioException {
+            // Arrange
+            repositorio.crear(estudianteEjemplo);
+            repositorio.crear(new Estudiante("Carlos", "López", "carlos@test.com", "Medicina"));
+            
+            // Act
+            List<Estudiante> estudiantes = repositorio.obtenerPorCarrera("ingeniería devops");
+            
+            // Assert
+            assertEquals(1, estudiantes.size());
+            assertEquals("roberto.rivas@test.com", estudiantes.get(0).getEmail());
+        }
+        
+        @Test
+        @DisplayName("Debe excluir eliminados e incluir reactivados")
+        void debeExcluirEliminadosEIncluirReactivados() throws RepositorioException {
+            // Arrange
+            Estudiante creado = repositorio.crear(estudianteEjemplo);
+            repositorio.eliminar(creado.getId());
+            assertTrue(repositorio.obtenerPorCarrera("Ingeniería DevOps").isEmpty());
+            
+            // Act
+            Estudiante reactivado = repositorio.buscarPorId(creado.getId()).orElseThrow().copiar();
+            reactivado.activar();
+            repositorio.actualizar(reactivado);
+            
+            // Assert
+            assertEquals(1, repositorio.obtenerPorCarrera("Ingeniería DevOps").size());
+        }
+        
+        @Test
+        @DisplayName("Debe mover al estudiante al cambiar de carrera")
+        void debeMoverEstudianteAlCambiarDeCarrera() throws RepositorioException {
+            // Arrange
+            Estudiante creado = repositorio.crear(estudianteEjemplo);
+            creado.setCarrera("Ciencia de Datos");
+            
+            // Act
+            repositorio.actualizar(creado);
+            
+            // Assert
+            assertTrue(repositorio.obtenerPorCarrera("Ingeniería DevOps").isEmpty());
+            assertEquals(1, repositorio.obtenerPorCarrera("Ciencia de Datos").size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Listados Ordenados")
+    class ListadosOrdenados {
+        
+        private List<String> nombresCompletos(List<Estudiante> estudiantes) {
+            List<String> nombres = new ArrayList<>();
+            for (Estudiante estudiante : estudiantes) {
+                nombres.add(estudiante.getApellido() + " " + estudiante.getNombre());
+            }
+            return nombres;
+        }
+        
+        @Test
+        @DisplayName("Debe listar por apellido y nombre sin ordenar en el llamador")
+        void debeListarPorApellidoYNombre() throws RepositorioException {
+            // Arrange
+            repositorio.crear(new Estudiante("Luis", "Soto", "luis@test.com", "Medicina"));
+            repositorio.crear(new Estudiante("Ana", "Rivas", "ana@test.com", "Ingeniería DevOps"));
+            repositorio.crear(new Estudiante("Carla", "Pérez", "carla@test.com", "Medicina"));
+            repositorio.crear(new Estudiante("Ana", "Soto", "ana.soto@test.com", "Ingeniería DevOps"));
+            
+            // Act
+            List<Estudiante> todos = repositorio.obtenerTodos();
+            List<Estudiante> medicina = repositorio.obtenerPorCarrera("medicina");
+            
+            // Assert
+            assertEquals(List.of("Pérez Carla", "Rivas Ana", "Soto Ana", "Soto Luis"), nombresCompletos(todos));
+            assertEquals(List.of("Pérez Carla", "Soto Luis"), nombresCompletos(medicina));
+        }
+        
+        @Test
+        @DisplayName("Debe reubicar al estudiante al cambiar su apellido sin duplicarlo")
+        void debeReubicarAlCambiarApellido() throws RepositorioException {
+            // Arrange
+            Estudiante ana = repositorio.crear(new Estudiante("Ana", "Alba", "ana@test.com", "Medicina"));
+            repositorio.crear(new Estudiante("Luis", "Mora", "luis@test.com", "Medicina"));
+            
+            // Act
+            ana.setApellido("Zapata");
+            repositorio.actualizar(ana);
+            
+            // Assert
+            assertEquals(List.of("Mora Luis", "Zapata Ana"), nombresCompletos(repositorio.obtenerTodos()));
+            assertEquals(List.of("Mora Luis", "Zapata Ana"), nombresCompletos(repositorio.obtenerPorCarrera("Medicina")));
+        }
+        
+        @Test
+        @DisplayName("Debe recorrer con cursor desde un apellido y nombre")
+        void debeRecorrerConCursor() throws RepositorioException {
+            // Arrange
+            EstudianteRepositorioMemoria memoria = (EstudianteRepositorioMemoria) repositorio;
+            for (String apellido : List.of("Díaz", "Baeza", "Fuentes", "Castro", "Espinoza", "Araya")) {
+                memoria.crear(new Estudiante("Nombre", apellido, apellido.toLowerCase() + "@test.com", "Medicina"));
+            }
+            memoria.eliminar(memoria.buscarPorEmail("díaz@test.com").orElseThrow().getId());
+            
+            // Act
+            List<Estudiante> pagina = memoria.obtenerOrdenadosDesde("Castro", "Nombre", 3);
+            List<Estudiante> desdeInicio = memoria.obtenerOrdenadosDesde(null, null, 2);
+            
+            // Assert
+            assertEquals(List.of("Castro Nombre", "Espinoza Nombre", "Fuentes Nombre"), nombresCompletos(pagina));
+            assertEquals(List.of("Araya Nombre", "Baeza Nombre"), nombresCompletos(desdeInicio));
+            RepositorioException excepcion = assertThrows(RepositorioException.class,
+                () -> memoria.obtenerOrdenadosDesde("Castro", null, 0));
+            assertEquals("LIMITE_INVALIDO", excepcion.getCodigoError());
+        }
+        
+        @Test
+        @DisplayName("Debe listar cada fila una sola vez y en orden mientras cambian los apellidos")
+        void debeListarCadaFilaUnaVezBajoRenombres() throws Exception {
+            // Arrange
+            EstudianteRepositorioMemoria memoria = new EstudianteRepositorioMemoria();
+            List<Estudiante> filas = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                filas.add(memoria.crear(new Estudiante("Nombre", String.format("Apellido %03d", i), 
+                                                       "e" + i + "@test.com", "Medicina")));
+            }
+            ExecutorService ejecutor = Executors.newSingleThreadExecutor();
+            AtomicBoolean detener = new AtomicBoolean();
+            
+            try {
+                Future<?> escritor = ejecutor.submit(() -> {
+                    for (int ronda = 0; !detener.get(); ronda++) {
+                        Estudiante fila = filas.get(ronda % filas.size());
+                        fila.setApellido(String.format("Apellido %03d", (ronda * 37) % 1000));
+                        memoria.actualizar(fila);
+                    }
+                    return null;
+                });
+                
+                // Act & Assert
+                for (int lectura = 0; lectura < 300; lectura++) {
+                    List<Estudiante> todos = memoria.obtenerTodos();
+                    assertEquals(filas.size(), todos.size());
+                    for (int i = 1; i < todos.size(); i++) {
+                        assertTrue(todos.get(i - 1).getApellido().compareTo(todos.get(i).getApellido()) <= 0,
+                                   "Listado fuera de orden en la posición " + i);
+                    }
+                }
+                detener.set(true);
+                escritor.get(10, TimeUnit.SECONDS);
+            } finally {
+                detener.set(true);
+                ejecutor.shutdownNow();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Consultas por Fecha de Ingreso")
+    class ConsultasPorFechaIngreso {
+        
+        private Estudiante crearConFecha(String nombre, String carrera, LocalDate fecha) throws RepositorioException {
+            Estudiante estudiante = new Estudiante(nombre, "Rivas", nombre.toLowerCase() + "@test.com", carrera);
+            estudiante.setFechaIngreso(fecha);
+            return repositorio.crear(estudiante);
+        }
+        
+        @Test
+        @DisplayName("Debe devolver el rango ordenado por fecha con filtros opcionales")
+        void debeDevolverRangoOrdenadoConFiltros() throws RepositorioException {
+            // Arrange
+            crearConFecha("Julio", "Medicina", LocalDate.of(2024, 7, 1));
+            crearConFecha("Marzo", "Ingeniería DevOps", LocalDate.of(2024, 3, 4));
+            crearConFecha("Enero", "Medicina", LocalDate.of(2024, 1, 10));
+            crearConFecha("Agosto", "Medicina", LocalDate.of(2024, 8, 1));
+            Estudiante abril = crearConFecha("Abril", "Medicina", LocalDate.of(2024, 4, 2));
+            repositorio.eliminar(abril.getId());
+            LocalDate desde = LocalDate.of(2024, 3, 1);
+            LocalDate hasta = LocalDate.of(2024, 7, 1);
+            
+            // Act
+            List<Estudiante> semestre = repositorio.obtenerPorFechaIngreso(desde, hasta, null, null);
+            List<Estudiante> medicinaActivos = repositorio.obtenerPorFechaIngreso(desde, hasta, "medicina", true);
+            List<Estudiante> inactivos = repositorio.obtenerPorFechaIngreso(desde, hasta, null, false);
+            
+            // Assert
+            assertEquals(List.of("Marzo", "Abril", "Julio"), semestre.stream().map(Estudiante::getNombre).toList());
+            assertEquals(List.of("Julio"), medicinaActivos.stream().map(Estudiante::getNombre).toList());
+            assertEquals(List.of("Abril"), inactivos.stream().map(Estudiante::getNombre).toList());
+        }
+        
+        @Test
+        @DisplayName("Debe reubicar al estudiante al cambiar su fecha de ingreso")
+        void debeReubicarAlCambiarFecha() throws RepositorioException {
+            // Arrange
+            Estudiante estudiante = crearConFecha("Ana", "Medicina", LocalDate.of(2023, 3, 1));
+            estudiante.setFechaIngreso(LocalDate.of(2024, 3, 1));
+            
+            // Act
+            repositorio.actualizar(estudiante);
+            
+            // Assert
+            assertTrue(repositorio.obtenerPorFechaIngreso(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31), null, null).isEmpty());
+            assertEquals(1, repositorio.obtenerPorFechaIngreso(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), null, null).size());
+        }
+        
+        @Test
+        @DisplayName("Debe rechazar rangos nulos o invertidos")
+        void debeRechazarRangosInvalidos() {
+            RepositorioException nula = assertThrows(RepositorioException.class,
+                () -> repositorio.obtenerPorFechaIngreso(null, LocalDate.now(), null, null));
+            RepositorioException invertido = assertThrows(RepositorioException.class,
+                () -> repositorio.obtenerPorFechaIngreso(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), null, null));
+            
+            assertEquals("FECHA_NULA", nula.getCodigoError());
+            assertEquals("RANGO_FECHAS_INVALIDO", invertido.getCodigoError());
+        }
+    }
+
+    @Nested
+    @DisplayName("Nivel Frío de Inactivos")
+    class NivelFrio {
+        
+        @TempDir
+        Path directorio;
+        
+        private EstudianteRepositorioMemoria memoria;
+        
+        @BeforeEach
+        void configurarNivelFrio() {
+            memoria = (EstudianteRepositorioMemoria) repositorio;
+            memoria.configurarNivelFrio(Duration.ZERO);
+        }
+        
+        @Test
+        @DisplayName("Debe archivar inactivos y seguir encontrándolos por ID y email")
+        void debeArchivarYSeguirEncontrando() throws RepositorioException {
+            // Arrange
+            Estudiante archivado = memoria.crear(estudianteEjemplo);
+            memoria.crear(new Estudiante("Ana", "García", "ana@test.com", "Medicina"));
+            memoria.eliminar(archivado.getId());
+            
+            // Act
+            int cantidad = memoria.archivarInactivos();
+            
+            // Assert
+            assertEquals(1, cantidad);
+            assertEquals(1, memoria.obtenerCantidadArchivados());
+            assertFalse(memoria.buscarPorId(archivado.getId()).orElseThrow().isActivo());
+            assertEquals(archivado.getId(), memoria.buscarPorEmail("ROBERTO.RIVAS@test.com").orElseThrow().getId());
+            assertTrue(memoria.existe(archivado.getId()));
+            assertTrue(memoria.eliminar(archivado.getId()));
+            assertEquals(1, memoria.obtenerTodos().size());
+            assertEquals(1, memoria.obtenerEstadisticasEstudiantes().getEstudiantesInactivos());
+            assertEquals(1, memoria.obtenerPorFechaIngreso(LocalDate.MIN, LocalDate.MAX, null, false).size());
+            RepositorioException duplicado = assertThrows(RepositorioException.class,
+                () -> memoria.crear(new Estudiante("Otro", "Rivas", "roberto.rivas@test.com", "Medicina")));
+            assertEquals("EMAIL_DUPLICADO", duplicado.getCodigoError());
+        }
+        
+        @Test
+        @DisplayName("Debe promover al nivel caliente al reactivar")
+        void debePromoverAlReactivar() throws RepositorioException {
+            // Arrange
+            Estudiante creado = memoria.crear(estudianteEjemplo);
+            memoria.eliminar(creado.getId());
+            memoria.archivarInactivos();
+            
+            // Act
+            Estudiante reactivado = memoria.buscarPorId(creado.getId()).orElseThrow().copiar();
+            reactivado.activar();
+            memoria.actualizar(reactivado);
+            
+            // Assert
+            assertEquals(0, memoria.obtenerCantidadArchivados());
+            assertEquals(1, memoria.obtenerTodos().size());
+            assertEquals(1, memoria.obtenerPorCarrera("Ingeniería DevOps").size());
+            EstadisticasEstudiantes estadisticas = memoria.obtenerEstadisticasEstudiantes();
+            assertEquals(1, estadisticas.getEstudiantesActivos());
+            assertEquals(0, estadisticas.getEstudiantesInactivos());
+        }
+        
+        @Test
+        @DisplayName("Debe respetar la antigüedad mínima y los cambios posteriores")
+        void debeRespetarAntiguedadMinima() throws RepositorioException {
+            // Arrange
+            EstudianteRepositorioMemoria reciente = new EstudianteRepositorioMemoria();
+            reciente.configurarNivelFrio(Duration.ofDays(30));
+            Estudiante creado = reciente.crear(estudianteEjemplo);
+            reciente.eliminar(creado.getId());
+            
+            // Act
+            int archivados = reciente.archivarInactivos();
+            
+            // Assert
+            assertEquals(0, archivados);
+            assertEquals(0, reciente.obtenerCantidadArchivados());
+            assertThrows(IllegalArgumentException.class, () -> reciente.configurarNivelFrio(Duration.ofDays(-1)));
+        }
+        
+        @Test
+        @DisplayName("Debe incluir los archivados en la instantánea")
+        void debeIncluirArchivadosEnInstantanea() throws RepositorioException {
+            // Arrange
+            Estudiante creado = memoria.crear(estudianteEjemplo);
+            memoria.crear(new Estudiante("Ana", "García", "ana@test.com", "Medicina"));
+            memoria.eliminar(creado.getId());
+            memoria.archivarInactivos();
+            Path archivo = directorio.resolve("estudiantes.snap");
+            
+            // Act
+            memoria.guardarInstantanea(archivo);
+            EstudianteRepositorioMemoria restaurado = EstudianteRepositorioMemoria.desdeInstantanea(archivo, null);
+            
+            // Assert
+            assertFalse(restaurado.buscarPorId(creado.getId()).orElseThrow().isActivo());
+            assertEquals(2, restaurado.obtenerEstadisticasEstudiantes().getTotalEstudiantes());
+        }
+        
+        @Test
+        @DisplayName("Debe leer el nivel frío de las propiedades y archivar periódicamente")
+        void debeArchivarPeriodicamenteDesdeConfiguracion() throws Exception {
+            // Arrange
+            Properties propiedades = new Properties();
+            propiedades.setProperty(ConfiguracionRepositorioMemoria.PROPIEDAD_NIVEL_FRIO, "true");
+            propiedades.setProperty(ConfiguracionRepositorioMemoria.PROPIEDAD_DIAS_INACTIVO_FRIO, "7");
+            propiedades.setProperty(ConfiguracionRepositorioMemoria.PROPIEDAD_INTERVALO_ARCHIVO_MIN, "15");
+            ConfiguracionRepositorioMemoria leida = ConfiguracionRepositorioMemoria.desdePropiedades(propiedades);
+            ConfiguracionRepositorioMemoria rapida = leida.conNivelFrio(Duration.ZERO, Duration.ofMillis(10));
+            
+            // Act
+            EstudianteRepositorioMemoria programado = EstudianteRepositorioMemoria.conConfiguracion(rapida);
+            try {
+                Estudiante creado = programado.crear(estudianteEjemplo);
+                programado.eliminar(creado.getId());
+                long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (programado.obtenerCantidadArchivados() == 0 && System.nanoTime() < limite) {
+                    Thread.sleep(5);
+                }
+                
+                // Assert
+                assertTrue(leida.isNivelFrio());
+                assertEquals(Duration.ofDays(7), leida.getEdadMinimaFrio());
+                assertEquals(Duration.ofMinutes(15), leida.getIntervaloArchivo());
+                assertFalse(ConfiguracionRepositorioMemoria.porDefecto().isNivelFrio());
+                assertEquals(1, programado.obtenerCantidadArchivados());
+                assertFalse(programado.buscarPorId(creado.getId()).orElseThrow().isActivo());
+            } finally {
+                programado.cerrar();
+            }
+            propiedades.setProperty(ConfiguracionRepositorioMemoria.PROPIEDAD_INTERVALO_ARCHIVO_MIN, "0");
+            assertThrows(IllegalArgumentException.class, () -> ConfiguracionRepositorioMemoria.desdePropiedades(propiedades));
+        }
+    }
+
+    @Nested
+    @DisplayName("Modo Acotado con Desborde")
+    class ModoAcotado {
+        
+        @TempDir
+        Path directorio;
+        
+        private EstudianteRepositorioMemoria acotado;
+        private Path archivoDesborde;
+        
+        @BeforeEach
+        void configurarModoAcotado() throws RepositorioException {
+            // Unas 20 filas residentes (~300 B estimados por estudiante)
+            archivoDesborde = directorio.resolve("estudiantes.desborde");
+            acotado = EstudianteRepositorioMemoria.conConfiguracion(
+                new ConfiguracionRepositorioMemoria(64, 6_000L, archivoDesborde));
+        }
+        
+        private List<Estudiante> crearEstudiantes(int cantidad) throws RepositorioException {
+            List<Estudiante> creados = new ArrayList<>();
+            for (int i = 0; i < cantidad; i++) {
+                creados.add(acotado.crear(new Estudiante("Nombre" + i, "Apellido" + i, 
+                                                         "estudiante" + i + "@test.com", "Carrera" + (i % 3))));
+            }
+            return creados;
+        }
+        
+        @Test
+        @DisplayName("Debe respetar el presupuesto y seguir encontrando todas las filas")
+        void debeRespetarPresupuestoYSeguirEncontrando() throws RepositorioException, IOException {
+            // Act
+            List<Estudiante> creados = crearEstudiantes(300);
+            
+            // Assert
+            assertTrue(acotado.obtenerBytesResidentes() <= acotado.obtenerPresupuestoBytes());
+            assertTrue(acotado.obtenerCantidadDesbordados() > 250);
+            assertTrue(Files.size(archivoDesborde) > 0);
+            for (Estudiante creado : creados) {
+                assertEquals(creado.getEmail(), acotado.buscarPorId(creado.getId()).orElseThrow().getEmail());
+            }
+            assertEquals(creados.get(7).getId(), acotado.buscarPorEmail("ESTUDIANTE7@test.com").orElseThrow().getId());
+            assertEquals(300, acotado.obtenerTodos().size());
+            assertEquals(100, acotado.obtenerPorCarrera("Carrera1").size());
+            assertEquals(300, acotado.obtenerEstadisticasEstudiantes().getEstudiantesActivos());
+            assertTrue(acotado.obtenerBytesResidentes() <= acotado.obtenerPresupuestoBytes());
+            RepositorioException duplicado = assertThrows(RepositorioException.class,
+                () -> acotado.crear(new Estudiante("Otro", "Más", "estudiante42@test.com", "Carrera0")));
+            assertEquals("EMAIL_DUPLICADO", duplicado.getCodigoError());
+        }
+        
+        @Test
+        @DisplayName("Debe conservar en memoria las filas más usadas")
+        void debeConservarFilasMasUsadas() throws RepositorioException {
+            // Arrange
+            List<Estudiante> frecuentes = crearEstudiantes(10);
+            
+            // Act: las frecuentes se leen entre cada alta, las demás no se vuelven a leer
+            for (int i = 0; i < 300; i++) {
+                acotado.crear(new Estudiante("Ocasional", "Apellido" + i, "ocasional" + i + "@test.com", "Carrera"));
+                for (Estudiante frecuente : frecuentes) {
+                    acotado.buscarPorId(frecuente.getId());
+                }
+            }
+            
+            // Assert
+            for (Estudiante frecuente : frecuentes) {
+                assertTrue(acotado.estaResidente(frecuente.getId()), "Fila frecuente desalojada: " + frecuente.getId());
+            }
+            assertTrue(acotado.obtenerCantidadDesbordados() > 250);
+        }
+        
+        @Test
+        @DisplayName("Debe actualizar, desactivar y recargar filas desbordadas")
+        void debeActualizarFilasDesbordadas() throws RepositorioException {
+            // Arrange
+            List<Estudiante> creados = crearEstudiantes(100);
+            Estudiante primero = creados.get(0);
+            Estudiante segundo = creados.get(1);
+            assertFalse(acotado.estaResidente(primero.getId()));
+            assertFalse(acotado.estaResidente(segundo.getId()));
+            
+            // Act
+            Estudiante modificado = primero.copiar();
+            modificado.setCarrera("Medicina");
+            acotado.actualizar(modificado);
+            acotado.eliminar(segundo.getId());
+            
+            // Assert
+            assertEquals(1, acotado.obtenerPorCarrera("Medicina").size());
+            assertFalse(acotado.buscarPorId(segundo.getId()).orElseThrow().isActivo());
+            assertTrue(acotado.estaResidente(segundo.getId()));
+            EstadisticasEstudiantes estadisticas = acotado.obtenerEstadisticasEstudiantes();
+            assertEquals(99, estadisticas.getEstudiantesActivos());
+            assertEquals(1, estadisticas.getEstudiantesInactivos());
+            assertTrue(acotado.obtenerBytesResidentes() <= acotado.obtenerPresupuestoBytes());
+        }
+        
+        @Test
+        @DisplayName("Debe incluir las filas desbordadas en la instantánea y vaciarse al limpiar")
+        void debeIncluirDesbordadasEnInstantanea() throws RepositorioException, IOException {
+            // Arrange
+            crearEstudiantes(100);
+            Path instantanea = directorio.resolve("estudiantes.snap");
+            
+            // Act
+            acotado.guardarInstantanea(instantanea);
+            EstudianteRepositorioMemoria restaurado = EstudianteRepositorioMemoria.desdeInstantanea(instantanea, null);
+            acotado.limpiar();
+            
+            // Assert
+            assertEquals(100, restaurado.obtenerTodos().size());
+            assertEquals(0, acotado.obtenerCantidadDesbordados());
+            assertEquals(0, acotado.obtenerBytesResidentes());
+            assertEquals(0, Files.size(archivoDesborde));
+            assertEquals(1, acotado.crear(estudianteEjemplo).getId());
+        }
+        
+        @Test
+        @DisplayName("Debe leer la configuración de las propiedades")
+        void debeLeerConfiguracionDePropiedades() {
+            // Arrange
+            Properties propiedades = new Properties();
+            propiedades.setProperty(ConfiguracionRepositorioMemoria.PROPIEDAD_CAPACIDAD_INICIAL, "100");
+            propiedades.setProperty(ConfiguracionRepositorioMemoria.PROPIEDAD_PRESUPUESTO_MB, "64");
+            
+            // Act
+            ConfiguracionRepositorioMemoria sinLimite = ConfiguracionRepositorioMemoria.desdePropiedades(propiedades);
+            propiedades.setProperty(ConfiguracionRepositorioMemoria.PROPIEDAD_ACOTADO, "true");
+            ConfiguracionRepositorioMemoria conLimite = ConfiguracionRepositorioMemoria.desdePropiedades(propiedades);
+            
+            // Assert
+            assertEquals(100, sinLimite.getCapacidadInicial());
+            assertFalse(sinLimite.isAcotado());
+            assertEquals(64L * 1024 * 1024, conLimite.getPresupuestoBytes());
+            assertNull(conLimite.getArchivoDesborde());
+            propiedades.setProperty(ConfiguracionRepositorioMemoria.PROPIEDAD_CAPACIDAD_INICIAL, "0");
+            assertThrows(IllegalArgumentException.class, () -> ConfiguracionRepositorioMemoria.desdePropiedades(propiedades));
+        }
+    }
+
+    @Nested
+    @DisplayName("Contadores Mantenidos")
+    class ContadoresMantenidos {
+        
+        @Test
+        @DisplayName("Debe mantener contadores al crear, eliminar y reactivar")
+        void debeMantenerContadoresEnCadaEscritura() throws RepositorioException {
+            // Arrange
+            EstudianteRepositorioMemoria memoria = (EstudianteRepositorioMemoria) repositorio;
+            Estudiante creado = memoria.crear(estudianteEjemplo);
+            memoria.crear(new Estudiante("Ana", "García", "ana@test.com", "Medicina"));
+            
+            // Act
+            memoria.eliminar(creado.getId());
+            EstadisticasEstudiantes trasEliminar = memoria.obtenerEstadisticasEstudiantes();
+            Estudiante reactivado = memoria.buscarPorId(creado.getId()).orElseThrow().copiar();
+            reactivado.activar();
+            memoria.actualizar(reactivado);
+            EstadisticasEstudiantes trasReactivar = memoria.obtenerEstadisticasEstudiantes();
+            
+            // Assert
+            assertEquals(2, trasEliminar.getTotalEstudiantes());
+            assertEquals(1, trasEliminar.getEstudiantesActivos());
+            assertEquals(1, trasEliminar.getEstudiantesInactivos());
+            assertFalse(trasEliminar.getActivosPorCarrera().containsKey("Ingeniería DevOps"));
+            assertEquals(2, trasReactivar.getEstudiantesActivos());
+            assertEquals(1L, trasReactivar.getActivosPorCarrera().get("Ingeniería DevOps"));
+            assertEquals(2, memoria.contarEstudiantes());
+        }
+        
+        @Test
+        @DisplayName("Debe reflejar el cambio de carrera en los contadores")
+        void debeReflejarCambioDeCarrera() throws RepositorioException {
+            // Arrange
+            EstudianteRepositorioMemoria memoria = (EstudianteRepositorioMemoria) repositorio;
+            Estudiante creado = memoria.crear(estudianteEjemplo);
+            creado.setCarrera("Medicina");
+            
+            // Act
+            memoria.actualizar(creado);
+            Map<String, Object> estadisticas = memoria.obtenerEstadisticas();
+            
+            // Assert
+            assertEquals(1L, estadisticas.get("totalEstudiantes"));
+            assertEquals(Map.of("Medicina", 1L), estadisticas.get("estudiantesPorCarrera"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Unicidad Concurrente de Email")
+    class UnicidadConcurrenteEmail {
+        
+        private static final int HILOS = 16;
+        
+        @Test
+        @DisplayName("Solo un registro concurrente con el mismo email debe tener éxito")
+        void soloUnRegistroConcurrenteDebeTenerExito() throws Exception {
+            // Arrange
+            ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+            CountDownLatch salida = new CountDownLatch(1);
+            List<Future<Boolean>> resultados = new ArrayList<>();
+            for (int i = 0; i < HILOS; i++) {
+                final int indice = i;
+                resultados.add(ejecutor.submit(() -> {
+                    salida.await();
+                    try {
+                        repositorio.crear(new Estudiante("Hilo" + indice, "Test",
+                                                         "compartido@test.com", "Medicina"));
+                        return true;
+                    } catch (RepositorioException e) {
+                        return false;
+                    }
+                }));
+            }
+            
+            // Act
+            salida.countDown();
+            int exitos = 0;
+            for (Future<Boolean> resultado : resultados) {
+                exitos += resultado.get(10, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            ejecutor.shutdown();
+            
+            // Assert
+            assertEquals(1, exitos);
+            assertEquals(1, repositorio.contarEstudiantes());
+            assertTrue(repositorio.buscarPorEmail("compartido@test.com").isPresent());
+        }
+        
+        @Test
+        @DisplayName("Solo una actualización concurrente puede tomar un email libre")
+        void soloUnaActualizacionConcurrentePuedeTomarEmail() throws Exception {
+            // Arrange
+            List<Estudiante> creados = new ArrayList<>();
+            for (int i = 0; i < HILOS; i++) {
+                creados.add(repositorio.crear(new Estudiante("E" + i, "Test", "e" + i + "@test.com", "Medicina")));
+            }
+            ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+            CountDownLatch salida = new CountDownLatch(1);
+            List<Future<Boolean>> resultados = new ArrayList<>();
+            for (Estudiante creado : creados) {
+                resultados.add(ejecutor.submit(() -> {
+                    salida.await();
+                    creado.setEmail("disputado@test.com");
+                    try {
+                        repositorio.actualizar(creado);
+                        return true;
+                    } catch (RepositorioException e) {
+                        return false;
+                    }
+                }));
+            }
+            
+            // Act
+            salida.countDown();
+            int exitos = 0;
+            for (Future<Boolean> resultado : resultados) {
+                exitos += resultado.get(10, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            ejecutor.shutdown();
+            
+            // Assert
+            assertEquals(1, exitos);
+            long titulares = repositorio.obtenerTodos().stream()
+                    .filter(e -> "disputado@test.com".equals(e.getEmail()))
+                    .count();
+            assertEquals(1, titulares);
+        }
+        
+        @Test
+        @DisplayName("No debe consumir IDs cuando el email está duplicado")
+        void noDebeConsumirIdsConEmailDuplicado() throws RepositorioException {
+            // Arrange
+            Estudiante primero = repositorio.crear(estudianteEjemplo);
+            assertThrows(RepositorioException.class, () -> repositorio.crear(
+                new Estudiante("Otro", "Test", "roberto.rivas@test.com", "Medicina")));
+            
+            // Act
+            Estudiante segundo = repositorio.crear(new Estudiante("Ana", "García", "ana@test.com", "Medicina"));
+            
+            // Assert
+            assertEquals(primero.getId() + 1, segundo.getId());
+        }
+    }
+
+    @Nested
+    @DisplayName("Instantáneas Inmutables")
+    class InstantaneasInmutables {
+        
+        @Test
+        @DisplayName("Las lecturas deben compartir la misma instantánea sin copiar")
+        void lecturasDebenCompartirInstantanea() throws RepositorioException {
+            // Arrange
+            Estudiante creado = repositorio.crear(estudianteEjemplo);
+            
+            // Act
+            Estudiante porId = repositorio.buscarPorId(creado.getId()).orElseThrow();
+            Estudiante porEmail = repositorio.buscarPorEmail(creado.getEmail()).orElseThrow();
+            Estudiante enListado = repositorio.obtenerTodos().get(0);
+            
+            // Assert
+            assertSame(porId, porEmail);
+            assertSame(porId, enListado);
+            assertInstanceOf(EstudianteInmutable.class, porId);
+        }
+        
+        @Test
+        @DisplayName("Las instantáneas leídas no deben poder modificarse")
+        void instantaneasNoDebenPoderModificarse() throws RepositorioException {
+            // Arrange
+            Estudiante creado = repositorio.crear(estudianteEjemplo);
+            Estudiante leido = repositorio.buscarPorId(creado.getId()).orElseThrow();
+            
+            // Act & Assert
+            assertThrows(UnsupportedOperationException.class, () -> leido.setNombre("Otro"));
+            assertThrows(UnsupportedOperationException.class, leido::desactivar);
+            assertEquals("Roberto", repositorio.buscarPorId(creado.getId()).orElseThrow().getNombre());
+        }
+        
+        @Test
+        @DisplayName("Eliminar debe reemplazar la instantánea en lugar de mutarla")
+        void eliminarDebeReemplazarInstantanea() throws RepositorioException {
+            // Arrange
+            Estudiante creado = repositorio.crear(estudianteEjemplo);
+            Estudiante antes = repositorio.buscarPorId(creado.getId()).orElseThrow();
+            
+            // Act
+            repositorio.eliminar(creado.getId());
+            Estudiante despues = repositorio.buscarPorId(creado.getId()).orElseThrow();
+            
+            // Assert
+            assertTrue(antes.isActivo());
+            assertFalse(despues.isActivo());
+            assertNotSame(antes, despues);
+        }
+        
+        @Test
+        @DisplayName("Crear debe devolver una copia modificable")
+        void crearDebeDevolverCopiaModificable() throws RepositorioException {
+            // Act
+            Estudiante creado = repositorio.crear(estudianteEjemplo);
+            creado.setNombre("Modificado");
+            
+            // Assert
+            assertFalse(creado instanceof EstudianteInmutable);
+            assertEquals("Roberto", repositorio.buscarPorId(creado.getId()).orElseThrow().getNombre());
+        }
+    }
+
     @Nested
     @DisplayName("Pruebas con Mockito")
     class PruebasConMockito {
@@ -309,4 +1311,452 @@ public class EstudianteRepositorioTest {
             assertEquals("MOCK_ERROR", excepcion.getCodigoError());
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Lecturas multiversión consistentes")
+    class LecturasMultiversion {
+
+        @Test
+        @DisplayName("Debe listar todas las filas en una misma versión bajo escrituras")
+        void debeListarFilasEnUnaMismaVersion() throws Exception {
+            // Arrange: el escritor actualiza siempre A y luego B con la misma ronda,
+            // así que en cualquier versión la ronda de A es igual o una más que la de B
+            EstudianteRepositorioMemoria memoria = new EstudianteRepositorioMemoria();
+            for (int i = 0; i < 500; i++) {
+                memoria.crear(new Estudiante("Relleno", "Apellido", "r" + i + "@test.com", "Ronda 0"));
+            }
+            Estudiante a = memoria.crear(new Estudiante("Alfa", "Apellido", "a@test.com", "Ronda 0"));
+            Estudiante b = memoria.crear(new Estudiante("Beta", "Apellido", "b@test.com", "Ronda 0"));
+            ExecutorService ejecutor = Executors.newSingleThreadExecutor();
+            AtomicBoolean detener = new AtomicBoolean();
+
+            try {
+                Future<?> escritor = ejecutor.submit(() -> {
+                    for (int ronda = 1; !detener.get(); ronda++) {
+                        a.setCarrera("Ronda " + ronda);
+                        memoria.actualizar(a);
+                        b.setCarrera("Ronda " + ronda);
+                        memoria.actualizar(b);
+                    }
+                    return null;
+                });
+
+                // Act & Assert
+                for (int lectura = 0; lectura < 300; lectura++) {
+                    int rondaA = -1;
+                    int rondaB = -1;
+                    for (Estudiante estudiante : memoria.obtenerTodos()) {
+                        if (estudiante.getId().equals(a.getId())) {
+                            rondaA = Integer.parseInt(estudiante.getCarrera().substring(6));
+                        } else if (estudiante.getId().equals(b.getId())) {
+                            rondaB = Integer.parseInt(estudiante.getCarrera().substring(6));
+                        }
+                    }
+                    assertTrue(rondaA == rondaB || rondaA == rondaB + 1,
+                               "Vista inconsistente: A=" + rondaA + ", B=" + rondaB);
+                }
+                detener.set(true);
+                escritor.get(10, TimeUnit.SECONDS);
+            } finally {
+                detener.set(true);
+                ejecutor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("Debe reportar estadísticas que cuadran bajo escrituras concurrentes")
+        void debeReportarEstadisticasQueCuadran() throws Exception {
+            // Arrange
+            EstudianteRepositorioMemoria memoria = new EstudianteRepositorioMemoria();
+            String[] carreras = {"Ingeniería DevOps", "Ciencia de Datos", "Ciberseguridad"};
+            ExecutorService ejecutor = Executors.newFixedThreadPool(3);
+            AtomicBoolean detener = new AtomicBoolean();
+
+            try {
+                List<Future<?>> escritores = new ArrayList<>();
+                for (int h = 0; h < 3; h++) {
+                    int hilo = h;
+                    escritores.add(ejecutor.submit(() -> {
+                        for (int i = 0; !detener.get(); i++) {
+                            Estudiante creado = memoria.crear(new Estudiante("Nombre", "Apellido",
+                                "h" + hilo + "e" + i + "@test.com", carreras[i % carreras.length]));
+                            if (i % 3 == 0) {
+                                memoria.eliminar(creado.getId());
+                            }
+                        }
+                        return null;
+                    }));
+                }
+
+                // Act & Assert
+                for (int lectura = 0; lectura < 2000; lectura++) {
+                    EstadisticasEstudiantes vista = memoria.obtenerEstadisticasEstudiantes();
+                    long sumaCarreras = vista.getActivosPorCarrera().values().stream().mapToLong(Long::longValue).sum();
+                    assertEquals(vista.getEstudiantesActivos(), sumaCarreras);
+                    assertEquals(vista.getTotalEstudiantes(),
+                                 vista.getEstudiantesActivos() + vista.getEstudiantesInactivos());
+                }
+                detener.set(true);
+                for (Future<?> escritor : escritores) {
+                    escritor.get(10, TimeUnit.SECONDS);
+                }
+            } finally {
+                detener.set(true);
+                ejecutor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("No debe contar dos veces a los inactivos archivados durante el recorrido")
+        void noDebeContarDosVecesLosArchivadosDuranteElRecorrido() throws Exception {
+            // Arrange: el escritor mantiene escrituras en curso para que las
+            // estadísticas se calculen recorriendo una versión fijada
+            EstudianteRepositorioMemoria memoria = new EstudianteRepositorioMemoria();
+            memoria.configurarNivelFrio(Duration.ZERO);
+            Estudiante activo = memoria.crear(new Estudiante("Activo", "Apellido", "activo@test.com", "Ronda 0"));
+            int inactivos = 5000;
+            for (int i = 0; i < inactivos; i++) {
+                Estudiante creado = memoria.crear(new Estudiante("Inactivo", "Apellido", "i" + i + "@test.com", "Medicina"));
+                memoria.eliminar(creado.getId());
+            }
+            ExecutorService ejecutor = Executors.newFixedThreadPool(2);
+            AtomicBoolean detener = new AtomicBoolean();
+
+            try {
+                Future<?> escritor = ejecutor.submit(() -> {
+                    for (int ronda = 1; !detener.get(); ronda++) {
+                        activo.setCarrera("Ronda " + ronda);
+                        memoria.actualizar(activo);
+                    }
+                    return null;
+                });
+                Future<Integer> archivador = ejecutor.submit(memoria::archivarInactivos);
+
+                // Act & Assert
+                do {
+                    EstadisticasEstudiantes vista = memoria.obtenerEstadisticasEstudiantes();
+                    assertEquals(inactivos, vista.getEstudiantesInactivos());
+                    assertEquals(inactivos + 1, vista.getTotalEstudiantes());
+                } while (!archivador.isDone());
+                assertEquals(inactivos, archivador.get(10, TimeUnit.SECONDS));
+                detener.set(true);
+                escritor.get(10, TimeUnit.SECONDS);
+            } finally {
+                detener.set(true);
+                ejecutor.shutdownNow();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Flujo de Cambios")
+    class FlujoCambios {
+
+        @Test
+        @DisplayName("Debe emitir creación, actualización y desactivación con sus imágenes")
+        void debeEmitirCambiosConImagenes() throws Exception {
+            // Arrange
+            EstudianteRepositorioMemoria memoria = new EstudianteRepositorioMemoria();
+            RecolectorCambios recolector = new RecolectorCambios();
+            memoria.suscribir(recolector);
+            recolector.esperarSuscripcion();
+
+            // Act
+            Estudiante creado = memoria.crear(estudianteEjemplo);
+            creado.setCarrera("Ingeniería de Sistemas");
+            memoria.actualizar(creado);
+            memoria.eliminar(creado.getId());
+            memoria.eliminar(creado.getId()); // Ya inactivo: no es un cambio
+
+            // Assert
+            List<EventoCambio> eventos = recolector.esperar(3);
+            assertEquals(List.of(EventoCambio.TipoCambio.CREADO, EventoCambio.TipoCambio.ACTUALIZADO,
+                                 EventoCambio.TipoCambio.DESACTIVADO),
+                         eventos.stream().map(EventoCambio::getTipo).toList());
+            assertNull(eventos.get(0).getAnterior());
+            assertEquals("Ingeniería DevOps", eventos.get(1).getAnterior().getCarrera());
+            assertEquals("Ingeniería de Sistemas", eventos.get(1).getPosterior().getCarrera());
+            assertFalse(eventos.get(2).getPosterior().isActivo());
+            assertEquals(List.of(1L, 2L, 3L), eventos.stream().map(EventoCambio::getSecuencia).toList());
+            assertEquals(3, memoria.obtenerUltimaSecuencia());
+        }
+
+        @Test
+        @DisplayName("Debe entregar secuencias crecientes y en orden por fila con escritores concurrentes")
+        void debeEntregarEnOrdenConEscritoresConcurrentes() throws Exception {
+            // Arrange
+            EstudianteRepositorioMemoria memoria = new EstudianteRepositorioMemoria();
+            RecolectorCambios recolector = new RecolectorCambios();
+            memoria.suscribir(recolector);
+            recolector.esperarSuscripcion();
+            int hilos = 4;
+            int actualizacionesPorHilo = 200;
+            List<Estudiante> creados = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                creados.add(memoria.crear(new Estudiante("E" + h, "Rivas", "e" + h + "@test.com", "C0")));
+            }
+            ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+
+            // Act: cada hilo reescribe la carrera de su estudiante con un contador creciente
+            List<Future<?>> tareas = new ArrayList<>();
+            for (Estudiante estudiante : creados) {
+                tareas.add(ejecutor.submit(() -> {
+                    for (int i = 1; i <= actualizacionesPorHilo; i++) {
+                        Estudiante cambio = estudiante.copiar();
+                        cambio.setCarrera("C" + i);
+                        memoria.actualizar(cambio);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get(30, TimeUnit.SECONDS);
+            }
+            ejecutor.shutdown();
+
+            // Assert
+            int total = hilos + hilos * actualizacionesPorHilo;
+            assertEquals(total, memoria.obtenerUltimaSecuencia());
+            List<EventoCambio> eventos = recolector.esperar((int) (total - memoria.obtenerEventosDescartados()));
+            long secuenciaPrevia = 0;
+            Map<Long, Integer> ultimaCarreraPorId = new java.util.HashMap<>();
+            for (EventoCambio evento : eventos) {
+                assertTrue(evento.getSecuencia() > secuenciaPrevia, "Secuencias fuera de orden");
+                secuenciaPrevia = evento.getSecuencia();
+                int carrera = Integer.parseInt(evento.getPosterior().getCarrera().substring(1));
+                Integer previa = ultimaCarreraPorId.put(evento.getIdEstudiante(), carrera);
+                assertTrue(previa == null || previa < carrera, "Cambios de una fila fuera de orden");
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Modo duradero con registro de escritura anticipada")
+    class ModoDuradero {
+
+        @TempDir
+        Path directorio;
+
+        @Test
+        @DisplayName("Debe reconstruir estado, índices y contador de IDs al reiniciar")
+        void debeReconstruirEstadoAlReiniciar() throws Exception {
+            // Arrange
+            Path archivo = directorio.resolve("estudiantes.wal");
+            Long idAna;
+            try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo, PoliticaSincronizacion.SIEMPRE)) {
+                EstudianteRepositorioMemoria duradero = EstudianteRepositorioMemoria.conRegistro(registro);
+                Estudiante ana = duradero.crear(new Estudiante("Ana", "Rivas", "ana@test.com", "Ingeniería DevOps"));
+                Estudiante luis = duradero.crear(new Estudiante("Luis", "Soto", "luis@test.com", "Ingeniería DevOps"));
+                ana.setEmail("ana.nueva@test.com");
+                ana.setCarrera("Ciencia de Datos");
+                duradero.actualizar(ana);
+                duradero.eliminar(luis.getId());
+                idAna = ana.getId();
+            }
+
+            // Act
+            try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo, PoliticaSincronizacion.SIEMPRE)) {
+                EstudianteRepositorioMemoria recuperado = EstudianteRepositorioMemoria.conRegistro(registro);
+
+                // Assert
+                assertEquals(1, recuperado.contarEstudiantes());
+                assertEquals(idAna, recuperado.buscarPorEmail("ana.nueva@test.com").orElseThrow().getId());
+                assertFalse(recuperado.existePorEmail("ana@test.com"));
+                assertTrue(recuperado.existePorEmail("luis@test.com"));
+                assertEquals(1, recuperado.obtenerPorCarrera("ciencia de datos").size());
+                assertTrue(recuperado.obtenerPorCarrera("Ingeniería DevOps").isEmpty());
+                assertEquals(3L, recuperado.crear(new Estudiante("Eva", "Paz", "eva@test.com", "Ciberseguridad")).getId());
+            }
+        }
+
+        @Test
+        @DisplayName("Debe reproducir la limpieza del repositorio")
+        void debeReproducirLimpieza() throws Exception {
+            // Arrange
+            Path archivo = directorio.resolve("limpieza.wal");
+            try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo, PoliticaSincronizacion.POR_LOTES)) {
+                EstudianteRepositorioMemoria duradero = EstudianteRepositorioMemoria.conRegistro(registro);
+                duradero.crear(new Estudiante("Ana", "Rivas", "ana@test.com", "Ingeniería DevOps"));
+                duradero.limpiar();
+                duradero.crear(new Estudiante("Luis", "Soto", "luis@test.com", "Ingeniería DevOps"));
+            }
+
+            // Act
+            try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo, PoliticaSincronizacion.POR_LOTES)) {
+                EstudianteRepositorioMemoria recuperado = EstudianteRepositorioMemoria.conRegistro(registro);
+
+                // Assert
+                assertEquals(1, recuperado.contarEstudiantes());
+                assertFalse(recuperado.existePorEmail("ana@test.com"));
+                assertEquals(1L, recuperado.buscarPorEmail("luis@test.com").orElseThrow().getId());
+            }
+        }
+
+        @Test
+        @DisplayName("Debe restaurar desde instantánea más la cola del registro")
+        void debeRestaurarDesdeInstantaneaYCola() throws Exception {
+            // Arrange
+            Path archivo = directorio.resolve("estudiantes.wal");
+            Path instantanea = directorio.resolve("estudiantes.snap");
+            try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo, PoliticaSincronizacion.SIEMPRE)) {
+                EstudianteRepositorioMemoria duradero = EstudianteRepositorioMemoria.conRegistro(registro);
+                Estudiante ana = duradero.crear(new Estudiante("Ana", "Rivas", "ana@test.com", "Ingeniería DevOps"));
+                duradero.crear(new Estudiante("Luis", "Soto", "luis@test.com", "Ingeniería DevOps"));
+                assertEquals(2L, duradero.guardarInstantanea(instantanea));
+                duradero.eliminar(ana.getId());
+                duradero.crear(new Estudiante("Eva", "Paz", "eva@test.com", "Ciberseguridad"));
+            }
+
+            // Act
+            try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo, PoliticaSincronizacion.SIEMPRE)) {
+                EstudianteRepositorioMemoria recuperado = EstudianteRepositorioMemoria.desdeInstantanea(instantanea, registro);
+
+                // Assert
+                assertEquals(2, recuperado.contarEstudiantes());
+                assertFalse(recuperado.buscarPorId(1L).orElseThrow().isActivo());
+                assertTrue(recuperado.existePorEmail("eva@test.com"));
+                assertEquals(1, recuperado.obtenerPorCarrera("ciberseguridad").size());
+                assertEquals(4L, recuperado.crear(new Estudiante("Sol", "Mar", "sol@test.com", "Ciberseguridad")).getId());
+            }
+        }
+
+        @Test
+        @DisplayName("Debe acotar el registro con un punto de control")
+        void debeAcotarRegistroConPuntoControl() throws Exception {
+            // Arrange
+            Path archivo = directorio.resolve("control.wal");
+            Path instantanea = directorio.resolve("control.snap");
+            try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo, PoliticaSincronizacion.SIEMPRE)) {
+                EstudianteRepositorioMemoria duradero = EstudianteRepositorioMemoria.conRegistro(registro);
+                for (int i = 0; i < 20; i++) {
+                    duradero.crear(new Estudiante("Nombre", "Apellido", "e" + i + "@test.com", "Ingeniería DevOps"));
+                }
+
+                // Act
+                duradero.crearPuntoControl(instantanea);
+                duradero.eliminar(1L);
+            }
+
+            // Assert
+            try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo, PoliticaSincronizacion.SIEMPRE)) {
+                assertEquals(2L, registro.reproducir((tipo, imagen) -> { }));
+                EstudianteRepositorioMemoria recuperado = EstudianteRepositorioMemoria.desdeInstantanea(instantanea, registro);
+                assertEquals(19, recuperado.contarEstudiantes());
+                assertEquals(21L, recuperado.obtenerEstadisticas().get("proximoId"));
+            }
+        }
+
+        @Test
+        @DisplayName("Debe producir una instantánea consistente con escritores concurrentes")
+        void debeProducirInstantaneaConsistenteConEscritores() throws Exception {
+            // Arrange
+            Path archivo = directorio.resolve("concurrente.wal");
+            Path instantanea = directorio.resolve("concurrente.snap");
+            int hilos = 4;
+            int operacionesPorHilo = 100;
+            ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+            List<Estudiante> esperados;
+            try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo, PoliticaSincronizacion.INTERVALO)) {
+                EstudianteRepositorioMemoria duradero = EstudianteRepositorioMemoria.conRegistro(registro);
+                CountDownLatch inicio = new CountDownLatch(1);
+                List<Future<?>> tareas = new ArrayList<>();
+                for (int h = 0; h < hilos; h++) {
+                    int hilo = h;
+                    tareas.add(ejecutor.submit(() -> {
+                        inicio.await();
+                        for (int i = 0; i < operacionesPorHilo; i++) {
+                            Estudiante creado = duradero.crear(new Estudiante("Nombre", "Apellido",
+                                "h" + hilo + "e" + i + "@test.com", "Ingeniería DevOps"));
+                            if (i % 2 == 0) {
+                                creado.setCarrera("Ciencia de Datos");
+                                duradero.actualizar(creado);
+                            }
+                            if (i % 5 == 0) {
+                                duradero.eliminar(creado.getId());
+                            }
+                        }
+                        return null;
+                    }));
+                }
+
+                // Act
+                inicio.countDown();
+                duradero.guardarInstantanea(instantanea);
+                for (Future<?> tarea : tareas) {
+                    tarea.get(30, TimeUnit.SECONDS);
+                }
+                esperados = new ArrayList<>(duradero.obtenerTodos());
+            } finally {
+                ejecutor.shutdownNow();
+            }
+
+            // Assert
+            try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo, PoliticaSincronizacion.SIEMPRE)) {
+                EstudianteRepositorioMemoria recuperado = EstudianteRepositorioMemoria.desdeInstantanea(instantanea, registro);
+                List<Estudiante> restaurados = recuperado.obtenerTodos();
+                assertEquals(esperados.size(), restaurados.size());
+                assertTrue(restaurados.containsAll(esperados));
+                for (Estudiante esperado : esperados) {
+                    assertEquals(esperado.getCarrera(), recuperado.buscarPorId(esperado.getId()).orElseThrow().getCarrera());
+                }
+                assertEquals(hilos * operacionesPorHilo, recuperado.obtenerEstadisticasEstudiantes().getTotalEstudiantes());
+            }
+        }
+
+        @Test
+        @DisplayName("Debe informar PERSISTENCIA_ERROR al escribir con el registro cerrado")
+        void debeInformarErrorDePersistenciaConRegistroCerrado() throws Exception {
+            // Arrange
+            RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(
+                directorio.resolve("cerrado.wal"), PoliticaSincronizacion.SIEMPRE);
+            EstudianteRepositorioMemoria duradero = EstudianteRepositorioMemoria.conRegistro(registro);
+            Estudiante ana = duradero.crear(new Estudiante("Ana", "Rivas", "ana@test.com", "Ingeniería DevOps"));
+            registro.close();
+
+            // Act
+            RepositorioException alCrear = assertThrows(RepositorioException.class,
+                () -> duradero.crear(new Estudiante("Luis", "Soto", "luis@test.com", "Ingeniería DevOps")));
+            ana.setEmail("ana.nueva@test.com");
+            RepositorioException alActualizar = assertThrows(RepositorioException.class, () -> duradero.actualizar(ana));
+            RepositorioException alEliminar = assertThrows(RepositorioException.class, () -> duradero.eliminar(ana.getId()));
+
+            // Assert: ninguna operación rechazada quedó aplicada ni retuvo su email
+            assertEquals("PERSISTENCIA_ERROR", alCrear.getCodigoError());
+            assertEquals("PERSISTENCIA_ERROR", alActualizar.getCodigoError());
+            assertEquals("PERSISTENCIA_ERROR", alEliminar.getCodigoError());
+            assertFalse(duradero.existePorEmail("luis@test.com"));
+            assertFalse(duradero.existePorEmail("ana.nueva@test.com"));
+            assertTrue(duradero.buscarPorId(ana.getId()).orElseThrow().isActivo());
+            assertEquals(1, duradero.contarEstudiantes());
+        }
+
+        @Test
+        @DisplayName("Debe activar el modo duradero desde las propiedades")
+        void debeActivarModoDuraderoDesdePropiedades() throws Exception {
+            // Arrange
+            Properties propiedades = new Properties();
+            propiedades.setProperty(ConfiguracionRepositorioMemoria.PROPIEDAD_DURADERO, "true");
+            propiedades.setProperty(ConfiguracionRepositorioMemoria.PROPIEDAD_ARCHIVO_REGISTRO,
+                                    directorio.resolve("datos/estudiantes.wal").toString());
+            propiedades.setProperty(ConfiguracionRepositorioMemoria.PROPIEDAD_POLITICA_SINCRONIZACION, "siempre");
+            ConfiguracionRepositorioMemoria configuracion = ConfiguracionRepositorioMemoria.desdePropiedades(propiedades);
+            EstudianteRepositorioMemoria duradero = EstudianteRepositorioMemoria.conConfiguracion(configuracion);
+            Estudiante ana = duradero.crear(new Estudiante("Ana", "Rivas", "ana@test.com", "Ingeniería DevOps"));
+            duradero.cerrar();
+
+            // Act
+            EstudianteRepositorioMemoria recuperado = EstudianteRepositorioMemoria.conConfiguracion(configuracion);
+
+            // Assert
+            try {
+                assertTrue(configuracion.isDuradero());
+                assertEquals(PoliticaSincronizacion.SIEMPRE, configuracion.getPoliticaSincronizacion());
+                assertEquals(ana.getId(), recuperado.buscarPorEmail("ana@test.com").orElseThrow().getId());
+                propiedades.setProperty(ConfiguracionRepositorioMemoria.PROPIEDAD_POLITICA_SINCRONIZACION, "NUNCA");
+                assertThrows(IllegalArgumentException.class, () -> ConfiguracionRepositorioMemoria.desdePropiedades(propiedades));
+            } finally {
+                recuperado.cerrar();
+            }
+        }
+    }
+}
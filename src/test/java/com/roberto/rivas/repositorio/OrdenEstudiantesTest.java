@@ -0,0 +1,144 @@
+package com.roberto.rivas.repositorio;
+
+import com.roberto.rivas.modelo.Estudiante;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del orden de los listados: mismo criterio que la collation
+ * utf8mb4_unicode_ci de la tabla y el mismo en todos los repositorios en memoria,
+ * tanto en los listados completos como al recorrerlos por páginas
+ *
+ * @author Roberto Rivas Lopez
+ */
+@DisplayName("Pruebas del Orden de los Listados de Estudiantes")
+public class OrdenEstudiantesTest {
+
+    // Apellidos en el orden de ORDER BY apellido con utf8mb4_unicode_ci
+    private static final List<String> APELLIDOS_ORDENADOS =
+        List.of("álvarez", "Álvaro", "de la Cruz", "ortega", "Ortiz", "Zúñiga");
+
+    static Stream<Arguments> repositorios() {
+        return Stream.of(
+            Arguments.of("Memoria", (Supplier<IEstudianteRepositorio>) EstudianteRepositorioMemoria::new),
+            Arguments.of("Columnar", (Supplier<IEstudianteRepositorio>) EstudianteRepositorioColumnar::new),
+            Arguments.of("FueraDeHeap", (Supplier<IEstudianteRepositorio>) EstudianteRepositorioFueraDeHeap::new),
+            Arguments.of("Particionado", (Supplier<IEstudianteRepositorio>) () -> new EstudianteRepositorioParticionado(4)),
+            Arguments.of("Persistente", (Supplier<IEstudianteRepositorio>) EstudianteRepositorioPersistente::new));
+    }
+
+    private static List<String> recorrerPaginas(IEstudianteRepositorio repositorio, String carrera)
+            throws RepositorioException {
+        List<String> nombres = new ArrayList<>();
+        String token = null;
+        do {
+            Pagina<Estudiante> pagina = carrera == null
+                ? repositorio.obtenerPagina(token, 2)
+                : repositorio.obtenerPaginaPorCarrera(carrera, token, 2);
+            pagina.getElementos().forEach(estudiante -> nombres.add(estudiante.getNombre()));
+            token = pagina.getSiguienteToken();
+        } while (token != null);
+        return nombres;
+    }
+
+    private static Estudiante estudiante(String nombre, String apellido, long id) {
+        Estudiante estudiante = new Estudiante(nombre, apellido, nombre + id + "@test.com", "Medicina");
+        estudiante.setId(id);
+        return estudiante;
+    }
+
+    @Nested
+    @DisplayName("Comparador")
+    class Comparador {
+
+        @Test
+        @DisplayName("Debe ordenar sin distinguir mayúsculas ni acentos")
+        void debeOrdenarComoLaCollation() {
+            // Arrange
+            List<Estudiante> estudiantes = new ArrayList<>();
+            List<String> desordenados = List.of("Zúñiga", "Ortiz", "álvarez", "de la Cruz", "Álvaro", "ortega");
+            for (int i = 0; i < desordenados.size(); i++) {
+                estudiantes.add(estudiante("Ana", desordenados.get(i), i + 1));
+            }
+
+            // Act
+            estudiantes.sort(OrdenEstudiantes.ESTUDIANTE);
+
+            // Assert
+            assertEquals(APELLIDOS_ORDENADOS, estudiantes.stream().map(Estudiante::getApellido).toList());
+        }
+
+        @Test
+        @DisplayName("Debe desempatar apellidos equivalentes por nombre y luego por ID")
+        void debeDesempatarPorNombreEId() {
+            // Arrange
+            Estudiante zoe = estudiante("Zoe", "Perez", 1);
+            Estudiante ana = estudiante("Ana", "PÉREZ", 2);
+            Estudiante otraAna = estudiante("ana", "pérez", 3);
+
+            // Act
+            List<Estudiante> ordenados = new ArrayList<>(List.of(zoe, otraAna, ana));
+            ordenados.sort(OrdenEstudiantes.ESTUDIANTE);
+
+            // Assert
+            assertEquals(List.of(ana, otraAna, zoe), ordenados);
+            assertNotEquals(0, OrdenEstudiantes.ESTUDIANTE.compare(estudiante("Ana", "Perez", 4),
+                                                                   estudiante("Ana", "Pérez", 4)));
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositorios")
+    @DisplayName("Debe listar en el orden de la collation en cada repositorio")
+    void debeListarEnElMismoOrden(String nombre, Supplier<IEstudianteRepositorio> fabrica)
+            throws RepositorioException {
+        // Arrange
+        IEstudianteRepositorio repositorio = fabrica.get();
+        List<String> desordenados = List.of("Zúñiga", "Ortiz", "álvarez", "de la Cruz", "Álvaro", "ortega");
+        for (String apellido : desordenados) {
+            repositorio.crear(new Estudiante("Ana", apellido,
+                apellido.replace(" ", "").toLowerCase() + "@test.com", "Medicina"));
+        }
+
+        // Act
+        List<String> todos = repositorio.obtenerTodos().stream().map(Estudiante::getApellido).toList();
+        List<String> porCarrera = repositorio.obtenerPorCarrera("Medicina").stream()
+            .map(Estudiante::getApellido).toList();
+
+        // Assert
+        assertEquals(APELLIDOS_ORDENADOS, todos, nombre);
+        assertEquals(APELLIDOS_ORDENADOS, porCarrera, nombre);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositorios")
+    @DisplayName("Debe recorrer todas las páginas en orden aunque se inserten desordenados")
+    void debeRecorrerPaginasEnOrden(String nombre, Supplier<IEstudianteRepositorio> fabrica)
+            throws RepositorioException {
+        // Arrange
+        IEstudianteRepositorio repositorio = fabrica.get();
+        for (String nombreEstudiante : List.of("Alfa", "Zeta", "Beta", "Mu", "Delta", "Omega", "Gamma", "Kappa")) {
+            repositorio.crear(new Estudiante(nombreEstudiante, "Rivas", nombreEstudiante.toLowerCase() + "@test.com",
+                nombreEstudiante.length() == 4 ? "Sistemas" : "Medicina"));
+        }
+
+        // Act
+        List<String> todos = recorrerPaginas(repositorio, null);
+        List<String> sistemas = recorrerPaginas(repositorio, "Sistemas");
+
+        // Assert
+        assertEquals(List.of("Alfa", "Beta", "Delta", "Gamma", "Kappa", "Mu", "Omega", "Zeta"), todos, nombre);
+        assertEquals(List.of("Alfa", "Beta", "Zeta"), sistemas, nombre);
+    }
+}
@@ -0,0 +1,126 @@
+package com.roberto.rivas.repositorio;
+
+import com.roberto.rivas.modelo.Estudiante;
+import com.roberto.rivas.modelo.EstudianteInmutable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias del publicador de eventos de cambio
+ *
+ * @author Roberto Rivas Lopez
+ */
+@DisplayName("Pruebas de PublicadorCambios")
+class PublicadorCambiosTest {
+
+    private PublicadorCambios publicador;
+
+    @AfterEach
+    void cerrarPublicador() {
+        if (publicador != null) {
+            publicador.cerrar();
+        }
+    }
+
+    private static EstudianteInmutable estudiante(long id) {
+        return EstudianteInmutable.conId(new Estudiante("N" + id, "Rivas", "e" + id + "@test.com", "Sistemas"), id);
+    }
+
+    @Nested
+    @DisplayName("Entrega de Eventos")
+    class EntregaEventos {
+
+        @Test
+        @DisplayName("No debe asignar secuencias si no hay suscriptores")
+        void noDebeAsignarSecuenciasSinSuscriptores() {
+            // Arrange
+            publicador = new PublicadorCambios();
+
+            // Act
+            publicador.publicar(null, estudiante(1));
+
+            // Assert
+            assertEquals(0, publicador.obtenerUltimaSecuencia());
+            assertEquals(0, publicador.obtenerCantidadSuscriptores());
+        }
+
+        @Test
+        @DisplayName("Debe derivar el tipo de cambio de las imágenes")
+        void debeDerivarTipoDeCambio() throws InterruptedException {
+            // Arrange
+            publicador = new PublicadorCambios();
+            RecolectorCambios recolector = new RecolectorCambios();
+            publicador.suscribir(recolector);
+            recolector.esperarSuscripcion();
+            EstudianteInmutable creado = estudiante(1);
+            EstudianteInmutable inactivo = creado.conActivo(false);
+
+            // Act
+            publicador.publicar(null, creado);
+            publicador.publicar(creado, creado);
+            publicador.publicar(creado, inactivo);
+            publicador.publicar(inactivo, creado);
+
+            // Assert
+            List<EventoCambio> eventos = recolector.esperar(4);
+            assertEquals(List.of(EventoCambio.TipoCambio.CREADO, EventoCambio.TipoCambio.ACTUALIZADO,
+                                 EventoCambio.TipoCambio.DESACTIVADO, EventoCambio.TipoCambio.REACTIVADO),
+                         eventos.stream().map(EventoCambio::getTipo).toList());
+            assertEquals(List.of(1L, 2L, 3L, 4L), eventos.stream().map(EventoCambio::getSecuencia).toList());
+            assertEquals(4, publicador.obtenerUltimaSecuencia());
+        }
+
+        @Test
+        @DisplayName("Debe descartar y contar eventos para un suscriptor sin demanda sin bloquear")
+        void debeDescartarSinBloquear() throws InterruptedException {
+            // Arrange: buffer de 2 eventos y un suscriptor que nunca pide
+            publicador = new PublicadorCambios(2);
+            RecolectorCambios lento = new RecolectorCambios(0);
+            publicador.suscribir(lento);
+            lento.esperarSuscripcion();
+
+            // Act
+            for (long id = 1; id <= 10; id++) {
+                publicador.publicar(null, estudiante(id));
+            }
+
+            // Assert
+            assertEquals(10, publicador.obtenerUltimaSecuencia());
+            assertEquals(8, publicador.obtenerEventosDescartados());
+        }
+    }
+
+    @Nested
+    @DisplayName("Secuencias Asignadas por el Repositorio")
+    class SecuenciasAsignadas {
+
+        @Test
+        @DisplayName("Debe entregar en orden de secuencia aunque lleguen desordenadas")
+        void debeReordenarSecuencias() throws InterruptedException {
+            // Arrange
+            publicador = new PublicadorCambios();
+            RecolectorCambios recolector = new RecolectorCambios();
+            publicador.suscribir(recolector);
+            recolector.esperarSuscripcion();
+
+            // Act
+            publicador.publicarEnOrden(3, null, estudiante(3));
+            publicador.publicarEnOrden(2, null, estudiante(2));
+            long antesDelPrimero = publicador.obtenerUltimaSecuencia();
+            publicador.publicarEnOrden(1, null, estudiante(1));
+
+            // Assert
+            assertEquals(0, antesDelPrimero);
+            List<EventoCambio> eventos = recolector.esperar(3);
+            assertEquals(List.of(1L, 2L, 3L), eventos.stream().map(EventoCambio::getSecuencia).toList());
+            assertEquals(List.of(1L, 2L, 3L), eventos.stream().map(EventoCambio::getIdEstudiante).toList());
+            assertEquals(3, publicador.obtenerUltimaSecuencia());
+        }
+    }
+}
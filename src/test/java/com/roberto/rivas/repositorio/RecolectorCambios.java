@@ -0,0 +1,77 @@
+package com.roberto.rivas.repositorio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Suscriptor de prueba que acumula los eventos de cambio recibidos
+ * Pide por adelantado la demanda indicada (0 para no consumir nada)
+ *
+ * @author Roberto Rivas Lopez
+ */
+class RecolectorCambios implements Flow.Subscriber<EventoCambio> {
+
+    private final ConcurrentLinkedQueue<EventoCambio> eventos = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger recibidos = new AtomicInteger();
+    private final CountDownLatch suscrito = new CountDownLatch(1);
+    private final long demanda;
+
+    RecolectorCambios() {
+        this(Long.MAX_VALUE);
+    }
+
+    RecolectorCambios(long demanda) {
+        this.demanda = demanda;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription suscripcion) {
+        if (demanda > 0) {
+            suscripcion.request(demanda);
+        }
+        suscrito.countDown();
+    }
+
+    @Override
+    public void onNext(EventoCambio evento) {
+        eventos.add(evento);
+        recibidos.incrementAndGet();
+    }
+
+    @Override
+    public void onError(Throwable error) {
+    }
+
+    @Override
+    public void onComplete() {
+    }
+
+    /**
+     * Espera a que la suscripción quede activa (SubmissionPublisher la completa de forma asíncrona)
+     */
+    RecolectorCambios esperarSuscripcion() throws InterruptedException {
+        if (!suscrito.await(5, TimeUnit.SECONDS)) {
+            throw new AssertionError("La suscripción no se completó a tiempo");
+        }
+        return this;
+    }
+
+    /**
+     * Espera hasta recibir la cantidad indicada de eventos y los devuelve
+     */
+    List<EventoCambio> esperar(int cantidad) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (recibidos.get() < cantidad) {
+            if (System.nanoTime() > limite) {
+                throw new AssertionError("Se esperaban " + cantidad + " eventos y llegaron " + recibidos.get());
+            }
+            Thread.sleep(5);
+        }
+        return new ArrayList<>(eventos);
+    }
+}
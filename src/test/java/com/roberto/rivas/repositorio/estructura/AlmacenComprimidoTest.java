@@ -0,0 +1,108 @@
+package com.roberto.rivas.repositorio.estructura;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias del almacén de registros comprimidos por bloques
+ * 
+ * @author Roberto Rivas Lopez
+ */
+@DisplayName("Pruebas de AlmacenComprimido")
+class AlmacenComprimidoTest {
+
+    private AlmacenComprimido almacen;
+
+    @BeforeEach
+    void configurar() {
+        almacen = new AlmacenComprimido(8);
+    }
+
+    private static byte[] registro(long clave) {
+        return ("estudiante-" + clave + "@universidad.edu;Ingeniería DevOps;inactivo").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Debe recuperar registros del bloque abierto y de bloques sellados")
+    void debeRecuperarRegistros() {
+        // Act
+        for (long clave = 1; clave <= 20; clave++) {
+            almacen.agregar(clave, registro(clave));
+        }
+
+        // Assert
+        assertEquals(20, almacen.cantidad());
+        for (long clave = 1; clave <= 20; clave++) {
+            assertArrayEquals(registro(clave), almacen.obtener(clave));
+        }
+        assertNull(almacen.obtener(21L));
+        assertThrows(IllegalStateException.class, () -> almacen.agregar(5L, registro(5L)));
+    }
+
+    @Test
+    @DisplayName("Debe ocupar menos bytes que los registros sin comprimir")
+    void debeComprimir() {
+        // Arrange
+        long original = 0;
+
+        // Act
+        for (long clave = 1; clave <= 800; clave++) {
+            byte[] datos = registro(clave);
+            original += datos.length;
+            almacen.agregar(clave, datos);
+        }
+
+        // Assert
+        assertTrue(almacen.obtenerBytesOcupados() * 2 < original,
+                   "Ocupados: " + almacen.obtenerBytesOcupados() + " de " + original);
+    }
+
+    @Test
+    @DisplayName("Debe extraer registros y liberar los bloques vacíos")
+    void debeExtraerYLiberarBloques() {
+        // Arrange
+        for (long clave = 1; clave <= 16; clave++) {
+            almacen.agregar(clave, registro(clave));
+        }
+        long ocupadosAntes = almacen.obtenerBytesOcupados();
+
+        // Act
+        for (long clave = 1; clave <= 8; clave++) {
+            assertArrayEquals(registro(clave), almacen.extraer(clave));
+        }
+
+        // Assert
+        assertNull(almacen.extraer(1L));
+        assertFalse(almacen.contiene(1L));
+        assertEquals(8, almacen.cantidad());
+        assertTrue(almacen.obtenerBytesOcupados() < ocupadosAntes);
+        assertArrayEquals(registro(12L), almacen.obtener(12L));
+    }
+
+    @Test
+    @DisplayName("Debe recorrer todos los registros vivos")
+    void debeRecorrerRegistrosVivos() {
+        // Arrange
+        for (long clave = 1; clave <= 12; clave++) {
+            almacen.agregar(clave, registro(clave));
+        }
+        almacen.extraer(3L);
+        almacen.extraer(10L);
+        Set<String> recorridos = new HashSet<>();
+
+        // Act
+        almacen.recorrer(datos -> recorridos.add(new String(datos, StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(10, recorridos.size());
+        assertFalse(recorridos.contains(new String(registro(3L), StandardCharsets.UTF_8)));
+        assertTrue(recorridos.contains(new String(registro(12L), StandardCharsets.UTF_8)));
+    }
+}
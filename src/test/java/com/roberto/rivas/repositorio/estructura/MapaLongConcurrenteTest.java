@@ -0,0 +1,210 @@
+package com.roberto.rivas.repositorio.estructura;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias del mapa concurrente con claves long primitivas
+ * 
+ * @author Roberto Rivas Lopez
+ */
+@DisplayName("Pruebas de MapaLongConcurrente")
+class MapaLongConcurrenteTest {
+
+    private MapaLongConcurrente<String> mapa;
+
+    @BeforeEach
+    void configurar() {
+        mapa = new MapaLongConcurrente<>(4, 2);
+    }
+
+    @Nested
+    @DisplayName("Operaciones Básicas")
+    class OperacionesBasicas {
+
+        @Test
+        @DisplayName("Debe insertar, leer y reemplazar valores")
+        void debeInsertarLeerYReemplazar() {
+            // Act
+            assertNull(mapa.put(1L, "uno"));
+            assertEquals("uno", mapa.put(1L, "UNO"));
+            assertEquals("UNO", mapa.putIfAbsent(1L, "otro"));
+            assertNull(mapa.replace(2L, "dos"));
+
+            // Assert
+            assertEquals("UNO", mapa.get(1L));
+            assertFalse(mapa.containsKey(2L));
+            assertEquals(1, mapa.size());
+        }
+
+        @Test
+        @DisplayName("Debe admitir claves negativas y cero")
+        void debeAdmitirClavesNegativasYCero() {
+            // Act
+            mapa.put(0L, "cero");
+            mapa.put(-1L, "menos uno");
+            mapa.put(Long.MIN_VALUE, "mínimo");
+
+            // Assert
+            assertEquals("cero", mapa.get(0L));
+            assertEquals("menos uno", mapa.get(-1L));
+            assertEquals("mínimo", mapa.get(Long.MIN_VALUE));
+        }
+
+        @Test
+        @DisplayName("Debe rechazar valores nulos")
+        void debeRechazarValoresNulos() {
+            assertThrows(NullPointerException.class, () -> mapa.put(1L, null));
+        }
+
+        @Test
+        @DisplayName("Debe actualizar o eliminar con computeIfPresent")
+        void debeActualizarConComputeIfPresent() {
+            // Arrange
+            mapa.put(7L, "siete");
+
+            // Act
+            String actualizado = mapa.computeIfPresent(7L, (clave, actual) -> actual + clave);
+            String ausente = mapa.computeIfPresent(8L, (clave, actual) -> "nunca");
+            mapa.computeIfPresent(7L, (clave, actual) -> null);
+
+            // Assert
+            assertEquals("siete7", actualizado);
+            assertNull(ausente);
+            assertFalse(mapa.containsKey(7L));
+            assertTrue(mapa.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Debe crear solo si falta con computeIfAbsent")
+        void debeCrearSoloSiFaltaConComputeIfAbsent() {
+            // Arrange
+            mapa.put(7L, "siete");
+
+            // Act
+            String existente = mapa.computeIfAbsent(7L, clave -> "nunca");
+            String creado = mapa.computeIfAbsent(8L, clave -> "ocho" + clave);
+            String omitido = mapa.computeIfAbsent(9L, clave -> null);
+
+            // Assert
+            assertEquals("siete", existente);
+            assertEquals("ocho8", creado);
+            assertEquals("ocho8", mapa.get(8L));
+            assertNull(omitido);
+            assertFalse(mapa.containsKey(9L));
+            assertEquals(2, mapa.size());
+        }
+
+        @Test
+        @DisplayName("Debe vaciar el mapa y permitir reutilizarlo")
+        void debeVaciarYReutilizar() {
+            // Arrange
+            for (long i = 0; i < 100; i++) {
+                mapa.put(i, "v" + i);
+            }
+
+            // Act
+            mapa.clear();
+            mapa.put(5L, "cinco");
+
+            // Assert
+            assertEquals(1, mapa.size());
+            assertNull(mapa.get(50L));
+            assertEquals("cinco", mapa.get(5L));
+        }
+    }
+
+    @Nested
+    @DisplayName("Crecimiento y Borrado")
+    class CrecimientoYBorrado {
+
+        @Test
+        @DisplayName("Debe coincidir con HashMap en una secuencia aleatoria de operaciones")
+        void debeCoincidirConHashMap() {
+            // Arrange
+            Map<Long, String> referencia = new HashMap<>();
+            Random aleatorio = new Random(42);
+
+            // Act
+            for (int i = 0; i < 50_000; i++) {
+                long clave = aleatorio.nextInt(2_000);
+                switch (aleatorio.nextInt(3)) {
+                    case 0 -> assertEquals(referencia.put(clave, "v" + i), mapa.put(clave, "v" + i));
+                    case 1 -> assertEquals(referencia.remove(clave), mapa.remove(clave));
+                    default -> assertEquals(referencia.get(clave), mapa.get(clave));
+                }
+            }
+
+            // Assert
+            assertEquals(referencia.size(), mapa.size());
+            referencia.forEach((clave, valor) -> assertEquals(valor, mapa.get(clave)));
+            Map<Long, String> recorrido = new HashMap<>();
+            mapa.forEach(recorrido::put);
+            assertEquals(referencia, recorrido);
+        }
+
+        @Test
+        @DisplayName("Debe crecer conservando todas las entradas")
+        void debeCrecerConservandoEntradas() {
+            // Act
+            for (long i = 1; i <= 10_000; i++) {
+                mapa.put(i, "v" + i);
+            }
+
+            // Assert
+            assertEquals(10_000, mapa.size());
+            assertTrue(mapa.capacidad() >= 10_000);
+            for (long i = 1; i <= 10_000; i++) {
+                assertEquals("v" + i, mapa.get(i));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Concurrencia")
+    class Concurrencia {
+
+        @Test
+        @DisplayName("Debe soportar escrituras y lecturas concurrentes")
+        void debeSoportarEscriturasYLecturasConcurrentes() throws Exception {
+            // Arrange
+            int hilos = 8;
+            int porHilo = 5_000;
+            MapaLongConcurrente<Long> concurrente = new MapaLongConcurrente<>();
+            ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+            CountDownLatch fin = new CountDownLatch(hilos);
+
+            // Act
+            for (int h = 0; h < hilos; h++) {
+                final long base = (long) h * porHilo;
+                ejecutor.execute(() -> {
+                    for (long i = 0; i < porHilo; i++) {
+                        concurrente.put(base + i, base + i);
+                        assertEquals(base + i, concurrente.get(base + i));
+                    }
+                    fin.countDown();
+                });
+            }
+            assertTrue(fin.await(30, TimeUnit.SECONDS));
+            ejecutor.shutdown();
+
+            // Assert
+            assertEquals(hilos * porHilo, concurrente.size());
+            for (long i = 0; i < (long) hilos * porHilo; i++) {
+                assertEquals(i, concurrente.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.roberto.rivas.repositorio.estructura;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias del mapa persistente (HAMT)
+ *
+ * @author Roberto Rivas Lopez
+ */
+@DisplayName("Pruebas de MapaPersistente")
+class MapaPersistenteTest {
+
+    // Claves distintas con el mismo hashCode para forzar nodos de colisión
+    private record ClaveColisionante(int valor) {
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+
+    @Nested
+    @DisplayName("Operaciones Básicas")
+    class OperacionesBasicas {
+
+        @Test
+        @DisplayName("Debe agregar, reemplazar y quitar claves")
+        void debeAgregarReemplazarYQuitar() {
+            // Act
+            MapaPersistente<Long, String> mapa = MapaPersistente.<Long, String>vacio()
+                .con(1L, "uno").con(2L, "dos").con(1L, "UNO").sin(2L).sin(3L);
+
+            // Assert
+            assertEquals("UNO", mapa.obtener(1L));
+            assertNull(mapa.obtener(2L));
+            assertEquals(1, mapa.tamano());
+            assertTrue(mapa.sin(1L).estaVacio());
+        }
+
+        @Test
+        @DisplayName("Debe conservar intactas las versiones anteriores")
+        void debeConservarVersionesAnteriores() {
+            // Arrange
+            MapaPersistente<Long, String> original = MapaPersistente.<Long, String>vacio().con(1L, "uno");
+
+            // Act
+            MapaPersistente<Long, String> modificado = original.con(1L, "otro").con(2L, "dos");
+            MapaPersistente<Long, String> sinUno = modificado.sin(1L);
+
+            // Assert
+            assertEquals("uno", original.obtener(1L));
+            assertEquals(1, original.tamano());
+            assertEquals("otro", modificado.obtener(1L));
+            assertEquals(2, modificado.tamano());
+            assertNull(sinUno.obtener(1L));
+            assertEquals("dos", sinUno.obtener(2L));
+        }
+
+        @Test
+        @DisplayName("Debe devolver el mismo mapa si no hay cambios")
+        void debeDevolverMismoMapaSinCambios() {
+            // Arrange
+            String valor = "uno";
+            MapaPersistente<Long, String> mapa = MapaPersistente.<Long, String>vacio().con(1L, valor);
+
+            // Act & Assert
+            assertSame(mapa, mapa.con(1L, valor));
+            assertSame(mapa, mapa.sin(99L));
+            assertThrows(NullPointerException.class, () -> mapa.con(2L, null));
+        }
+
+        @Test
+        @DisplayName("Debe distinguir claves con el mismo hash")
+        void debeDistinguirClavesConMismoHash() {
+            // Act
+            MapaPersistente<ClaveColisionante, Integer> mapa = MapaPersistente.vacio();
+            for (int i = 0; i < 5; i++) {
+                mapa = mapa.con(new ClaveColisionante(i), i);
+            }
+            MapaPersistente<ClaveColisionante, Integer> sinDos = mapa.sin(new ClaveColisionante(2));
+
+            // Assert
+            assertEquals(5, mapa.tamano());
+            assertEquals(3, mapa.obtener(new ClaveColisionante(3)));
+            assertEquals(4, sinDos.tamano());
+            assertNull(sinDos.obtener(new ClaveColisionante(2)));
+            assertEquals(4, sinDos.obtener(new ClaveColisionante(4)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Secuencias Aleatorias")
+    class SecuenciasAleatorias {
+
+        @Test
+        @DisplayName("Debe coincidir con HashMap en una secuencia aleatoria de operaciones")
+        void debeCoincidirConHashMap() {
+            // Arrange
+            Map<Long, String> referencia = new HashMap<>();
+            MapaPersistente<Long, String> mapa = MapaPersistente.vacio();
+            Random aleatorio = new Random(42);
+
+            // Act
+            for (int i = 0; i < 50_000; i++) {
+                long clave = aleatorio.nextInt(5_000);
+                switch (aleatorio.nextInt(3)) {
+                    case 0 -> {
+                        referencia.put(clave, "v" + i);
+                        mapa = mapa.con(clave, "v" + i);
+                    }
+                    case 1 -> {
+                        referencia.remove(clave);
+                        mapa = mapa.sin(clave);
+                    }
+                    default -> assertEquals(referencia.get(clave), mapa.obtener(clave));
+                }
+            }
+
+            // Assert
+            assertEquals(referencia.size(), mapa.tamano());
+            Map<Long, String> recorrido = new HashMap<>();
+            mapa.recorrer(recorrido::put);
+            assertEquals(referencia, recorrido);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.roberto.rivas.repositorio.estructura;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias del registro de versiones fijadas por lectores
+ * 
+ * @author Roberto Rivas Lopez
+ */
+@DisplayName("Pruebas de VersionesFijadas")
+class VersionesFijadasTest {
+
+    @Test
+    @DisplayName("Debe informar la mínima fijada y liberar por conteo de lectores")
+    void debeInformarMinimaYLiberarPorConteo() {
+        // Arrange
+        VersionesFijadas versiones = new VersionesFijadas();
+        AtomicLong reloj = new AtomicLong(5);
+
+        // Act
+        long primera = versiones.fijar(reloj::get);
+        long segunda = versiones.fijar(reloj::get);
+        reloj.set(9);
+        long tercera = versiones.fijar(reloj::get);
+
+        // Assert
+        assertEquals(5, primera);
+        assertEquals(5, segunda);
+        assertEquals(9, tercera);
+        assertEquals(5, versiones.minima(Long.MAX_VALUE));
+        versiones.liberar(primera);
+        assertEquals(5, versiones.minima(Long.MAX_VALUE));
+        versiones.liberar(segunda);
+        assertEquals(9, versiones.minima(Long.MAX_VALUE));
+        versiones.liberar(tercera);
+        assertFalse(versiones.hayLectores());
+        assertEquals(-1, versiones.minima(-1));
+    }
+
+    @Test
+    @DisplayName("Debe reintentar si el reloj avanza mientras se fija")
+    void debeReintentarSiElRelojAvanza() {
+        // Arrange
+        VersionesFijadas versiones = new VersionesFijadas();
+        long[] lecturas = {0};
+
+        // Act: el reloj avanza entre la primera lectura y la verificación
+        long fijada = versiones.fijar(() -> ++lecturas[0] < 3 ? lecturas[0] : 3);
+
+        // Assert
+        assertEquals(3, fijada);
+        assertEquals(3, versiones.minima(Long.MAX_VALUE));
+        versiones.liberar(fijada);
+        assertFalse(versiones.hayLectores());
+    }
+}
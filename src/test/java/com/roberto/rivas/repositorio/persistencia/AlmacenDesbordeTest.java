@@ -0,0 +1,69 @@
+package com.roberto.rivas.repositorio.persistencia;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias del archivo de desborde
+ *
+ * @author Roberto Rivas Lopez
+ */
+@DisplayName("Pruebas del Archivo de Desborde")
+public class AlmacenDesbordeTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Debe leer cada registro en la ubicación devuelta al escribirlo")
+    void debeLeerCadaRegistroEnSuUbicacion() throws IOException {
+        // Arrange
+        try (AlmacenDesborde almacen = new AlmacenDesborde(directorio.resolve("datos/estudiantes.desborde"))) {
+            List<Long> ubicaciones = new ArrayList<>();
+
+            // Act
+            for (int i = 0; i < 100; i++) {
+                ubicaciones.add(almacen.escribir(("registro-" + i).getBytes(StandardCharsets.UTF_8)));
+            }
+
+            // Assert
+            for (int i = 99; i >= 0; i--) {
+                assertEquals("registro-" + i, new String(almacen.leer(ubicaciones.get(i)), StandardCharsets.UTF_8));
+            }
+            assertEquals(Files.size(almacen.obtenerArchivo()), almacen.obtenerTamano());
+            assertArrayEquals(new byte[0], almacen.leer(almacen.escribir(new byte[0])));
+        }
+    }
+
+    @Test
+    @DisplayName("Debe descartar el contenido al abrir y al limpiar")
+    void debeDescartarContenidoAlAbrirYLimpiar() throws IOException {
+        // Arrange
+        Path archivo = directorio.resolve("estudiantes.desborde");
+        try (AlmacenDesborde almacen = new AlmacenDesborde(archivo)) {
+            almacen.escribir(new byte[] {1, 2, 3});
+        }
+
+        // Act
+        try (AlmacenDesborde reabierto = new AlmacenDesborde(archivo)) {
+            long tamanoAlAbrir = reabierto.obtenerTamano();
+            long ubicacion = reabierto.escribir(new byte[] {4, 5});
+            reabierto.limpiar();
+
+            // Assert
+            assertEquals(0, tamanoAlAbrir);
+            assertEquals(0, reabierto.obtenerTamano());
+            assertThrows(IllegalArgumentException.class, () -> reabierto.leer(ubicacion));
+        }
+    }
+}
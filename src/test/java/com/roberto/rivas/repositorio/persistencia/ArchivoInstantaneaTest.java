@@ -0,0 +1,76 @@
+package com.roberto.rivas.repositorio.persistencia;
+
+import com.roberto.rivas.modelo.Estudiante;
+import com.roberto.rivas.modelo.EstudianteInmutable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias del archivo de instantánea
+ * 
+ * @author Roberto Rivas Lopez
+ */
+@DisplayName("Pruebas del Archivo de Instantánea")
+public class ArchivoInstantaneaTest {
+
+    @TempDir
+    Path directorio;
+
+    private List<EstudianteInmutable> estudiantes() {
+        List<EstudianteInmutable> lista = new ArrayList<>();
+        lista.add(EstudianteInmutable.conId(new Estudiante("Begoña", "Núñez", "begona@test.com", "Ingeniería DevOps"), 1L));
+        lista.add(EstudianteInmutable.conId(new Estudiante("Luis", "Soto", "luis@test.com", "Ciberseguridad"), 2L).conActivo(false));
+        return lista;
+    }
+
+    @Test
+    @DisplayName("Debe escribir y leer la instantánea con su cabecera")
+    void debeEscribirYLeerInstantanea() throws IOException {
+        // Arrange
+        Path archivo = directorio.resolve("estudiantes.snap");
+        List<EstudianteInmutable> originales = estudiantes();
+
+        // Act
+        ArchivoInstantanea.escribir(archivo, 42L, 3L, originales);
+        List<EstudianteInmutable> leidos = new ArrayList<>();
+        ArchivoInstantanea.Cabecera cabecera = ArchivoInstantanea.leer(archivo, leidos::add);
+
+        // Assert
+        assertEquals(42L, cabecera.getLsn());
+        assertEquals(3L, cabecera.getProximoId());
+        assertEquals(2L, cabecera.getCantidad());
+        assertEquals(originales, leidos);
+        assertEquals("Núñez", leidos.get(0).getApellido());
+        assertEquals(originales.get(0).getFechaIngreso(), leidos.get(0).getFechaIngreso());
+        assertFalse(leidos.get(1).isActivo());
+        assertFalse(Files.exists(directorio.resolve("estudiantes.snap.tmp")));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar una instantánea corrupta sin entregar registros")
+    void debeRechazarInstantaneaCorrupta() throws IOException {
+        // Arrange
+        Path archivo = directorio.resolve("corrupta.snap");
+        ArchivoInstantanea.escribir(archivo, 1L, 3L, estudiantes());
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[] {0x7F}), 50);
+        }
+        List<EstudianteInmutable> leidos = new ArrayList<>();
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> ArchivoInstantanea.leer(archivo, leidos::add));
+        assertTrue(leidos.isEmpty());
+    }
+}
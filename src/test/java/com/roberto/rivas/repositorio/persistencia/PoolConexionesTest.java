@@ -0,0 +1,514 @@
+package com.roberto.rivas.repositorio.persistencia;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del pool de conexiones contra una base H2 en memoria
+ *
+ * @author Roberto Rivas Lopez
+ */
+@DisplayName("Pruebas del Pool de Conexiones")
+public class PoolConexionesTest {
+
+    private String url;
+    private PoolConexiones pool;
+
+    @BeforeEach
+    void configurarPrueba() {
+        // Base distinta por prueba; DB_CLOSE_DELAY la conserva mientras haya conexiones cerradas
+        url = "jdbc:h2:mem:pool_" + UUID.randomUUID().toString().replace("-", "") + ";DB_CLOSE_DELAY=-1;MODE=MYSQL";
+    }
+
+    @AfterEach
+    void cerrarPool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    private PoolConexiones crearPool(ConfiguracionPoolConexiones configuracion) {
+        pool = new PoolConexiones(url, "sa", "", configuracion);
+        return pool;
+    }
+
+    @Nested
+    @DisplayName("Préstamo y Devolución")
+    class PrestamoYDevolucion {
+
+        @Test
+        @DisplayName("Debe reutilizar la misma conexión física en préstamos sucesivos")
+        void debeReutilizarConexionFisica() throws SQLException {
+            // Arrange
+            crearPool(ConfiguracionPoolConexiones.porDefecto());
+
+            // Act
+            for (int i = 0; i < 100; i++) {
+                try (Connection conexion = pool.obtenerConexion();
+                     Statement stmt = conexion.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT 1")) {
+                    assertTrue(rs.next());
+                }
+            }
+
+            // Assert
+            EstadisticasPoolConexiones estadisticas = pool.obtenerEstadisticas();
+            assertEquals(1, estadisticas.getConexionesCreadas());
+            assertEquals(100, estadisticas.getAdquisiciones());
+            assertEquals(0, estadisticas.getConexionesPrestadas());
+            assertEquals(1, estadisticas.getConexionesInactivas());
+        }
+
+        @Test
+        @DisplayName("Debe deshacer la transacción abierta y restaurar autocommit al devolver")
+        void debeReiniciarConexionAlDevolver() throws SQLException {
+            // Arrange
+            crearPool(ConfiguracionPoolConexiones.porDefecto());
+            try (Connection conexion = pool.obtenerConexion(); Statement stmt = conexion.createStatement()) {
+                stmt.execute("CREATE TABLE datos (id INT)");
+            }
+
+            // Act
+            try (Connection conexion = pool.obtenerConexion(); Statement stmt = conexion.createStatement()) {
+                conexion.setAutoCommit(false);
+                stmt.executeUpdate("INSERT INTO datos VALUES (1)");
+            }
+
+            // Assert
+            try (Connection conexion = pool.obtenerConexion();
+                 Statement stmt = conexion.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM datos")) {
+                assertTrue(conexion.getAutoCommit());
+                assertTrue(rs.next());
+                assertEquals(0, rs.getInt(1));
+            }
+        }
+
+        @Test
+        @DisplayName("Debe rechazar el uso de una conexión ya devuelta")
+        void debeRechazarUsoTrasDevolver() throws SQLException {
+            // Arrange
+            crearPool(ConfiguracionPoolConexiones.porDefecto());
+            Connection conexion = pool.obtenerConexion();
+
+            // Act
+            conexion.close();
+            conexion.close(); // Devolver dos veces no debe liberar dos permisos
+
+            // Assert
+            assertTrue(conexion.isClosed());
+            assertThrows(SQLException.class, conexion::createStatement);
+            assertEquals(0, pool.obtenerEstadisticas().getConexionesPrestadas());
+            assertEquals(1, pool.obtenerEstadisticas().getConexionesInactivas());
+        }
+
+        @Test
+        @DisplayName("Debe cerrar las conexiones que superan el máximo de inactivas")
+        void debeCerrarExcedenteDeInactivas() throws SQLException {
+            // Arrange
+            crearPool(ConfiguracionPoolConexiones.porDefecto().conTamanoMaximo(4).conInactivas(0, 1));
+            List<Connection> prestadas = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                prestadas.add(pool.obtenerConexion());
+            }
+
+            // Act
+            for (Connection conexion : prestadas) {
+                conexion.close();
+            }
+
+            // Assert
+            EstadisticasPoolConexiones estadisticas = pool.obtenerEstadisticas();
+            assertEquals(3, estadisticas.getConexionesCreadas());
+            assertEquals(2, estadisticas.getConexionesCerradas());
+            assertEquals(1, estadisticas.getConexionesInactivas());
+        }
+
+        @Test
+        @DisplayName("Debe abrir las conexiones iniciales al precalentar")
+        void debeAbrirConexionesInicialesAlPrecalentar() throws SQLException {
+            // Arrange
+            crearPool(ConfiguracionPoolConexiones.porDefecto().conTamanoInicial(3));
+
+            // Act
+            pool.precalentar();
+            pool.obtenerConexion().close();
+
+            // Assert
+            assertEquals(3, pool.obtenerEstadisticas().getConexionesCreadas());
+            assertEquals(3, pool.obtenerEstadisticas().getConexionesInactivas());
+        }
+    }
+
+    @Nested
+    @DisplayName("Límites y Validación")
+    class LimitesYValidacion {
+
+        @Test
+        @DisplayName("Debe agotar la espera cuando todas las conexiones están prestadas")
+        void debeAgotarEsperaSinConexionesLibres() throws SQLException {
+            // Arrange
+            crearPool(ConfiguracionPoolConexiones.porDefecto().conTamanoMaximo(1).conTimeoutAdquisicionMs(100));
+
+            Connection ocupada = pool.obtenerConexion();
+            try {
+                // Act & Assert
+                assertThrows(SQLTransientConnectionException.class, pool::obtenerConexion);
+            } finally {
+                ocupada.close();
+            }
+            assertEquals(1, pool.obtenerEstadisticas().getEsperasAgotadas());
+            pool.obtenerConexion().close();
+        }
+
+        @Test
+        @DisplayName("Debe nunca superar el tamaño máximo con préstamos concurrentes")
+        void debeRespetarTamanoMaximoConcurrente() throws Exception {
+            // Arrange
+            crearPool(ConfiguracionPoolConexiones.porDefecto().conTamanoMaximo(3));
+            int hilos = 8;
+            ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+
+            // Act
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                tareas.add(ejecutor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        try (Connection conexion = pool.obtenerConexion();
+                             Statement stmt = conexion.createStatement()) {
+                            stmt.executeQuery("SELECT 1").close();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get(30, TimeUnit.SECONDS);
+            }
+            ejecutor.shutdown();
+
+            // Assert
+            EstadisticasPoolConexiones estadisticas = pool.obtenerEstadisticas();
+            assertTrue(estadisticas.getConexionesCreadas() <= 3, estadisticas.toString());
+            assertEquals(hilos * 200, estadisticas.getAdquisiciones());
+            assertEquals(0, estadisticas.getConexionesPrestadas());
+        }
+
+        @Test
+        @DisplayName("Debe descartar una conexión inactiva inválida y abrir otra")
+        void debeDescartarConexionInvalida() throws SQLException {
+            // Arrange: validar siempre antes de prestar
+            crearPool(ConfiguracionPoolConexiones.porDefecto().conIntervaloValidacionMs(0));
+            Connection conexion = pool.obtenerConexion();
+            Connection fisica = conexion.unwrap(Connection.class);
+            conexion.close();
+            fisica.close(); // Simula una conexión cortada por el servidor mientras estaba inactiva
+
+            // Act
+            try (Connection nueva = pool.obtenerConexion();
+                 Statement stmt = nueva.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT 1")) {
+                assertTrue(rs.next());
+            }
+
+            // Assert
+            EstadisticasPoolConexiones estadisticas = pool.obtenerEstadisticas();
+            assertEquals(1, estadisticas.getValidacionesFallidas());
+            assertEquals(2, estadisticas.getConexionesCreadas());
+        }
+
+        @Test
+        @DisplayName("Debe informar una conexión prestada más tiempo que el umbral de fuga")
+        void debeDetectarFugas() throws Exception {
+            // Arrange
+            crearPool(ConfiguracionPoolConexiones.porDefecto().conUmbralFugaMs(50));
+
+            // Act
+            Connection olvidada = pool.obtenerConexion();
+            try {
+                long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (pool.obtenerEstadisticas().getFugasDetectadas() == 0 && System.nanoTime() < limite) {
+                    Thread.sleep(20);
+                }
+            } finally {
+                olvidada.close();
+            }
+
+            // Assert: se informa una sola vez por préstamo, con la traza de quien la pidió
+            Thread.sleep(1_200);
+            EstadisticasPoolConexiones estadisticas = pool.obtenerEstadisticas();
+            assertEquals(1, estadisticas.getFugasDetectadas());
+            assertNotNull(estadisticas.getOrigenUltimaFuga());
+            assertTrue(Arrays.stream(estadisticas.getOrigenUltimaFuga().getStackTrace())
+                .anyMatch(marco -> marco.getMethodName().equals("debeDetectarFugas")));
+        }
+
+        @Test
+        @DisplayName("Debe rechazar préstamos después de cerrar el pool")
+        void debeRechazarPrestamosTrasCerrar() throws SQLException {
+            // Arrange
+            crearPool(ConfiguracionPoolConexiones.porDefecto());
+            Connection prestada = pool.obtenerConexion();
+            pool.obtenerConexion().close();
+
+            // Act
+            pool.close();
+            prestada.close();
+
+            // Assert
+            assertTrue(pool.estaCerrado());
+            assertThrows(SQLException.class, pool::obtenerConexion);
+            EstadisticasPoolConexiones estadisticas = pool.obtenerEstadisticas();
+            assertEquals(0, estadisticas.getConexionesInactivas());
+            assertEquals(estadisticas.getConexionesCreadas(), estadisticas.getConexionesCerradas());
+        }
+    }
+
+    @Nested
+    @DisplayName("Caché de Sentencias")
+    class CacheDeSentencias {
+
+        private void crearTabla() throws SQLException {
+            try (Connection conexion = pool.obtenerConexion(); Statement stmt = conexion.createStatement()) {
+                stmt.execute("CREATE TABLE datos (id INT PRIMARY KEY, valor VARCHAR(20))");
+                stmt.execute("INSERT INTO datos VALUES (1, 'uno'), (2, 'dos'), (3, 'tres')");
+            }
+        }
+
+        private String consultar(String sql, int id) throws SQLException {
+            try (Connection conexion = pool.obtenerConexion();
+                 PreparedStatement stmt = conexion.prepareStatement(sql)) {
+                stmt.setInt(1, id);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? rs.getString(1) : null;
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Debe reutilizar la sentencia preparada entre préstamos de la misma conexión")
+        void debeReutilizarSentenciaEntrePrestamos() throws SQLException {
+            // Arrange
+            crearPool(ConfiguracionPoolConexiones.porDefecto().conTamanoMaximo(1));
+            crearTabla();
+
+            // Act
+            List<String> valores = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                valores.add(consultar("SELECT valor FROM datos WHERE id = ?", i % 3 + 1));
+            }
+
+            // Assert
+            assertEquals(List.of("uno", "dos", "tres"), valores.subList(0, 3));
+            assertEquals("tres", valores.get(29));
+            EstadisticasPoolConexiones estadisticas = pool.obtenerEstadisticas();
+            assertEquals(1, estadisticas.getFallosCacheSentencias());
+            assertEquals(29, estadisticas.getAciertosCacheSentencias());
+        }
+
+        @Test
+        @DisplayName("Debe desalojar la sentencia menos usada al superar la capacidad")
+        void debeDesalojarMenosUsada() throws SQLException {
+            // Arrange
+            crearPool(ConfiguracionPoolConexiones.porDefecto().conTamanoMaximo(1).conTamanoCacheSentencias(2));
+            crearTabla();
+            String a = "SELECT valor FROM datos WHERE id = ?";
+            String b = "SELECT id FROM datos WHERE id = ?";
+            String c = "SELECT COUNT(*) FROM datos WHERE id = ?";
+
+            // Act: a, b, a (a pasa a ser la más reciente), c desaloja b
+            consultar(a, 1);
+            consultar(b, 1);
+            consultar(a, 1);
+            consultar(c, 1);
+            consultar(a, 1);
+            consultar(b, 1);
+
+            // Assert
+            EstadisticasPoolConexiones estadisticas = pool.obtenerEstadisticas();
+            assertEquals(2, estadisticas.getAciertosCacheSentencias());
+            assertEquals(4, estadisticas.getFallosCacheSentencias());
+        }
+
+        @Test
+        @DisplayName("Debe entregar la sentencia reutilizada sin los parámetros anteriores")
+        void debeLimpiarParametrosAlReutilizar() throws SQLException {
+            // Arrange
+            crearPool(ConfiguracionPoolConexiones.porDefecto());
+            crearTabla();
+            String sql = "SELECT valor FROM datos WHERE id = ?";
+            consultar(sql, 1);
+
+            // Act & Assert
+            try (Connection conexion = pool.obtenerConexion();
+                 PreparedStatement stmt = conexion.prepareStatement(sql)) {
+                assertSame(conexion, stmt.getConnection());
+                assertThrows(SQLException.class, stmt::executeQuery);
+            }
+            assertEquals(1, pool.obtenerEstadisticas().getAciertosCacheSentencias());
+        }
+
+        @Test
+        @DisplayName("Debe preparar otra sentencia si la misma ya está abierta en el préstamo")
+        void debePrepararOtraSiYaEstaAbierta() throws SQLException {
+            // Arrange
+            crearPool(ConfiguracionPoolConexiones.porDefecto());
+            crearTabla();
+            String sql = "SELECT valor FROM datos WHERE id = ?";
+
+            // Act
+            try (Connection conexion = pool.obtenerConexion();
+                 PreparedStatement primera = conexion.prepareStatement(sql);
+                 PreparedStatement segunda = conexion.prepareStatement(sql)) {
+                primera.setInt(1, 1);
+                segunda.setInt(1, 2);
+                try (ResultSet uno = primera.executeQuery(); ResultSet dos = segunda.executeQuery()) {
+                    // Assert
+                    assertNotSame(primera, segunda);
+                    assertSame(conexion, segunda.getConnection());
+                    assertTrue(uno.next() && dos.next());
+                    assertEquals("uno", uno.getString(1));
+                    assertEquals("dos", dos.getString(1));
+                }
+            }
+            assertEquals(2, pool.obtenerEstadisticas().getFallosCacheSentencias());
+        }
+
+        @Test
+        @DisplayName("Debe cerrar al devolver la conexión la sentencia repetida que no se cerró")
+        void debeCerrarSentenciaRepetidaAlDevolver() throws SQLException {
+            // Arrange
+            crearPool(ConfiguracionPoolConexiones.porDefecto().conTamanoMaximo(1));
+            crearTabla();
+            String sql = "SELECT valor FROM datos WHERE id = ?";
+            Connection conexion = pool.obtenerConexion();
+            PreparedStatement primera = conexion.prepareStatement(sql);
+            PreparedStatement olvidada = conexion.prepareStatement(sql);
+
+            // Act
+            primera.close();
+            conexion.close();
+
+            // Assert: la repetida se cerró y la cacheada sigue disponible
+            assertTrue(olvidada.isClosed());
+            assertThrows(SQLException.class, () -> olvidada.setInt(1, 1));
+            consultar(sql, 1);
+            assertEquals(1, pool.obtenerEstadisticas().getAciertosCacheSentencias());
+        }
+
+        @Test
+        @DisplayName("Debe descartar una sentencia cuya configuración cambió el llamador")
+        void debeDescartarSentenciaReconfigurada() throws SQLException {
+            // Arrange
+            crearPool(ConfiguracionPoolConexiones.porDefecto());
+            crearTabla();
+            String sql = "SELECT valor FROM datos WHERE id > ?";
+            try (Connection conexion = pool.obtenerConexion();
+                 PreparedStatement stmt = conexion.prepareStatement(sql)) {
+                stmt.setMaxRows(1);
+            }
+
+            // Act
+            try (Connection conexion = pool.obtenerConexion();
+                 PreparedStatement stmt = conexion.prepareStatement(sql)) {
+                stmt.setInt(1, 0);
+                int filas = 0;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        filas++;
+                    }
+                }
+
+                // Assert: la nueva no hereda el máximo de filas
+                assertEquals(3, filas);
+            }
+            assertEquals(0, pool.obtenerEstadisticas().getAciertosCacheSentencias());
+        }
+
+        @Test
+        @DisplayName("Debe rechazar el uso de una sentencia ya cerrada")
+        void debeRechazarSentenciaCerrada() throws SQLException {
+            // Arrange
+            crearPool(ConfiguracionPoolConexiones.porDefecto());
+            crearTabla();
+            try (Connection conexion = pool.obtenerConexion()) {
+                PreparedStatement stmt = conexion.prepareStatement("SELECT valor FROM datos WHERE id = ?");
+
+                // Act
+                stmt.close();
+
+                // Assert
+                assertTrue(stmt.isClosed());
+                assertThrows(SQLException.class, () -> stmt.setInt(1, 1));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Configuración")
+    class Configuracion {
+
+        @Test
+        @DisplayName("Debe leer tamaños y tiempos de las propiedades database.*")
+        void debeLeerPropiedades() {
+            // Arrange
+            Properties propiedades = new Properties();
+            propiedades.setProperty("database.pool.initial.size", "5");
+            propiedades.setProperty("database.pool.max.size", "20");
+            propiedades.setProperty("database.pool.min.idle", "2");
+            propiedades.setProperty("database.pool.max.idle", "10");
+            propiedades.setProperty("database.mysql.connection.timeout", "30000");
+            propiedades.setProperty("database.mysql.validation.timeout", "5000");
+            propiedades.setProperty("database.pool.leak.detection.ms", "60000");
+            propiedades.setProperty("database.query.fetch.size", "250");
+
+            // Act
+            ConfiguracionPoolConexiones configuracion = ConfiguracionPoolConexiones.desdePropiedades(propiedades);
+
+            // Assert
+            assertEquals(5, configuracion.getTamanoInicial());
+            assertEquals(20, configuracion.getTamanoMaximo());
+            assertEquals(2, configuracion.getMinimoInactivas());
+            assertEquals(10, configuracion.getMaximoInactivas());
+            assertEquals(30_000L, configuracion.getTimeoutAdquisicionMs());
+            assertEquals(5_000L, configuracion.getTimeoutValidacionMs());
+            assertEquals(250, configuracion.getTamanoBloqueLectura());
+            assertTrue(configuracion.isDeteccionFugas());
+        }
+
+        @Test
+        @DisplayName("Debe rechazar tamaños incoherentes")
+        void debeRechazarTamanosIncoherentes() {
+            // Arrange
+            Properties propiedades = new Properties();
+            propiedades.setProperty("database.pool.max.size", "2");
+            propiedades.setProperty("database.pool.max.idle", "5");
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> ConfiguracionPoolConexiones.desdePropiedades(propiedades));
+            assertThrows(IllegalArgumentException.class,
+                () -> ConfiguracionPoolConexiones.porDefecto().conInactivas(3, 1));
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.roberto.rivas.repositorio.persistencia;
+
+import com.roberto.rivas.modelo.Estudiante;
+import com.roberto.rivas.modelo.EstudianteInmutable;
+import com.roberto.rivas.repositorio.persistencia.RegistroEscrituraAnticipada.TipoOperacion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias del registro de escritura anticipada
+ * 
+ * @author Roberto Rivas Lopez
+ */
+@DisplayName("Pruebas del Registro de Escritura Anticipada")
+public class RegistroEscrituraAnticipadaTest {
+
+    @TempDir
+    Path directorio;
+
+    private EstudianteInmutable estudiante(long id, String email) {
+        return EstudianteInmutable.conId(new Estudiante("Ana", "Rivas", email, "Ingeniería DevOps"), id);
+    }
+
+    private List<TipoOperacion> reproducirTipos(RegistroEscrituraAnticipada registro) throws IOException {
+        List<TipoOperacion> tipos = new ArrayList<>();
+        registro.reproducir((tipo, estudiante) -> tipos.add(tipo));
+        return tipos;
+    }
+
+    @Nested
+    @DisplayName("Reproducción")
+    class Reproduccion {
+
+        @Test
+        @DisplayName("Debe reproducir las operaciones en orden tras reabrir")
+        void debeReproducirOperacionesEnOrden() throws IOException {
+            // Arrange
+            Path archivo = directorio.resolve("estudiantes.wal");
+            try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo, PoliticaSincronizacion.SIEMPRE)) {
+                registro.esperarDurabilidad(registro.registrar(TipoOperacion.CREAR, estudiante(1, "ana@test.com")));
+                registro.esperarDurabilidad(registro.registrar(TipoOperacion.ELIMINAR, estudiante(1, "ana@test.com").conActivo(false)));
+                registro.esperarDurabilidad(registro.registrar(TipoOperacion.VACIAR, null));
+            }
+
+            // Act
+            List<EstudianteInmutable> imagenes = new ArrayList<>();
+            List<TipoOperacion> tipos = new ArrayList<>();
+            try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo, PoliticaSincronizacion.SIEMPRE)) {
+                registro.reproducir((tipo, imagen) -> {
+                    tipos.add(tipo);
+                    imagenes.add(imagen);
+                });
+
+                // Assert
+                assertEquals(3, registro.obtenerUltimoLsn());
+            }
+            assertEquals(List.of(TipoOperacion.CREAR, TipoOperacion.ELIMINAR, TipoOperacion.VACIAR), tipos);
+            assertEquals("ana@test.com", imagenes.get(0).getEmail());
+            assertEquals("Ingeniería DevOps", imagenes.get(0).getCarrera());
+            assertFalse(imagenes.get(1).isActivo());
+            assertNull(imagenes.get(2));
+        }
+
+        @Test
+        @DisplayName("Debe descartar una cola incompleta y seguir agregando al final")
+        void debeDescartarColaIncompleta() throws IOException {
+            // Arrange
+            Path archivo = directorio.resolve("cola.wal");
+            try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo, PoliticaSincronizacion.SIEMPRE)) {
+                registro.esperarDurabilidad(registro.registrar(TipoOperacion.CREAR, estudiante(1, "ana@test.com")));
+                registro.esperarDurabilidad(registro.registrar(TipoOperacion.CREAR, estudiante(2, "luis@test.com")));
+            }
+            long tamanoCompleto = Files.size(archivo);
+            try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+                canal.truncate(tamanoCompleto - 5); // Simula una caída a mitad de escritura
+            }
+
+            // Act
+            try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo, PoliticaSincronizacion.SIEMPRE)) {
+                assertEquals(List.of(TipoOperacion.CREAR), reproducirTipos(registro));
+                registro.esperarDurabilidad(registro.registrar(TipoOperacion.CREAR, estudiante(2, "luis@test.com")));
+
+                // Assert
+                assertEquals(2, registro.obtenerUltimoLsn());
+            }
+            try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo, PoliticaSincronizacion.SIEMPRE)) {
+                assertEquals(2, reproducirTipos(registro).size());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Truncamiento tras instantánea")
+    class Truncamiento {
+
+        @Test
+        @DisplayName("Debe descartar el prefijo cubierto y conservar LSN monótono")
+        void debeDescartarPrefijoCubierto() throws IOException {
+            // Arrange
+            Path archivo = directorio.resolve("truncado.wal");
+            try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo, PoliticaSincronizacion.SIEMPRE)) {
+                for (long id = 1; id <= 5; id++) {
+                    registro.esperarDurabilidad(registro.registrar(TipoOperacion.CREAR, estudiante(id, "e" + id + "@test.com")));
+                }
+                long tamanoAntes = Files.size(archivo);
+
+                // Act
+                long descartados = registro.truncarHasta(3L);
+                registro.esperarDurabilidad(registro.registrar(TipoOperacion.CREAR, estudiante(6, "e6@test.com")));
+
+                // Assert
+                assertTrue(descartados > 0);
+                assertTrue(Files.size(archivo) < tamanoAntes);
+            }
+            try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo, PoliticaSincronizacion.SIEMPRE)) {
+                List<Long> ids = new ArrayList<>();
+                registro.reproducir(3L, (tipo, imagen) -> ids.add(imagen.getId()));
+                assertEquals(List.of(4L, 5L, 6L), ids);
+                assertEquals(6L, registro.obtenerUltimoLsn());
+            }
+        }
+
+        @Test
+        @DisplayName("Debe conservar el último registro aunque todo esté cubierto")
+        void debeConservarUltimoRegistroCubierto() throws IOException {
+            // Arrange
+            Path archivo = directorio.resolve("cubierto.wal");
+            try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo, PoliticaSincronizacion.SIEMPRE)) {
+                registro.esperarDurabilidad(registro.registrar(TipoOperacion.CREAR, estudiante(1, "e1@test.com")));
+                registro.esperarDurabilidad(registro.registrar(TipoOperacion.CREAR, estudiante(2, "e2@test.com")));
+
+                // Act
+                registro.truncarHasta(2L);
+            }
+
+            // Assert
+            try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo, PoliticaSincronizacion.SIEMPRE)) {
+                assertEquals(2L, registro.obtenerUltimoLsn());
+                assertEquals(1, reproducirTipos(registro).size());
+                assertEquals(0L, registro.reproducir(2L, (tipo, imagen) -> fail("No debe reproducir operaciones cubiertas")));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Políticas de sincronización")
+    class Politicas {
+
+        @Test
+        @DisplayName("Debe agrupar fsyncs de escritores concurrentes")
+        void debeAgruparSincronizacionesConcurrentes() throws Exception {
+            // Arrange
+            int hilos = 8;
+            int operacionesPorHilo = 25;
+            Path archivo = directorio.resolve("lotes.wal");
+            ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+            CountDownLatch inicio = new CountDownLatch(1);
+
+            try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(
+                    archivo, PoliticaSincronizacion.POR_LOTES, Duration.ofMillis(2))) {
+                // Act
+                List<Future<?>> tareas = new ArrayList<>();
+                for (int h = 0; h < hilos; h++) {
+                    int base = h * operacionesPorHilo;
+                    tareas.add(ejecutor.submit(() -> {
+                        inicio.await();
+                        for (int i = 0; i < operacionesPorHilo; i++) {
+                            long id = base + i + 1;
+                            long lsn = registro.registrar(TipoOperacion.CREAR, estudiante(id, "e" + id + "@test.com"));
+                            registro.esperarDurabilidad(lsn);
+                            assertTrue(registro.obtenerLsnDurable() >= lsn);
+                        }
+                        return null;
+                    }));
+                }
+                inicio.countDown();
+                for (Future<?> tarea : tareas) {
+                    tarea.get();
+                }
+
+                // Assert
+                int total = hilos * operacionesPorHilo;
+                assertEquals(total, registro.obtenerLsnDurable());
+                assertTrue(registro.obtenerSincronizaciones() < total,
+                           "fsyncs: " + registro.obtenerSincronizaciones());
+                assertEquals(total, reproducirTipos(registro).size());
+            } finally {
+                ejecutor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("Debe sincronizar en segundo plano con política por intervalo")
+        void debeSincronizarEnSegundoPlano() throws Exception {
+            // Arrange
+            Path archivo = directorio.resolve("intervalo.wal");
+            try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(
+                    archivo, PoliticaSincronizacion.INTERVALO, Duration.ofMillis(10))) {
+                // Act
+                long lsn = registro.registrar(TipoOperacion.CREAR, estudiante(1, "ana@test.com"));
+                registro.esperarDurabilidad(lsn);
+
+                // Assert
+                long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+                while (registro.obtenerLsnDurable() < lsn && System.nanoTime() < limite) {
+                    Thread.sleep(5);
+                }
+                assertEquals(lsn, registro.obtenerLsnDurable());
+            }
+        }
+
+        @Test
+        @DisplayName("Debe rechazar operaciones tras cerrar el registro")
+        void debeRechazarOperacionesTrasCerrar() throws IOException {
+            // Arrange
+            RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(
+                directorio.resolve("cerrado.wal"), PoliticaSincronizacion.SIEMPRE);
+            registro.close();
+
+            // Act & Assert
+            assertThrows(IllegalStateException.class,
+                () -> registro.registrar(TipoOperacion.CREAR, estudiante(1, "ana@test.com")));
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.roberto.rivas.servicio;
 
 import com.roberto.rivas.repositorio.EstudianteRepositorioMemoria;
+import com.roberto.rivas.repositorio.ResultadoLote;
 import com.roberto.rivas.servicio.dto.EstudianteDTO;
 import com.roberto.rivas.servicio.excepcion.ServicioException;
 import org.junit.jupiter.api.*;
@@ -179,6 +180,23 @@ class EstudianteServicioTestFinal {
         assertEquals(1, servicio.listarEstudiantesActivos().size());
     }
 
+    @Test
+    @DisplayName("Debe generar estadísticas desde contadores excluyendo eliminados")
+    void debeGenerarEstadisticasDesdeContadoresExcluyendoEliminados() throws Exception {
+        // Arrange
+        servicio.registrarEstudiante(new EstudianteDTO("Ana", "García", "ana@test.com", "Informática"));
+        EstudianteDTO luis = servicio.registrarEstudiante(
+            new EstudianteDTO("Luis", "Pérez", "luis@test.com", "Medicina"));
+        servicio.eliminarEstudiante(luis.getId());
+        
+        // Act
+        Map<String, Object> estadisticas = servicio.obtenerEstadisticas();
+        
+        // Assert
+        assertEquals(1L, estadisticas.get("totalEstudiantesActivos"));
+        assertEquals(Map.of("Informática", 1L), estadisticas.get("estudiantesPorCarrera"));
+    }
+
     @Test
     @DisplayName("Debe ejecutar flujo COMPLETO de generación de estadísticas")
     void debeEjecutarFlujoCompletoDeGeneracionEstadisticas() throws Exception {
@@ -274,6 +292,29 @@ class EstudianteServicioTestFinal {
         assertThrows(ServicioException.class, () -> servicio.registrarEstudiante(dtoInvalido));
     }
 
+    @Test
+    @DisplayName("Debe registrar un lote informando los errores por fila")
+    void debeRegistrarLoteConErroresPorFila() throws Exception {
+        // Arrange
+        servicio.registrarEstudiante(new EstudianteDTO("Existente", "Usuario", "existente@test.com", "Test"));
+        List<EstudianteDTO> lote = java.util.Arrays.asList(
+            new EstudianteDTO("Ana", "García", "ana@test.com", "Informática"),
+            null,
+            new EstudianteDTO("Otro", "Usuario", "existente@test.com", "Test"),
+            new EstudianteDTO("Luis", "Pérez", "luis@test.com", "Informática"));
+        
+        // Act
+        ResultadoLote<EstudianteDTO> resultado = servicio.registrarEstudiantes(lote);
+        
+        // Assert
+        assertEquals(2, resultado.getCantidadExitosas());
+        assertEquals("DATOS_INVALIDOS", resultado.getFila(1).getCodigoError());
+        assertEquals("EMAIL_DUPLICADO", resultado.getFila(2).getCodigoError());
+        assertEquals("luis@test.com", resultado.getFila(3).getValor().getEmail());
+        assertEquals(3, servicio.contarEstudiantesActivos());
+        assertThrows(ServicioException.class, () -> servicio.registrarEstudiantes(null));
+    }
+
     @Test
     @DisplayName("Debe manejar errores de negocio correctamente")
     void debeManejarErroresNegocioCorrectamente() throws Exception {